@@ -0,0 +1,68 @@
+package de.kp.works.aerospike.benchmark;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * [BenchmarkRunner] runs the benchmarks with the standard
+ * JMH command line; unless specified otherwise, the results
+ * are written as JSON to `jmh-result-<version>.json`, so that
+ * the results of different versions can be compared.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        if (cmdOptions.shouldHelp()) {
+            cmdOptions.showHelp();
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmdOptions);
+        if (!cmdOptions.getResultFormat().hasValue())
+            builder.resultFormat(ResultFormatType.JSON);
+
+        if (!cmdOptions.getResult().hasValue())
+            builder.result("jmh-result-" + getVersion() + ".json");
+
+        Runner runner = new Runner(builder.build());
+        if (cmdOptions.shouldList())
+            runner.list();
+
+        else
+            runner.run();
+
+    }
+
+    /**
+     * The version of the benchmarked graph is provided by
+     * the manifest of the benchmarks jar
+     */
+    private static String getVersion() {
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        return (version == null) ? "snapshot" : version;
+    }
+
+}
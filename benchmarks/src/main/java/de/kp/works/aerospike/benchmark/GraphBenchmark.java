@@ -0,0 +1,116 @@
+package de.kp.works.aerospike.benchmark;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import de.kp.works.aerospike.gremlin.AeroConfiguration;
+import de.kp.works.aerospike.gremlin.AeroGraph;
+import de.kp.works.aerospike.gremlin.StorageBackend;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [GraphBenchmark] is the base state of all benchmarks: it
+ * opens an [AeroGraph] on the in-memory storage backend and
+ * loads a synthetic graph of persons and software vertices,
+ * where each vertex has two outgoing `knows` edges.
+ *
+ * The in-memory backend excludes the network and the cluster
+ * from the measurements; the numbers reflect the client side
+ * cost of serialization, parsing, caching and traversals.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+public abstract class GraphBenchmark {
+
+    protected static final String PERSON = "person";
+    protected static final String SOFTWARE = "software";
+
+    protected static final String KNOWS = "knows";
+
+    @Param({"ENTRY", "PACKED"})
+    public String layout;
+
+    @Param({"10000"})
+    public int vertices;
+
+    protected AeroGraph graph;
+
+    @Setup(Level.Trial)
+    public void setupGraph() throws Exception {
+
+        AeroConfiguration config = new AeroConfiguration()
+                .set(AeroConfiguration.Keys.AEROSPIKE_BACKEND, StorageBackend.MEMORY.name())
+                .set(AeroConfiguration.Keys.AEROSPIKE_NAMESPACE, "benchmark")
+                .set(AeroConfiguration.Keys.AEROSPIKE_SET, "graph")
+                .set(AeroConfiguration.Keys.AEROSPIKE_LAYOUT, layout);
+
+        graph = new AeroGraph(configure(config));
+
+        loadGraph();
+        prepare();
+
+    }
+
+    @TearDown(Level.Trial)
+    public void closeGraph() throws Exception {
+        graph.close();
+    }
+
+    /**
+     * Benchmarks adjust the configuration of the graph,
+     * before it is opened
+     */
+    protected AeroConfiguration configure(AeroConfiguration config) {
+        return config;
+    }
+
+    /**
+     * Benchmarks prepare their state, after the graph
+     * is loaded
+     */
+    protected void prepare() throws Exception {
+    }
+
+    /**
+     * The vertices are identified by [Long] values from 0
+     * to `vertices - 1`; the `age` property has 100 distinct
+     * values.
+     */
+    private void loadGraph() {
+
+        Vertex[] loaded = new Vertex[vertices];
+        for (int i = 0; i < vertices; i++) {
+            String label = (i % 2 == 0) ? PERSON : SOFTWARE;
+            loaded[i] = graph.addVertex(T.id, (long) i, T.label, label,
+                    "name", "vertex-" + i, "age", i % 100);
+        }
+
+        for (int i = 0; i < vertices; i++) {
+            loaded[i].addEdge(KNOWS, loaded[(i * 7 + 1) % vertices], "weight", 0.5D);
+            loaded[i].addEdge(KNOWS, loaded[(i * 13 + 3) % vertices], "weight", 1.0D);
+        }
+
+    }
+
+}
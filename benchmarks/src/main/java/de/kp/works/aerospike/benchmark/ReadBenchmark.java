@@ -0,0 +1,100 @@
+package de.kp.works.aerospike.benchmark;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import de.kp.works.aerospike.AeroEdgeEntry;
+import de.kp.works.aerospike.AeroTable;
+import de.kp.works.aerospike.AeroTransform;
+import de.kp.works.aerospike.AeroVertexEntry;
+import de.kp.works.aerospike.gremlin.ValueUtils;
+import de.kp.works.aerospike.query.AeroResult;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the read paths below the traversals: parsing
+ * the records of a query into edge and vertex entries
+ * (`AeroQuery.parseEdges/parseVertices`), grouping edge
+ * entries into rows, serializing values, and resolving
+ * cached vertices by `AeroGraph.findVertex`.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReadBenchmark extends GraphBenchmark {
+
+    @Param({"100"})
+    public int resultSize;
+
+    private AeroTable edgeTable;
+    private AeroTable vertexTable;
+
+    private List<AeroEdgeEntry> edgeEntries;
+    private HashMap<String, Object> value;
+
+    private long lookups;
+
+    @Override
+    protected void prepare() {
+
+        edgeTable = graph.getEdgeModel().getTable();
+        vertexTable = graph.getVertexModel().getTable();
+
+        edgeEntries = edgeTable.getLimitQuery(resultSize).getEdgeEntries();
+
+        value = new HashMap<>();
+        value.put("name", "vertex-0");
+        value.put("age", 42);
+        value.put("weight", 0.5D);
+
+    }
+
+    @Benchmark
+    public List<AeroEdgeEntry> parseEdges() {
+        return edgeTable.getLimitQuery(resultSize).getEdgeEntries();
+    }
+
+    @Benchmark
+    public List<AeroVertexEntry> parseVertices() {
+        return vertexTable.getLimitQuery(resultSize).getVertexEntries();
+    }
+
+    @Benchmark
+    public List<AeroResult> transformEdgeEntries() {
+        return AeroTransform.transformEdgeEntries(edgeEntries);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return ValueUtils.serialize(value);
+    }
+
+    /**
+     * All vertices are cached when the graph is loaded;
+     * each lookup is a cache hit.
+     */
+    @Benchmark
+    public Vertex findVertexCached() {
+        return graph.findOrCreateVertex(lookups++ % vertices);
+    }
+
+}
@@ -0,0 +1,68 @@
+package de.kp.works.aerospike.benchmark;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import de.kp.works.aerospike.gremlin.AeroConfiguration;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures common Gremlin traversals end to end, with and
+ * without per-vertex adjacency records.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TraversalBenchmark extends GraphBenchmark {
+
+    @Param({"false", "true"})
+    public boolean adjacency;
+
+    private GraphTraversalSource g;
+    private long starts;
+
+    @Override
+    protected AeroConfiguration configure(AeroConfiguration config) {
+        return config.set(AeroConfiguration.Keys.AEROSPIKE_ADJACENCY, adjacency);
+    }
+
+    @Override
+    protected void prepare() {
+        g = graph.traversal();
+    }
+
+    @Benchmark
+    public List<Vertex> outOut() {
+        return g.V(starts++ % vertices).out().out().toList();
+    }
+
+    @Benchmark
+    public List<Vertex> hasLabelHas() {
+        return g.V().hasLabel(PERSON).has("age", 42).toList();
+    }
+
+    @Benchmark
+    public List<Vertex> limit() {
+        return g.V().limit(10).toList();
+    }
+
+}
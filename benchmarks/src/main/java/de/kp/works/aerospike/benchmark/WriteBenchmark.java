@@ -0,0 +1,75 @@
+package de.kp.works.aerospike.benchmark;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the write paths of vertices: a vertex that is
+ * added with all its core fields is written by
+ * `AeroBaseTable.createVertex`, a property that is set on
+ * an existing vertex by `AeroBaseTable.updateVertex`.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WriteBenchmark extends GraphBenchmark {
+    /*
+     * Created vertices reuse a window of identifiers, so
+     * that the store does not grow with the number of
+     * invocations
+     */
+    private static final int CREATE_WINDOW = 100000;
+
+    private long created;
+    private int updated;
+
+    private Vertex[] targets;
+
+    @Override
+    protected void prepare() {
+
+        targets = new Vertex[100];
+        for (int i = 0; i < targets.length; i++)
+            targets[i] = graph.vertex((long) i);
+
+    }
+
+    @Benchmark
+    public Vertex createVertex() {
+
+        long id = vertices + (created++ % CREATE_WINDOW);
+        return graph.addVertex(T.id, id, T.label, PERSON,
+                "name", "created-" + id, "age", (int) (id % 100));
+
+    }
+
+    @Benchmark
+    public VertexProperty<Integer> updateVertex() {
+
+        Vertex target = targets[updated % targets.length];
+        return target.property("age", updated++ % 100);
+
+    }
+
+}
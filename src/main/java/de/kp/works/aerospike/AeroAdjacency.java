@@ -0,0 +1,683 @@
+package de.kp.works.aerospike;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import de.kp.works.aerospike.gremlin.Constants;
+import de.kp.works.aerospike.gremlin.ValueCodec;
+import de.kp.works.aerospike.gremlin.ValueUtils;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * [AeroAdjacency] maintains a pair of adjacency records
+ * for each vertex that is referenced by an edge:
+ *
+ * out:<vertex> -> {edge: [label, in vertex]}
+ * in:<vertex>  -> {edge: [label, out vertex]}
+ *
+ * The edges of a vertex are organized as an Aerospike map
+ * bin; this enables the expansion of a vertex with a single
+ * key read, instead of a secondary index query on the edge
+ * set. Identifiers are stored with their native type.
+ *
+ * Vertices with a large degree (supernodes) exceed the size
+ * of a single record. Once the number of edges exceeds the
+ * configured chunk size, the adjacency record turns into a
+ * header record, and the edges are moved into chunks:
+ *
+ * header -> {labels: {label: [level, split, count]}, degree, chunks}
+ * chunk  -> {edge: [label, other vertex]}
+ *
+ * The chunks of a label are addressed by linear hashing of
+ * the edge identifier; a chunk is split whenever the average
+ * number of edges per chunk exceeds the chunk size. Writers
+ * therefore read the header and touch a single chunk (two,
+ * if a split is due), readers fetch the chunks one by one or
+ * with a single batch request.
+ */
+public class AeroAdjacency {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AeroAdjacency.class);
+
+    private static final String OUT_PREFIX = "out";
+    private static final String IN_PREFIX  = "in";
+
+    private static final String CHUNK_PREFIX = "chunk";
+
+    private final AeroConnect connect;
+    private final int chunkSize;
+
+    public AeroAdjacency(AeroConnect connect) {
+        this.connect = connect;
+        this.chunkSize = Math.max(1, connect.adjacencyChunkSize());
+    }
+
+    public boolean isEnabled() {
+        return connect.adjacency();
+    }
+
+    /**
+     * Registers the edge described by the provided entry
+     * with the adjacency records of its `from` (OUT) and
+     * `to` (IN) vertex.
+     */
+    public void addEdge(AeroEdgeEntry entry) {
+
+        Object edgeId = ValueUtils.parseId(entry.id, entry.idType);
+
+        Object fromId = ValueUtils.parseId(entry.fromId, entry.fromIdType);
+        Object toId   = ValueUtils.parseId(entry.toId, entry.toIdType);
+
+        addEdge(fromId, Direction.OUT, edgeId, entry.label, toId);
+        addEdge(toId, Direction.IN, edgeId, entry.label, fromId);
+
+    }
+
+    /**
+     * Removes the edge described by the provided entry
+     * from the adjacency records of its vertices
+     */
+    public void removeEdge(AeroEdgeEntry entry) {
+
+        Object edgeId = ValueUtils.parseId(entry.id, entry.idType);
+
+        Object fromId = ValueUtils.parseId(entry.fromId, entry.fromIdType);
+        Object toId   = ValueUtils.parseId(entry.toId, entry.toIdType);
+
+        removeEdge(fromId, Direction.OUT, edgeId, entry.label);
+        removeEdge(toId, Direction.IN, edgeId, entry.label);
+
+    }
+
+    /**
+     * Removes the adjacency records of the provided
+     * vertex, i.e. the header and all chunk records
+     */
+    public void removeVertex(Object vertexId) {
+
+        List<Key> keys = new ArrayList<>();
+        for (Direction direction : new Direction[] {Direction.OUT, Direction.IN}) {
+
+            Key headerKey = getKey(vertexId, direction);
+            keys.add(headerKey);
+
+            Record header = connect.get(headerKey);
+            if (header == null) continue;
+
+            for (Map.Entry<String, LabelState> state : getLabelStates(header).entrySet()) {
+                for (long bucket = 0; bucket < state.getValue().getBuckets(); bucket++)
+                    keys.add(getChunkKey(vertexId, direction, state.getKey(), bucket));
+            }
+
+        }
+
+        connect.removeAll(keys);
+
+    }
+
+    /**
+     * Retrieves the edges of the provided vertex that
+     * match direction and the provided labels; an empty
+     * list of labels matches all edges.
+     *
+     * The chunks of a supernode are retrieved with a single
+     * batch request.
+     */
+    public List<AeroAdjacencyEntry> getEdges(Object vertexId, Direction direction, String... labels) {
+
+        List<AeroAdjacencyEntry> entries = new ArrayList<>();
+        Set<String> labelSet = new HashSet<>(Arrays.asList(labels));
+
+        for (Direction dir : getDirections(direction)) {
+
+            Record header = connect.get(getKey(vertexId, dir));
+            if (header == null) continue;
+
+            readEdges(header, vertexId, dir, labelSet, entries);
+
+            List<Key> chunkKeys = getChunkKeys(header, vertexId, dir, labelSet);
+            for (Record chunk : connect.getAll(chunkKeys)) {
+                if (chunk != null) readEdges(chunk, vertexId, dir, labelSet, entries);
+            }
+
+        }
+
+        return entries;
+
+    }
+
+    /**
+     * Retrieves the edges of the provided vertex that
+     * match direction and the provided labels; other
+     * than [getEdges], the chunks of a supernode are
+     * fetched on demand, one chunk at a time.
+     */
+    public Iterator<AeroAdjacencyEntry> iterateEdges(Object vertexId, Direction direction, String... labels) {
+        return new ChunkIterator(vertexId, getDirections(direction), new HashSet<>(Arrays.asList(labels)));
+    }
+
+    /**
+     * Check whether a vertex is referenced by edges
+     * either as `from` or `to` vertex
+     */
+    public boolean hasEdges(Object vertexId) {
+
+        for (Direction direction : new Direction[] {Direction.OUT, Direction.IN}) {
+
+            Record record = connect.get(getKey(vertexId, direction));
+            if (record == null) continue;
+
+            if (record.getLong(Constants.ADJACENCY_DEGREE_COL_NAME) > 0) return true;
+
+            Map<?,?> edges = record.getMap(Constants.ADJACENCY_COL_NAME);
+            if (edges != null && !edges.isEmpty()) return true;
+
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Rebuilds all adjacency records from a scan of
+     * the edge set, e.g. after the adjacency support
+     * has been enabled for an existing graph.
+     */
+    public void rebuild() {
+        /*
+         * STEP #1: Remove all existing adjacency
+         * records, including the chunk records
+         */
+        List<Key> keys = new ArrayList<>();
+        connect.scan(connect.setname() + "_" + Constants.ADJACENCY)
+                .forEachRemaining(keyRecord -> keys.add(keyRecord.key()));
+
+        if (!keys.isEmpty()) connect.removeAll(keys);
+        /*
+         * STEP #2: Register each edge; note, the entry
+         * layout describes an edge by multiple records
+         * that share the common fields.
+         */
+        AeroDictionary dictionary = connect.dictionary();
+
+        Set<String> edgeIds = new HashSet<>();
+        connect.scan(connect.setname() + "_" + Constants.EDGES)
+                .forEachRemaining(keyRecord -> {
+
+                    Record record = keyRecord.record();
+                    String edgeId = record.getString(Constants.ID_COL_NAME);
+
+                    if (!edgeIds.add(edgeId)) return;
+
+                    addEdge(new AeroEdgeEntry(
+                            null,
+                            edgeId,
+                            dictionary.decodeType(record.getValue(Constants.ID_TYPE_COL_NAME)),
+                            dictionary.decode(record.getValue(Constants.LABEL_COL_NAME)),
+                            record.getString(Constants.TO_COL_NAME),
+                            dictionary.decodeType(record.getValue(Constants.TO_TYPE_COL_NAME)),
+                            record.getString(Constants.FROM_COL_NAME),
+                            dictionary.decodeType(record.getValue(Constants.FROM_TYPE_COL_NAME)),
+                            null,
+                            null,
+                            null,
+                            null,
+                            null));
+
+                });
+
+        LOGGER.info("Rebuilt adjacency records for {} edges.", edgeIds.size());
+
+    }
+
+    private void addEdge(Object vertexId, Direction direction, Object edgeId, String label, Object otherId) {
+
+        Key headerKey = getKey(vertexId, direction);
+        Record header = connect.get(headerKey);
+
+        Map<Object, Object> items = new HashMap<>();
+        items.put(edgeId, Arrays.asList(label, otherId));
+
+        if (!isChunked(header)) {
+            /*
+             * STEP #1: The edges are kept inline as long
+             * as the adjacency does not exceed the chunk
+             * size
+             */
+            int size = 0;
+            if (header != null) {
+                Map<?,?> edges = header.getMap(Constants.ADJACENCY_COL_NAME);
+                if (edges != null) size = edges.size();
+            }
+
+            int added = connect.putMapItems(headerKey, Constants.ADJACENCY_COL_NAME, items);
+            if (size + added > chunkSize) toChunks(vertexId, direction);
+
+            return;
+
+        }
+        /*
+         * STEP #2: Add the edge to the chunk that is
+         * addressed by label and edge hash; the header
+         * is updated if the edge is new
+         */
+        Map<String, LabelState> states = getLabelStates(header);
+        LabelState state = states.computeIfAbsent(label, k -> new LabelState(0, 0, 0));
+
+        long bucket = state.getBucket(hash(edgeId));
+        int added = connect.putMapItems(
+                getChunkKey(vertexId, direction, label, bucket), Constants.ADJACENCY_COL_NAME, items);
+
+        if (added == 0) return;
+        state.count += added;
+        /*
+         * STEP #3: Split the next chunk of the label,
+         * if the average chunk exceeds the chunk size
+         */
+        if (state.count > (long) chunkSize * state.getBuckets())
+            split(vertexId, direction, label, state);
+
+        writeHeader(headerKey, states);
+
+    }
+
+    private void removeEdge(Object vertexId, Direction direction, Object edgeId, String label) {
+
+        Key headerKey = getKey(vertexId, direction);
+        Record header = connect.get(headerKey);
+
+        if (header == null) return;
+        List<Object> edgeIds = Collections.singletonList(edgeId);
+
+        if (!isChunked(header)) {
+            connect.removeMapItems(headerKey, Constants.ADJACENCY_COL_NAME, edgeIds);
+            return;
+        }
+        /*
+         * Chunks are not merged when edges are removed;
+         * an empty chunk is still addressed by linear
+         * hashing.
+         */
+        Map<String, LabelState> states = getLabelStates(header);
+        LabelState state = states.get(label);
+
+        if (state == null) return;
+
+        long bucket = state.getBucket(hash(edgeId));
+        int removed = connect.removeMapItems(
+                getChunkKey(vertexId, direction, label, bucket), Constants.ADJACENCY_COL_NAME, edgeIds);
+
+        if (removed == 0) return;
+
+        state.count = Math.max(0, state.count - removed);
+        writeHeader(headerKey, states);
+
+    }
+
+    /**
+     * Moves the inline edges of an adjacency record into
+     * chunks, and turns the record into a header record
+     */
+    private void toChunks(Object vertexId, Direction direction) {
+
+        Key headerKey = getKey(vertexId, direction);
+        Record header = connect.get(headerKey);
+
+        if (header == null || isChunked(header)) return;
+
+        Map<?,?> edges = header.getMap(Constants.ADJACENCY_COL_NAME);
+        if (edges == null) return;
+        /*
+         * STEP #1: Group the edges by label; each label
+         * starts with the number of chunks that suffices
+         * for its edges.
+         */
+        Map<String, Map<Object, Object>> labelEdges = new HashMap<>();
+        for (Map.Entry<?,?> edge : edges.entrySet()) {
+
+            String label = (String) ((List<?>) edge.getValue()).get(0);
+            labelEdges.computeIfAbsent(label, k -> new HashMap<>()).put(edge.getKey(), edge.getValue());
+
+        }
+
+        Map<String, LabelState> states = new HashMap<>();
+        for (Map.Entry<String, Map<Object, Object>> entry : labelEdges.entrySet()) {
+
+            String label = entry.getKey();
+            LabelState state = new LabelState(0, 0, entry.getValue().size());
+
+            while (state.count > (long) chunkSize * state.getBuckets()) {
+                state.split++;
+                if (state.split == (1L << state.level)) {
+                    state.level++;
+                    state.split = 0;
+                }
+            }
+            /*
+             * STEP #2: Write the chunks of the label
+             */
+            Map<Long, Map<Object, Object>> chunks = new HashMap<>();
+            for (Map.Entry<Object, Object> edge : entry.getValue().entrySet()) {
+
+                long bucket = state.getBucket(hash(edge.getKey()));
+                chunks.computeIfAbsent(bucket, k -> new HashMap<>()).put(edge.getKey(), edge.getValue());
+
+            }
+
+            chunks.forEach((bucket, items) -> connect.putMapItems(
+                    getChunkKey(vertexId, direction, label, bucket), Constants.ADJACENCY_COL_NAME, items));
+
+            states.put(label, state);
+
+        }
+        /*
+         * STEP #3: Replace the inline edges by the
+         * label states with a single operation
+         */
+        writeHeader(headerKey, states, Bin.asNull(Constants.ADJACENCY_COL_NAME));
+
+        LOGGER.debug("Adjacency of vertex {} ({}) moved into chunks.", vertexId, direction);
+
+    }
+
+    /**
+     * Splits the next chunk of a label (linear hashing);
+     * the edges that are re-addressed by the next level
+     * are moved into a new chunk.
+     */
+    private void split(Object vertexId, Direction direction, String label, LabelState state) {
+
+        long bucket = state.split;
+        long newBucket = bucket + (1L << state.level);
+
+        Key bucketKey = getChunkKey(vertexId, direction, label, bucket);
+        Record chunk = connect.get(bucketKey);
+
+        if (chunk != null) {
+
+            Map<?,?> edges = chunk.getMap(Constants.ADJACENCY_COL_NAME);
+            if (edges != null) {
+
+                Map<Object, Object> moved = new HashMap<>();
+                long modulus = 1L << (state.level + 1);
+
+                for (Map.Entry<?,?> edge : edges.entrySet()) {
+                    if (hash(edge.getKey()) % modulus == newBucket)
+                        moved.put(edge.getKey(), edge.getValue());
+                }
+
+                connect.putMapItems(getChunkKey(vertexId, direction, label, newBucket),
+                        Constants.ADJACENCY_COL_NAME, moved);
+                connect.removeMapItems(bucketKey, Constants.ADJACENCY_COL_NAME, new ArrayList<>(moved.keySet()));
+
+            }
+
+        }
+
+        state.split++;
+        if (state.split == (1L << state.level)) {
+            state.level++;
+            state.split = 0;
+        }
+
+    }
+
+    private void writeHeader(Key headerKey, Map<String, LabelState> states, Bin... extraBins) {
+
+        long degree = 0;
+        long chunks = 0;
+
+        Map<Object, Object> labels = new HashMap<>();
+        for (Map.Entry<String, LabelState> state : states.entrySet()) {
+
+            labels.put(state.getKey(), state.getValue().toList());
+
+            degree += state.getValue().count;
+            chunks += state.getValue().getBuckets();
+
+        }
+
+        List<Bin> bins = new ArrayList<>();
+        bins.add(new Bin(Constants.ADJACENCY_DEGREE_COL_NAME, degree));
+        bins.add(new Bin(Constants.ADJACENCY_CHUNKS_COL_NAME, chunks));
+
+        bins.addAll(Arrays.asList(extraBins));
+
+        connect.putMaps(headerKey, bins,
+                Collections.singletonMap(Constants.ADJACENCY_LABELS_COL_NAME, labels));
+
+    }
+
+    private List<Key> getChunkKeys(Record header, Object vertexId, Direction direction, Set<String> labels) {
+
+        List<Key> keys = new ArrayList<>();
+        for (Map.Entry<String, LabelState> state : getLabelStates(header).entrySet()) {
+
+            if (!labels.isEmpty() && !labels.contains(state.getKey())) continue;
+            for (long bucket = 0; bucket < state.getValue().getBuckets(); bucket++)
+                keys.add(getChunkKey(vertexId, direction, state.getKey(), bucket));
+
+        }
+
+        return keys;
+
+    }
+
+    private void readEdges(Record record, Object vertexId, Direction direction, Set<String> labels,
+                           List<AeroAdjacencyEntry> entries) {
+
+        Map<?,?> edges = record.getMap(Constants.ADJACENCY_COL_NAME);
+        if (edges == null) return;
+
+        for (Map.Entry<?,?> edge : edges.entrySet()) {
+
+            List<?> value = (List<?>) edge.getValue();
+            String label = (String) value.get(0);
+
+            if (!labels.isEmpty() && !labels.contains(label)) continue;
+            entries.add(new AeroAdjacencyEntry(edge.getKey(), label, direction, vertexId, value.get(1)));
+
+        }
+
+    }
+
+    private boolean isChunked(Record header) {
+        return header != null && header.getMap(Constants.ADJACENCY_LABELS_COL_NAME) != null;
+    }
+
+    private Map<String, LabelState> getLabelStates(Record header) {
+
+        Map<String, LabelState> states = new HashMap<>();
+
+        Map<?,?> labels = header.getMap(Constants.ADJACENCY_LABELS_COL_NAME);
+        if (labels == null) return states;
+
+        for (Map.Entry<?,?> label : labels.entrySet())
+            states.put((String) label.getKey(), LabelState.fromList((List<?>) label.getValue()));
+
+        return states;
+
+    }
+
+    private Direction[] getDirections(Direction direction) {
+
+        if (direction.equals(Direction.OUT))
+            return new Direction[] {Direction.OUT};
+
+        if (direction.equals(Direction.IN))
+            return new Direction[] {Direction.IN};
+
+        return new Direction[] {Direction.OUT, Direction.IN};
+
+    }
+
+    /**
+     * The key of a header record is derived from the encoded
+     * vertex identifier, i.e. identifiers of different types,
+     * e.g. 1L and "1", refer to different records.
+     */
+    private Key getKey(Object vertexId, Direction direction) {
+
+        String prefix = direction.equals(Direction.OUT) ? OUT_PREFIX : IN_PREFIX;
+        return connect.getKey(prefix + ":" + encodeId(vertexId), Constants.ADJACENCY);
+
+    }
+    /**
+     * The key of a chunk is derived from the vertex, the
+     * direction, the label and the bucket; this prevents
+     * collisions with the keys of the header records.
+     */
+    private Key getChunkKey(Object vertexId, Direction direction, String label, long bucket) {
+
+        String prefix = direction.equals(Direction.OUT) ? OUT_PREFIX : IN_PREFIX;
+        String userKey = CHUNK_PREFIX + ":" + connect.getCacheKey(prefix + ":" + encodeId(vertexId), label + ":" + bucket);
+
+        return connect.getKey(userKey, Constants.ADJACENCY);
+
+    }
+
+    private static String encodeId(Object vertexId) {
+        return BaseEncoding.base16().encode(ValueCodec.encodeId(vertexId));
+    }
+
+    private static long hash(Object edgeId) {
+        return Hashing.murmur3_32().hashString(edgeId.toString(), StandardCharsets.UTF_8).asInt() & 0x7fffffffL;
+    }
+    /**
+     * The linear hashing state of a label: the chunks
+     * 0 .. 2^level + split - 1 exist, and the chunks
+     * below `split` are already addressed by the next
+     * level.
+     */
+    private static class LabelState {
+
+        long level;
+        long split;
+        long count;
+
+        LabelState(long level, long split, long count) {
+            this.level = level;
+            this.split = split;
+            this.count = count;
+        }
+
+        long getBuckets() {
+            return (1L << level) + split;
+        }
+
+        long getBucket(long hash) {
+
+            long bucket = hash % (1L << level);
+            if (bucket < split) bucket = hash % (1L << (level + 1));
+
+            return bucket;
+
+        }
+
+        List<Long> toList() {
+            return Arrays.asList(level, split, count);
+        }
+
+        static LabelState fromList(List<?> values) {
+            return new LabelState(
+                    ((Number) values.get(0)).longValue(),
+                    ((Number) values.get(1)).longValue(),
+                    ((Number) values.get(2)).longValue());
+        }
+
+    }
+    /**
+     * Iterates the edges of a vertex; the header records
+     * are read first, and chunks are read when the edges
+     * of the previous chunk are exhausted.
+     */
+    private class ChunkIterator implements Iterator<AeroAdjacencyEntry> {
+
+        private final Object vertexId;
+        private final Set<String> labels;
+
+        private final Deque<Direction> directions;
+        private final Deque<Key> chunkKeys = new ArrayDeque<>();
+
+        private Direction direction;
+        private Iterator<AeroAdjacencyEntry> current = Collections.emptyIterator();
+
+        ChunkIterator(Object vertexId, Direction[] directions, Set<String> labels) {
+
+            this.vertexId = vertexId;
+            this.labels = labels;
+
+            this.directions = new ArrayDeque<>(Arrays.asList(directions));
+
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            while (!current.hasNext()) {
+
+                List<AeroAdjacencyEntry> entries = new ArrayList<>();
+                if (!chunkKeys.isEmpty()) {
+
+                    Record chunk = connect.get(chunkKeys.poll());
+                    if (chunk != null) readEdges(chunk, vertexId, direction, labels, entries);
+
+                }
+                else if (!directions.isEmpty()) {
+
+                    direction = directions.poll();
+
+                    Record header = connect.get(getKey(vertexId, direction));
+                    if (header == null) continue;
+
+                    readEdges(header, vertexId, direction, labels, entries);
+                    chunkKeys.addAll(getChunkKeys(header, vertexId, direction, labels));
+
+                }
+                else
+                    return false;
+
+                current = entries.iterator();
+
+            }
+
+            return true;
+
+        }
+
+        @Override
+        public AeroAdjacencyEntry next() {
+
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+
+        }
+
+    }
+
+}
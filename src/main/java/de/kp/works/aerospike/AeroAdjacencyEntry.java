@@ -0,0 +1,68 @@
+package de.kp.works.aerospike;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+
+public class AeroAdjacencyEntry {
+
+    public Object edgeId;
+    public String label;
+    /*
+     * The direction of the edge from the perspective
+     * of the vertex the adjacency record belongs to
+     */
+    public Direction direction;
+
+    public Object vertexId;
+    public Object otherVertexId;
+
+    public AeroAdjacencyEntry(
+            Object edgeId,
+            String label,
+            Direction direction,
+            Object vertexId,
+            Object otherVertexId) {
+
+        this.edgeId = edgeId;
+        this.label = label;
+
+        this.direction = direction;
+
+        this.vertexId = vertexId;
+        this.otherVertexId = otherVertexId;
+    }
+
+    /**
+     * The identifier of the vertex an edge
+     * starts from (OUT vertex)
+     */
+    public Object getOutVertexId() {
+        return direction.equals(Direction.OUT) ? vertexId : otherVertexId;
+    }
+
+    /**
+     * The identifier of the vertex an edge
+     * ends at (IN vertex)
+     */
+    public Object getInVertexId() {
+        return direction.equals(Direction.OUT) ? otherVertexId : vertexId;
+    }
+
+}
@@ -28,23 +28,50 @@ import de.kp.works.aerospike.query.AeroEdgesExistQuery;
 import de.kp.works.aerospike.query.AeroGetQuery;
 import de.kp.works.aerospike.gremlin.Constants;
 import de.kp.works.aerospike.gremlin.ElementType;
+import de.kp.works.aerospike.gremlin.StorageLayout;
 import de.kp.works.aerospike.gremlin.ValueType;
+import de.kp.works.aerospike.gremlin.ValueUtils;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class AeroBaseTable {
+    /*
+     * The fields that must be provided to write an
+     * element without reading it first
+     */
+    private static final List<String> EDGE_CORE_FIELDS = Arrays.asList(
+            Constants.ID_COL_NAME, Constants.LABEL_COL_NAME, Constants.TO_COL_NAME,
+            Constants.FROM_COL_NAME, Constants.CREATED_AT_COL_NAME);
+
+    private static final List<String> VERTEX_CORE_FIELDS = Arrays.asList(
+            Constants.ID_COL_NAME, Constants.LABEL_COL_NAME, Constants.CREATED_AT_COL_NAME);
 
     protected final String name;
     protected final AeroConnect connect;
 
     protected final ElementType elementType;
+    /*
+     * The per-vertex adjacency records; these are
+     * maintained if enabled by the configuration
+     */
+    protected final AeroAdjacency adjacency;
+    /*
+     * Labels, property keys and type names are
+     * persisted by the codes of the dictionary,
+     * if enabled by the configuration
+     */
+    protected final AeroDictionary dictionary;
 
     public AeroBaseTable(String name, AeroConnect connect) {
 
         this.name = name;
         this.connect = connect;
 
+        this.dictionary = connect.dictionary();
+
+        this.adjacency = new AeroAdjacency(connect);
+
         if (name.equals(connect.setname() + "_" + Constants.EDGES)) {
             elementType = ElementType.EDGE;
         }
@@ -59,30 +86,24 @@ public class AeroBaseTable {
     /** METHODS TO SUPPORT BASIC CRUD OPERATIONS **/
 
     protected Object incrementEdge(AeroIncrement aeroIncrement) {
-       Object edgeId = aeroIncrement.getId();
-        List<AeroEdgeEntry> edge = getEdge(edgeId);
-        /*
-         * We expect that the respective edge exists;
-         * returning `null` leads to an exception that
-         * is moved to the user interface
-         */
-        if (edge.isEmpty()) return null;
-        return incrementEdge(aeroIncrement, edge);
+        return incrementProperty(aeroIncrement, ElementType.EDGE);
     }
 
     protected Object incrementVertex(AeroIncrement aeroIncrement) {
-        Object vertexId = aeroIncrement.getId();
-        List<AeroVertexEntry> vertex = getVertex(vertexId);
-        /*
-         * We expect that the respective vertex exists;
-         * returning `null` leads to an exception that
-         * is moved to the user interface
-         */
-        if (vertex.isEmpty()) return null;
-        return incrementVertex(aeroIncrement, vertex);
+        return incrementProperty(aeroIncrement, ElementType.VERTEX);
     }
 
     protected void putEdge(AeroPut aeroPut) throws Exception {
+        /*
+         * The cache keys of the edge entries are derived
+         * from identifier and property key; a put request
+         * that specifies all core fields is therefore
+         * written without reading the edge first.
+         */
+        if (aeroPut.getColumnNames().containsAll(EDGE_CORE_FIELDS)) {
+            createEdge(aeroPut);
+            return;
+        }
         /*
          * STEP #1: Retrieve existing edge entries
          * that refer to the provided id
@@ -99,6 +120,17 @@ public class AeroBaseTable {
     }
 
     protected void putVertex(AeroPut aeroPut) throws Exception {
+        /*
+         * The cache keys of the vertex entries are derived
+         * from identifier and property key; a put request
+         * that specifies all core fields is therefore
+         * written without reading the vertex first.
+         */
+        if (aeroPut.getColumnNames().containsAll(VERTEX_CORE_FIELDS)) {
+            createVertex(aeroPut);
+            return;
+        }
+
         Object vertexId = aeroPut.getId();
         List<AeroVertexEntry> vertex = getVertex(vertexId);
 
@@ -119,6 +151,14 @@ public class AeroBaseTable {
 
         List<AeroEdgeEntry> edge;
         Object edgeId = aeroDelete.getId();
+        if (edgeId != null && !aeroDelete.getColumns().isEmpty()) {
+            /*
+             * The removal of properties does not require
+             * to read the edge first
+             */
+            removeProperties(edgeId, ElementType.EDGE, aeroDelete);
+            return;
+        }
         if (edgeId != null) {
             /*
              * This is the default approach to retrieve the
@@ -148,6 +188,15 @@ public class AeroBaseTable {
 
     protected void deleteVertex(AeroDelete aeroDelete) throws Exception {
         Object vertexId = aeroDelete.getId();
+        if (!aeroDelete.getColumns().isEmpty()) {
+            /*
+             * The removal of properties does not require
+             * to read the vertex first
+             */
+            removeProperties(vertexId, ElementType.VERTEX, aeroDelete);
+            return;
+        }
+
         List<AeroVertexEntry> vertex = getVertex(vertexId);
 
         if (!vertex.isEmpty()) deleteVertex(aeroDelete, vertex);
@@ -181,11 +230,16 @@ public class AeroBaseTable {
         AeroGetQuery query = new AeroGetQuery(name, connect, id);
         return query.getVertexEntries();
     }
+
     /**
      * Check whether a vertex is referenced by edges
      * either as `from` or `to` vertex
      */
     protected boolean hasEdges(Object vertex) {
+
+        if (adjacency.isEnabled())
+            return adjacency.hasEdges(vertex);
+
         AeroEdgesExistQuery query = new AeroEdgesExistQuery(name, connect, vertex);
         List<AeroEdgeEntry> edges = query.getEdgeEntries();
 
@@ -235,11 +289,11 @@ public class AeroBaseTable {
                     break;
                 }
                 case Constants.CREATED_AT_COL_NAME: {
-                    createdAt = (Long)column.getColValue();
+                    createdAt = Long.valueOf(column.getColValue().toString());
                     break;
                 }
                 case Constants.UPDATED_AT_COL_NAME: {
-                    updatedAt = (Long)column.getColValue();
+                    updatedAt = Long.valueOf(column.getColValue().toString());
                     break;
                 }
                 default:
@@ -272,12 +326,12 @@ public class AeroBaseTable {
                      */
                     String propKey   = column.getColName();
                     String propType  = column.getColType();
-                    String propValue = column.getColValue().toString();
+                    Object propValue = column.getColValue();
                     /*
-                     * For a create request, we must generate
-                     * a unique cache key for each entry
+                     * The cache key of each entry is derived from
+                     * the edge identifier and the property key
                      */
-                    String cacheKey = UUID.randomUUID().toString();
+                    String cacheKey = connect.getCacheKey(id, propKey);
 
                     entries.add(new AeroEdgeEntry(
                             cacheKey,
@@ -303,12 +357,8 @@ public class AeroBaseTable {
          * i.e. a vertex without properties will be created
          */
         if (entries.isEmpty()) {
-            String emptyValue = "*";
-            /*
-             * For a create request, we must generate
-             * a unique cache key for each entry
-             */
-            String cacheKey = UUID.randomUUID().toString();
+            String emptyValue = Constants.EMPTY_VALUE;
+            String cacheKey = connect.getCacheKey(id, emptyValue);
             entries.add(new AeroEdgeEntry(cacheKey,
                     id, idType, label, toId, toIdType, fromId, fromIdType,
                     createdAt, updatedAt, emptyValue, emptyValue, emptyValue));
@@ -319,6 +369,12 @@ public class AeroBaseTable {
          * to the Aerospike edge cache
          */
         writeEdge(entries);
+        /*
+         * STEP #5: Register the edge with the adjacency
+         * records of its vertices; this is idempotent
+         */
+        if (adjacency.isEnabled())
+            adjacency.addEdge(entries.get(0));
     }
 
     /**
@@ -357,6 +413,12 @@ public class AeroBaseTable {
          * STEP #3: Update known properties
          */
         List<AeroEdgeEntry> updatedEntries = edge.stream()
+                /*
+                 * Restrict to those entries that refer
+                 * to the provided property keys
+                 */
+                .filter(entry -> knownProps.stream()
+                        .anyMatch(p -> p.getColName().equals(entry.propKey)))
                 .map(entry -> {
                     String propKey = entry.propKey;
                     /*
@@ -382,8 +444,8 @@ public class AeroBaseTable {
                              */
                             System.currentTimeMillis(),
                             entry.propKey,
-                            entry.propType,
-                            newValue.toString());
+                            property.getColType(),
+                            newValue);
 
                 })
                 .collect(Collectors.toList());
@@ -396,11 +458,7 @@ public class AeroBaseTable {
         AeroEdgeEntry template = edge.get(0);
         List<AeroEdgeEntry> newEntries = unknownProps.stream()
                 .map(property -> {
-                    /*
-                     * For a create request, we must generate
-                     * a unique cache key for each entry
-                     */
-                    String cacheKey = UUID.randomUUID().toString();
+                    String cacheKey = connect.getCacheKey(template.id, property.getColName());
                     return new AeroEdgeEntry(
                             cacheKey,
                             template.id,
@@ -410,11 +468,11 @@ public class AeroBaseTable {
                             template.toIdType,
                             template.fromId,
                             template.fromIdType,
-                            System.currentTimeMillis(),
+                            template.createdAt,
                             System.currentTimeMillis(),
                             property.getColName(),
                             property.getColType(),
-                            property.getColValue().toString());
+                            property.getColValue());
                 })
                 .collect(Collectors.toList());
 
@@ -439,8 +497,12 @@ public class AeroBaseTable {
              * edge must be deleted.
              */
             cacheKeys = edge.stream()
-                    .map(entry -> connect.getKey(entry.cacheKey, ElementType.EDGE))
+                    .map(entry -> entry.cacheKey).distinct()
+                    .map(cacheKey -> connect.getKey(cacheKey, ElementType.EDGE))
                     .collect(Collectors.toList());
+
+            if (adjacency.isEnabled())
+                adjacency.removeEdge(edge.get(0));
         }
         else {
             /*
@@ -448,9 +510,14 @@ public class AeroBaseTable {
              * property key must be deleted
              */
             List<String> propKeys = aeroDelete.getProperties()
-                    .map(c -> c.getColValue().toString())
+                    .map(AeroColumn::getColName)
                     .collect(Collectors.toList());
 
+            if (connect.layout().equals(StorageLayout.PACKED)) {
+                removePackedProperties(edge.get(0).id, ElementType.EDGE, propKeys);
+                return;
+            }
+
             cacheKeys = edge.stream()
                     /*
                      * Restrict to those cache entries that refer
@@ -465,53 +532,6 @@ public class AeroBaseTable {
         if (!cacheKeys.isEmpty())
             connect.removeAll(cacheKeys);
     }
-    /**
-     * This method increments a certain property value
-     */
-    protected Object incrementEdge(AeroIncrement aeroIncrement, List<AeroEdgeEntry> edge) {
-        AeroColumn column = aeroIncrement.getColumn();
-        if (column == null) return null;
-        /*
-         * Check whether the column value is a [Long]
-         */
-        String colType = column.getColType();
-        if (!colType.equals(ValueType.LONG.name()))
-            return null;
-        /*
-         * Restrict to that edge entry that refer to the
-         * provided column
-         */
-        String colName = column.getColName();
-        String colValue = column.getColValue().toString();
-
-        List<AeroEdgeEntry> entries = edge.stream()
-                .filter(entry -> entry.propKey.equals(colName) && entry.propType.equals(colType) && entry.propValue.equals(colValue))
-                .collect(Collectors.toList());
-
-        if (entries.isEmpty()) return null;
-        AeroEdgeEntry entry = entries.get(0);
-
-        long oldValue = Long.parseLong(entry.propValue);
-        Long newValue = oldValue + 1;
-
-        AeroEdgeEntry newEntry = new AeroEdgeEntry(
-                entry.cacheKey,
-                entry.id,
-                entry.idType,
-                entry.label,
-                entry.toId,
-                entry.toIdType,
-                entry.fromId,
-                entry.fromIdType,
-                entry.createdAt,
-                System.currentTimeMillis(),
-                entry.propKey,
-                entry.propType,
-                newValue.toString());
-
-        writeEdge(Collections.singletonList(newEntry));
-        return newValue;
-    }
     /**
      * The provided [AeroPut] is transformed into a list of
      * [AeroVertexEntry] and these entries are put into cache
@@ -541,11 +561,11 @@ public class AeroBaseTable {
                     break;
                 }
                 case Constants.CREATED_AT_COL_NAME: {
-                    createdAt = (Long)column.getColValue();
+                    createdAt = Long.valueOf(column.getColValue().toString());
                     break;
                 }
                 case Constants.UPDATED_AT_COL_NAME: {
-                    updatedAt = (Long)column.getColValue();
+                    updatedAt = Long.valueOf(column.getColValue().toString());
                     break;
                 }
                 default:
@@ -575,12 +595,12 @@ public class AeroBaseTable {
                      */
                     String propKey   = column.getColName();
                     String propType  = column.getColType();
-                    String propValue = column.getColValue().toString();
+                    Object propValue = column.getColValue();
                     /*
-                     * For a create request, we must generate
-                     * a unique cache key for each entry
+                     * The cache key of each entry is derived from
+                     * the vertex identifier and the property key
                      */
-                    String cacheKey = UUID.randomUUID().toString();
+                    String cacheKey = connect.getCacheKey(id, propKey);
 
                     entries.add(new AeroVertexEntry(
                             cacheKey,
@@ -602,12 +622,8 @@ public class AeroBaseTable {
          * i.e. a vertex without properties will be created
          */
         if (entries.isEmpty()) {
-            String emptyValue = "*";
-            /*
-             * For a create request, we must generate
-             * a unique cache key for each entry
-             */
-            String cacheKey = UUID.randomUUID().toString();
+            String emptyValue = Constants.EMPTY_VALUE;
+            String cacheKey = connect.getCacheKey(id, emptyValue);
             entries.add(new AeroVertexEntry(cacheKey,
                     id, idType, label, createdAt, updatedAt, emptyValue, emptyValue, emptyValue));
 
@@ -655,6 +671,12 @@ public class AeroBaseTable {
          * STEP #3: Update known properties
          */
         List<AeroVertexEntry> updatedEntries = vertex.stream()
+                /*
+                 * Restrict to those entries that refer
+                 * to the provided property keys
+                 */
+                .filter(entry -> knownProps.stream()
+                        .anyMatch(p -> p.getColName().equals(entry.propKey)))
                 .map(entry -> {
                     String propKey = entry.propKey;
                     /*
@@ -676,8 +698,8 @@ public class AeroBaseTable {
                              */
                             System.currentTimeMillis(),
                             entry.propKey,
-                            entry.propType,
-                            newValue.toString());
+                            property.getColType(),
+                            newValue);
 
                 })
                 .collect(Collectors.toList());
@@ -690,21 +712,17 @@ public class AeroBaseTable {
         AeroVertexEntry template = vertex.get(0);
         List<AeroVertexEntry> newEntries = unknownProps.stream()
                 .map(property -> {
-                    /*
-                     * For a create request, we must generate
-                     * a unique cache key for each entry
-                     */
-                    String cacheKey = UUID.randomUUID().toString();
+                    String cacheKey = connect.getCacheKey(template.id, property.getColName());
                     return new AeroVertexEntry(
                             cacheKey,
                             template.id,
                             template.idType,
                             template.label,
-                            System.currentTimeMillis(),
+                            template.createdAt,
                             System.currentTimeMillis(),
                             property.getColName(),
                             property.getColType(),
-                            property.getColValue().toString());
+                            property.getColValue());
                 })
                 .collect(Collectors.toList());
 
@@ -736,8 +754,12 @@ public class AeroBaseTable {
                 throw new Exception("The vertex '" + id.toString() + "' is referenced by at least one edge.");
 
             keys = vertex.stream()
-                    .map(entry -> connect.getKey(entry.cacheKey, ElementType.VERTEX))
+                    .map(entry -> entry.cacheKey).distinct()
+                    .map(cacheKey -> connect.getKey(cacheKey, ElementType.VERTEX))
                     .collect(Collectors.toList());
+
+            if (adjacency.isEnabled())
+                adjacency.removeVertex(id);
         }
         else {
             /*
@@ -748,6 +770,11 @@ public class AeroBaseTable {
                     .map(AeroColumn::getColName)
                     .collect(Collectors.toList());
 
+            if (connect.layout().equals(StorageLayout.PACKED)) {
+                removePackedProperties(vertex.get(0).id, ElementType.VERTEX, propKeys);
+                return;
+            }
+
             keys = vertex.stream()
                     /*
                      * Restrict to those cache entries that refer
@@ -761,7 +788,13 @@ public class AeroBaseTable {
         connect.removeAll(keys);
     }
 
-    protected Object incrementVertex(AeroIncrement aeroIncrement, List<AeroVertexEntry> vertex) {
+    /**
+     * This method increments a certain property value; the
+     * property is addressed by its derived key, and added to
+     * by a single atomic operation, i.e. the element is not
+     * read before, and concurrent increments are not lost.
+     */
+    private Object incrementProperty(AeroIncrement aeroIncrement, ElementType elementType) {
         AeroColumn column = aeroIncrement.getColumn();
         if (column == null) return null;
         /*
@@ -770,42 +803,69 @@ public class AeroBaseTable {
         String colType = column.getColType();
         if (!colType.equals(ValueType.LONG.name()))
             return null;
+
+        String id = aeroIncrement.getId().toString();
+        String colName = column.getColName();
+
+        long amount = Long.parseLong(column.getColValue().toString());
+
+        List<Bin> bins = Collections.singletonList(
+                new Bin(Constants.UPDATED_AT_COL_NAME, System.currentTimeMillis()));
         /*
-         * Restrict to that vertex entry that refer to the
-         * provided column
+         * We expect that the respective property exists;
+         * returning `null` leads to an exception that
+         * is moved to the user interface
          */
-        String colName = column.getColName();
-        String colValue = column.getColValue().toString();
+        if (connect.layout().equals(StorageLayout.PACKED)) {
+            /*
+             * The index value of an integral property is the
+             * value itself, and is incremented as well
+             */
+            List<String> mapNames = Arrays.asList(
+                    Constants.PROPERTIES_COL_NAME, Constants.PROPERTY_INDEX_COL_NAME);
+
+            return connect.addMapItem(connect.getKey(id, elementType), mapNames,
+                    dictionary.encode(colName), amount, bins);
+        }
+
+        Key key = connect.getKey(connect.getCacheKey(id, colName), elementType);
+        return connect.add(key, Constants.PROPERTY_LONG_COL_NAME, amount, bins);
+    }
+
+    /**
+     * Removes the properties specified by the provided
+     * [AeroDelete] from an element; the respective entries
+     * are addressed by their derived cache keys.
+     */
+    private void removeProperties(Object id, ElementType elementType, AeroDelete aeroDelete) {
 
-        List<AeroVertexEntry> entries = vertex.stream()
-                .filter(entry -> entry.propKey.equals(colName) && entry.propType.equals(colType) && entry.propValue.equals(colValue))
+        List<String> propKeys = aeroDelete.getProperties()
+                .map(AeroColumn::getColName)
                 .collect(Collectors.toList());
 
-        if (entries.isEmpty()) return null;
-        AeroVertexEntry entry = entries.get(0);
-
-        long oldValue = Long.parseLong(entry.propValue);
-        Long newValue = oldValue + 1;
-
-        AeroVertexEntry newEntry = new AeroVertexEntry(
-                entry.cacheKey,
-                entry.id,
-                entry.idType,
-                entry.label,
-                entry.createdAt,
-                System.currentTimeMillis(),
-                entry.propKey,
-                entry.propType,
-                newValue.toString());
-
-        writeVertex(Collections.singletonList(newEntry));
-        return newValue;
+        if (connect.layout().equals(StorageLayout.PACKED)) {
+            removePackedProperties(id.toString(), elementType, propKeys);
+            return;
+        }
+
+        List<Key> keys = propKeys.stream()
+                .map(propKey -> connect.getKey(connect.getCacheKey(id.toString(), propKey), elementType))
+                .collect(Collectors.toList());
+
+        if (!keys.isEmpty())
+            connect.removeAll(keys);
+
     }
 
     /**
      * Supports create and update operations for edges
      */
-    private void writeEdge(List<AeroEdgeEntry> entries) {
+    void writeEdge(List<AeroEdgeEntry> entries) {
+
+        if (connect.layout().equals(StorageLayout.PACKED)) {
+            writePackedEdge(entries);
+            return;
+        }
         /*
          * An edge represents a list of edge entries
          */
@@ -815,40 +875,50 @@ public class AeroBaseTable {
             List<Bin> bins = new ArrayList<>();
 
             bins.add(new Bin(Constants.ID_COL_NAME,      entry.id));
-            bins.add(new Bin(Constants.ID_TYPE_COL_NAME, entry.idType));
-            bins.add(new Bin(Constants.LABEL_COL_NAME,   entry.label));
+            bins.add(new Bin(Constants.ID_TYPE_COL_NAME, dictionary.encodeType(entry.idType)));
+            bins.add(new Bin(Constants.LABEL_COL_NAME,   dictionary.encode(entry.label)));
 
             bins.add(new Bin(Constants.TO_COL_NAME,      entry.toId));
-            bins.add(new Bin(Constants.TO_TYPE_COL_NAME, entry.toIdType));
+            bins.add(new Bin(Constants.TO_TYPE_COL_NAME, dictionary.encodeType(entry.toIdType)));
 
             bins.add(new Bin(Constants.FROM_COL_NAME,      entry.fromId));
-            bins.add(new Bin(Constants.FROM_TYPE_COL_NAME, entry.fromIdType));
+            bins.add(new Bin(Constants.FROM_TYPE_COL_NAME, dictionary.encodeType(entry.fromIdType)));
 
             bins.add(new Bin(Constants.CREATED_AT_COL_NAME, entry.createdAt));
             bins.add(new Bin(Constants.UPDATED_AT_COL_NAME, entry.updatedAt));
 
-            bins.add(new Bin(Constants.PROPERTY_KEY_COL_NAME,   entry.propKey));
-            bins.add(new Bin(Constants.PROPERTY_TYPE_COL_NAME,  entry.propType));
-            bins.add(new Bin(Constants.PROPERTY_VALUE_COL_NAME, entry.propValue));
+            bins.add(new Bin(Constants.PROPERTY_KEY_COL_NAME,  dictionary.encode(entry.propKey)));
+            bins.add(new Bin(Constants.PROPERTY_TYPE_COL_NAME, dictionary.encodeType(entry.propType)));
+            /*
+             * The property value is persisted in the bin that
+             * refers to its type
+             */
+            bins.addAll(ValueUtils.getPropertyBins(entry.propType, entry.propValue));
 
             String uid = entry.cacheKey;
-            Key key = connect.getKey(uid, ElementType.EDGE);
+            Key key = connect.getKey(uid, ElementType.EDGE, entry.label);
 
             row.put(key, bins);
 
         }
 
         // TODO: Start transaction
-
-        for (Map.Entry<Key,List<Bin>> entry : row.entrySet()) {
-            connect.put(entry.getKey(), entry.getValue());
-        }
+        /*
+         * The entries are written asynchronously, so that
+         * the writes of an element overlap
+         */
+        connect.putAll(row);
     }
 
     /**
      * Supports create and update operations for vertices
      */
-    private void writeVertex(List<AeroVertexEntry> entries) {
+    void writeVertex(List<AeroVertexEntry> entries) {
+
+        if (connect.layout().equals(StorageLayout.PACKED)) {
+            writePackedVertex(entries);
+            return;
+        }
         /*
          * A  vertex represents a list of edge entries
          */
@@ -858,29 +928,170 @@ public class AeroBaseTable {
             List<Bin> bins = new ArrayList<>();
 
             bins.add(new Bin(Constants.ID_COL_NAME,      entry.id));
-            bins.add(new Bin(Constants.ID_TYPE_COL_NAME, entry.idType));
-            bins.add(new Bin(Constants.LABEL_COL_NAME,   entry.label));
+            bins.add(new Bin(Constants.ID_TYPE_COL_NAME, dictionary.encodeType(entry.idType)));
+            bins.add(new Bin(Constants.LABEL_COL_NAME,   dictionary.encode(entry.label)));
 
             bins.add(new Bin(Constants.CREATED_AT_COL_NAME, entry.createdAt));
             bins.add(new Bin(Constants.UPDATED_AT_COL_NAME, entry.updatedAt));
 
-            bins.add(new Bin(Constants.PROPERTY_KEY_COL_NAME,   entry.propKey));
-            bins.add(new Bin(Constants.PROPERTY_TYPE_COL_NAME,  entry.propType));
-            bins.add(new Bin(Constants.PROPERTY_VALUE_COL_NAME, entry.propValue));
+            bins.add(new Bin(Constants.PROPERTY_KEY_COL_NAME,  dictionary.encode(entry.propKey)));
+            bins.add(new Bin(Constants.PROPERTY_TYPE_COL_NAME, dictionary.encodeType(entry.propType)));
+            /*
+             * The property value is persisted in the bin that
+             * refers to its type
+             */
+            bins.addAll(ValueUtils.getPropertyBins(entry.propType, entry.propValue));
 
             String uid = entry.cacheKey;
-            Key key = connect.getKey(uid, ElementType.VERTEX);
+            Key key = connect.getKey(uid, ElementType.VERTEX, entry.label);
 
             row.put(key, bins);
 
         }
 
         // TODO: Start transaction
+        /*
+         * The entries are written asynchronously, so that
+         * the writes of an element overlap
+         */
+        connect.putAll(row);
+    }
+
+    /**
+     * Supports create and update operations for edges
+     * of the packed layout: all entries that refer to
+     * the same edge are merged into a single record.
+     */
+    private void writePackedEdge(List<AeroEdgeEntry> entries) {
+
+        Map<String, List<AeroEdgeEntry>> edges = entries.stream()
+                .collect(Collectors.groupingBy(entry -> entry.id));
+
+        for (List<AeroEdgeEntry> edge : edges.values()) {
+            /*
+             * The common fields are taken from the first
+             * entry, as they are shared by all entries
+             */
+            AeroEdgeEntry template = edge.get(0);
+            List<Bin> bins = new ArrayList<>();
+
+            bins.add(new Bin(Constants.ID_COL_NAME,      template.id));
+            bins.add(new Bin(Constants.ID_TYPE_COL_NAME, dictionary.encodeType(template.idType)));
+            bins.add(new Bin(Constants.LABEL_COL_NAME,   dictionary.encode(template.label)));
+
+            bins.add(new Bin(Constants.TO_COL_NAME,      template.toId));
+            bins.add(new Bin(Constants.TO_TYPE_COL_NAME, dictionary.encodeType(template.toIdType)));
+
+            bins.add(new Bin(Constants.FROM_COL_NAME,      template.fromId));
+            bins.add(new Bin(Constants.FROM_TYPE_COL_NAME, dictionary.encodeType(template.fromIdType)));
+
+            bins.add(new Bin(Constants.CREATED_AT_COL_NAME, template.createdAt));
+            bins.add(new Bin(Constants.UPDATED_AT_COL_NAME, template.updatedAt));
+
+            Map<Object, Object> values  = new HashMap<>();
+            Map<Object, Object> types   = new HashMap<>();
+            Map<Object, Object> indices = new HashMap<>();
+
+            for (AeroEdgeEntry entry : edge) {
+                if (entry.propKey.equals(Constants.EMPTY_VALUE)) continue;
+
+                Object propKey = dictionary.encode(entry.propKey);
+
+                values.put(propKey, ValueUtils.toBinValue(entry.propType, entry.propValue));
+                types.put(propKey, dictionary.encodeType(entry.propType));
+
+                Long indexValue = ValueUtils.toIndexValue(entry.propType, entry.propValue);
+                if (indexValue != null) indices.put(propKey, indexValue);
+            }
+
+            writePacked(connect.getKey(template.id, ElementType.EDGE, template.label), bins, values, types, indices);
 
-        for (Map.Entry<Key,List<Bin>> entry : row.entrySet()) {
-            connect.put(entry.getKey(), entry.getValue());
         }
 
-   }
+    }
+
+    /**
+     * Supports create and update operations for vertices
+     * of the packed layout: all entries that refer to the
+     * same vertex are merged into a single record.
+     */
+    private void writePackedVertex(List<AeroVertexEntry> entries) {
+
+        Map<String, List<AeroVertexEntry>> vertices = entries.stream()
+                .collect(Collectors.groupingBy(entry -> entry.id));
+
+        for (List<AeroVertexEntry> vertex : vertices.values()) {
+            /*
+             * The common fields are taken from the first
+             * entry, as they are shared by all entries
+             */
+            AeroVertexEntry template = vertex.get(0);
+            List<Bin> bins = new ArrayList<>();
+
+            bins.add(new Bin(Constants.ID_COL_NAME,      template.id));
+            bins.add(new Bin(Constants.ID_TYPE_COL_NAME, dictionary.encodeType(template.idType)));
+            bins.add(new Bin(Constants.LABEL_COL_NAME,   dictionary.encode(template.label)));
+
+            bins.add(new Bin(Constants.CREATED_AT_COL_NAME, template.createdAt));
+            bins.add(new Bin(Constants.UPDATED_AT_COL_NAME, template.updatedAt));
+
+            Map<Object, Object> values  = new HashMap<>();
+            Map<Object, Object> types   = new HashMap<>();
+            Map<Object, Object> indices = new HashMap<>();
+
+            for (AeroVertexEntry entry : vertex) {
+                if (entry.propKey.equals(Constants.EMPTY_VALUE)) continue;
+
+                Object propKey = dictionary.encode(entry.propKey);
+
+                values.put(propKey, ValueUtils.toBinValue(entry.propType, entry.propValue));
+                types.put(propKey, dictionary.encodeType(entry.propType));
+
+                Long indexValue = ValueUtils.toIndexValue(entry.propType, entry.propValue);
+                if (indexValue != null) indices.put(propKey, indexValue);
+            }
+
+            writePacked(connect.getKey(template.id, ElementType.VERTEX, template.label), bins, values, types, indices);
+
+        }
+
+    }
+
+    private void writePacked(Key key, List<Bin> bins, Map<Object, Object> values, Map<Object, Object> types,
+                             Map<Object, Object> indices) {
+
+        Map<String, Map<Object, Object>> maps = new HashMap<>();
+        maps.put(Constants.PROPERTIES_COL_NAME, values);
+        maps.put(Constants.PROPERTY_TYPES_COL_NAME, types);
+        /*
+         * The index values of numeric properties are kept
+         * in a separate map that supports range filters
+         */
+        maps.put(Constants.PROPERTY_INDEX_COL_NAME, indices);
+
+        connect.putMaps(key, bins, maps);
+
+    }
+    /**
+     * Removes the provided properties from an element
+     * of the packed layout
+     */
+    private void removePackedProperties(String id, ElementType elementType, List<String> propKeys) {
+
+        if (propKeys.isEmpty()) return;
+
+        List<Bin> bins = new ArrayList<>();
+        bins.add(new Bin(Constants.UPDATED_AT_COL_NAME, System.currentTimeMillis()));
+
+        List<String> mapNames = Arrays.asList(
+                Constants.PROPERTIES_COL_NAME, Constants.PROPERTY_TYPES_COL_NAME, Constants.PROPERTY_INDEX_COL_NAME);
+
+        List<Object> mapKeys = propKeys.stream()
+                .map(dictionary::encode)
+                .collect(Collectors.toList());
+
+        connect.removeMapKeys(connect.getKey(id, elementType), bins, mapNames, mapKeys);
+
+    }
 
 }
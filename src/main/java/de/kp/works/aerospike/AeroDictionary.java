@@ -0,0 +1,213 @@
+package de.kp.works.aerospike;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import de.kp.works.aerospike.gremlin.Constants;
+import de.kp.works.aerospike.gremlin.ValueType;
+import de.kp.works.aerospike.gremlin.ValueUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * [AeroDictionary] maps labels and property keys onto
+ * small integer codes; this avoids that every record
+ * repeats these names. The dictionary is kept in the
+ * metadata set:
+ *
+ * name:<name> -> {code, name}
+ * code:<code> -> {code, name}
+ * sequence    -> {code}
+ *
+ * Type names are mapped onto the fixed codes of the
+ * respective [ValueType] and need no registration.
+ *
+ * Codes are never changed or removed, so each client
+ * caches the dictionary in memory. A new name is
+ * registered by drawing a code from the sequence and
+ * creating the name record; if a concurrent client
+ * registered the name first, its code is adopted and
+ * the drawn code is left unused.
+ *
+ * Values that were persisted as names are returned as
+ * is; therefore, records written before the dictionary
+ * was enabled remain readable.
+ */
+public class AeroDictionary {
+
+    private static final String NAME_PREFIX = "name";
+    private static final String CODE_PREFIX = "code";
+
+    private static final String SEQUENCE = "sequence";
+
+    private final AeroConnect connect;
+    private final boolean enabled;
+
+    private final Map<String, Long> codes = new ConcurrentHashMap<>();
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+
+    public AeroDictionary(AeroConnect connect, boolean enabled) {
+        this.connect = connect;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the persisted representation of a label
+     * or property key; unknown names are registered.
+     */
+    public Object encode(String name) {
+
+        if (!enabled || name == null) return name;
+        return codes.computeIfAbsent(name, this::register);
+
+    }
+
+    /**
+     * Returns the code of a label or property key without
+     * registering it; `null` is returned for names that
+     * are unknown, i.e. are not referenced by any record.
+     */
+    public Long lookup(String name) {
+
+        if (!enabled || name == null) return null;
+
+        Long code = codes.get(name);
+        if (code != null) return code;
+
+        Record record = connect.get(getNameKey(name));
+        if (record == null) return null;
+
+        code = record.getLong(Constants.DICTIONARY_CODE_COL_NAME);
+        cache(name, code);
+
+        return code;
+
+    }
+
+    /**
+     * Restores a label or property key from its persisted
+     * representation
+     */
+    public String decode(Object value) {
+
+        if (value == null) return null;
+        if (!(value instanceof Number)) return value.toString();
+
+        long code = ((Number) value).longValue();
+
+        String name = names.get(code);
+        if (name != null) return name;
+
+        Record record = connect.get(getCodeKey(code));
+        if (record == null) {
+            throw new RuntimeException(String.format("Dictionary code `%s` is unknown.", code));
+        }
+
+        name = record.getString(Constants.DICTIONARY_NAME_COL_NAME);
+        cache(name, code);
+
+        return name;
+
+    }
+
+    /**
+     * Returns the persisted representation of a type name;
+     * names that do not refer to a [ValueType], e.g. the
+     * marker of an element without properties, are kept.
+     */
+    public Object encodeType(String typeName) {
+
+        if (!enabled) return typeName;
+
+        ValueType valueType = ValueUtils.parseValueType(typeName);
+        return valueType == null ? typeName : (Object) (long) valueType.getCode();
+
+    }
+
+    public String decodeType(Object value) {
+        return ValueUtils.getTypeName(value);
+    }
+
+    private long register(String name) {
+        /*
+         * STEP #1: Check whether the name has been
+         * registered by another client
+         */
+        Key nameKey = getNameKey(name);
+
+        Record record = connect.get(nameKey);
+        if (record != null) {
+            long code = record.getLong(Constants.DICTIONARY_CODE_COL_NAME);
+            names.put(code, name);
+
+            return code;
+        }
+        /*
+         * STEP #2: Draw the next code and write the reverse
+         * record before the name record, so that every code
+         * that is visible to readers can be decoded
+         */
+        long code = connect.increment(getKey(SEQUENCE), Constants.DICTIONARY_CODE_COL_NAME);
+
+        List<Bin> bins = new ArrayList<>();
+        bins.add(new Bin(Constants.DICTIONARY_CODE_COL_NAME, code));
+        bins.add(new Bin(Constants.DICTIONARY_NAME_COL_NAME, name));
+
+        connect.put(getCodeKey(code), bins);
+        /*
+         * STEP #3: Create the name record; if another client
+         * won the race, its code is adopted
+         */
+        if (!connect.create(nameKey, bins)) {
+            record = connect.get(nameKey);
+            code = record.getLong(Constants.DICTIONARY_CODE_COL_NAME);
+        }
+
+        names.put(code, name);
+        return code;
+
+    }
+
+    private void cache(String name, long code) {
+        codes.put(name, code);
+        names.put(code, name);
+    }
+
+    private Key getNameKey(String name) {
+        return getKey(NAME_PREFIX + ":" + name);
+    }
+
+    private Key getCodeKey(long code) {
+        return getKey(CODE_PREFIX + ":" + code);
+    }
+
+    private Key getKey(String userKey) {
+        return connect.getKey(userKey, Constants.META);
+    }
+
+}
@@ -33,7 +33,7 @@ public class AeroEdgeEntry {
     public Long updatedAt;
     public String propKey;
     public String propType;
-    public String propValue;
+    public Object propValue;
 
     public AeroEdgeEntry(
             String cacheKey,
@@ -48,7 +48,7 @@ public class AeroEdgeEntry {
             Long updatedAt,
             String propKey,
             String propType,
-            String propValue) {
+            Object propValue) {
 
         this.cacheKey = cacheKey;
         this.id = id;
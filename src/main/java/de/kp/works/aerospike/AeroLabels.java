@@ -0,0 +1,170 @@
+package de.kp.works.aerospike;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.google.common.hash.Hashing;
+import de.kp.works.aerospike.gremlin.AeroIndex;
+import de.kp.works.aerospike.gremlin.Constants;
+import de.kp.works.aerospike.gremlin.ElementType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * [AeroLabels] assigns each label of an edge or vertex
+ * to its own Aerospike set, e.g. <set>_vertices_<label>;
+ * this turns label restricted reads into set scans. The
+ * labels and their sets are registered in the metadata
+ * set:
+ *
+ * labels:vertices -> {label_sets: {label: setname}}
+ * labels:edges    -> {label_sets: {label: setname}}
+ *
+ * Records are still addressed by the digest of the base
+ * set, so that key based reads and removals need not know
+ * the label of an element; only writes provide the label
+ * set, which is the set a record is stored in.
+ */
+public class AeroLabels {
+
+    private static final String LABELS_PREFIX = "labels";
+    /*
+     * Aerospike restricts the length of set names and
+     * reserves some characters; other labels are named
+     * by their hash
+     */
+    private static final int MAX_SETNAME_LENGTH = 63;
+    private static final Pattern SETNAME_PATTERN = Pattern.compile("[A-Za-z0-9_\\-.]+");
+
+    private final AeroConnect connect;
+    private final boolean enabled;
+
+    private final Map<ElementType, Set<String>> registered = new ConcurrentHashMap<>();
+
+    public AeroLabels(AeroConnect connect, boolean enabled) {
+        this.connect = connect;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The name of the set that holds the elements of the
+     * provided type and label
+     */
+    public String getSetname(ElementType elementType, String label) {
+
+        String setname = getBaseSetname(elementType) + "_" + label;
+        if (setname.length() <= MAX_SETNAME_LENGTH && SETNAME_PATTERN.matcher(label).matches())
+            return setname;
+
+        String hash = Hashing.murmur3_32().hashString(label, StandardCharsets.UTF_8).toString();
+        return getBaseSetname(elementType) + "_" + hash;
+
+    }
+
+    /**
+     * Registers a label before elements are written to its
+     * set; the indices of a new set are built on the fly.
+     */
+    public void register(ElementType elementType, String label) {
+
+        Set<String> labels = registered.computeIfAbsent(elementType, k -> ConcurrentHashMap.newKeySet());
+        if (labels.contains(label)) return;
+
+        String setname = getSetname(elementType, label);
+
+        Map<Object, Object> items = new HashMap<>();
+        items.put(label, setname);
+
+        int added = connect.putMapItems(getLabelsKey(elementType), Constants.LABEL_SETS_COL_NAME, items);
+        if (added > 0) {
+
+            AeroIndex aeroIndex = new AeroIndex(connect);
+            if (elementType.equals(ElementType.EDGE))
+                aeroIndex.edgeIndices(setname);
+
+            else
+                aeroIndex.vertexIndices(setname);
+
+        }
+
+        labels.add(label);
+
+    }
+
+    /**
+     * Returns the set of a label, or `null`, if the label
+     * has not been registered by any client.
+     */
+    public String lookup(ElementType elementType, String label) {
+
+        Set<String> labels = registered.get(elementType);
+        if (labels != null && labels.contains(label))
+            return getSetname(elementType, label);
+
+        Object setname = getLabelSets(elementType).get(label);
+        return setname == null ? null : setname.toString();
+
+    }
+
+    /**
+     * The sets of all registered labels; the registry is
+     * read with each call, as other clients may register
+     * labels at any time.
+     */
+    public List<String> getSetnames(ElementType elementType) {
+
+        List<String> setnames = new ArrayList<>();
+        getLabelSets(elementType).values().forEach(setname -> setnames.add(setname.toString()));
+
+        Collections.sort(setnames);
+        return setnames;
+
+    }
+
+    private Map<?,?> getLabelSets(ElementType elementType) {
+
+        Record record = connect.get(getLabelsKey(elementType));
+        if (record == null) return Collections.emptyMap();
+
+        Map<?,?> labelSets = record.getMap(Constants.LABEL_SETS_COL_NAME);
+        return labelSets == null ? Collections.emptyMap() : labelSets;
+
+    }
+
+    private String getBaseSetname(ElementType elementType) {
+        return connect.setname() + "_" + getPostfix(elementType);
+    }
+
+    private String getPostfix(ElementType elementType) {
+        return elementType.equals(ElementType.EDGE) ? Constants.EDGES : Constants.VERTICES;
+    }
+
+    private Key getLabelsKey(ElementType elementType) {
+        return connect.getKey(LABELS_PREFIX + ":" + getPostfix(elementType), Constants.META);
+    }
+
+}
@@ -0,0 +1,530 @@
+package de.kp.works.aerospike;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.exp.Exp;
+import com.aerospike.client.exp.Expression;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.RateLimiter;
+import de.kp.works.aerospike.gremlin.AeroConfiguration;
+import de.kp.works.aerospike.gremlin.Constants;
+import de.kp.works.aerospike.gremlin.ElementType;
+import de.kp.works.aerospike.gremlin.StorageLayout;
+import de.kp.works.aerospike.gremlin.ValueCodec;
+import de.kp.works.aerospike.gremlin.ValueUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * [AeroMigration] copies a graph that is persisted with
+ * the entry layout (one record per property) into a graph
+ * with the packed layout (one record per element), while
+ * the source graph remains in operation.
+ *
+ * The vertex and edge sets are scanned partition by
+ * partition; the entries of a partition are grouped by
+ * their element and merged into the packed records of the
+ * target. As packed records are merged and not replaced,
+ * the entries of an element may be spread over multiple
+ * partitions. The progress is checkpointed after each
+ * partition in the metadata set of the target, and an
+ * interrupted migration resumes with the next partition.
+ *
+ * Each completed pass is followed by catch-up passes: these
+ * only copy the entries that were updated since the previous
+ * pass started. Removed entries are not propagated; they are
+ * reported by the verification, which compares the element
+ * counts and property checksums of both graphs.
+ *
+ * Note, the adjacency records of the target are not copied,
+ * and must be rebuilt after the migration, if enabled.
+ */
+public class AeroMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AeroMigration.class);
+
+    private static final String CHECKPOINT_PREFIX = "migration";
+
+    private static final String PARTITION_COL_NAME = "partition";
+    private static final String BEGIN_COL_NAME = "begin";
+    private static final String SINCE_COL_NAME = "since";
+    /*
+     * Catch-up passes start a little earlier than the
+     * previous pass, as the update times are assigned
+     * by the cluster nodes and not by this client
+     */
+    private static final long CLOCK_SKEW_NANOS = 60_000_000_000L;
+    /*
+     * The number of target records that are retrieved
+     * by a single batch request during verification
+     */
+    private static final int BATCH_SIZE = 500;
+
+    private static final ElementType[] ELEMENT_TYPES = {ElementType.VERTEX, ElementType.EDGE};
+
+    private final AerospikeConnect source;
+    private final AerospikeConnect target;
+
+    private final AeroBaseTable vertexTable;
+    private final AeroBaseTable edgeTable;
+
+    private final RateLimiter rateLimiter;
+
+    public AeroMigration(AeroConfiguration source, AeroConfiguration target) throws Exception {
+        this(new AerospikeConnect(new AeroOptions(source.getConf())),
+                new AerospikeConnect(new AeroOptions(target.getConf())),
+                new AeroOptions(source.getConf()).getMigrationRate());
+    }
+
+    public AeroMigration(AerospikeConnect source, AerospikeConnect target, double recordsPerSecond) throws Exception {
+
+        if (!source.layout().equals(StorageLayout.ENTRY))
+            throw new Exception("The source graph must use the entry layout.");
+
+        if (!target.layout().equals(StorageLayout.PACKED))
+            throw new Exception("The target graph must use the packed layout.");
+
+        if (source.namespace().equals(target.namespace()) && source.setname().equals(target.setname()))
+            throw new Exception("The source and target graph must use different sets.");
+
+        this.source = source;
+        this.target = target;
+
+        this.vertexTable = new AeroBaseTable(target.setname() + "_" + Constants.VERTICES, target);
+        this.edgeTable = new AeroBaseTable(target.setname() + "_" + Constants.EDGES, target);
+
+        this.rateLimiter = recordsPerSecond > 0 ? RateLimiter.create(recordsPerSecond) : null;
+
+    }
+
+    /**
+     * Runs (or resumes) a migration pass; if the previous
+     * pass is completed, a catch-up pass is started.
+     */
+    public Stats migrate() {
+        /*
+         * STEP #1: Determine the partition and the update
+         * time of the next pass from the checkpoint
+         */
+        int partition = 0;
+
+        long begin = System.currentTimeMillis() * 1_000_000L;
+        long since = 0L;
+
+        Record checkpoint = target.get(getCheckpointKey());
+        if (checkpoint != null) {
+
+            partition = (int) checkpoint.getLong(PARTITION_COL_NAME);
+
+            begin = checkpoint.getLong(BEGIN_COL_NAME);
+            since = checkpoint.getLong(SINCE_COL_NAME);
+
+            if (partition >= Node.PARTITIONS) {
+
+                partition = 0;
+
+                since = Math.max(0L, begin - CLOCK_SKEW_NANOS);
+                begin = System.currentTimeMillis() * 1_000_000L;
+
+            }
+        }
+
+        Expression filterExp = since == 0L
+                ? null : Exp.build(Exp.ge(Exp.lastUpdate(), Exp.val(since)));
+
+        LOGGER.info("Migration of `{}` starts with partition {}{}.", source.setname(), partition,
+                since == 0L ? "" : " (catch-up pass)");
+        /*
+         * STEP #2: Migrate the vertices and edges of each
+         * partition and checkpoint the progress
+         */
+        Stats stats = new Stats();
+        for (int i = partition; i < Node.PARTITIONS; i++) {
+
+            for (ElementType elementType : ELEMENT_TYPES)
+                migratePartition(elementType, i, filterExp, stats);
+
+            writeCheckpoint(i + 1, begin, since);
+            stats.partitions++;
+
+            if (stats.partitions % 256 == 0) LOGGER.info("Migration progress: {}", stats);
+
+        }
+
+        stats.stop();
+        LOGGER.info("Migration pass of `{}` completed: {}", source.setname(), stats);
+
+        return stats;
+
+    }
+
+    /**
+     * Compares the element counts and property checksums
+     * of the source and the target graph; additionally,
+     * every source entry is checked against the target.
+     */
+    public Verification verify() {
+
+        Verification verification = new Verification();
+        for (int i = 0; i < Node.PARTITIONS; i++) {
+
+            for (ElementType elementType : ELEMENT_TYPES) {
+                verifySourcePartition(elementType, i, verification);
+                verifyTargetPartition(elementType, i, verification);
+            }
+
+            verification.stats.partitions++;
+
+        }
+
+        verification.stats.stop();
+        LOGGER.info("Verification of `{}` completed: {}", source.setname(), verification);
+
+        return verification;
+
+    }
+
+    /**
+     * Removes the checkpoint; the next migration starts
+     * with a complete pass.
+     */
+    public void reset() {
+        target.removeAll(Collections.singletonList(getCheckpointKey()));
+    }
+
+    public void close() {
+        source.close();
+        target.close();
+    }
+
+    private void migratePartition(ElementType elementType, int partition, Expression filterExp, Stats stats) {
+
+        long start = System.nanoTime();
+        List<Record> records = scanPartition(source, elementType, partition, filterExp);
+
+        stats.scanNanos += System.nanoTime() - start;
+        stats.records += records.size();
+
+        if (records.isEmpty()) return;
+        /*
+         * The packed layout groups the entries by their
+         * element, and merges each group into a single
+         * record of the target
+         */
+        start = System.nanoTime();
+        if (elementType.equals(ElementType.VERTEX)) {
+
+            List<AeroVertexEntry> entries = records.stream()
+                    .map(this::toVertexEntry).collect(Collectors.toList());
+
+            stats.elements += entries.stream().map(entry -> entry.id).distinct().count();
+            vertexTable.writeVertex(entries);
+
+        }
+        else {
+
+            List<AeroEdgeEntry> entries = records.stream()
+                    .map(this::toEdgeEntry).collect(Collectors.toList());
+
+            stats.elements += entries.stream().map(entry -> entry.id).distinct().count();
+            edgeTable.writeEdge(entries);
+
+        }
+
+        stats.writeNanos += System.nanoTime() - start;
+
+    }
+
+    private void verifySourcePartition(ElementType elementType, int partition, Verification verification) {
+
+        List<Record> records = scanPartition(source, elementType, partition, null);
+        verification.stats.records += records.size();
+
+        Map<String, List<Record>> elements = records.stream()
+                .filter(record -> record.getString(Constants.ID_COL_NAME) != null)
+                .collect(Collectors.groupingBy(record -> record.getString(Constants.ID_COL_NAME)));
+
+        List<String> ids = new ArrayList<>(elements.keySet());
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+
+            List<String> batch = ids.subList(i, Math.min(ids.size(), i + BATCH_SIZE));
+            List<Record> targetRecords = target.getAll(batch.stream()
+                    .map(id -> target.getKey(id, elementType)).collect(Collectors.toList()));
+
+            for (int j = 0; j < batch.size(); j++) {
+
+                Record targetRecord = targetRecords.get(j);
+                if (targetRecord == null) {
+                    verification.missingElements++;
+                    continue;
+                }
+
+                Map<String, Object[]> properties = getTargetProperties(targetRecord);
+                /*
+                 * An element is counted by the entry with the
+                 * smallest property key, as the entries of an
+                 * element may be spread over partitions
+                 */
+                String firstKey = properties.isEmpty()
+                        ? Constants.EMPTY_VALUE : new TreeSet<>(properties.keySet()).first();
+
+                for (Record record : elements.get(batch.get(j))) {
+
+                    String propKey  = source.dictionary().decode(record.getValue(Constants.PROPERTY_KEY_COL_NAME));
+                    String propType = source.dictionary().decodeType(record.getValue(Constants.PROPERTY_TYPE_COL_NAME));
+
+                    if (firstKey.equals(propKey)) verification.sourceElements++;
+                    if (Constants.EMPTY_VALUE.equals(propKey)) continue;
+
+                    Object propValue = ValueUtils.getPropertyValue(record);
+
+                    verification.sourceProperties++;
+                    verification.sourceChecksum += checksum(batch.get(j), propKey, propType, propValue);
+
+                    Object[] property = properties.get(propKey);
+                    if (property == null || !Objects.equals(property[0], propType)
+                            || !Arrays.equals(ValueCodec.encode(property[1]), ValueCodec.encode(propValue)))
+                        verification.mismatchedProperties++;
+
+                }
+            }
+        }
+
+    }
+
+    private void verifyTargetPartition(ElementType elementType, int partition, Verification verification) {
+
+        List<Record> records = scanPartition(target, elementType, partition, null);
+        verification.stats.records += records.size();
+
+        for (Record record : records) {
+
+            String id = record.getString(Constants.ID_COL_NAME);
+            verification.targetElements++;
+
+            for (Map.Entry<String, Object[]> property : getTargetProperties(record).entrySet()) {
+
+                Object[] value = property.getValue();
+
+                verification.targetProperties++;
+                verification.targetChecksum += checksum(id, property.getKey(), (String) value[0], value[1]);
+
+            }
+        }
+
+    }
+
+    /**
+     * Restores the (type, value) pairs of a packed record,
+     * keyed by the property key
+     */
+    private Map<String, Object[]> getTargetProperties(Record record) {
+
+        Map<String, Object[]> properties = new HashMap<>();
+
+        Map<?,?> values = record.getMap(Constants.PROPERTIES_COL_NAME);
+        Map<?,?> types  = record.getMap(Constants.PROPERTY_TYPES_COL_NAME);
+
+        if (values == null) return properties;
+        for (Map.Entry<?,?> value : values.entrySet()) {
+
+            String propKey  = target.dictionary().decode(value.getKey());
+            String propType = types == null ? null : target.dictionary().decodeType(types.get(value.getKey()));
+
+            properties.put(propKey, new Object[] {propType, ValueUtils.fromBinValue(propType, value.getValue())});
+
+        }
+
+        return properties;
+
+    }
+
+    /**
+     * The checksum of a property; checksums are summed up,
+     * so they do not depend on the order of the properties.
+     */
+    private long checksum(String id, String propKey, String propType, Object propValue) {
+
+        Hasher hasher = Hashing.murmur3_128().newHasher()
+                .putString(id, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(propKey, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(String.valueOf(propType), StandardCharsets.UTF_8).putByte((byte) 0)
+                .putBytes(ValueCodec.encode(propValue));
+
+        return hasher.hash().asLong();
+
+    }
+
+    private List<Record> scanPartition(AerospikeConnect connect, ElementType elementType, int partition,
+                                       Expression filterExp) {
+
+        String postfix = elementType.equals(ElementType.VERTEX) ? Constants.VERTICES : Constants.EDGES;
+        /*
+         * A single partition is served by a single node,
+         * so the callback is not invoked concurrently
+         */
+        List<Record> records = new ArrayList<>();
+        connect.scanPartition(connect.setname() + "_" + postfix, partition, filterExp, (key, record) -> {
+
+            if (rateLimiter != null) rateLimiter.acquire();
+            records.add(record);
+
+        });
+
+        return records;
+
+    }
+
+    private AeroVertexEntry toVertexEntry(Record record) {
+
+        AeroDictionary dictionary = source.dictionary();
+        return new AeroVertexEntry(
+                null,
+                record.getString(Constants.ID_COL_NAME),
+                dictionary.decodeType(record.getValue(Constants.ID_TYPE_COL_NAME)),
+                dictionary.decode(record.getValue(Constants.LABEL_COL_NAME)),
+                record.getLong(Constants.CREATED_AT_COL_NAME),
+                record.getLong(Constants.UPDATED_AT_COL_NAME),
+                dictionary.decode(record.getValue(Constants.PROPERTY_KEY_COL_NAME)),
+                dictionary.decodeType(record.getValue(Constants.PROPERTY_TYPE_COL_NAME)),
+                ValueUtils.getPropertyValue(record));
+
+    }
+
+    private AeroEdgeEntry toEdgeEntry(Record record) {
+
+        AeroDictionary dictionary = source.dictionary();
+        return new AeroEdgeEntry(
+                null,
+                record.getString(Constants.ID_COL_NAME),
+                dictionary.decodeType(record.getValue(Constants.ID_TYPE_COL_NAME)),
+                dictionary.decode(record.getValue(Constants.LABEL_COL_NAME)),
+                record.getString(Constants.TO_COL_NAME),
+                dictionary.decodeType(record.getValue(Constants.TO_TYPE_COL_NAME)),
+                record.getString(Constants.FROM_COL_NAME),
+                dictionary.decodeType(record.getValue(Constants.FROM_TYPE_COL_NAME)),
+                record.getLong(Constants.CREATED_AT_COL_NAME),
+                record.getLong(Constants.UPDATED_AT_COL_NAME),
+                dictionary.decode(record.getValue(Constants.PROPERTY_KEY_COL_NAME)),
+                dictionary.decodeType(record.getValue(Constants.PROPERTY_TYPE_COL_NAME)),
+                ValueUtils.getPropertyValue(record));
+
+    }
+
+    private Key getCheckpointKey() {
+        return target.getKey(CHECKPOINT_PREFIX + ":" + source.namespace() + ":" + source.setname(), Constants.META);
+    }
+
+    private void writeCheckpoint(int partition, long begin, long since) {
+
+        List<Bin> bins = new ArrayList<>();
+
+        bins.add(new Bin(PARTITION_COL_NAME, partition));
+        bins.add(new Bin(BEGIN_COL_NAME, begin));
+        bins.add(new Bin(SINCE_COL_NAME, since));
+
+        target.putMaps(getCheckpointKey(), bins, Collections.emptyMap());
+
+    }
+
+    /**
+     * The throughput of a migration or verification; the
+     * scan and write times indicate the load of the cluster.
+     */
+    public static class Stats {
+
+        private final long start = System.nanoTime();
+        private long stop = -1L;
+
+        public long partitions = 0L;
+        public long records = 0L;
+        public long elements = 0L;
+
+        public long scanNanos = 0L;
+        public long writeNanos = 0L;
+
+        void stop() {
+            stop = System.nanoTime();
+        }
+
+        public long getElapsedMillis() {
+            return ((stop == -1L ? System.nanoTime() : stop) - start) / 1_000_000L;
+        }
+
+        public double getRecordsPerSecond() {
+            long elapsed = getElapsedMillis();
+            return elapsed == 0L ? 0D : records * 1000D / elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "partitions=%d, records=%d, elements=%d, elapsed=%d ms, records/s=%.1f, scan=%d ms, write=%d ms",
+                    partitions, records, elements, getElapsedMillis(), getRecordsPerSecond(),
+                    scanNanos / 1_000_000L, writeNanos / 1_000_000L);
+        }
+
+    }
+
+    /**
+     * The result of a verification; the graphs match, if
+     * the counts and checksums are equal and all entries
+     * of the source are found in the target.
+     */
+    public static class Verification {
+
+        public final Stats stats = new Stats();
+
+        public long sourceElements = 0L;
+        public long targetElements = 0L;
+
+        public long sourceProperties = 0L;
+        public long targetProperties = 0L;
+
+        public long sourceChecksum = 0L;
+        public long targetChecksum = 0L;
+
+        public long missingElements = 0L;
+        public long mismatchedProperties = 0L;
+
+        public boolean isValid() {
+            return sourceElements == targetElements && sourceProperties == targetProperties
+                    && sourceChecksum == targetChecksum && missingElements == 0L && mismatchedProperties == 0L;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "valid=%s, elements=%d/%d, properties=%d/%d, checksums=%x/%x, missing=%d, mismatched=%d, %s",
+                    isValid(), sourceElements, targetElements, sourceProperties, targetProperties,
+                    sourceChecksum, targetChecksum, missingElements, mismatchedProperties, stats);
+        }
+
+    }
+
+}
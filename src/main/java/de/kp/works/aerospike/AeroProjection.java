@@ -0,0 +1,125 @@
+package de.kp.works.aerospike;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import de.kp.works.aerospike.gremlin.Constants;
+import de.kp.works.aerospike.gremlin.ElementType;
+import de.kp.works.aerospike.gremlin.StorageLayout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * [AeroProjection] describes the bins of an edge or vertex
+ * record that a read actually needs; the bin names are sent
+ * with queries, scans and batch reads, and all other bins
+ * remain on the server.
+ *
+ * Elements that are read without their properties are not
+ * fully loaded, i.e. their properties are read on demand.
+ */
+public class AeroProjection {
+    /*
+     * All bins of a record
+     */
+    public static final AeroProjection ALL = new AeroProjection(true, true);
+    /*
+     * The structure of an element, i.e. identifier, label,
+     * timestamps and, for edges, the adjacent vertices
+     */
+    public static final AeroProjection STRUCTURE = new AeroProjection(false, false);
+    /*
+     * The structure and the property values of an element;
+     * the packed layout excludes the index bin of the values
+     */
+    public static final AeroProjection PROPERTIES = new AeroProjection(true, false);
+
+    private final boolean properties;
+    private final boolean all;
+
+    private AeroProjection(boolean properties, boolean all) {
+        this.properties = properties;
+        this.all = all;
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    /**
+     * Indicates whether the properties of an element
+     * are read; otherwise the element is not fully
+     * loaded.
+     */
+    public boolean withProperties() {
+        return properties;
+    }
+
+    /**
+     * The bins to read for the provided element type; an
+     * empty list refers to all bins.
+     */
+    public List<String> getBinNames(StorageLayout layout, ElementType elementType) {
+
+        if (all || elementType.equals(ElementType.UNDEFINED))
+            return Collections.emptyList();
+
+        List<String> binNames = new ArrayList<>();
+
+        binNames.add(Constants.ID_COL_NAME);
+        binNames.add(Constants.ID_TYPE_COL_NAME);
+        binNames.add(Constants.LABEL_COL_NAME);
+
+        if (elementType.equals(ElementType.EDGE)) {
+
+            binNames.add(Constants.TO_COL_NAME);
+            binNames.add(Constants.TO_TYPE_COL_NAME);
+            binNames.add(Constants.FROM_COL_NAME);
+            binNames.add(Constants.FROM_TYPE_COL_NAME);
+
+        }
+
+        binNames.add(Constants.CREATED_AT_COL_NAME);
+        binNames.add(Constants.UPDATED_AT_COL_NAME);
+
+        if (!properties) return binNames;
+
+        if (layout.equals(StorageLayout.PACKED)) {
+
+            binNames.add(Constants.PROPERTIES_COL_NAME);
+            binNames.add(Constants.PROPERTY_TYPES_COL_NAME);
+
+        }
+        else {
+
+            binNames.add(Constants.PROPERTY_KEY_COL_NAME);
+            binNames.add(Constants.PROPERTY_TYPE_COL_NAME);
+            binNames.add(Constants.PROPERTY_VALUE_COL_NAME);
+            binNames.add(Constants.PROPERTY_LONG_COL_NAME);
+            binNames.add(Constants.PROPERTY_DOUBLE_COL_NAME);
+            binNames.add(Constants.PROPERTY_BLOB_COL_NAME);
+
+        }
+
+        return binNames;
+
+    }
+
+}
@@ -0,0 +1,319 @@
+package de.kp.works.aerospike;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.Record;
+import de.kp.works.aerospike.gremlin.Constants;
+import de.kp.works.aerospike.gremlin.StorageLayout;
+import de.kp.works.aerospike.gremlin.ValueUtils;
+import de.kp.works.aerospike.concurrent.NamedThreadFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [AeroStatistics] collects per-bin statistics of the
+ * edge and vertex sets from a sample of their records;
+ * these are the sampled value frequencies and estimated
+ * distinct counts of the indexed bins. The statistics
+ * drive the choice of the secondary index filter of a
+ * query (see [AeroRead]).
+ *
+ * The statistics of a set are collected in background,
+ * when the set is queried for the first time, and are
+ * refreshed periodically afterwards. Until then, no
+ * estimates are provided.
+ */
+public class AeroStatistics {
+
+    private static final String THREAD_GROUP_NAME = "aero-statistics";
+    private static final String THREAD_SAMPLE_PREFIX = "sample";
+    /*
+     * Property values are sampled per property key; this
+     * group refers to the values of all property keys
+     */
+    private static final String ALL_KEYS = "*";
+
+    private final AeroConnect connect;
+    private final boolean enabled;
+
+    private final int sampleSize;
+    private final long refreshMillis;
+
+    private final Map<String, SetStatistics> statistics = new ConcurrentHashMap<>();
+    private final Set<String> collecting = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService executor;
+
+    public AeroStatistics(AeroConnect connect, boolean enabled, int sampleSize, long refreshMillis) {
+
+        this.connect = connect;
+        this.enabled = enabled;
+
+        this.sampleSize = Math.max(1, sampleSize);
+        this.refreshMillis = refreshMillis;
+
+        if (enabled) {
+            executor = Executors.newSingleThreadScheduledExecutor(
+                    new NamedThreadFactory(THREAD_GROUP_NAME, THREAD_SAMPLE_PREFIX));
+        }
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Estimates the fraction of the records of a set, that
+     * match an equality condition on the provided field; the
+     * value is expected in its persisted representation, and
+     * property values refer to the provided property key. A
+     * negative value is returned, if no statistics exist.
+     */
+    public double getEqualSelectivity(String setname, String field, Object propertyKey, Object value) {
+
+        BinStatistics binStatistics = getBinStatistics(setname, field, propertyKey);
+        if (binStatistics == null) return -1D;
+
+        return binStatistics.getEqualSelectivity(normalize(field, value));
+
+    }
+
+    /**
+     * Estimates the fraction of the records of a set, that
+     * refer to a property value within the provided range of
+     * index values; both bounds are inclusive. A negative value
+     * is returned, if no statistics exist.
+     */
+    public double getRangeSelectivity(String setname, Object propertyKey, long begin, long end) {
+
+        BinStatistics binStatistics = getBinStatistics(setname, Constants.PROPERTY_VALUE_COL_NAME, propertyKey);
+        if (binStatistics == null) return -1D;
+
+        return binStatistics.getRangeSelectivity(begin, end);
+
+    }
+
+    public void close() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private BinStatistics getBinStatistics(String setname, String field, Object propertyKey) {
+
+        if (!enabled) return null;
+
+        SetStatistics setStatistics = statistics.get(setname);
+        if (setStatistics == null) {
+            /*
+             * The first request of a set schedules the
+             * collection and its periodic refresh
+             */
+            if (collecting.add(setname)) {
+                executor.scheduleWithFixedDelay(() -> collect(setname),
+                        0, refreshMillis, TimeUnit.MILLISECONDS);
+            }
+            return null;
+        }
+
+        String binName = field;
+        if (field.equals(Constants.PROPERTY_VALUE_COL_NAME)) {
+            binName = field + ":" + (propertyKey == null ? ALL_KEYS : propertyKey.toString());
+        }
+
+        return setStatistics.bins.get(binName);
+
+    }
+
+    /**
+     * Collects the statistics of a set from a sample of its
+     * records; failures are ignored, as the statistics are
+     * recollected with the next refresh.
+     */
+    private void collect(String setname) {
+
+        try {
+
+            Map<String, BinStatistics> bins = new HashMap<>();
+            connect.sample(setname, sampleSize, (key, record) -> {
+                synchronized (bins) {
+                    sample(bins, record);
+                }
+            });
+
+            long total = connect.getRecordCount(setname);
+            bins.values().forEach(binStatistics -> binStatistics.complete(total));
+
+            statistics.put(setname, new SetStatistics(bins));
+
+        } catch (Exception e) {
+            /* Do nothing */
+        }
+
+    }
+
+    private void sample(Map<String, BinStatistics> bins, Record record) {
+
+        sampleBin(bins, record, Constants.ID_COL_NAME);
+        sampleBin(bins, record, Constants.LABEL_COL_NAME);
+
+        sampleBin(bins, record, Constants.FROM_COL_NAME);
+        sampleBin(bins, record, Constants.TO_COL_NAME);
+
+        if (connect.layout().equals(StorageLayout.PACKED)) {
+            /*
+             * The properties of an element are organized
+             * as map bins, keyed by the property key
+             */
+            Map<?,?> properties = record.getMap(Constants.PROPERTIES_COL_NAME);
+            if (properties == null) return;
+
+            Map<?,?> types = record.getMap(Constants.PROPERTY_TYPES_COL_NAME);
+            properties.forEach((propKey, binValue) -> {
+
+                String propType = types == null ? null : connect.dictionary().decodeType(types.get(propKey));
+                Object propValue = ValueUtils.fromBinValue(propType, binValue);
+
+                sampleValue(bins, propKey, propValue);
+
+            });
+
+        }
+        else {
+
+            Object propKey = record.getValue(Constants.PROPERTY_KEY_COL_NAME);
+            if (propKey == null) return;
+
+            sampleBin(bins, record, Constants.PROPERTY_KEY_COL_NAME);
+            sampleValue(bins, propKey, ValueUtils.getPropertyValue(record));
+
+        }
+
+    }
+
+    private void sampleBin(Map<String, BinStatistics> bins, Record record, String binName) {
+
+        Object value = record.getValue(binName);
+        if (value == null) return;
+
+        bins.computeIfAbsent(binName, k -> new BinStatistics()).add(normalize(binName, value));
+
+    }
+
+    private void sampleValue(Map<String, BinStatistics> bins, Object propKey, Object propValue) {
+
+        if (propValue == null) return;
+
+        Object value = normalize(Constants.PROPERTY_VALUE_COL_NAME, propValue);
+
+        String field = Constants.PROPERTY_VALUE_COL_NAME;
+        bins.computeIfAbsent(field + ":" + propKey, k -> new BinStatistics()).add(value);
+        bins.computeIfAbsent(field + ":" + ALL_KEYS, k -> new BinStatistics()).add(value);
+
+    }
+
+    /**
+     * Property values are compared by their index value,
+     * if any, and all other values by their string value
+     */
+    private Object normalize(String field, Object value) {
+
+        if (value == null) return null;
+        if (field.equals(Constants.PROPERTY_VALUE_COL_NAME)) {
+            Long indexValue = ValueUtils.toIndexValue(ValueUtils.getValueType(value), value);
+            if (indexValue != null) return indexValue;
+        }
+
+        return value instanceof Number ? (Object) ((Number) value).longValue() : value.toString();
+
+    }
+
+    private static class SetStatistics {
+
+        private final Map<String, BinStatistics> bins;
+
+        SetStatistics(Map<String, BinStatistics> bins) {
+            this.bins = bins;
+        }
+
+    }
+
+    private static class BinStatistics {
+
+        private final Map<Object, Integer> frequencies = new HashMap<>();
+        private int sampled = 0;
+        /*
+         * The estimated number of distinct values of the
+         * bin within the entire set
+         */
+        private double distinct = 0D;
+
+        void add(Object value) {
+            frequencies.merge(value, 1, Integer::sum);
+            sampled += 1;
+        }
+
+        /**
+         * Estimates the distinct count of the set from the
+         * sample (GEE estimator): values that occur once in
+         * the sample are scaled by sqrt(total / sampled).
+         */
+        void complete(long total) {
+
+            long singletons = frequencies.values().stream().filter(count -> count == 1).count();
+            long multiples = frequencies.size() - singletons;
+
+            double scale = total > sampled ? Math.sqrt((double) total / sampled) : 1D;
+            distinct = Math.max(1D, scale * singletons + multiples);
+
+        }
+
+        double getEqualSelectivity(Object value) {
+
+            Integer count = frequencies.get(value);
+            if (count != null) return (double) count / sampled;
+            /*
+             * Values that are not part of the sample are
+             * assumed to be rare
+             */
+            return Math.min(1D / distinct, 1D / (sampled + 1));
+
+        }
+
+        double getRangeSelectivity(long begin, long end) {
+
+            long count = frequencies.entrySet().stream()
+                    .filter(entry -> entry.getKey() instanceof Long)
+                    .filter(entry -> {
+                        long value = (Long) entry.getKey();
+                        return value >= begin && value <= end;
+                    })
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+
+            return Math.max(count, 1) / (double) (sampled + 1);
+
+        }
+
+    }
+
+}
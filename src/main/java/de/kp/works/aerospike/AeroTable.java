@@ -22,9 +22,12 @@ import de.kp.works.aerospike.mutate.*;
 import de.kp.works.aerospike.query.*;
 import de.kp.works.aerospike.gremlin.AeroVertex;
 import de.kp.works.aerospike.gremlin.ElementType;
+import de.kp.works.aerospike.gremlin.StorageLayout;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AeroTable extends AeroBaseTable {
 
@@ -39,7 +42,6 @@ public class AeroTable extends AeroBaseTable {
     public boolean put(AeroPut aeroPut) throws Exception {
 
         if (connect == null) return false;
-        if (connect.getClient() == null) return false;
 
         try {
 
@@ -67,7 +69,6 @@ public class AeroTable extends AeroBaseTable {
     public boolean delete(AeroDelete aeroDelete) throws Exception {
 
         if (connect == null) return false;
-        if (connect.getClient() == null) return false;
 
         try {
 
@@ -90,7 +91,6 @@ public class AeroTable extends AeroBaseTable {
     public Object increment(AeroIncrement aeroIncrement) {
 
         if (connect == null) return false;
-        if (connect.getClient() == null) return false;
         /*
          * In case of an increment, the respective incremented
          * value is returned,
@@ -179,13 +179,33 @@ public class AeroTable extends AeroBaseTable {
     }
     /**
      * Retrieve all elements (edges or vertices) that refer
-     * to the provided list of identifiers
+     * to the provided list of identifiers; the results are
+     * returned in the order of the identifiers, and unknown
+     * identifiers refer to an empty result.
      */
     public AeroResult[] get(List<Object> ids) {
-        AeroGetQuery aeroQuery = new AeroGetQuery(name, connect, ids);
+        return get(ids, AeroProjection.ALL);
+    }
+    /**
+     * Retrieve the elements that refer to the provided list
+     * of identifiers, restricted to the bins of the provided
+     * projection
+     */
+    public AeroResult[] get(List<Object> ids, AeroProjection projection) {
+        AeroQuery aeroQuery = new AeroGetQuery(name, connect, ids).project(projection);
 
-        List<AeroResult> result = aeroQuery.getResult();
-        return result.toArray(new AeroResult[0]);
+        Map<String, AeroResult> results = new HashMap<>();
+        for (AeroResult result : aeroQuery.getResult()) {
+            if (result.getId() != null) results.put(result.getId().toString(), result);
+        }
+
+        AeroResult[] aligned = new AeroResult[ids.size()];
+        for (int i = 0; i < aligned.length; i++) {
+            AeroResult result = results.get(ids.get(i).toString());
+            aligned[i] = result == null ? new AeroResult() : result;
+        }
+
+        return aligned;
     }
     /**
      * Retrieve the element (edge or vertex) that refers
@@ -199,6 +219,17 @@ public class AeroTable extends AeroBaseTable {
         return result.get(0);
     }
 
+    /**
+     * Returns the per-vertex adjacency records
+     */
+    public AeroAdjacency getAdjacency() {
+        return adjacency;
+    }
+
+    public StorageLayout getLayout() {
+        return connect.layout();
+    }
+
     /**
      * Returns an [AeroQuery] to retrieve all elements
      */
@@ -206,6 +237,10 @@ public class AeroTable extends AeroBaseTable {
         return new AeroAllQuery(name, connect);
     }
 
+    public AeroQuery getAllQuery(AeroProjection projection) {
+        return new AeroAllQuery(name, connect).project(projection);
+    }
+
     /**
      * Returns an [AeroQuery] to retrieve all elements
      * that are referenced by a certain label
@@ -213,6 +248,10 @@ public class AeroTable extends AeroBaseTable {
     public AeroQuery getLabelQuery(String label) {
         return new AeroLabelQuery(name, connect, label);
     }
+
+    public AeroQuery getLabelQuery(String label, AeroProjection projection) {
+        return new AeroLabelQuery(name, connect, label).project(projection);
+    }
     /**
      * Returns an [AeroQuery] to retrieve a specified
      * number of (ordered) elements from the beginning
@@ -236,6 +275,10 @@ public class AeroTable extends AeroBaseTable {
     public AeroQuery getPropertyQuery(String label, String key, Object value) {
         return new AeroPropertyQuery(name, connect, label, key, value);
     }
+
+    public AeroQuery getPropertyQuery(String label, String key, Object value, AeroProjection projection) {
+        return new AeroPropertyQuery(name, connect, label, key, value).project(projection);
+    }
     /**
      * Returns an [AeroQuery] to retrieve all elements
      * that are referenced by a certain label and share
@@ -245,6 +288,11 @@ public class AeroTable extends AeroBaseTable {
         return new AeroRangeQuery(name, connect, label, key, inclusiveFrom, exclusiveTo);
     }
 
+    public AeroQuery getRangeQuery(String label, String key, Object from, boolean fromInclusive,
+                                   Object to, boolean toInclusive, AeroProjection projection) {
+        return new AeroRangeQuery(name, connect, label, key, from, fromInclusive, to, toInclusive).project(projection);
+    }
+
     /* EDGE READ SUPPORT */
 
     /**
@@ -254,6 +302,10 @@ public class AeroTable extends AeroBaseTable {
     public AeroQuery getEdgesQuery(AeroVertex vertex, Direction direction, String... labels) {
         return new AeroEdgesQuery(name, connect, vertex.id(), direction, labels);
     }
+
+    public AeroQuery getEdgesQuery(AeroVertex vertex, Direction direction, AeroProjection projection, String... labels) {
+        return new AeroEdgesQuery(name, connect, vertex.id(), direction, labels).project(projection);
+    }
     /**
      * Method to retrieve all edges that refer to the provided
      * vertex and match direction, label, and a property with
@@ -274,4 +326,11 @@ public class AeroTable extends AeroBaseTable {
                 key, inclusiveFromValue, exclusiveToValue);
     }
 
+    public AeroQuery getEdgesInRangeQuery(AeroVertex vertex, Direction direction, String label, String key,
+                                          Object fromValue, boolean fromInclusive, Object toValue, boolean toInclusive,
+                                          AeroProjection projection) {
+        return new AeroEdgesInRangeQuery(name, connect, vertex.id(), direction, label,
+                key, fromValue, fromInclusive, toValue, toInclusive).project(projection);
+    }
+
 }
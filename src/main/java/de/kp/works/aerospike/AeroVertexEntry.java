@@ -29,7 +29,7 @@ public class AeroVertexEntry {
     public Long updatedAt;
     public String propKey;
     public String propType;
-    public String propValue;
+    public Object propValue;
 
     public AeroVertexEntry(
             String cacheKey,
@@ -40,7 +40,7 @@ public class AeroVertexEntry {
             Long updatedAt,
             String propKey,
             String propType,
-            String propValue) {
+            Object propValue) {
 
         this.cacheKey = cacheKey;
         this.id = id;
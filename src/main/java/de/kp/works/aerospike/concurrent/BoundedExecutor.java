@@ -0,0 +1,134 @@
+package de.kp.works.aerospike.concurrent;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * [BoundedExecutor] runs the background reads of a client,
+ * i.e. the producers of query and scan cursors, on a shared
+ * pool with a maximum number of threads; tasks that exceed
+ * the threads wait in a bounded queue, and tasks that exceed
+ * the queue are rejected with a [RejectedExecutionException].
+ *
+ * Idle threads are released after the keep alive time, and
+ * on JDK 21 or later, the threads can be virtual threads.
+ */
+public class BoundedExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoundedExecutor.class);
+
+    private static final long KEEP_ALIVE_SECS = 60L;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public BoundedExecutor(String groupName, String prefix, int threads, int queueSize, boolean virtual) {
+
+        ThreadFactory threadFactory = virtual ? getVirtualThreadFactory(groupName + "-" + prefix + "-") : null;
+        if (threadFactory == null)
+            threadFactory = new NamedThreadFactory(groupName, prefix);
+
+        executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads),
+                KEEP_ALIVE_SECS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(Math.max(1, queueSize)),
+                threadFactory, (task, pool) -> reject(task));
+
+        executor.allowCoreThreadTimeOut(true);
+
+    }
+
+    /**
+     * Submits a task; the returned future cancels the task,
+     * and interrupts its thread, if it is running.
+     */
+    public Future<?> submit(Runnable task) {
+        return executor.submit(task);
+    }
+
+    /** The number of threads that are running a task */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /** The number of tasks that wait for a thread */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Cancelled tasks remain in the queue until a thread
+     * takes them; they are removed, before a task is finally
+     * rejected.
+     */
+    private void reject(Runnable task) {
+
+        if (!executor.isShutdown()) {
+            executor.purge();
+            if (executor.getQueue().offer(task)) return;
+        }
+
+        rejected.incrementAndGet();
+        throw new RejectedExecutionException(
+                String.format("Background read rejected: %d reads are running and %d are queued.",
+                        executor.getActiveCount(), executor.getQueue().size()));
+
+    }
+
+    /**
+     * Virtual threads are available with JDK 21 or later;
+     * as this project is built for JDK 8, the thread factory
+     * is created by reflection.
+     */
+    private static ThreadFactory getVirtualThreadFactory(String namePrefix) {
+
+        try {
+
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 1L);
+
+            Method factory = builderClass.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+
+        } catch (Exception e) {
+            LOGGER.warn("Virtual threads are not supported by this JVM; platform threads are used.");
+            return null;
+        }
+
+    }
+
+}
@@ -1,4 +1,4 @@
-package de.kp.works.aerospike.util;
+package de.kp.works.aerospike.concurrent;
 /*
  * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
  *
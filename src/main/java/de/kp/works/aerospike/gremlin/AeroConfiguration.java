@@ -37,6 +37,38 @@ public class AeroConfiguration extends AbstractConfiguration implements Serializ
     public static final String AERO_GRAPH_CLASSNAME = AERO_GRAPH_CLASS.getCanonicalName();
 
     public static class Keys {
+        /**
+         * Indicates whether per-vertex adjacency records are
+         * maintained; these records enable the expansion of a
+         * vertex without querying the edge set.
+         *
+         * Default is false
+         */
+        public static final String AEROSPIKE_ADJACENCY = "aerospike.adjacency";
+        /**
+         * The maximum number of edges that are kept within
+         * a single adjacency record; vertices with a larger
+         * degree (supernodes) are split into chunks of this
+         * size.
+         *
+         * Default is 1000
+         */
+        public static final String AEROSPIKE_ADJACENCY_CHUNK_SIZE = "aerospike.adjacency.chunk.size";
+        /**
+         * The number of event loops of the asynchronous
+         * client; each loop is served by a single thread.
+         *
+         * Default is the number of available processors
+         */
+        public static final String AEROSPIKE_ASYNC_EVENT_LOOPS = "aerospike.async.event.loops";
+        /**
+         * The maximum number of asynchronous commands that
+         * are in flight at the same time; further commands
+         * are queued by the event loops.
+         *
+         * Default is 256
+         */
+        public static final String AEROSPIKE_ASYNC_MAX_COMMANDS = "aerospike.async.max.commands";
         /**
          * The Aerospike authentication mode. Values are
          * INTERNAL, EXTERNAL, EXTERNAL_INSECURE, PKI.
@@ -44,6 +76,40 @@ public class AeroConfiguration extends AbstractConfiguration implements Serializ
          * Default is INTERNAL
          */
         public static final String AEROSPIKE_AUTH_MODE = "aerospike.auth.mode";
+        /**
+         * The storage backend of the graph. Values are
+         * AEROSPIKE (an Aerospike cluster) and MEMORY (an
+         * in-memory store that is not persisted).
+         *
+         * Default is AEROSPIKE
+         */
+        public static final String AEROSPIKE_BACKEND = "aerospike.backend";
+        /**
+         * The maximum number of keys of a single batch read;
+         * larger key lists are split into batches that are
+         * sent in parallel.
+         *
+         * Default is 500
+         */
+        public static final String AEROSPIKE_BATCH_SIZE = "aerospike.batch.size";
+        /**
+         * The number of threads that send the batches of a
+         * multi-key read in parallel.
+         *
+         * Default is 4
+         */
+        public static final String AEROSPIKE_BATCH_THREADS = "aerospike.batch.threads";
+        /**
+         * Indicates whether labels, property keys and type
+         * names are persisted as integer codes; the codes
+         * are registered in the metadata set and cached by
+         * each client. Records that were written with names
+         * remain readable, but are not found by the label
+         * and property key indices.
+         *
+         * Default is false
+         */
+        public static final String AEROSPIKE_DICTIONARY = "aerospike.dictionary";
         /**
          * Record expiration. Also known as ttl (time to live).
          * Seconds record will live before being removed by the server.
@@ -58,10 +124,77 @@ public class AeroConfiguration extends AbstractConfiguration implements Serializ
          * Default: 0
          */
         public static final String AEROSPIKE_EXPIRATION = "aerospike.expiration";
+        /**
+         * Indicates whether the filter conditions of a query
+         * are compiled into server side filter expressions;
+         * disable this for Aerospike servers before 5.2, that
+         * do not support filter expressions.
+         *
+         * Default is true
+         */
+        public static final String AEROSPIKE_FILTER_EXPRESSIONS = "aerospike.filter.expressions";
         /**
          * The host of the Aerospike database
          */
         public static final String AEROSPIKE_HOST = "aerospike.host";
+        /**
+         * The maximum number of reads that wait for a free
+         * I/O thread; further reads are rejected.
+         *
+         * Default is 256
+         */
+        public static final String AEROSPIKE_IO_QUEUE_SIZE = "aerospike.io.queue.size";
+        /**
+         * The maximum number of threads that run queries and
+         * scans in background; the threads are shared by all
+         * reads of a client.
+         *
+         * Default is 64
+         */
+        public static final String AEROSPIKE_IO_THREADS = "aerospike.io.threads";
+        /**
+         * Indicates whether the I/O threads are virtual
+         * threads; this demands for JDK 21 or later, and
+         * is ignored otherwise.
+         *
+         * Default is false
+         */
+        public static final String AEROSPIKE_IO_VIRTUAL_THREADS = "aerospike.io.virtual.threads";
+        /**
+         * Indicates whether each label of an edge or vertex
+         * is stored in its own set, e.g. <set>_vertices_<label>;
+         * label restricted reads then scan the respective set
+         * instead of querying the label index. This mode must
+         * be enabled before any element is written.
+         *
+         * Default is false
+         */
+        public static final String AEROSPIKE_LABEL_SETS = "aerospike.label.sets";
+        /**
+         * The storage layout of edges and vertices. Values
+         * are ENTRY (one record per property) and PACKED
+         * (one record per element with a properties map).
+         *
+         * Default is ENTRY
+         */
+        public static final String AEROSPIKE_LAYOUT = "aerospike.layout";
+        /**
+         * Indicates whether operation latencies, filter and
+         * cache counters are recorded; the metrics are exposed
+         * over JMX and by a programmatic snapshot.
+         *
+         * Default is true
+         */
+        public static final String AEROSPIKE_METRICS = "aerospike.metrics";
+        /**
+         * The maximum number of records per second that are
+         * read by a layout migration; this limits the load
+         * of the migration on the cluster. A value of zero
+         * does not limit the migration.
+         *
+         * Default is 0
+         */
+        public static final String AEROSPIKE_MIGRATION_RATE = "aerospike.migration.rate";
         /**
          * The name of the Aerospike namespace used
          * to organize data
@@ -76,11 +209,41 @@ public class AeroConfiguration extends AbstractConfiguration implements Serializ
          * The port of the Aerospike database
          */
         public static final String AEROSPIKE_PORT = "aerospike.port";
+        /**
+         * The number of workers that scan the partitions
+         * of a set in parallel; each worker scans its own
+         * range of partitions.
+         *
+         * Default is the number of available processors
+         */
+        public static final String AEROSPIKE_SCAN_THREADS = "aerospike.scan.threads";
         /**
          * The name of the Aerospike set used to
          * organize data
          */
         public static final String AEROSPIKE_SET      = "aerospike.set";
+        /**
+         * Indicates whether per-bin statistics are sampled
+         * from the edge and vertex sets; they are used to
+         * choose the secondary index filter of a query.
+         *
+         * Default is true
+         */
+        public static final String AEROSPIKE_STATISTICS = "aerospike.statistics";
+        /**
+         * The interval in seconds, the statistics of a set
+         * are refreshed.
+         *
+         * Default is 600
+         */
+        public static final String AEROSPIKE_STATISTICS_REFRESH = "aerospike.statistics.refresh";
+        /**
+         * The number of records that are sampled to build
+         * the statistics of a set.
+         *
+         * Default is 1000
+         */
+        public static final String AEROSPIKE_STATISTICS_SAMPLE_SIZE = "aerospike.statistics.sample.size";
         public static final String AEROSPIKE_TIMEOUT  = "aerospike.timeout";
         public static final String AEROSPIKE_TLS_MODE = "aerospike.tls.mode";
         public static final String AEROSPIKE_TLS_NAME = "aerospike.tls.name";
@@ -22,12 +22,14 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalListener;
 import de.kp.works.aerospike.AeroConnect;
+import de.kp.works.aerospike.AeroConnectFactory;
 import de.kp.works.aerospike.AeroTable;
 import de.kp.works.aerospike.gremlin.exception.GraphException;
 import de.kp.works.aerospike.gremlin.models.EdgeModel;
 import de.kp.works.aerospike.gremlin.models.VertexModel;
 import de.kp.works.aerospike.gremlin.process.strategy.optimization.AeroGraphStepStrategy;
 import de.kp.works.aerospike.gremlin.process.strategy.optimization.AeroVertexStepStrategy;
+import de.kp.works.aerospike.metrics.AeroMetrics;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
@@ -47,6 +49,40 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+@Graph.OptIn(Graph.OptIn.SUITE_STRUCTURE_STANDARD)
+@Graph.OptIn(Graph.OptIn.SUITE_PROCESS_STANDARD)
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.algorithm.generator.DistributionGeneratorTest$DifferentDistributionsTest",
+        method = "*",
+        reason = "The generated graphs are compared by a full vertex scan per vertex, which does not complete in reasonable time against a storage backend.")
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.algorithm.generator.CommunityGeneratorTest$DifferentDistributionsTest",
+        method = "*",
+        reason = "The generated graphs are compared by a full vertex scan per vertex, which does not complete in reasonable time against a storage backend.")
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.GraphTest",
+        method = "shouldPersistDataOnClose",
+        reason = "The test graphs use the in-memory backend, which discards its data when the graph is closed.")
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.GraphTest",
+        method = "shouldHaveExceptionConsistencyWhenAssigningSameIdOnVertex",
+        reason = "Elements are written as upserts; an existing id is not detected without a read before each write.")
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.VertexTest$BasicVertexTest",
+        method = "shouldHaveExceptionConsistencyWhenAssigningSameIdOnEdge",
+        reason = "Elements are written as upserts; an existing id is not detected without a read before each write.")
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexTest",
+        method = "g_EX11AsStringX",
+        reason = "Ids are not converted between types; the string form of a numeric id refers to a different element.")
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SubgraphTest",
+        method = "g_V_withSideEffectXsgX_outEXknowsX_subgraphXsgX_name_capXsgX",
+        reason = "The subgraph step copies the ids of vertex properties, which are derived from the vertex, the key and the value.")
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SubgraphTest",
+        method = "g_V_withSideEffectXsgX_repeatXbothEXcreatedX_subgraphXsgX_outVX_timesX5X_name_dedup",
+        reason = "The subgraph step copies the ids of vertex properties, which are derived from the vertex, the key and the value.")
 public class AeroGraph implements Graph {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AeroGraph.class);
@@ -60,7 +96,7 @@ public class AeroGraph implements Graph {
     }
 
     private final AeroConfiguration config;
-    private AeroConnect connect;
+    private final AeroConnect connect;
 
     private final EdgeModel edgeModel;
     private final VertexModel vertexModel;
@@ -92,8 +128,11 @@ public class AeroGraph implements Graph {
         this.config = config;
         this.features = new AeroFeatures(true);
 
-        /* Build Aerospike configuration */
-        AeroConnect connect = AeroConnect.getInstance(config);
+        /*
+         * Build the storage backend; this is an Aerospike
+         * cluster or an in-memory store
+         */
+        this.connect = AeroConnectFactory.getInstance(config);
 
         /* SECONDARY INDEX CREATION */
 
@@ -110,8 +149,11 @@ public class AeroGraph implements Graph {
                 .maximumSize(this.config.getElementCacheMaxSize())
                 .expireAfterAccess(this.config.getElementCacheTtlSecs(), TimeUnit.SECONDS)
                 .removalListener((RemovalListener<ByteBuffer, Edge>) listener -> ((AeroEdge) listener.getValue()).setCached(false))
+                .recordStats()
                 .build();
 
+        connect.metrics().registerCache("edges", edgeCache::stats);
+
         /* VERTEX INITIALIZATION */
 
         String vertexSetname = connect.setname() + "_" + Constants.VERTICES;
@@ -122,8 +164,11 @@ public class AeroGraph implements Graph {
                 .maximumSize(this.config.getElementCacheMaxSize())
                 .expireAfterAccess(this.config.getElementCacheTtlSecs(), TimeUnit.SECONDS)
                 .removalListener((RemovalListener<ByteBuffer, Vertex>) listener -> ((AeroVertex) listener.getValue()).setCached(false))
+                .recordStats()
                 .build();
 
+        connect.metrics().registerCache("vertices", vertexCache::stats);
+
     }
 
     @Override
@@ -143,10 +188,19 @@ public class AeroGraph implements Graph {
 
     @Override
     public void close() throws Exception {
-        /* Close AerospikeClient */
+        /* Close the storage backend */
         this.connect.close();
     }
 
+    /**
+     * The metrics of the storage backend and of the element
+     * caches of this graph; a snapshot is taken by
+     * `metrics().snapshot()`.
+     */
+    public AeroMetrics metrics() {
+        return connect.metrics();
+    }
+
     @Override
     public Variables variables() {
         throw Graph.Exceptions.variablesNotSupported();
@@ -255,7 +309,7 @@ public class AeroGraph implements Graph {
             throw Exceptions.argumentCanNotBeNull("id");
         }
         id = GraphUtils.generateIdIfNeeded(id);
-        ByteBuffer key = ByteBuffer.wrap(ValueUtils.serialize(id));
+        ByteBuffer key = ByteBuffer.wrap(ValueCodec.encodeId(id));
         Vertex cachedVertex = vertexCache.getIfPresent(key);
         if (cachedVertex != null && !((AeroVertex) cachedVertex).isDeleted()) {
             return cachedVertex;
@@ -353,7 +407,7 @@ public class AeroGraph implements Graph {
             throw Exceptions.argumentCanNotBeNull("id");
         }
         id = GraphUtils.generateIdIfNeeded(id);
-        ByteBuffer key = ByteBuffer.wrap(ValueUtils.serialize(id));
+        ByteBuffer key = ByteBuffer.wrap(ValueCodec.encodeId(id));
         Edge cachedEdge = edgeCache.getIfPresent(key);
         if (cachedEdge != null && !((AeroEdge) cachedEdge).isDeleted()) {
             return cachedEdge;
@@ -379,4 +433,13 @@ public class AeroGraph implements Graph {
         return edgeModel.edges(fromId, limit);
     }
 
+    /**
+     * Rebuilds the per-vertex adjacency records from
+     * the edge set, e.g. after the adjacency support
+     * has been enabled for an existing graph.
+     */
+    public void rebuildAdjacency() {
+        edgeModel.getTable().getAdjacency().rebuild();
+    }
+
 }
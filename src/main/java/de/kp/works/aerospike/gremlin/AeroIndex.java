@@ -18,35 +18,44 @@ package de.kp.works.aerospike.gremlin;
  *
  */
 
-import com.aerospike.client.AerospikeClient;
-import com.aerospike.client.policy.WritePolicy;
+import com.aerospike.client.query.IndexCollectionType;
 import com.aerospike.client.query.IndexType;
 import de.kp.works.aerospike.AeroConnect;
 
 /**
  * This class is responsible for building secondary
- * indices on Aerospike bins
+ * indices on Aerospike bins; the indices are built
+ * by the storage backend
  */
 public class AeroIndex {
 
-    private final AerospikeClient client;
-    private final WritePolicy policy;
+    private final AeroConnect connect;
 
-    private final String namespace;
-    private final String setname;
+    private final StorageLayout layout;
+    /*
+     * Labels and property keys are indexed by their
+     * dictionary code, if the dictionary is enabled
+     */
+    private final IndexType nameIndexType;
 
     public AeroIndex(AeroConnect connect) {
 
-        this.client = connect.getClient();
-        this.policy = connect.getWritePolicy();
+        this.connect = connect;
 
-        this.namespace = connect.namespace();
-        this.setname = connect.setname();
+        this.layout = connect.layout();
+        this.nameIndexType = connect.dictionary().isEnabled() ? IndexType.NUMERIC : IndexType.STRING;
     }
 
+    /**
+     * Builds the indices of all edge sets; these are
+     * the base set and the label sets, if enabled
+     */
     public void edgeIndices() {
+        for (String _setname : connect.getSetnames(ElementType.EDGE))
+            edgeIndices(_setname);
+    }
 
-        String _setname = setname +  "_" + Constants.EDGES;
+    public void edgeIndices(String _setname) {
         /*
          * 1 : Constants.ID_COL_NAME (String)
          * 2 : Constants.ID_TYPE_COL_NAME (String)
@@ -60,66 +69,44 @@ public class AeroIndex {
          * 10: Constants.PROPERTY_KEY_COL_NAME (String)
          * 11: Constants.PROPERTY_TYPE_COL_NAME (String)
          * 12: Constants.PROPERTY_VALUE_COL_NAME (String)
+         * 13: Constants.PROPERTY_LONG_COL_NAME (Long)
+         *
+         * The packed layout keys the records by the element
+         * identifier and organizes the properties as map bins;
+         * in this case, the identifier and property indices are
+         * not built.
          */
-        client.createIndex(
-                policy,
-                namespace,
-                _setname,
-                "idx_" + _setname + "_" + Constants.ID_COL_NAME,
-                Constants.ID_COL_NAME,
-                IndexType.STRING
-        ).waitTillComplete();
-
-        client.createIndex(
-                policy,
-                namespace,
-                _setname,
-                "idx_" + _setname + "_" + Constants.LABEL_COL_NAME,
-                Constants.LABEL_COL_NAME,
-                IndexType.STRING
-        ).waitTillComplete();
-
-        client.createIndex(
-                policy,
-                namespace,
-                _setname,
-                "idx_" + _setname + "_" + Constants.TO_COL_NAME,
-                Constants.TO_COL_NAME,
-                IndexType.STRING
-        ).waitTillComplete();
-
-        client.createIndex(
-                policy,
-                namespace,
-                _setname,
-                "idx_" + _setname + "_" + Constants.FROM_COL_NAME,
-                Constants.FROM_COL_NAME,
-                IndexType.STRING
-        ).waitTillComplete();
-
-        client.createIndex(
-                policy,
-                namespace,
-                _setname,
-                "idx_" + _setname + "_" + Constants.PROPERTY_KEY_COL_NAME,
-                Constants.PROPERTY_KEY_COL_NAME,
-                IndexType.STRING
-        ).waitTillComplete();
-
-        client.createIndex(
-                policy,
-                namespace,
-                _setname,
-                "idx_" + _setname + "_" + Constants.PROPERTY_VALUE_COL_NAME,
-                Constants.PROPERTY_VALUE_COL_NAME,
-                IndexType.STRING
-        ).waitTillComplete();
+        boolean entryLayout = layout.equals(StorageLayout.ENTRY);
+        if (entryLayout) {
+            connect.createIndex(_setname, Constants.ID_COL_NAME, IndexType.STRING, IndexCollectionType.DEFAULT);
+        }
+
+        connect.createIndex(_setname, Constants.LABEL_COL_NAME, nameIndexType, IndexCollectionType.DEFAULT);
+
+        connect.createIndex(_setname, Constants.TO_COL_NAME, IndexType.STRING, IndexCollectionType.DEFAULT);
+
+        connect.createIndex(_setname, Constants.FROM_COL_NAME, IndexType.STRING, IndexCollectionType.DEFAULT);
+
+        if (entryLayout) {
+            connect.createIndex(_setname, Constants.PROPERTY_KEY_COL_NAME, nameIndexType, IndexCollectionType.DEFAULT);
+
+            connect.createIndex(_setname, Constants.PROPERTY_VALUE_COL_NAME, IndexType.STRING, IndexCollectionType.DEFAULT);
+        }
+
+        propertyRangeIndex(_setname);
 
     }
 
+    /**
+     * Builds the indices of all vertex sets; these are
+     * the base set and the label sets, if enabled
+     */
     public void vertexIndices() {
+        for (String _setname : connect.getSetnames(ElementType.VERTEX))
+            vertexIndices(_setname);
+    }
 
-        String _setname = setname +  "_" + Constants.VERTICES;
+    public void vertexIndices(String _setname) {
         /*
          * 1 : Constants.ID_COL_NAME (String)
          * 2 : Constants.ID_TYPE_COL_NAME (String)
@@ -129,42 +116,44 @@ public class AeroIndex {
          * 6 : Constants.PROPERTY_KEY_COL_NAME (String)
          * 7 : Constants.PROPERTY_TYPE_COL_NAME (String)
          * 8 : Constants.PROPERTY_VALUE_COL_NAME (String)
+         * 9 : Constants.PROPERTY_LONG_COL_NAME (Long)
+         *
+         * The packed layout keys the records by the element
+         * identifier and organizes the properties as map bins;
+         * in this case, the identifier and property indices are
+         * not built.
          */
-        client.createIndex(
-                policy,
-                namespace,
-                _setname,
-                "idx_" + _setname + "_" + Constants.ID_COL_NAME,
-                Constants.ID_COL_NAME,
-                IndexType.STRING
-        ).waitTillComplete();
-
-        client.createIndex(
-                policy,
-                namespace,
-                _setname,
-                "idx_" + _setname + "_" + Constants.LABEL_COL_NAME,
-                Constants.LABEL_COL_NAME,
-                IndexType.STRING
-        ).waitTillComplete();
-
-        client.createIndex(
-                policy,
-                namespace,
-                _setname,
-                "idx_" + _setname + "_" + Constants.PROPERTY_KEY_COL_NAME,
-                Constants.PROPERTY_KEY_COL_NAME,
-                IndexType.STRING
-        ).waitTillComplete();
-
-        client.createIndex(
-                policy,
-                namespace,
-                _setname,
-                "idx_" + _setname + "_" + Constants.PROPERTY_VALUE_COL_NAME,
-                Constants.PROPERTY_VALUE_COL_NAME,
-                IndexType.STRING
-        ).waitTillComplete();
+        boolean entryLayout = layout.equals(StorageLayout.ENTRY);
+        if (entryLayout) {
+            connect.createIndex(_setname, Constants.ID_COL_NAME, IndexType.STRING, IndexCollectionType.DEFAULT);
+        }
+
+        connect.createIndex(_setname, Constants.LABEL_COL_NAME, nameIndexType, IndexCollectionType.DEFAULT);
+
+        if (entryLayout) {
+            connect.createIndex(_setname, Constants.PROPERTY_KEY_COL_NAME, nameIndexType, IndexCollectionType.DEFAULT);
+
+            connect.createIndex(_setname, Constants.PROPERTY_VALUE_COL_NAME, IndexType.STRING, IndexCollectionType.DEFAULT);
+        }
+
+        propertyRangeIndex(_setname);
+
+    }
+
+    /**
+     * Numeric and temporal property values are indexed by
+     * their (floor) long value; this supports server side
+     * range filters. The packed layout indexes the values
+     * of the respective map bin.
+     */
+    private void propertyRangeIndex(String _setname) {
+
+        if (layout.equals(StorageLayout.ENTRY)) {
+            connect.createIndex(_setname, Constants.PROPERTY_LONG_COL_NAME, IndexType.NUMERIC, IndexCollectionType.DEFAULT);
+        }
+        else {
+            connect.createIndex(_setname, Constants.PROPERTY_INDEX_COL_NAME, IndexType.NUMERIC, IndexCollectionType.MAPVALUES);
+        }
 
     }
 }
@@ -20,8 +20,11 @@ package de.kp.works.aerospike.gremlin;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import de.kp.works.aerospike.AeroProjection;
 import de.kp.works.aerospike.gremlin.exception.GraphNotFoundException;
 import de.kp.works.aerospike.gremlin.models.VertexModel;
+import de.kp.works.aerospike.metrics.AeroMetrics;
 import org.apache.tinkerpop.gremlin.structure.*;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
@@ -35,6 +38,8 @@ import java.util.concurrent.TimeUnit;
 
 public class AeroVertex extends GraphElement implements Vertex {
 
+    private static final String EDGE_CACHE = AeroMetrics.CACHE_PREFIX + "vertex_edges";
+
     private transient Cache<Tuple, List<Edge>> edgeCache;
 
     public AeroVertex(AeroGraph graph, Object id) {
@@ -50,9 +55,17 @@ public class AeroVertex extends GraphElement implements Vertex {
         super(graph, id, label, createdAt, updatedAt, properties, propertiesFullyLoaded);
 
         if (graph != null) {
+            /*
+             * The edge caches of all vertices share the
+             * counters of the graph metrics
+             */
+            AeroMetrics metrics = graph.metrics();
             this.edgeCache = CacheBuilder.newBuilder()
                     .maximumSize(graph.configuration().getEdgeCacheMaxSize())
                     .expireAfterAccess(graph.configuration().getEdgeCacheTtlSecs(), TimeUnit.SECONDS)
+                    .removalListener((RemovalListener<Tuple, List<Edge>>) listener -> {
+                        if (listener.wasEvicted()) metrics.increment(EDGE_CACHE + AeroMetrics.EVICTIONS);
+                    })
                     .build();
         }
     }
@@ -70,6 +83,7 @@ public class AeroVertex extends GraphElement implements Vertex {
     public Iterator<Edge> getEdgesFromCache(Tuple cacheKey) {
         if (edgeCache == null || !isCached()) return null;
         List<Edge> edges = edgeCache.getIfPresent(cacheKey);
+        graph.metrics().increment(EDGE_CACHE + (edges != null ? AeroMetrics.HITS : AeroMetrics.MISSES));
         return edges != null ? IteratorUtils.filter(edges.iterator(), edge -> !((AeroEdge) edge).isDeleted()) : null;
     }
 
@@ -136,6 +150,12 @@ public class AeroVertex extends GraphElement implements Vertex {
     public <V> VertexProperty<V> property(final VertexProperty.Cardinality cardinality, final String key, final V value, final Object... keyValues) {
         if (cardinality != VertexProperty.Cardinality.single)
             throw VertexProperty.Exceptions.multiPropertiesNotSupported();
+        /*
+         * The id of a vertex property is derived from the vertex,
+         * the key and the value, and cannot be provided
+         */
+        if (ElementHelper.getIdValue(keyValues).isPresent())
+            throw VertexProperty.Exceptions.userSuppliedIdsNotSupported();
         if (keyValues.length > 0)
             throw VertexProperty.Exceptions.metaPropertiesNotSupported();
         if (value != null) {
@@ -169,6 +189,15 @@ public class AeroVertex extends GraphElement implements Vertex {
         return graph.getEdgeModel().edges(this, direction, edgeLabels);
     }
 
+    public Iterator<Edge> edges(final Direction direction, final AeroProjection projection, final String... edgeLabels) {
+        return graph.getEdgeModel().edges(this, direction, projection, edgeLabels);
+    }
+
+    public Iterator<Edge> edges(final Direction direction, final AeroProjection projection, final int limit,
+                                final String... edgeLabels) {
+        return graph.getEdgeModel().edges(this, direction, projection, limit, edgeLabels);
+    }
+
     public Iterator<Edge> edges(final Direction direction, final String label, final String key, final Object value) {
         return graph.getEdgeModel().edges(this, direction, label, key, value);
     }
@@ -178,6 +207,21 @@ public class AeroVertex extends GraphElement implements Vertex {
         return graph.getEdgeModel().edgesInRange(this, direction, label, key, inclusiveFromValue, exclusiveToValue);
     }
 
+    public Iterator<Edge> edgesInRange(final Direction direction, final String label, final String key,
+                                       final Object fromValue, final boolean fromInclusive,
+                                       final Object toValue, final boolean toInclusive, final AeroProjection projection) {
+        return graph.getEdgeModel().edgesInRange(this, direction, label, key,
+                fromValue, fromInclusive, toValue, toInclusive, projection);
+    }
+
+    public Iterator<Edge> edgesInRange(final Direction direction, final String label, final String key,
+                                       final Object fromValue, final boolean fromInclusive,
+                                       final Object toValue, final boolean toInclusive,
+                                       final AeroProjection projection, final int limit) {
+        return graph.getEdgeModel().edgesInRange(this, direction, label, key,
+                fromValue, fromInclusive, toValue, toInclusive, projection, limit);
+    }
+
     /** VERTEX RELATED **/
 
     @Override
@@ -185,6 +229,15 @@ public class AeroVertex extends GraphElement implements Vertex {
         return graph.getEdgeModel().vertices(this, direction, edgeLabels);
     }
 
+    public Iterator<Vertex> vertices(final Direction direction, final AeroProjection projection, final String... edgeLabels) {
+        return graph.getEdgeModel().vertices(this, direction, projection, edgeLabels);
+    }
+
+    public Iterator<Vertex> vertices(final Direction direction, final AeroProjection projection, final int limit,
+                                     final String... edgeLabels) {
+        return graph.getEdgeModel().vertices(this, direction, projection, limit, edgeLabels);
+    }
+
     public Iterator<Vertex> vertices(final Direction direction, final String label, final String key, final Object value) {
         return graph.getEdgeModel().vertices(this, direction, label, key, value);
     }
@@ -37,7 +37,7 @@ public final class CloseableIteratorUtils {
 
             @Override
             public boolean hasNext() {
-                return iterator.hasNext() && this.count < limit;
+                return this.count < limit && iterator.hasNext();
             }
 
             @Override
@@ -176,6 +176,32 @@ public final class CloseableIteratorUtils {
         };
     }
 
+    public static <S> Iterator<List<S>> partition(final Iterator<S> iterator, final int size) {
+        return new CloseableIterator<List<S>>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public List<S> next() {
+                if (!iterator.hasNext())
+                    throw FastNoSuchElementException.instance();
+
+                final List<S> batch = new ArrayList<>(size);
+                while (iterator.hasNext() && batch.size() < size) {
+                    batch.add(iterator.next());
+                }
+                return batch;
+            }
+
+            @Override
+            public void close() {
+                CloseableIterator.closeIterator(iterator);
+            }
+        };
+    }
+
     @SafeVarargs
     public static <S> Iterator<S> concat(final Iterator<S>... iterators) {
         final MultiIterator<S> iterator = new MultiIterator<>();
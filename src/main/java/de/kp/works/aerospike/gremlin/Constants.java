@@ -27,6 +27,16 @@ public class Constants implements Serializable {
      */
     public static final String EDGES    = "edges";
     public static final String VERTICES = "vertices";
+    /**
+     * The name of the set that contains the
+     * per-vertex adjacency records
+     */
+    public static final String ADJACENCY = "adjacency";
+    /**
+     * The name of the set that contains metadata,
+     * e.g. the dictionary of labels and property keys
+     */
+    public static final String META = "meta";
 
     /**
      * Internal keys
@@ -52,11 +62,55 @@ public class Constants implements Serializable {
     public static final String PROPERTY_KEY_COL_NAME = "property_key";
     public static final String PROPERTY_TYPE_COL_NAME = "property_type";
     public static final String PROPERTY_VALUE_COL_NAME = "property_value";
+    /**
+     * Typed property bins: numeric and temporal values
+     * are persisted as [Long], floating point values as
+     * [Double] and binary values as blob. The long bin
+     * also holds the (floor) index value of every numeric
+     * property, which enables server side range filters.
+     */
+    public static final String PROPERTY_LONG_COL_NAME = "property_long";
+    public static final String PROPERTY_DOUBLE_COL_NAME = "property_double";
+    public static final String PROPERTY_BLOB_COL_NAME = "property_blob";
+    /**
+     * The map bin of an adjacency record
+     */
+    public static final String ADJACENCY_COL_NAME = "edges";
+    /**
+     * The bins of the header record of a chunked
+     * adjacency
+     */
+    public static final String ADJACENCY_LABELS_COL_NAME = "labels";
+    public static final String ADJACENCY_DEGREE_COL_NAME = "degree";
+    public static final String ADJACENCY_CHUNKS_COL_NAME = "chunks";
+    /**
+     * The bins of a dictionary record
+     */
+    public static final String DICTIONARY_CODE_COL_NAME = "code";
+    public static final String DICTIONARY_NAME_COL_NAME = "name";
+    /**
+     * The map bin of the label registry, that assigns
+     * each label to its own set
+     */
+    public static final String LABEL_SETS_COL_NAME = "label_sets";
+    /**
+     * Map bins of the packed storage layout
+     */
+    public static final String PROPERTIES_COL_NAME = "properties";
+    public static final String PROPERTY_TYPES_COL_NAME = "property_types";
+    public static final String PROPERTY_INDEX_COL_NAME = "property_index";
 
     public static final String INCLUSIVE_FROM_VALUE = "inclusive_from_value";
-    public static final String EXCLUSIVE_TO_VALUE = "inclusive_to_value";
+    public static final String EXCLUSIVE_FROM_VALUE = "exclusive_from_value";
+    public static final String INCLUSIVE_TO_VALUE = "inclusive_to_value";
+    public static final String EXCLUSIVE_TO_VALUE = "exclusive_to_value";
     public static final String EQUAL_VALUE = "equal";
 
     public static final String LIMIT_VALUE = "limit_value";
+    /**
+     * The marker value of an entry that describes an
+     * element without properties
+     */
+    public static final String EMPTY_VALUE = "*";
 
 }
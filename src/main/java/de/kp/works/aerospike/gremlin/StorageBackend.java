@@ -0,0 +1,35 @@
+package de.kp.works.aerospike.gremlin;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+
+/**
+ * The storage backend of a graph:
+ *
+ * AEROSPIKE: the edges and vertices are persisted in
+ *            an Aerospike cluster
+ *
+ * MEMORY:    the edges and vertices are held in memory
+ *            by the JVM; the graph is not persisted and
+ *            starts empty
+ */
+public enum StorageBackend {
+    AEROSPIKE,
+    MEMORY
+}
@@ -0,0 +1,34 @@
+package de.kp.works.aerospike.gremlin;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+/**
+ * The storage layout of edges and vertices:
+ *
+ * ENTRY:  one Aerospike record per element property,
+ *         keyed by a generated cache key
+ *
+ * PACKED: one Aerospike record per element, keyed by
+ *         the element identifier; the properties are
+ *         organized as Aerospike map bins
+ */
+public enum StorageLayout {
+    ENTRY,
+    PACKED
+}
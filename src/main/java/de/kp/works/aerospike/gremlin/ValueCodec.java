@@ -0,0 +1,354 @@
+package de.kp.works.aerospike.gremlin;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * [ValueCodec] transforms values into a compact, type tagged
+ * binary representation:
+ *
+ * [type code][payload]
+ *
+ * The payload preserves the sort order of the values of the
+ * same type, i.e. the unsigned lexicographic order of encoded
+ * values is the natural order of the respective values. This
+ * enables comparisons on the encoded values, e.g. on the server
+ * side. Values of the SERIALIZABLE type are encoded by Java
+ * serialization and support equality only.
+ */
+public final class ValueCodec {
+
+    private static final int DECIMAL_NEGATIVE = 0;
+    private static final int DECIMAL_ZERO     = 1;
+    private static final int DECIMAL_POSITIVE = 2;
+
+    private ValueCodec() {}
+
+    public static byte[] encode(Object value) {
+
+        ValueType valueType = ValueUtils.getValueType(value);
+        byte code = valueType.getCode();
+
+        switch (valueType) {
+            case NULL:
+                return new byte[] {code};
+            case BOOLEAN:
+                return new byte[] {code, (byte) ((Boolean) value ? 1 : 0)};
+            case STRING:
+                return tagged(code, ((String) value).getBytes(StandardCharsets.UTF_8));
+            case BYTE:
+                return new byte[] {code, (byte) ((Byte) value ^ 0x80)};
+            case SHORT: {
+                byte[] bytes = new byte[3];
+                bytes[0] = code;
+
+                int bits = (Short) value ^ 0x8000;
+                bytes[1] = (byte) (bits >>> 8);
+                bytes[2] = (byte) bits;
+
+                return bytes;
+            }
+            case INT: {
+                byte[] bytes = new byte[5];
+                bytes[0] = code;
+
+                putInt(bytes, 1, (Integer) value ^ Integer.MIN_VALUE);
+                return bytes;
+            }
+            case LONG:
+                return encodeLong(code, (Long) value);
+            case FLOAT: {
+                int bits = Float.floatToIntBits((Float) value);
+                bits = bits < 0 ? ~bits : bits ^ Integer.MIN_VALUE;
+
+                byte[] bytes = new byte[5];
+                bytes[0] = code;
+
+                putInt(bytes, 1, bits);
+                return bytes;
+            }
+            case DOUBLE: {
+                long bits = Double.doubleToLongBits((Double) value);
+                bits = bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+
+                byte[] bytes = new byte[9];
+                bytes[0] = code;
+
+                putLong(bytes, 1, bits);
+                return bytes;
+            }
+            case DECIMAL:
+                return encodeDecimal(code, (BigDecimal) value);
+            case DATE:
+                return encodeLong(code, ((LocalDate) value).toEpochDay());
+            case TIME:
+                return encodeLong(code, ((LocalTime) value).toNanoOfDay());
+            case TIMESTAMP: {
+                LocalDateTime timestamp = (LocalDateTime) value;
+                return encodeSeconds(code, timestamp.toEpochSecond(ZoneOffset.UTC), timestamp.getNano());
+            }
+            case INTERVAL: {
+                Duration interval = (Duration) value;
+                return encodeSeconds(code, interval.getSeconds(), interval.getNano());
+            }
+            case BINARY:
+                return tagged(code, (byte[]) value);
+            case ENUM: {
+                /*
+                 * Enums are ordered by their ordinal within
+                 * the declaring class
+                 */
+                Enum<?> enumValue = (Enum<?>) value;
+                byte[] name = enumValue.getDeclaringClass().getName().getBytes(StandardCharsets.UTF_8);
+
+                byte[] bytes = new byte[name.length + 6];
+                bytes[0] = code;
+
+                System.arraycopy(name, 0, bytes, 1, name.length);
+                putInt(bytes, name.length + 2, enumValue.ordinal());
+
+                return bytes;
+            }
+            case UUID: {
+                UUID uuid = (UUID) value;
+
+                byte[] bytes = new byte[17];
+                bytes[0] = code;
+
+                putLong(bytes, 1, uuid.getMostSignificantBits() ^ Long.MIN_VALUE);
+                putLong(bytes, 9, uuid.getLeastSignificantBits() ^ Long.MIN_VALUE);
+
+                return bytes;
+            }
+            default:
+                return tagged(ValueType.SERIALIZABLE.getCode(), ValueUtils.serialize(value));
+        }
+
+    }
+
+    /**
+     * Encodes an element identifier; numeric identifiers
+     * are normalized to [Long], as they are by the graph.
+     */
+    public static byte[] encodeId(Object id) {
+
+        if (id instanceof Number && !(id instanceof Long)
+                && !(id instanceof Float) && !(id instanceof Double) && !(id instanceof BigDecimal))
+            return encodeLong(ValueType.LONG.getCode(), ((Number) id).longValue());
+
+        return encode(id);
+
+    }
+
+    public static Object decode(byte[] bytes) {
+
+        if (bytes == null || bytes.length == 0) return null;
+
+        ValueType valueType = ValueType.valueOf(bytes[0]);
+        if (valueType == null)
+            throw new IllegalArgumentException("Unexpected type code : " + bytes[0]);
+
+        switch (valueType) {
+            case NULL:
+                return null;
+            case BOOLEAN:
+                return bytes[1] != 0;
+            case STRING:
+                return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+            case BYTE:
+                return (byte) (bytes[1] ^ 0x80);
+            case SHORT:
+                return (short) ((((bytes[1] & 0xFF) << 8) | (bytes[2] & 0xFF)) ^ 0x8000);
+            case INT:
+                return getInt(bytes, 1) ^ Integer.MIN_VALUE;
+            case LONG:
+                return getLong(bytes, 1) ^ Long.MIN_VALUE;
+            case FLOAT: {
+                int bits = getInt(bytes, 1);
+                bits = bits < 0 ? bits ^ Integer.MIN_VALUE : ~bits;
+
+                return Float.intBitsToFloat(bits);
+            }
+            case DOUBLE: {
+                long bits = getLong(bytes, 1);
+                bits = bits < 0 ? bits ^ Long.MIN_VALUE : ~bits;
+
+                return Double.longBitsToDouble(bits);
+            }
+            case DECIMAL:
+                return decodeDecimal(bytes);
+            case DATE:
+                return LocalDate.ofEpochDay(getLong(bytes, 1) ^ Long.MIN_VALUE);
+            case TIME:
+                return LocalTime.ofNanoOfDay(getLong(bytes, 1) ^ Long.MIN_VALUE);
+            case TIMESTAMP:
+                return LocalDateTime.ofEpochSecond(getLong(bytes, 1) ^ Long.MIN_VALUE,
+                        getInt(bytes, 9), ZoneOffset.UTC);
+            case INTERVAL:
+                return Duration.ofSeconds(getLong(bytes, 1) ^ Long.MIN_VALUE, getInt(bytes, 9));
+            case BINARY:
+                return Arrays.copyOfRange(bytes, 1, bytes.length);
+            case ENUM: {
+                String className = new String(bytes, 1, bytes.length - 6, StandardCharsets.UTF_8);
+                int ordinal = getInt(bytes, bytes.length - 4);
+                try {
+                    return Class.forName(className).getEnumConstants()[ordinal];
+
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalArgumentException("Enum class is not available: " + className, e);
+                }
+            }
+            case UUID:
+                return new UUID(getLong(bytes, 1) ^ Long.MIN_VALUE, getLong(bytes, 9) ^ Long.MIN_VALUE);
+            default:
+                return ValueUtils.deserialize(Arrays.copyOfRange(bytes, 1, bytes.length));
+        }
+
+    }
+
+    /**
+     * Compares two encoded values by their unsigned
+     * lexicographic order
+     */
+    public static int compare(byte[] left, byte[] right) {
+
+        int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++) {
+            int result = (left[i] & 0xFF) - (right[i] & 0xFF);
+            if (result != 0) return result;
+        }
+
+        return left.length - right.length;
+
+    }
+
+    private static byte[] tagged(byte code, byte[] payload) {
+
+        byte[] bytes = new byte[payload.length + 1];
+        bytes[0] = code;
+
+        System.arraycopy(payload, 0, bytes, 1, payload.length);
+        return bytes;
+
+    }
+
+    private static byte[] encodeLong(byte code, long value) {
+
+        byte[] bytes = new byte[9];
+        bytes[0] = code;
+
+        putLong(bytes, 1, value ^ Long.MIN_VALUE);
+        return bytes;
+
+    }
+
+    private static byte[] encodeSeconds(byte code, long seconds, int nanos) {
+
+        byte[] bytes = new byte[13];
+        bytes[0] = code;
+
+        putLong(bytes, 1, seconds ^ Long.MIN_VALUE);
+        putInt(bytes, 9, nanos);
+
+        return bytes;
+
+    }
+    /**
+     * A decimal is described as 0.[digits] x 10^exponent;
+     * the encoding is [sign][exponent][digits], where the
+     * exponent and digits of negative values are inverted
+     * and terminated to preserve the order.
+     */
+    private static byte[] encodeDecimal(byte code, BigDecimal value) {
+
+        if (value.signum() == 0) return new byte[] {code, DECIMAL_ZERO};
+
+        BigDecimal normalized = value.stripTrailingZeros();
+        byte[] digits = normalized.unscaledValue().abs().toString().getBytes(StandardCharsets.US_ASCII);
+
+        int exponent = digits.length - normalized.scale();
+        boolean negative = value.signum() < 0;
+
+        byte[] bytes = new byte[digits.length + (negative ? 7 : 6)];
+        bytes[0] = code;
+        bytes[1] = (byte) (negative ? DECIMAL_NEGATIVE : DECIMAL_POSITIVE);
+
+        putInt(bytes, 2, exponent ^ Integer.MIN_VALUE);
+        System.arraycopy(digits, 0, bytes, 6, digits.length);
+
+        if (negative) {
+            for (int i = 2; i < bytes.length - 1; i++) bytes[i] = (byte) ~bytes[i];
+            bytes[bytes.length - 1] = (byte) 0xFF;
+        }
+
+        return bytes;
+
+    }
+
+    private static BigDecimal decodeDecimal(byte[] bytes) {
+
+        if (bytes[1] == DECIMAL_ZERO) return BigDecimal.ZERO;
+        boolean negative = bytes[1] == DECIMAL_NEGATIVE;
+
+        byte[] payload = Arrays.copyOfRange(bytes, 2, negative ? bytes.length - 1 : bytes.length);
+        if (negative) {
+            for (int i = 0; i < payload.length; i++) payload[i] = (byte) ~payload[i];
+        }
+
+        int exponent = getInt(payload, 0) ^ Integer.MIN_VALUE;
+        String digits = new String(payload, 4, payload.length - 4, StandardCharsets.US_ASCII);
+
+        BigDecimal value = new BigDecimal(new BigInteger(digits), digits.length() - exponent);
+        return negative ? value.negate() : value;
+
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        for (int i = 3; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static int getInt(byte[] bytes, int offset) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) value = (value << 8) | (bytes[offset + i] & 0xFF);
+        return value;
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) value = (value << 8) | (bytes[offset + i] & 0xFF);
+        return value;
+    }
+
+}
@@ -18,14 +18,16 @@ package de.kp.works.aerospike.gremlin;
  *
  */
 
+import com.aerospike.client.Bin;
+import com.aerospike.client.Record;
 import org.apache.commons.lang3.SerializationUtils;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
-import java.time.Duration;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.math.RoundingMode;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 public final class ValueUtils {
@@ -81,4 +83,294 @@ public final class ValueUtils {
         return SerializationUtils.serialize((Serializable) o);
     }
 
+    /**
+     * Determines the value type from its name; unknown
+     * names, e.g. the marker of an element without any
+     * properties, are returned as `null`.
+     */
+    public static ValueType parseValueType(String name) {
+
+        if (name == null) return null;
+        try {
+            return ValueType.valueOf(name);
+
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+    }
+
+    /**
+     * Property values are persisted with their native
+     * Aerospike type; this method determines the bin
+     * that holds a value of the provided type. Values
+     * without a native representation are persisted
+     * with the order preserving [ValueCodec].
+     */
+    public static String getBinName(ValueType valueType) {
+
+        if (valueType == null) return Constants.PROPERTY_VALUE_COL_NAME;
+        switch (valueType) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case COUNTER:
+            case DATE:
+            case TIME:
+                return Constants.PROPERTY_LONG_COL_NAME;
+            case FLOAT:
+            case DOUBLE:
+                return Constants.PROPERTY_DOUBLE_COL_NAME;
+            case DECIMAL:
+            case TIMESTAMP:
+            case INTERVAL:
+            case BINARY:
+            case ENUM:
+            case SERIALIZABLE:
+            case UUID:
+                return Constants.PROPERTY_BLOB_COL_NAME;
+            default:
+                return Constants.PROPERTY_VALUE_COL_NAME;
+        }
+
+    }
+
+    /**
+     * Transforms a property value into its native Aerospike
+     * representation: DATE values are persisted as number of
+     * days since epoch, TIME values as nanoseconds of the day.
+     */
+    public static Object toBinValue(ValueType valueType, Object value) {
+
+        if (value == null) return null;
+        if (valueType == null) return value.toString();
+
+        switch (valueType) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case COUNTER:
+                return ((Number) value).longValue();
+            case FLOAT:
+            case DOUBLE:
+                return ((Number) value).doubleValue();
+            case DATE:
+                return ((LocalDate) value).toEpochDay();
+            case TIME:
+                return ((LocalTime) value).toNanoOfDay();
+            default:
+                if (getBinName(valueType).equals(Constants.PROPERTY_BLOB_COL_NAME))
+                    return ValueCodec.encode(value);
+
+                return value.toString();
+        }
+
+    }
+
+    public static Object toBinValue(String valueType, Object value) {
+        return toBinValue(parseValueType(valueType), value);
+    }
+
+    /**
+     * Restores a property value from its native Aerospike
+     * representation
+     */
+    public static Object fromBinValue(ValueType valueType, Object binValue) {
+
+        if (binValue == null) return null;
+        if (valueType == null) return binValue.toString();
+
+        switch (valueType) {
+            case BOOLEAN:
+                return Boolean.valueOf(binValue.toString());
+            case BYTE:
+                return ((Number) binValue).byteValue();
+            case SHORT:
+                return ((Number) binValue).shortValue();
+            case INT:
+                return ((Number) binValue).intValue();
+            case LONG:
+            case COUNTER:
+                return ((Number) binValue).longValue();
+            case FLOAT:
+                return ((Number) binValue).floatValue();
+            case DOUBLE:
+                return ((Number) binValue).doubleValue();
+            case DATE:
+                return LocalDate.ofEpochDay(((Number) binValue).longValue());
+            case TIME:
+                return LocalTime.ofNanoOfDay(((Number) binValue).longValue());
+            case DECIMAL:
+            case TIMESTAMP:
+            case INTERVAL:
+            case BINARY:
+            case ENUM:
+            case SERIALIZABLE:
+            case UUID:
+                return ValueCodec.decode((byte[]) binValue);
+            default:
+                return binValue.toString();
+        }
+
+    }
+
+    public static Object fromBinValue(String valueType, Object binValue) {
+        return fromBinValue(parseValueType(valueType), binValue);
+    }
+
+    /**
+     * Determines the value of a numeric or temporal property
+     * for the numeric secondary index: integral values are
+     * indexed as is, floating point and decimal values by
+     * their floor. Other values are not indexed (`null`).
+     */
+    public static Long toIndexValue(ValueType valueType, Object value) {
+
+        if (value == null || valueType == null) return null;
+        switch (valueType) {
+            case FLOAT:
+            case DOUBLE: {
+                double number = ((Number) value).doubleValue();
+                if (Double.isNaN(number)) return null;
+                /*
+                 * The cast saturates at the bounds of [Long]
+                 */
+                return (long) Math.floor(number);
+            }
+            case DECIMAL: {
+                BigDecimal number = ((BigDecimal) value).setScale(0, RoundingMode.FLOOR);
+                if (number.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) return Long.MAX_VALUE;
+                if (number.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) return Long.MIN_VALUE;
+
+                return number.longValue();
+            }
+            case TIMESTAMP: {
+                /*
+                 * Microseconds since epoch
+                 */
+                LocalDateTime timestamp = (LocalDateTime) value;
+                return saturatedAdd(
+                        saturatedMultiply(timestamp.toEpochSecond(ZoneOffset.UTC), 1000000L), timestamp.getNano() / 1000);
+            }
+            case INTERVAL: {
+                /*
+                 * Nanoseconds
+                 */
+                Duration interval = (Duration) value;
+                return saturatedAdd(saturatedMultiply(interval.getSeconds(), 1000000000L), interval.getNano());
+            }
+            default: {
+                if (!getBinName(valueType).equals(Constants.PROPERTY_LONG_COL_NAME)) return null;
+                return (Long) toBinValue(valueType, value);
+            }
+        }
+
+    }
+
+    public static Long toIndexValue(String valueType, Object value) {
+        return toIndexValue(parseValueType(valueType), value);
+    }
+
+    /**
+     * Element identifiers are persisted as [String] in
+     * combination with their type; integral identifiers
+     * are restored as [Long], which is how the graph
+     * normalizes them.
+     */
+    public static Object parseId(String value, String type) {
+
+        ValueType valueType = parseValueType(type);
+        if (value == null || valueType == null) return value;
+
+        switch (valueType) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+                return Long.parseLong(value);
+            default:
+                return value;
+        }
+
+    }
+
+    /**
+     * Builds the property bins of an element entry; all
+     * typed bins are written, and those that do not refer
+     * to the provided type are cleared.
+     */
+    public static List<Bin> getPropertyBins(String propType, Object propValue) {
+
+        ValueType valueType = parseValueType(propType);
+
+        String binName = getBinName(valueType);
+        Object binValue = toBinValue(valueType, propValue);
+
+        List<Bin> bins = new ArrayList<>();
+        bins.add(getBin(Constants.PROPERTY_VALUE_COL_NAME, binName, binValue));
+        Long indexValue = toIndexValue(valueType, propValue);
+        bins.add(indexValue == null
+                ? Bin.asNull(Constants.PROPERTY_LONG_COL_NAME) : new Bin(Constants.PROPERTY_LONG_COL_NAME, (long) indexValue));
+
+        bins.add(getBin(Constants.PROPERTY_DOUBLE_COL_NAME, binName, binValue));
+        bins.add(getBin(Constants.PROPERTY_BLOB_COL_NAME, binName, binValue));
+
+        return bins;
+
+    }
+
+    /**
+     * Type names are persisted by their [ValueType] code,
+     * if the dictionary is enabled; this method restores
+     * the type name from either representation.
+     */
+    public static String getTypeName(Object value) {
+
+        if (value == null) return null;
+        if (value instanceof Number) {
+            ValueType valueType = ValueType.valueOf(((Number) value).intValue());
+            return valueType == null ? null : valueType.name();
+        }
+
+        return value.toString();
+
+    }
+
+    /**
+     * Restores the property value of an element entry
+     * from the bin that refers to the property type
+     */
+    public static Object getPropertyValue(Record record) {
+
+        ValueType valueType = parseValueType(getTypeName(record.getValue(Constants.PROPERTY_TYPE_COL_NAME)));
+        return fromBinValue(valueType, record.getValue(getBinName(valueType)));
+
+    }
+
+    private static long saturatedMultiply(long value, long factor) {
+
+        long result = value * factor;
+        if (value != 0 && (result / factor != value))
+            return value < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+
+        return result;
+
+    }
+
+    private static long saturatedAdd(long value, long addend) {
+
+        long result = value + addend;
+        if (((value ^ result) & (addend ^ result)) < 0)
+            return value < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+
+        return result;
+
+    }
+
+    private static Bin getBin(String name, String binName, Object binValue) {
+        return name.equals(binName) ? new Bin(name, binValue) : Bin.asNull(name);
+    }
+
 }
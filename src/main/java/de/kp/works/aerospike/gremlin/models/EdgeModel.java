@@ -18,11 +18,16 @@ package de.kp.works.aerospike.gremlin.models;
  *
  */
 
-import com.google.common.collect.Streams;
+import com.google.common.collect.Iterators;
+import de.kp.works.aerospike.AeroAdjacencyEntry;
+import de.kp.works.aerospike.AeroProjection;
 import de.kp.works.aerospike.AeroTable;
 import de.kp.works.aerospike.query.AeroQuery;
+import de.kp.works.aerospike.gremlin.AeroEdge;
 import de.kp.works.aerospike.gremlin.AeroGraph;
 import de.kp.works.aerospike.gremlin.AeroVertex;
+import de.kp.works.aerospike.gremlin.CloseableIteratorUtils;
+import de.kp.works.aerospike.gremlin.StorageLayout;
 import de.kp.works.aerospike.gremlin.mutators.*;
 import de.kp.works.aerospike.gremlin.readers.EdgeReader;
 import org.apache.tinkerpop.gremlin.structure.Direction;
@@ -30,10 +35,13 @@ import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import java.util.Iterator;
-import java.util.List;
-import java.util.stream.Collectors;
 
 public class EdgeModel extends ElementModel {
+    /*
+     * The number of adjacent vertices that are loaded
+     * with a single query
+     */
+    private static final int LOAD_BATCH_SIZE = 100;
 
     public EdgeModel(AeroGraph graph, AeroTable table) {
         super(graph, table);
@@ -58,12 +66,34 @@ public class EdgeModel extends ElementModel {
     /** READ **/
 
     public Iterator<Edge> edges() {
+        return edges(AeroProjection.ALL);
+    }
+    /**
+     * Method to retrieve all edges, restricted to the
+     * bins of the provided projection
+     */
+    public Iterator<Edge> edges(AeroProjection projection) {
 
         final EdgeReader parser = new EdgeReader(graph);
-        AeroQuery aeroQuery = table.getAllQuery();
+        AeroQuery aeroQuery = table.getAllQuery(projection);
 
-        return aeroQuery.getResult().stream()
-                .map(parser::parse).iterator();
+        return CloseableIteratorUtils.map(aeroQuery.iterator(),
+                result -> parser.parse(result, projection.withProperties()));
+    }
+    /**
+     * Method to retrieve at most `limit` edges that refer
+     * to the provided label, restricted to the bins of the
+     * provided projection; a `null` label refers to all
+     * edges, and a `-1` limit to all matching edges.
+     */
+    public Iterator<Edge> edges(String label, AeroProjection projection, int limit) {
+
+        final EdgeReader parser = new EdgeReader(graph);
+        AeroQuery aeroQuery = (label == null)
+                ? table.getAllQuery(projection) : table.getLabelQuery(label, projection);
+
+        return CloseableIteratorUtils.map(aeroQuery.limit(limit).iterator(),
+                result -> parser.parse(result, projection.withProperties()));
     }
 
     public Iterator<Edge> edges(Object fromId, int limit) {
@@ -76,20 +106,63 @@ public class EdgeModel extends ElementModel {
         else
             igniteQuery = table.getLimitQuery(fromId, limit);
 
-        return igniteQuery.getResult().stream()
-                .map(parser::parse).iterator();
+        return CloseableIteratorUtils.map(igniteQuery.iterator(), parser::parse);
     }
     /**
      * Method to find all edges that refer to the provided
      * vertex that match direction and the provided labels
      */
     public Iterator<Edge> edges(AeroVertex vertex, Direction direction, String... labels) {
+        return edges(vertex, direction, AeroProjection.ALL, labels);
+    }
+    /**
+     * Method to find all edges that refer to the provided
+     * vertex that match direction and the provided labels;
+     * the edges are restricted to the bins of the provided
+     * projection
+     */
+    public Iterator<Edge> edges(AeroVertex vertex, Direction direction, AeroProjection projection, String... labels) {
+        return edges(vertex, direction, projection, -1, labels);
+    }
+    /**
+     * Method to find at most `limit` edges that refer to the
+     * provided vertex and match direction and labels; a `-1`
+     * limit refers to all matching edges.
+     */
+    public Iterator<Edge> edges(AeroVertex vertex, Direction direction, AeroProjection projection,
+                                int limit, String... labels) {
+        /*
+         * The adjacency records describe label and vertices
+         * of each edge; the edges are therefore returned
+         * without reading the edge set. Their properties
+         * are loaded on demand.
+         *
+         * The chunks of a supernode are read lazily, i.e.
+         * a consumer that stops early does not read the
+         * entire adjacency; the limit is therefore not
+         * passed to the adjacency.
+         */
+        if (table.getAdjacency().isEnabled()) {
+            return Iterators.transform(
+                    table.getAdjacency().iterateEdges(vertex.id(), direction, labels), this::adjacencyToEdge);
+        }
+        /*
+         * The edge set is queried by either the out or the
+         * in vertex; both directions are therefore read one
+         * after the other, and a self-loop is returned for
+         * each direction
+         */
+        if (direction == Direction.BOTH) {
+            return CloseableIteratorUtils.concat(
+                    edges(vertex, Direction.OUT, projection, limit, labels),
+                    edges(vertex, Direction.IN, projection, limit, labels));
+        }
 
         final EdgeReader parser = new EdgeReader(graph);
-        AeroQuery igniteQuery = table.getEdgesQuery(vertex, direction, labels);
+        AeroQuery igniteQuery = table.getEdgesQuery(vertex, direction, projection, labels);
 
-        return igniteQuery.getResult().stream()
-                .map(parser::parse).iterator();
+        return CloseableIteratorUtils.map(igniteQuery.limit(limit).iterator(),
+                result -> parser.parse(result, projection.withProperties()));
     }
     /**
      * Method to retrieve all edges that refer to the provided
@@ -99,11 +172,16 @@ public class EdgeModel extends ElementModel {
     public Iterator<Edge> edges(AeroVertex vertex, Direction direction, String label,
                                 String key, Object value) {
 
+        if (direction == Direction.BOTH) {
+            return CloseableIteratorUtils.concat(
+                    edges(vertex, Direction.OUT, label, key, value),
+                    edges(vertex, Direction.IN, label, key, value));
+        }
+
         final EdgeReader parser = new EdgeReader(graph);
         AeroQuery igniteQuery = table.getEdgesQuery(vertex, direction, label, key, value);
 
-        return igniteQuery.getResult().stream()
-                .map(parser::parse).iterator();
+        return CloseableIteratorUtils.map(igniteQuery.iterator(), parser::parse);
     }
 
     /**
@@ -114,52 +192,163 @@ public class EdgeModel extends ElementModel {
     public Iterator<Edge> edgesInRange(AeroVertex vertex, Direction direction, String label,
                                        String key, Object inclusiveFromValue, Object exclusiveToValue) {
 
+        if (direction == Direction.BOTH) {
+            return CloseableIteratorUtils.concat(
+                    edgesInRange(vertex, Direction.OUT, label, key, inclusiveFromValue, exclusiveToValue),
+                    edgesInRange(vertex, Direction.IN, label, key, inclusiveFromValue, exclusiveToValue));
+        }
+
         final EdgeReader parser = new EdgeReader(graph);
         AeroQuery igniteQuery = table.getEdgesInRangeQuery(vertex, direction, label, key,
                 inclusiveFromValue, exclusiveToValue);
 
-        return igniteQuery.getResult().stream()
-                .map(parser::parse).iterator();
+        return CloseableIteratorUtils.map(igniteQuery.iterator(), parser::parse);
+    }
+    /**
+     * Method to retrieve all edges that refer to the provided
+     * vertex and match direction, label, property and a range
+     * of property values with inclusive or exclusive bounds;
+     * a `null` bound refers to an open range, and a `null`
+     * label to all edges.
+     *
+     * Note, in the entry layout, the query result contains
+     * the matching property entries only; the edges are
+     * therefore not fully loaded.
+     */
+    public Iterator<Edge> edgesInRange(AeroVertex vertex, Direction direction, String label, String key,
+                                       Object fromValue, boolean fromInclusive, Object toValue, boolean toInclusive,
+                                       AeroProjection projection) {
+        return edgesInRange(vertex, direction, label, key,
+                fromValue, fromInclusive, toValue, toInclusive, projection, -1);
+    }
+    /**
+     * Method to retrieve at most `limit` edges that refer to
+     * the provided vertex and match direction, label, property
+     * and a range of property values; a `-1` limit refers to
+     * all matching edges.
+     */
+    public Iterator<Edge> edgesInRange(AeroVertex vertex, Direction direction, String label, String key,
+                                       Object fromValue, boolean fromInclusive, Object toValue, boolean toInclusive,
+                                       AeroProjection projection, int limit) {
+
+        if (direction == Direction.BOTH) {
+            return CloseableIteratorUtils.concat(
+                    edgesInRange(vertex, Direction.OUT, label, key,
+                            fromValue, fromInclusive, toValue, toInclusive, projection, limit),
+                    edgesInRange(vertex, Direction.IN, label, key,
+                            fromValue, fromInclusive, toValue, toInclusive, projection, limit));
+        }
+
+        final EdgeReader parser = new EdgeReader(graph);
+        AeroQuery igniteQuery = table.getEdgesInRangeQuery(vertex, direction, label, key,
+                fromValue, fromInclusive, toValue, toInclusive, projection).limit(limit);
+
+        boolean fullyLoaded = projection.withProperties()
+                && table.getLayout().equals(StorageLayout.PACKED);
+
+        return CloseableIteratorUtils.map(igniteQuery.iterator(),
+                result -> parser.parse(result, fullyLoaded));
     }
     /**
      * Method to retrieve all vertices that refer to the provided
      * vertex that can be reached via related edges
      */
     public Iterator<Vertex> vertices(AeroVertex vertex, Direction direction, String... labels) {
-        Iterator<Edge> edges = edges(vertex, direction, labels);
-        return edgesToVertices(vertex, edges);
+        return vertices(vertex, direction, AeroProjection.ALL, labels);
+    }
+    /**
+     * Method to retrieve all vertices that can be reached
+     * from the provided vertex; the vertices are restricted
+     * to the bins of the provided projection
+     */
+    public Iterator<Vertex> vertices(AeroVertex vertex, Direction direction, AeroProjection projection, String... labels) {
+        return vertices(vertex, direction, projection, -1, labels);
+    }
+    /**
+     * Method to retrieve at most `limit` vertices that can be
+     * reached from the provided vertex; a `-1` limit refers
+     * to all adjacent vertices.
+     */
+    public Iterator<Vertex> vertices(AeroVertex vertex, Direction direction, AeroProjection projection,
+                                     int limit, String... labels) {
+
+        if (table.getAdjacency().isEnabled()) {
+            /*
+             * The adjacency records directly refer to the
+             * adjacent vertices; the chunks of a supernode
+             * are read lazily, so that no chunk beyond the
+             * limit is read, and the vertices are loaded in
+             * batches as they are consumed
+             */
+            Iterator<AeroAdjacencyEntry> entries =
+                    table.getAdjacency().iterateEdges(vertex.id(), direction, labels);
+
+            if (limit != -1)
+                entries = CloseableIteratorUtils.limit(entries, limit);
+
+            return loadVertices(CloseableIteratorUtils.map(entries,
+                    entry -> graph.findOrCreateVertex(entry.otherVertexId)), projection);
+        }
+        /*
+         * The edges are only used to determine the adjacent
+         * vertices, so their properties are not read
+         */
+        Iterator<Edge> edges = edges(vertex, direction, AeroProjection.STRUCTURE, limit, labels);
+        return edgesToVertices(vertex, edges, projection);
     }
 
     public Iterator<Vertex> vertices(AeroVertex vertex, Direction direction, String label,
                                      String edgeKey, Object edgeValue) {
         Iterator<Edge> edges = edges(vertex, direction, label, edgeKey, edgeValue);
-        return edgesToVertices(vertex, edges);
+        return edgesToVertices(vertex, edges, AeroProjection.ALL);
     }
 
     public Iterator<Vertex> verticesInRange(AeroVertex vertex, Direction direction, String label,
                                             String edgeKey, Object inclusiveFromEdgeValue, Object exclusiveToEdgeValue) {
         Iterator<Edge> edges = edgesInRange(vertex, direction, label, edgeKey, inclusiveFromEdgeValue, exclusiveToEdgeValue);
-        return edgesToVertices(vertex, edges);
+        return edgesToVertices(vertex, edges, AeroProjection.ALL);
+    }
+
+    private Edge adjacencyToEdge(AeroAdjacencyEntry entry) {
+
+        Edge edge = graph.findOrCreateEdge(entry.edgeId);
+        /*
+         * The edge is built with label and vertices, but
+         * without properties, i.e. it is not fully loaded
+         */
+        AeroEdge newEdge = new AeroEdge(graph, entry.edgeId, entry.label, null, null, null, false,
+                graph.findOrCreateVertex(entry.getInVertexId()),
+                graph.findOrCreateVertex(entry.getOutVertexId()));
+
+        ((AeroEdge) edge).copyFrom(newEdge);
+        return edge;
+
     }
 
-    private Iterator<Vertex> edgesToVertices(AeroVertex vertex, Iterator<Edge> edges) {
+    private Iterator<Vertex> edgesToVertices(AeroVertex vertex, Iterator<Edge> edges, AeroProjection projection) {
         /*
-         * Retrieve the vertex from the respective
-         * in or out vertex
+         * Retrieve the vertex from the respective in or
+         * out vertex; the vertices are loaded in batches,
+         * so that the edges are consumed as requested
          */
-        List<Vertex> vertices = Streams.stream(edges).map(edge -> {
+        Iterator<Vertex> vertices = CloseableIteratorUtils.map(edges, edge -> {
 
             Object inVertexId = edge.inVertex().id();
             Object outVertexId = edge.outVertex().id();
 
             Object vertexId = vertex.id().equals(inVertexId) ? outVertexId : inVertexId;
             return graph.findOrCreateVertex(vertexId);
-        })
-        .collect(Collectors.toList());
+        });
+
+        return loadVertices(vertices, projection);
 
-        graph.getVertexModel().load(vertices);
-        return vertices.iterator();
+    }
 
+    private Iterator<Vertex> loadVertices(Iterator<Vertex> vertices, AeroProjection projection) {
+        return CloseableIteratorUtils.flatMap(CloseableIteratorUtils.partition(vertices, LOAD_BATCH_SIZE), batch -> {
+            graph.getVertexModel().load(batch, projection);
+            return batch.iterator();
+        });
     }
 
 }
@@ -18,6 +18,7 @@ package de.kp.works.aerospike.gremlin.models;
  *
  */
 
+import de.kp.works.aerospike.AeroProjection;
 import de.kp.works.aerospike.AeroTable;
 import de.kp.works.aerospike.query.AeroResult;
 import de.kp.works.aerospike.gremlin.AeroGraph;
@@ -63,18 +64,29 @@ public abstract class ElementModel extends BaseModel {
      *
      * @param elements The elements
      */
-    @SuppressWarnings("unchecked")
     public void load(List<? extends Element> elements) {
+        load(elements, AeroProjection.ALL);
+    }
+
+    /**
+     * Load the elements from the backing table, restricted
+     * to the bins of the provided projection.
+     *
+     * @param elements   The elements
+     * @param projection The bins to read
+     */
+    @SuppressWarnings("unchecked")
+    public void load(List<? extends Element> elements, AeroProjection projection) {
         LOGGER.trace("Executing Batch Get, type: {}", getClass().getSimpleName());
 
         List<Object> ids = elements.stream()
             .map(Element::id)
             .collect(Collectors.toList());
 
-        AeroResult[] results = table.get(ids);
+        AeroResult[] results = table.get(ids, projection);
         for (int i = 0; i < results.length; i++) {
             try {
-                getReader().load(elements.get(i), results[i]);
+                getReader().load(elements.get(i), results[i], projection.withProperties());
             } catch (GraphNotFoundException e) {
                 // ignore, the element will not have its properties fully loaded
             }
@@ -18,9 +18,12 @@ package de.kp.works.aerospike.gremlin.models;
  *
  */
 
+import de.kp.works.aerospike.AeroProjection;
 import de.kp.works.aerospike.AeroTable;
 import de.kp.works.aerospike.query.AeroQuery;
 import de.kp.works.aerospike.gremlin.AeroGraph;
+import de.kp.works.aerospike.gremlin.CloseableIteratorUtils;
+import de.kp.works.aerospike.gremlin.StorageLayout;
 import de.kp.works.aerospike.gremlin.mutators.*;
 import de.kp.works.aerospike.gremlin.readers.VertexReader;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -53,12 +56,19 @@ public class VertexModel extends ElementModel {
     /** READ **/
 
     public Iterator<Vertex> vertices() {
+        return vertices(AeroProjection.ALL);
+    }
+    /**
+     * This method retrieves all vertices, restricted to
+     * the bins of the provided projection.
+     */
+    public Iterator<Vertex> vertices(AeroProjection projection) {
 
         VertexReader parser = new VertexReader(graph);
-        AeroQuery aeroQuery = table.getAllQuery();
+        AeroQuery aeroQuery = table.getAllQuery(projection);
 
-        return aeroQuery.getResult().stream()
-                .map(parser::parse).iterator();
+        return CloseableIteratorUtils.map(aeroQuery.iterator(),
+                result -> parser.parse(result, projection.withProperties()));
     }
 
     public Iterator<Vertex> vertices(Object fromId, int limit) {
@@ -71,8 +81,7 @@ public class VertexModel extends ElementModel {
         else
             igniteQuery = table.getLimitQuery(fromId, limit);
 
-        return igniteQuery.getResult().stream()
-                .map(parser::parse).iterator();
+        return CloseableIteratorUtils.map(igniteQuery.iterator(), parser::parse);
     }
 
     /**
@@ -80,12 +89,30 @@ public class VertexModel extends ElementModel {
      * the same label.
      */
     public Iterator<Vertex> vertices(String label) {
+        return vertices(label, AeroProjection.ALL);
+    }
+    /**
+     * This method retrieves all vertices that refer to the
+     * same label, restricted to the bins of the provided
+     * projection.
+     */
+    public Iterator<Vertex> vertices(String label, AeroProjection projection) {
+        return vertices(label, projection, -1);
+    }
+    /**
+     * This method retrieves at most `limit` vertices that
+     * refer to the same label, restricted to the bins of the
+     * provided projection; a `null` label refers to all
+     * vertices, and a `-1` limit to all matching vertices.
+     */
+    public Iterator<Vertex> vertices(String label, AeroProjection projection, int limit) {
 
         VertexReader parser = new VertexReader(graph);
-        AeroQuery igniteQuery = table.getLabelQuery(label);
+        AeroQuery igniteQuery = (label == null)
+                ? table.getAllQuery(projection) : table.getLabelQuery(label, projection);
 
-        return igniteQuery.getResult().stream()
-                .map(parser::parse).iterator();
+        return CloseableIteratorUtils.map(igniteQuery.limit(limit).iterator(),
+                result -> parser.parse(result, projection.withProperties()));
     }
 
     /**
@@ -93,13 +120,37 @@ public class VertexModel extends ElementModel {
      * to a certain label, property key and value
      */
     public Iterator<Vertex> vertices(String label, String key, Object value) {
+        return vertices(label, key, value, AeroProjection.ALL);
+    }
+    /**
+     * This method retrieves all vertices that refer to a
+     * certain label, property key and value, restricted to
+     * the bins of the provided projection; a `null` label
+     * refers to all vertices.
+     *
+     * Note, in the entry layout, the query result contains
+     * the matching property entries only; the vertices are
+     * therefore not fully loaded.
+     */
+    public Iterator<Vertex> vertices(String label, String key, Object value, AeroProjection projection) {
+        return vertices(label, key, value, projection, -1);
+    }
+    /**
+     * This method retrieves at most `limit` vertices that
+     * refer to a certain label, property key and value; a
+     * `-1` limit refers to all matching vertices.
+     */
+    public Iterator<Vertex> vertices(String label, String key, Object value, AeroProjection projection, int limit) {
         ElementHelper.validateProperty(key, value);
 
         VertexReader parser = new VertexReader(graph);
-        AeroQuery igniteQuery = table.getPropertyQuery(label, key, value);
+        AeroQuery igniteQuery = table.getPropertyQuery(label, key, value, projection).limit(limit);
 
-        return igniteQuery.getResult().stream()
-                .map(parser::parse).iterator();
+        boolean fullyLoaded = projection.withProperties()
+                && table.getLayout().equals(StorageLayout.PACKED);
+
+        return CloseableIteratorUtils.map(igniteQuery.iterator(),
+                result -> parser.parse(result, fullyLoaded));
     }
 
     public Iterator<Vertex> verticesInRange(String label, String key, Object inclusiveFrom, Object exclusiveTo) {
@@ -110,8 +161,39 @@ public class VertexModel extends ElementModel {
         VertexReader parser = new VertexReader(graph);
         AeroQuery igniteQuery = table.getRangeQuery(label, key, inclusiveFrom, exclusiveTo);
 
-        return igniteQuery.getResult().stream()
-                .map(parser::parse).iterator();
+        return CloseableIteratorUtils.map(igniteQuery.iterator(), parser::parse);
+    }
+    /**
+     * This method retrieves all vertices that refer to a
+     * certain label and a range of property values, with
+     * inclusive or exclusive bounds; a `null` bound refers
+     * to an open range, and a `null` label to all vertices.
+     *
+     * Note, in the entry layout, the query result contains
+     * the matching property entries only; the vertices are
+     * therefore not fully loaded.
+     */
+    public Iterator<Vertex> verticesInRange(String label, String key, Object from, boolean fromInclusive,
+                                            Object to, boolean toInclusive, AeroProjection projection) {
+        return verticesInRange(label, key, from, fromInclusive, to, toInclusive, projection, -1);
+    }
+    /**
+     * This method retrieves at most `limit` vertices that
+     * refer to a certain label and a range of property
+     * values; a `-1` limit refers to all matching vertices.
+     */
+    public Iterator<Vertex> verticesInRange(String label, String key, Object from, boolean fromInclusive,
+                                            Object to, boolean toInclusive, AeroProjection projection, int limit) {
+
+        VertexReader parser = new VertexReader(graph);
+        AeroQuery igniteQuery = table.getRangeQuery(label, key, from, fromInclusive, to, toInclusive, projection)
+                .limit(limit);
+
+        boolean fullyLoaded = projection.withProperties()
+                && table.getLayout().equals(StorageLayout.PACKED);
+
+        return CloseableIteratorUtils.map(igniteQuery.iterator(),
+                result -> parser.parse(result, fullyLoaded));
     }
 
     public Iterator<Vertex> verticesWithLimit(String label, String key, Object from, int limit) {
@@ -121,7 +203,6 @@ public class VertexModel extends ElementModel {
         VertexReader parser = new VertexReader(graph);
         AeroQuery igniteQuery = table.getLimitQuery(label, key, from, limit);
 
-        return igniteQuery.getResult().stream()
-                .map(parser::parse).iterator();
+        return CloseableIteratorUtils.map(igniteQuery.iterator(), parser::parse);
     }
 }
@@ -71,9 +71,7 @@ public class EdgeWriter implements Creator {
 
         ((AeroEdge) edge).getProperties().forEach((key, value) -> {
             String colType = ValueUtils.getValueType(value).name();
-            String colValue = value.toString();
-
-            put.addColumn(key, colType, colValue);
+            put.addColumn(key, colType, value);
         });
 
         return IteratorUtils.of(put);
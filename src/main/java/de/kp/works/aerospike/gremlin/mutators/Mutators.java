@@ -21,7 +21,6 @@ package de.kp.works.aerospike.gremlin.mutators;
 import de.kp.works.aerospike.AeroTable;
 import de.kp.works.aerospike.mutate.AeroMutation;
 import de.kp.works.aerospike.mutate.AeroPut;
-import de.kp.works.aerospike.query.AeroResult;
 import de.kp.works.aerospike.gremlin.exception.GraphException;
 
 import java.util.ArrayList;
@@ -70,8 +69,7 @@ public class Mutators {
         Object[] results = write(table, batch);
 
         // Increment result is the first
-        AeroResult result = (AeroResult) results[0];
-        Object value = result.getValue(key);
+        Object value = results[0];
 
         if (value instanceof Exception) {
             throw new GraphException((Exception) value);
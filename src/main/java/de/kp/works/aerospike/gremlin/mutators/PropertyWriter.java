@@ -21,6 +21,7 @@ package de.kp.works.aerospike.gremlin.mutators;
 import de.kp.works.aerospike.mutate.AeroMutation;
 import de.kp.works.aerospike.mutate.AeroPut;
 import de.kp.works.aerospike.gremlin.*;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
@@ -50,6 +51,29 @@ public class PropertyWriter implements Mutator {
 
         put.addColumn(Constants.ID_COL_NAME, ValueUtils.getValueType(id).name(),
                 id.toString());
+        /*
+         * The core fields of the element are provided as
+         * well; this enables the backend to write the
+         * property without reading the element first.
+         */
+        put.addColumn(Constants.LABEL_COL_NAME, Constants.STRING_COL_TYPE,
+                element.label());
+
+        if (element instanceof Edge) {
+
+            Object toId = ((Edge) element).inVertex().id();
+            put.addColumn(Constants.TO_COL_NAME, ValueUtils.getValueType(toId).name(),
+                    toId.toString());
+
+            Object fromId = ((Edge) element).outVertex().id();
+            put.addColumn(Constants.FROM_COL_NAME, ValueUtils.getValueType(fromId).name(),
+                    fromId.toString());
+
+        }
+
+        Long createdAt = ((GraphElement) element).createdAt();
+        put.addColumn(Constants.CREATED_AT_COL_NAME, Constants.LONG_COL_TYPE,
+                createdAt.toString());
 
         Long updatedAt = ((GraphElement) element).updatedAt();
         put.addColumn(Constants.UPDATED_AT_COL_NAME, Constants.LONG_COL_TYPE,
@@ -58,9 +82,7 @@ public class PropertyWriter implements Mutator {
         /* Put property */
 
         String colType = ValueUtils.getValueType(value).name();
-        String colValue = value.toString();
-
-        put.addColumn(key, colType, colValue);
+        put.addColumn(key, colType, value);
         return IteratorUtils.of(put);
 
     }
@@ -63,9 +63,7 @@ public final class VertexWriter implements Creator {
 
         ((AeroVertex) vertex).getProperties().forEach((key, value) -> {
             String colType = ValueUtils.getValueType(value).name();
-            String colValue = value.toString();
-
-            put.addColumn(key, colType, colValue);
+            put.addColumn(key, colType, value);
         });
 
         return IteratorUtils.of(put);
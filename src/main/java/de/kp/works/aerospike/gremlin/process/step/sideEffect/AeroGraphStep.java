@@ -18,26 +18,40 @@ package de.kp.works.aerospike.gremlin.process.step.sideEffect;
  *
  */
 
+import de.kp.works.aerospike.AeroProjection;
 import de.kp.works.aerospike.gremlin.AeroGraph;
 import de.kp.works.aerospike.gremlin.CloseableIteratorUtils;
 import org.apache.tinkerpop.gremlin.process.traversal.Compare;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
-import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.*;
 
-public final class AeroGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasContainerHolder {
+public final class AeroGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasContainerHolder, Profiling {
 
     private final List<HasContainer> hasContainers = new ArrayList<>();
+    /*
+     * The Aerospike specific metrics of this step; they
+     * are collected, if the traversal is profiled
+     */
+    private AeroStepProfile profile = AeroStepProfile.NONE;
+    /*
+     * The maximum number of elements that the traversal
+     * consumes from this step; it is assigned by a `limit`
+     * or `range` step that directly follows this step
+     */
+    private int limit = -1;
 
     @SuppressWarnings("unchecked")
     public AeroGraphStep(final GraphStep<S, E> originalGraphStep) {
@@ -50,37 +64,98 @@ public final class AeroGraphStep<S, E extends Element> extends GraphStep<S, E> i
     private Iterator<? extends Edge> edges() {
         if (null == this.ids)
             return Collections.emptyIterator();
-        return CloseableIteratorUtils.filter(this.getTraversal().getGraph().get().edges(this.ids), edge -> HasContainer.testAll(edge, this.hasContainers));
+        final AeroGraph graph = (AeroGraph) this.getTraversal().getGraph().get();
+        return profile.read(() -> {
+            if (this.ids.length > 0)
+                return CloseableIteratorUtils.filter(graph.edges(this.ids), profile.filter(this.hasContainers));
+            // a label lookup or full scan is restricted to the bins that the next
+            // step needs, and to the limit, if the query evaluates all containers
+            Optional<String> label = getLabel(this.hasContainers);
+            Iterator<Edge> edges = graph.getEdgeModel().edges(label.orElse(null),
+                    AeroStepUtils.getProjection(this, this.hasContainers),
+                    AeroStepUtils.getLimit(this.limit, this.hasContainers, label.orElse(null)));
+            return CloseableIteratorUtils.filter(edges, profile.filter(this.hasContainers));
+        });
     }
 
     private Iterator<? extends Vertex> vertices() {
         if (null == this.ids)
             return Collections.emptyIterator();
         final AeroGraph graph = (AeroGraph) this.getTraversal().getGraph().get();
-        return lookupVertices(graph, this.hasContainers, this.ids);
+        return profile.read(() -> lookupVertices(graph, this.hasContainers, this.ids));
     }
 
     private Iterator<Vertex> lookupVertices(final AeroGraph graph, final List<HasContainer> hasContainers, final Object... ids) {
         // ids are present, filter on them first
         if (ids.length > 0)
-            return CloseableIteratorUtils.filter(graph.vertices(ids), vertex -> HasContainer.testAll(vertex, hasContainers));
+            return CloseableIteratorUtils.filter(graph.vertices(ids), profile.filter(hasContainers));
         ////// do index lookups //////
         // get a label being search on
-        Optional<String> label = hasContainers.stream()
-                .filter(hasContainer -> hasContainer.getKey().equals(T.label.getAccessor()))
+        Optional<String> label = getLabel(hasContainers);
+        AeroProjection projection = AeroStepUtils.getProjection(this, hasContainers);
+        // get a property value being search on
+        Optional<HasContainer> property = hasContainers.stream()
+                .filter(hasContainer -> !Graph.Hidden.isHidden(hasContainer.getKey()))
                 .filter(hasContainer -> Compare.eq == hasContainer.getBiPredicate())
-                .map(hasContainer -> (String) hasContainer.getValue())
-                .findAny();
-        if (label.isPresent()) {
+                .filter(hasContainer -> null != hasContainer.getValue())
+                .findFirst();
+        if (property.isPresent()) {
+            // find a vertex by (label), property key and value; the property
+            // is evaluated by the query, all other containers are filters
+            List<HasContainer> remaining = new ArrayList<>(hasContainers);
+            remaining.remove(property.get());
+            return CloseableIteratorUtils.filter(
+                    graph.getVertexModel().vertices(label.orElse(null), property.get().getKey(), property.get().getValue(), projection,
+                            AeroStepUtils.getLimit(this.limit, remaining, label.orElse(null))),
+                    profile.filter(remaining));
+        }
+        // get a range of property values being search on
+        AeroStepUtils.Range range = AeroStepUtils.getRange(hasContainers);
+        if (range != null) {
+            // find a vertex by (label) and range; the bounds are evaluated
+            // by the query, all other containers are filters
+            List<HasContainer> remaining = range.getRemaining(hasContainers);
+            return CloseableIteratorUtils.filter(
+                    graph.getVertexModel().verticesInRange(label.orElse(null), range.key,
+                            range.from, range.fromInclusive, range.to, range.toInclusive, projection,
+                            AeroStepUtils.getLimit(this.limit, remaining, label.orElse(null))),
+                    profile.filter(remaining));
+        } else if (label.isPresent()) {
             // find a vertex by label
-            return IteratorUtils.stream(graph.verticesByLabel(label.get()))
-                    .filter(vertex -> HasContainer.testAll(vertex, hasContainers)).iterator();
+            return CloseableIteratorUtils.filter(
+                    graph.getVertexModel().vertices(label.get(), projection,
+                            AeroStepUtils.getLimit(this.limit, hasContainers, label.get())),
+                    profile.filter(hasContainers));
         } else {
             // linear scan
-            return CloseableIteratorUtils.filter(graph.vertices(), vertex -> HasContainer.testAll(vertex, hasContainers));
+            return CloseableIteratorUtils.filter(
+                    graph.getVertexModel().vertices(null, projection, AeroStepUtils.getLimit(this.limit, hasContainers, null)),
+                    profile.filter(hasContainers));
         }
     }
 
+    private static Optional<String> getLabel(final List<HasContainer> hasContainers) {
+        return hasContainers.stream()
+                .filter(hasContainer -> hasContainer.getKey().equals(T.label.getAccessor()))
+                .filter(hasContainer -> Compare.eq == hasContainer.getBiPredicate())
+                .map(hasContainer -> (String) hasContainer.getValue())
+                .findAny();
+    }
+
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Pushes the limit of the traversal down to the queries
+     * of this step; as Aerospike's secondary indexes do not
+     * return ordered results, the limit refers to arbitrary
+     * elements that match the containers of this step.
+     */
+    public void setLimit(final int limit) {
+        this.limit = limit;
+    }
+
     @Override
     public String toString() {
         if (this.hasContainers.isEmpty())
@@ -106,6 +181,11 @@ public final class AeroGraphStep<S, E extends Element> extends GraphStep<S, E> i
             this.hasContainers.add(hasContainer);
     }
 
+    @Override
+    public void setMetrics(final MutableMetrics metrics) {
+        this.profile = new AeroStepProfile(metrics);
+    }
+
     @Override
     public int hashCode() {
         return super.hashCode() ^ this.hasContainers.hashCode();
@@ -0,0 +1,148 @@
+package de.kp.works.aerospike.gremlin.process.step.sideEffect;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import de.kp.works.aerospike.metrics.AeroProfile;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The provider specific part of the `profile()` output of a
+ * step: the Aerospike access paths of the step, the number of
+ * round trips, the records and bytes that are read, and the
+ * records and elements that are rejected on the client side.
+ *
+ * The values are reported as annotations of the metrics of
+ * the step, as these are part of the traversal metrics.
+ */
+final class AeroStepProfile {
+
+    static final String ACCESS_PATH = "aerospike.access_path";
+    static final String ROUND_TRIPS = "aerospike.round_trips";
+    static final String RECORDS = "aerospike.records";
+    static final String BYTES = "aerospike.bytes";
+    static final String REJECTED = "aerospike.rejected";
+    /*
+     * The profile of steps that are not profiled; reads
+     * are performed without any instrumentation
+     */
+    static final AeroStepProfile NONE = new AeroStepProfile(null);
+
+    private final MutableMetrics metrics;
+    private final AeroProfile profile;
+
+    AeroStepProfile(MutableMetrics metrics) {
+        this.metrics = metrics;
+        this.profile = metrics == null ? AeroProfile.NONE : new AeroProfile();
+    }
+
+    /**
+     * Performs the reads of a step with this profile; reads
+     * that are performed lazily, while the result is iterated,
+     * report to this profile as well.
+     */
+    <T> Iterator<T> read(Supplier<Iterator<T>> reader) {
+
+        if (metrics == null) return reader.get();
+
+        Iterator<T> iterator;
+        try (AeroProfile.Scope ignored = profile.activate()) {
+            iterator = reader.get();
+
+        } finally {
+            publish();
+        }
+
+        return new ProfiledIterator<>(iterator);
+
+    }
+
+    /**
+     * The client side evaluation of the has containers of
+     * a step; rejected elements are counted.
+     */
+    <E extends Element> Predicate<E> filter(List<HasContainer> hasContainers) {
+
+        if (metrics == null) return element -> HasContainer.testAll(element, hasContainers);
+
+        return element -> {
+            if (HasContainer.testAll(element, hasContainers)) return true;
+
+            profile.recordRejected(1L);
+            publish();
+
+            return false;
+        };
+
+    }
+
+    private void publish() {
+
+        Set<String> accessPaths = profile.getAccessPaths();
+        if (!accessPaths.isEmpty())
+            metrics.setAnnotation(ACCESS_PATH, String.join(", ", accessPaths));
+
+        metrics.setAnnotation(ROUND_TRIPS, profile.getRoundTrips());
+        metrics.setAnnotation(RECORDS, profile.getRecords());
+        metrics.setAnnotation(BYTES, profile.getBytes());
+        metrics.setAnnotation(REJECTED, profile.getRejected());
+
+    }
+
+    private class ProfiledIterator<T> implements CloseableIterator<T> {
+
+        private final Iterator<T> iterator;
+
+        ProfiledIterator(Iterator<T> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try (AeroProfile.Scope ignored = profile.activate()) {
+                return iterator.hasNext();
+
+            } finally {
+                publish();
+            }
+        }
+
+        @Override
+        public T next() {
+            try (AeroProfile.Scope ignored = profile.activate()) {
+                return iterator.next();
+            }
+        }
+
+        @Override
+        public void close() {
+            CloseableIterator.closeIterator(iterator);
+        }
+
+    }
+
+}
@@ -0,0 +1,199 @@
+package de.kp.works.aerospike.gremlin.process.step.sideEffect;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import de.kp.works.aerospike.AeroProjection;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.*;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+final class AeroStepUtils {
+
+    private AeroStepUtils() {
+    }
+
+    /**
+     * Determines the bins that the elements of a step must
+     * be read with, from the step that consumes them: steps
+     * that only access identifiers, labels or the adjacent
+     * vertices need no properties, and property steps need
+     * no index bins. All other steps read the elements with
+     * all bins.
+     *
+     * Note, elements that are read without properties load
+     * them on demand, so a projection never changes the
+     * result of a traversal.
+     */
+    static AeroProjection getProjection(Step<?, ?> step, List<HasContainer> hasContainers) {
+
+        for (HasContainer hasContainer : hasContainers) {
+            String key = hasContainer.getKey();
+            if (!T.id.getAccessor().equals(key) && !T.label.getAccessor().equals(key))
+                return AeroProjection.PROPERTIES;
+        }
+
+        Step<?, ?> nextStep = step.getNextStep();
+        while (nextStep instanceof NoOpBarrierStep || nextStep instanceof RangeGlobalStep)
+            nextStep = nextStep.getNextStep();
+
+        if (nextStep instanceof IdStep
+                || nextStep instanceof LabelStep
+                || nextStep instanceof CountGlobalStep
+                || nextStep instanceof EdgeVertexStep
+                || nextStep instanceof EdgeOtherVertexStep
+                || nextStep instanceof VertexStep)
+            return AeroProjection.STRUCTURE;
+
+        if (nextStep instanceof PropertiesStep
+                || nextStep instanceof PropertyMapStep
+                || nextStep instanceof ElementMapStep)
+            return AeroProjection.PROPERTIES;
+
+        return AeroProjection.ALL;
+
+    }
+
+    /**
+     * Determines a range of property values, that can be
+     * evaluated by a range query: the first property with a
+     * `gt`, `gte`, `lt` or `lte` condition, and at most one
+     * lower and one upper bound of this property; `between`,
+     * `inside` and other combined conditions are expected to
+     * be split into their bounds. All other conditions remain
+     * filters. `null` is returned, if there is no range.
+     */
+    static Range getRange(List<HasContainer> hasContainers) {
+
+        for (HasContainer hasContainer : hasContainers) {
+
+            if (!isBound(hasContainer)) continue;
+
+            Range range = new Range(hasContainer.getKey());
+            hasContainers.stream()
+                    .filter(candidate -> range.key.equals(candidate.getKey()) && isBound(candidate))
+                    .forEach(range::add);
+
+            return range;
+
+        }
+
+        return null;
+
+    }
+
+    private static boolean isBound(HasContainer hasContainer) {
+
+        if (Graph.Hidden.isHidden(hasContainer.getKey()) || hasContainer.getValue() == null)
+            return false;
+
+        BiPredicate<?, ?> predicate = hasContainer.getBiPredicate();
+        return predicate == Compare.gt || predicate == Compare.gte
+                || predicate == Compare.lt || predicate == Compare.lte;
+
+    }
+
+    /**
+     * Determines the limit that can be pushed down to the
+     * query of a step: the limit of the step, if the query
+     * evaluates all conditions, i.e. the remaining filters
+     * only refer to the label of the query. Otherwise, the
+     * filters may reject elements after the limit is applied,
+     * and `-1` is returned.
+     */
+    static int getLimit(int limit, List<HasContainer> filters, String label) {
+
+        for (HasContainer filter : filters) {
+            boolean evaluated = label != null
+                    && T.label.getAccessor().equals(filter.getKey())
+                    && Compare.eq == filter.getBiPredicate()
+                    && label.equals(filter.getValue());
+
+            if (!evaluated) return -1;
+        }
+
+        return limit;
+
+    }
+
+    /**
+     * The bounds of a range of property values; a `null`
+     * bound refers to an open range
+     */
+    static final class Range {
+
+        final String key;
+
+        Object from;
+        boolean fromInclusive;
+
+        Object to;
+        boolean toInclusive;
+        /*
+         * The conditions that are evaluated by the range
+         */
+        final List<HasContainer> hasContainers = new ArrayList<>();
+
+        private Range(String key) {
+            this.key = key;
+        }
+
+        private void add(HasContainer hasContainer) {
+
+            BiPredicate<?, ?> predicate = hasContainer.getBiPredicate();
+            if (predicate == Compare.gt || predicate == Compare.gte) {
+                if (from != null) return;
+
+                from = hasContainer.getValue();
+                fromInclusive = predicate == Compare.gte;
+
+            } else {
+                if (to != null) return;
+
+                to = hasContainer.getValue();
+                toInclusive = predicate == Compare.lte;
+            }
+
+            hasContainers.add(hasContainer);
+
+        }
+
+        /**
+         * The conditions of the provided ones, that are
+         * not evaluated by this range
+         */
+        List<HasContainer> getRemaining(List<HasContainer> conditions) {
+
+            List<HasContainer> remaining = new ArrayList<>(conditions);
+            hasContainers.forEach(remaining::remove);
+
+            return remaining;
+
+        }
+
+    }
+
+}
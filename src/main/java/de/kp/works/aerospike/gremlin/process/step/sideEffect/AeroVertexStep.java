@@ -18,11 +18,18 @@ package de.kp.works.aerospike.gremlin.process.step.sideEffect;
  *
  */
 
+import de.kp.works.aerospike.AeroProjection;
+import de.kp.works.aerospike.gremlin.AeroVertex;
 import de.kp.works.aerospike.gremlin.CloseableIteratorUtils;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -30,9 +37,27 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.util.*;
 
-public final class AeroVertexStep<E extends Element> extends VertexStep<E> implements HasContainerHolder {
+public final class AeroVertexStep<E extends Element> extends VertexStep<E> implements HasContainerHolder, Profiling {
 
     private final List<HasContainer> hasContainers = new ArrayList<>();
+    /*
+     * The Aerospike specific metrics of this step; they
+     * are collected, if the traversal is profiled
+     */
+    private AeroStepProfile profile = AeroStepProfile.NONE;
+    /*
+     * The bins that the elements of this step are read
+     * with; it is determined with the first traverser,
+     * when the traversal is completely optimized
+     */
+    private AeroProjection projection;
+    /*
+     * The maximum number of elements that the traversal
+     * consumes from this step per traverser; it is assigned
+     * by a `limit` or `range` step that directly follows
+     * this step
+     */
+    private int limit = -1;
 
     public AeroVertexStep(final VertexStep<E> originalVertexStep) {
         super(
@@ -46,20 +71,59 @@ public final class AeroVertexStep<E extends Element> extends VertexStep<E> imple
     @Override
     protected Iterator<E> flatMap(final Traverser.Admin<Vertex> traverser) {
         return Vertex.class.isAssignableFrom(getReturnClass()) ?
-                (Iterator<E>) lookupVertices(traverser, this.hasContainers) :
-                (Iterator<E>) lookupEdges(traverser, this.hasContainers);
+                (Iterator<E>) profile.read(() -> lookupVertices(traverser, this.hasContainers)) :
+                (Iterator<E>) profile.read(() -> lookupEdges(traverser, this.hasContainers));
     }
 
     private Iterator<Vertex> lookupVertices(final Traverser.Admin<Vertex> traverser, final List<HasContainer> hasContainers) {
+        Vertex vertex = traverser.get();
+        Iterator<Vertex> vertices = vertex instanceof AeroVertex
+                ? ((AeroVertex) vertex).vertices(getDirection(), getProjection(),
+                        AeroStepUtils.getLimit(this.limit, hasContainers, null), getEdgeLabels())
+                : vertex.vertices(getDirection(), getEdgeLabels());
         // linear scan
-        return CloseableIteratorUtils.filter(traverser.get().vertices(getDirection(), getEdgeLabels()),
-                vertex -> HasContainer.testAll(vertex, hasContainers));
+        return CloseableIteratorUtils.filter(vertices, profile.filter(hasContainers));
     }
 
     private Iterator<Edge> lookupEdges(final Traverser.Admin<Vertex> traverser, final List<HasContainer> hasContainers) {
+        Vertex vertex = traverser.get();
+        // a range of edge property values is evaluated by a range query,
+        // if the edges refer to a single direction and at most one label
+        AeroStepUtils.Range range = AeroStepUtils.getRange(hasContainers);
+        if (range != null && vertex instanceof AeroVertex
+                && getDirection() != Direction.BOTH && getEdgeLabels().length <= 1) {
+            String label = getEdgeLabels().length == 0 ? null : getEdgeLabels()[0];
+            List<HasContainer> remaining = range.getRemaining(hasContainers);
+            Iterator<Edge> edges = ((AeroVertex) vertex).edgesInRange(getDirection(), label, range.key,
+                    range.from, range.fromInclusive, range.to, range.toInclusive, getProjection(),
+                    AeroStepUtils.getLimit(this.limit, remaining, null));
+            return CloseableIteratorUtils.filter(edges, profile.filter(remaining));
+        }
+        Iterator<Edge> edges = vertex instanceof AeroVertex
+                ? ((AeroVertex) vertex).edges(getDirection(), getProjection(),
+                        AeroStepUtils.getLimit(this.limit, hasContainers, null), getEdgeLabels())
+                : vertex.edges(getDirection(), getEdgeLabels());
         // linear scan
-        return CloseableIteratorUtils.filter(traverser.get().edges(getDirection(), getEdgeLabels()),
-                edge -> HasContainer.testAll(edge, hasContainers));
+        return CloseableIteratorUtils.filter(edges, profile.filter(hasContainers));
+    }
+
+    private AeroProjection getProjection() {
+        if (projection == null)
+            projection = AeroStepUtils.getProjection(this, hasContainers);
+        return projection;
+    }
+
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Pushes the limit of the traversal down to the queries
+     * of this step; the limit refers to the elements that
+     * are reached from a single traverser.
+     */
+    public void setLimit(final int limit) {
+        this.limit = limit;
     }
 
     @Override
@@ -77,7 +141,17 @@ public final class AeroVertexStep<E extends Element> extends VertexStep<E> imple
 
     @Override
     public void addHasContainer(final HasContainer hasContainer) {
-        this.hasContainers.add(hasContainer);
+        if (hasContainer.getPredicate() instanceof AndP) {
+            for (final P<?> predicate : ((AndP<?>) hasContainer.getPredicate()).getPredicates()) {
+                this.addHasContainer(new HasContainer(hasContainer.getKey(), predicate));
+            }
+        } else
+            this.hasContainers.add(hasContainer);
+    }
+
+    @Override
+    public void setMetrics(final MutableMetrics metrics) {
+        this.profile = new AeroStepProfile(metrics);
     }
 
     @Override
@@ -24,6 +24,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
@@ -56,6 +57,19 @@ public final class AeroGraphStepStrategy
                 }
                 currentStep = currentStep.getNextStep();
             }
+            /*
+             * A `limit` or `range` step that directly follows the
+             * step restricts the elements that are read; the step
+             * itself remains, as the limit is not applied to ids
+             * and client side filters. An `order` step in between
+             * prevents the pushdown, as Aerospike's secondary
+             * indexes do not return ordered results.
+             */
+            if (currentStep instanceof RangeGlobalStep) {
+                final long high = ((RangeGlobalStep<?>) currentStep).getHighRange();
+                if (high != -1 && high <= Integer.MAX_VALUE)
+                    aeroGraphStep.setLimit((int) high);
+            }
         }
     }
 
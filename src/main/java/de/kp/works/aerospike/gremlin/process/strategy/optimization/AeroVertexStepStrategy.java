@@ -23,6 +23,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
@@ -57,6 +58,16 @@ public final class AeroVertexStepStrategy
                 }
                 currentStep = currentStep.getNextStep();
             }
+            /*
+             * A `limit` or `range` step that directly follows the
+             * step restricts the elements that are read for each
+             * traverser; the step itself remains.
+             */
+            if (currentStep instanceof RangeGlobalStep) {
+                final long high = ((RangeGlobalStep<?>) currentStep).getHighRange();
+                if (high != -1 && high <= Integer.MAX_VALUE)
+                    igniteVertexStep.setLimit((int) high);
+            }
         }
     }
 
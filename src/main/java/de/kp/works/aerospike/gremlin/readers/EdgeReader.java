@@ -39,7 +39,7 @@ public class EdgeReader extends LoadingElementReader<Edge> {
     }
 
     @Override
-    public Edge parse(AeroResult result) {
+    public Edge parse(AeroResult result, boolean propertiesFullyLoaded) {
         /*
          * Retrieve an edge template that matches
          * the provided id, either from cache or
@@ -48,13 +48,13 @@ public class EdgeReader extends LoadingElementReader<Edge> {
          */
         Object id = result.getId();
         Edge edge = graph.findOrCreateEdge(id);
-        load(edge, result);
+        load(edge, result, propertiesFullyLoaded);
 
         return edge;
     }
 
     @Override
-    public void load(Edge edge, AeroResult result) {
+    public void load(Edge edge, AeroResult result, boolean propertiesFullyLoaded) {
         if (result.isEmpty()) {
             throw new GraphNotFoundException(edge, "Edge does not exist: " + edge.id());
         }
@@ -70,6 +70,9 @@ public class EdgeReader extends LoadingElementReader<Edge> {
         for (AeroColumn column : result.getColumns()) {
             String colName = column.getColName();
             switch (colName) {
+                case Constants.ID_COL_NAME:
+                    /* The id is assigned by the element */
+                    break;
                 case Constants.LABEL_COL_NAME:
                     label = column.getColValue().toString();
                     break;
@@ -93,7 +96,7 @@ public class EdgeReader extends LoadingElementReader<Edge> {
         }
 
         if (inVertexId != null && outVertexId != null && label != null) {
-            AeroEdge newEdge = new AeroEdge(graph, edge.id(), label, createdAt, updatedAt, props,
+            AeroEdge newEdge = new AeroEdge(graph, edge.id(), label, createdAt, updatedAt, props, propertiesFullyLoaded,
                     graph.findOrCreateVertex(inVertexId),
                     graph.findOrCreateVertex(outVertexId));
             ((AeroEdge) edge).copyFrom(newEdge);
@@ -28,5 +28,20 @@ public abstract class LoadingElementReader<T extends Element> extends ElementRea
         super(graph);
     }
 
-    public abstract void load(T element, AeroResult result);
+    @Override
+    public T parse(AeroResult result) {
+        return parse(result, true);
+    }
+
+    public void load(T element, AeroResult result) {
+        load(element, result, true);
+    }
+    /**
+     * A result that is restricted by a projection does not
+     * contain all properties; the respective element is not
+     * fully loaded, and its properties are read on demand.
+     */
+    public abstract T parse(AeroResult result, boolean propertiesFullyLoaded);
+
+    public abstract void load(T element, AeroResult result, boolean propertiesFullyLoaded);
 }
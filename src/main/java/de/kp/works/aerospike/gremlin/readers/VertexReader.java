@@ -39,7 +39,7 @@ public class VertexReader extends LoadingElementReader<Vertex> {
     }
 
     @Override
-    public Vertex parse(AeroResult result) {
+    public Vertex parse(AeroResult result, boolean propertiesFullyLoaded) {
         /*
          * Retrieve a vertex template that matches
          * the provided id, either from cache or
@@ -48,12 +48,12 @@ public class VertexReader extends LoadingElementReader<Vertex> {
          */
         Object id = result.getId();
         Vertex vertex = graph.findOrCreateVertex(id);
-        load(vertex, result);
+        load(vertex, result, propertiesFullyLoaded);
         return vertex;
     }
 
     @Override
-    public void load(Vertex vertex, AeroResult result) {
+    public void load(Vertex vertex, AeroResult result, boolean propertiesFullyLoaded) {
         if (result.isEmpty()) {
             throw new GraphNotFoundException(vertex, "Vertex does not exist: " + vertex.id());
         }
@@ -65,6 +65,9 @@ public class VertexReader extends LoadingElementReader<Vertex> {
         for (AeroColumn column : result.getColumns()) {
             String colName = column.getColName();
             switch (colName) {
+                case Constants.ID_COL_NAME:
+                    /* The id is assigned by the element */
+                    break;
                 case Constants.LABEL_COL_NAME:
                     label = column.getColValue().toString();
                     break;
@@ -81,7 +84,7 @@ public class VertexReader extends LoadingElementReader<Vertex> {
 
         }
 
-        AeroVertex newVertex = new AeroVertex(graph, vertex.id(), label, createdAt, updatedAt, props);
+        AeroVertex newVertex = new AeroVertex(graph, vertex.id(), label, createdAt, updatedAt, props, propertiesFullyLoaded);
         ((AeroVertex) vertex).copyFrom(newVertex);
     }
 }
@@ -20,7 +20,7 @@ package de.kp.works.aerospike.hadoop;
 
 import com.aerospike.client.Key;
 import com.aerospike.client.Record;
-import de.kp.works.aerospike.util.NamedThreadFactory;
+import de.kp.works.aerospike.concurrent.NamedThreadFactory;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.mapreduce.InputSplit;
@@ -40,6 +40,7 @@ public class AeroRecordReader extends
     private AeroKey currentKey;
     private AeroRecord currentValue;
 
+    private AeroScanReader scanReader;
     private Iterator<AeroKeyRecord> scanIterator;
     private float progress = 0f;
 
@@ -74,7 +75,7 @@ public class AeroRecordReader extends
          * Build Aerospike scan reader and start scanning
          * the provided node
          */
-        AeroScanReader scanReader = new AeroScanReader(split.getNode(), split.getConfig());
+        scanReader = new AeroScanReader(split.getNode(), split.getConfig());
         scanIterator = scanReader.run(scanThreadFactory);
 
     }
@@ -198,8 +199,9 @@ public class AeroRecordReader extends
     @Override
     public void close() throws IOException {
         /*
-         * Do nothing to do, as the Scan iterator
-         * automatically closes the thread.
+         * A reader that is closed before the split is
+         * read completely stops the scan thread
          */
+        if (scanReader != null) scanReader.close();
     }
 }
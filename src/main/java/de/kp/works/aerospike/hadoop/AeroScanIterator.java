@@ -27,10 +27,13 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class AeroScanIterator implements Iterator<AeroKeyRecord>, ScanCallback {
 
+    private static final long POLL_INTERVAL = 100L;
+
     private Thread thread;
     /*
      * A blocking queue to collect (key, record) pairs
@@ -45,17 +48,28 @@ public class AeroScanIterator implements Iterator<AeroKeyRecord>, ScanCallback {
     public AeroScanIterator() {
     }
 
+    /**
+     * Indicates the end of the scan; the terminate value
+     * is passed to the consumer, unless the iterator has
+     * been closed.
+     */
+    public void complete() {
+        put(TERMINATE_VALUE);
+    }
+
+    /**
+     * Closes the iterator before the scan is finished;
+     * buffered records are discarded and the scan thread
+     * is stopped.
+     */
     public void close() {
 
-        closed.set(true);
-        try {
+        if (!closed.compareAndSet(false, true)) return;
 
-            queue.put(TERMINATE_VALUE);
-            thread.interrupt();
+        queue.clear();
+        queue.offer(TERMINATE_VALUE);
 
-        } catch (InterruptedException e) {
-            throw new RuntimeException();
-        }
+        if (thread != null) thread.interrupt();
 
     }
 
@@ -71,13 +85,30 @@ public class AeroScanIterator implements Iterator<AeroKeyRecord>, ScanCallback {
              */
             throw new AerospikeException.ScanTerminated();
         }
+        if (!put(new AeroKeyRecord(new AeroKey(key), new AeroRecord(record))))
+            throw new AerospikeException.ScanTerminated();
+
+    }
+
+    /**
+     * The scan thread is blocked while the queue is full;
+     * it stops waiting, when the iterator is closed.
+     */
+    private boolean put(AeroKeyRecord keyRecord) {
+
         try {
-            queue.put(new AeroKeyRecord(new AeroKey(key), new AeroRecord(record)));
+
+            while (!closed.get()) {
+                if (queue.offer(keyRecord, POLL_INTERVAL, TimeUnit.MILLISECONDS))
+                    return true;
+            }
 
         } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+            Thread.currentThread().interrupt();
         }
 
+        return false;
+
     }
 
     @Override
@@ -20,7 +20,7 @@ package de.kp.works.aerospike.hadoop;
 
 import com.aerospike.client.AerospikeClient;
 import com.aerospike.client.policy.ScanPolicy;
-import de.kp.works.aerospike.util.NamedThreadFactory;
+import de.kp.works.aerospike.concurrent.NamedThreadFactory;
 
 import java.util.Iterator;
 
@@ -37,6 +37,11 @@ public class AeroScanReader {
         this.config = config;
     }
 
+    /**
+     * Scans the node in a background thread; the thread
+     * is stopped, when the scan is finished or the reader
+     * is closed.
+     */
     public Iterator<AeroKeyRecord> run(NamedThreadFactory scanThreadFactory) throws Exception {
         /*
          * The AeroScan implements a parallel scanning
@@ -62,7 +67,7 @@ public class AeroScanReader {
                    client.scanNode(scanPolicy, node, namespace, setname, scanIterator);
 
                 } finally {
-                    scanIterator.close();
+                    scanIterator.complete();
                 }
 
             }
@@ -75,4 +80,8 @@ public class AeroScanReader {
 
     }
 
+    public void close() {
+        scanIterator.close();
+    }
+
 }
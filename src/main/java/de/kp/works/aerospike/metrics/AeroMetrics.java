@@ -0,0 +1,254 @@
+package de.kp.works.aerospike.metrics;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.google.common.cache.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * [AeroMetrics] is the instrumentation of a storage backend:
+ * latency histograms per operation, counters, e.g. of the
+ * records that are returned and kept by client side filtering,
+ * and the statistics of the element and edge caches.
+ *
+ * The metrics are provided by a programmatic snapshot, and
+ * exposed over JMX as `de.kp.works.aerospike:type=AeroMetrics`.
+ * Disabled metrics do not record anything.
+ */
+public class AeroMetrics implements AeroMetricsMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AeroMetrics.class);
+
+    private static final String JMX_DOMAIN = "de.kp.works.aerospike";
+
+    /** OPERATIONS **/
+
+    public static final String GET = "get";
+    public static final String BATCH_GET = "batch_get";
+    public static final String PUT = "put";
+    public static final String DELETE = "delete";
+    /*
+     * Queries are recorded per index bin, e.g. `query.label`;
+     * queries without an index filter as `query.none`
+     */
+    public static final String QUERY = "query";
+    public static final String SCAN = "scan";
+    /*
+     * Partition scans are recorded per segment, i.e. a
+     * range of partitions of a set that a worker scans
+     */
+    public static final String SCAN_PARTITIONS = "scan.partitions";
+    /*
+     * The time a reader waits for the consumer of a cursor
+     * (producer), and the consumer waits for the reader
+     */
+    public static final String PRODUCER_WAIT = "cursor.producer_wait";
+    public static final String CONSUMER_WAIT = "cursor.consumer_wait";
+
+    /** COUNTERS **/
+
+    public static final String ERRORS = ".errors";
+
+    public static final String RECORDS_RETURNED = "filter.records_returned";
+    public static final String RECORDS_KEPT = "filter.records_kept";
+
+    public static final String CACHE_PREFIX = "cache.";
+
+    public static final String HITS = ".hits";
+    public static final String MISSES = ".misses";
+    public static final String EVICTIONS = ".evictions";
+
+    public static final AeroMetrics DISABLED = new AeroMetrics(false);
+
+    private final boolean enabled;
+
+    private final ConcurrentHashMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    /*
+     * Caches that maintain their own statistics; these
+     * are read, when a snapshot is taken
+     */
+    private final ConcurrentHashMap<String, Supplier<CacheStats>> caches = new ConcurrentHashMap<>();
+
+    private ObjectName objectName;
+
+    public AeroMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordLatency(String operation, long nanos) {
+        if (!enabled) return;
+        latencies.computeIfAbsent(operation, name -> new LatencyHistogram()).record(nanos);
+    }
+
+    public void recordError(String operation) {
+        increment(operation + ERRORS);
+    }
+
+    /**
+     * Records the number of records that are returned by
+     * the server, and kept after client side filtering
+     */
+    public void recordRecords(long returned, long kept) {
+        add(RECORDS_RETURNED, returned);
+        add(RECORDS_KEPT, kept);
+    }
+
+    public void increment(String counter) {
+        add(counter, 1L);
+    }
+
+    public void add(String counter, long value) {
+        if (!enabled || value == 0L) return;
+        counters.computeIfAbsent(counter, name -> new LongAdder()).add(value);
+    }
+
+    /**
+     * Registers a cache that records its own statistics;
+     * the statistics are provided as the counters of
+     * `cache.<name>`.
+     */
+    public void registerCache(String name, Supplier<CacheStats> stats) {
+        if (!enabled) return;
+        caches.put(name, stats);
+    }
+
+    public AeroMetricsSnapshot snapshot() {
+
+        Map<String, Long> counterValues = new HashMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.sum()));
+
+        caches.forEach((name, stats) -> {
+            CacheStats cacheStats = stats.get();
+
+            counterValues.put(CACHE_PREFIX + name + HITS, cacheStats.hitCount());
+            counterValues.put(CACHE_PREFIX + name + MISSES, cacheStats.missCount());
+            counterValues.put(CACHE_PREFIX + name + EVICTIONS, cacheStats.evictionCount());
+        });
+
+        Map<String, LatencySnapshot> latencyValues = new HashMap<>();
+        latencies.forEach((name, histogram) -> latencyValues.put(name, histogram.snapshot()));
+
+        return new AeroMetricsSnapshot(System.currentTimeMillis(), counterValues, latencyValues);
+
+    }
+
+    /** JMX **/
+
+    /**
+     * Exposes the metrics over JMX; metrics with the same
+     * name, e.g. of another graph on the same set, are not
+     * replaced.
+     */
+    public synchronized void register(String name) {
+
+        if (!enabled || objectName != null) return;
+        try {
+
+            ObjectName candidate = new ObjectName(JMX_DOMAIN + ":type=AeroMetrics,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+            if (server.isRegistered(candidate)) {
+                LOGGER.warn("Metrics '" + name + "' are already registered; they are not exposed over JMX.");
+                return;
+            }
+
+            server.registerMBean(this, candidate);
+            objectName = candidate;
+
+        } catch (Exception e) {
+            LOGGER.warn("Registering metrics '" + name + "' over JMX failed.", e);
+        }
+
+    }
+
+    public synchronized void close() {
+
+        if (objectName == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+
+        } catch (Exception e) {
+            /* Do nothing */
+        }
+
+        objectName = null;
+
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        return snapshot().getCounters();
+    }
+
+    @Override
+    public Map<String, Double> getLatencies() {
+
+        Map<String, Double> values = new TreeMap<>();
+        snapshot().getLatencies().forEach((name, latency) -> {
+
+            values.put(name + ".count", (double) latency.getCount());
+            values.put(name + ".mean", toMicros(latency.getMean()));
+            values.put(name + ".p50", toMicros(latency.getP50()));
+            values.put(name + ".p90", toMicros(latency.getP90()));
+            values.put(name + ".p99", toMicros(latency.getP99()));
+            values.put(name + ".p999", toMicros(latency.getP999()));
+            values.put(name + ".max", toMicros(latency.getMax()));
+
+        });
+
+        return values;
+
+    }
+
+    @Override
+    public Map<String, Double> getCacheHitRates() {
+        return snapshot().getCacheHitRates();
+    }
+
+    /**
+     * Resets latencies and counters; the statistics of
+     * registered caches are maintained by the caches.
+     */
+    @Override
+    public void reset() {
+        latencies.values().forEach(LatencyHistogram::reset);
+        counters.values().forEach(LongAdder::reset);
+    }
+
+    private static double toMicros(long nanos) {
+        return nanos / 1000D;
+    }
+
+}
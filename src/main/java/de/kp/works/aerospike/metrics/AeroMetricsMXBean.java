@@ -0,0 +1,46 @@
+package de.kp.works.aerospike.metrics;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import java.util.Map;
+
+/**
+ * The JMX view of the [AeroMetrics]; the attributes are
+ * flat maps, so that they can be read by any JMX client.
+ */
+public interface AeroMetricsMXBean {
+    /**
+     * The counters, e.g. errors, records returned and kept
+     * by client side filtering, and cache hits and misses
+     */
+    Map<String, Long> getCounters();
+    /**
+     * The latencies in microseconds; each operation is
+     * described by `<operation>.count`, `.mean`, `.p50`,
+     * `.p90`, `.p99`, `.p999` and `.max`.
+     */
+    Map<String, Double> getLatencies();
+    /**
+     * The hit rates of the caches, from 0.0 to 1.0
+     */
+    Map<String, Double> getCacheHitRates();
+
+    void reset();
+
+}
@@ -0,0 +1,92 @@
+package de.kp.works.aerospike.metrics;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The state of the [AeroMetrics] at a certain point in
+ * time; counters and latencies are sorted by name.
+ */
+public class AeroMetricsSnapshot implements Serializable {
+
+    private static final long serialVersionUID = -2306398465021563127L;
+
+    private final long timestamp;
+
+    private final Map<String, Long> counters;
+    private final Map<String, LatencySnapshot> latencies;
+
+    public AeroMetricsSnapshot(long timestamp, Map<String, Long> counters, Map<String, LatencySnapshot> latencies) {
+
+        this.timestamp = timestamp;
+
+        this.counters = Collections.unmodifiableMap(new TreeMap<>(counters));
+        this.latencies = Collections.unmodifiableMap(new TreeMap<>(latencies));
+
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public long getCounter(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    public Map<String, LatencySnapshot> getLatencies() {
+        return latencies;
+    }
+
+    public LatencySnapshot getLatency(String operation) {
+        return latencies.get(operation);
+    }
+
+    /**
+     * The hit rates of the caches; they are derived from
+     * the `cache.<name>.hits` and `cache.<name>.misses`
+     * counters.
+     */
+    public Map<String, Double> getCacheHitRates() {
+
+        Map<String, Double> hitRates = new TreeMap<>();
+        counters.keySet().stream()
+                .filter(name -> name.startsWith(AeroMetrics.CACHE_PREFIX) && name.endsWith(AeroMetrics.HITS))
+                .forEach(name -> {
+                    String cache = name.substring(0, name.length() - AeroMetrics.HITS.length());
+
+                    long hits = getCounter(cache + AeroMetrics.HITS);
+                    long requests = hits + getCounter(cache + AeroMetrics.MISSES);
+
+                    hitRates.put(cache.substring(AeroMetrics.CACHE_PREFIX.length()),
+                            (requests == 0L) ? 0D : (double) hits / requests);
+                });
+
+        return hitRates;
+
+    }
+
+}
@@ -0,0 +1,185 @@
+package de.kp.works.aerospike.metrics;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.Record;
+import com.aerospike.client.Value;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * [AeroProfile] collects the storage level costs of a part
+ * of a traversal, e.g. a single step: the access paths that
+ * are chosen, the number of round trips to the cluster, the
+ * records and bytes that are read, and the records that are
+ * rejected by client side filtering.
+ *
+ * A profile is activated for the current thread; reads that
+ * are started while it is active report to it, even if the
+ * records are received by a background thread.
+ */
+public class AeroProfile {
+
+    /** ACCESS PATHS **/
+
+    public static final String ID_GET = "id get";
+    public static final String ID_MULTI_GET = "id multi-get";
+    public static final String ID_INDEX = "id index";
+    public static final String LABEL_INDEX = "label index";
+    public static final String PROPERTY_INDEX = "property index";
+    /*
+     * The index on the from and to bins of edges,
+     * i.e. the lookup of the edges of a vertex
+     */
+    public static final String VERTEX_INDEX = "vertex index";
+    public static final String FULL_SCAN = "full scan";
+    /*
+     * The profile of reads that are started without
+     * an active profile; it does not record anything
+     */
+    public static final AeroProfile NONE = new AeroProfile(false);
+
+    private static final ThreadLocal<AeroProfile> CURRENT = new ThreadLocal<>();
+
+    private final boolean enabled;
+
+    private final Set<String> accessPaths = Collections.synchronizedSet(new LinkedHashSet<>());
+
+    private final LongAdder roundTrips = new LongAdder();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AeroProfile() {
+        this(true);
+    }
+
+    private AeroProfile(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The profile that is active for the current thread;
+     * [NONE] is returned, if no profile is active.
+     */
+    public static AeroProfile current() {
+        AeroProfile profile = CURRENT.get();
+        return profile == null ? NONE : profile;
+    }
+
+    /**
+     * Activates this profile for the current thread; the
+     * previously active profile is restored, when the
+     * returned scope is closed.
+     */
+    public Scope activate() {
+
+        AeroProfile previous = CURRENT.get();
+        CURRENT.set(this);
+
+        return () -> {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        };
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordAccessPath(String accessPath) {
+        if (enabled) accessPaths.add(accessPath);
+    }
+
+    public void recordRoundTrips(long count) {
+        if (enabled) roundTrips.add(count);
+    }
+    /**
+     * Records a record that is received from the cluster;
+     * its size is estimated from the sizes of its bins.
+     */
+    public void recordRecord(Record record) {
+
+        if (!enabled || record == null) return;
+
+        records.increment();
+        bytes.add(estimateSize(record));
+
+    }
+
+    public void recordRejected(long count) {
+        if (enabled) rejected.add(count);
+    }
+
+    public Set<String> getAccessPaths() {
+        synchronized (accessPaths) {
+            return new LinkedHashSet<>(accessPaths);
+        }
+    }
+
+    public long getRoundTrips() {
+        return roundTrips.sum();
+    }
+
+    public long getRecords() {
+        return records.sum();
+    }
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private static long estimateSize(Record record) {
+
+        if (record.bins == null) return 0L;
+
+        long size = 0L;
+        for (Map.Entry<String, Object> bin : record.bins.entrySet()) {
+            size += bin.getKey().length();
+            try {
+                size += Value.get(bin.getValue()).estimateSize();
+
+            } catch (Exception e) {
+                /* Do nothing */
+            }
+        }
+
+        return size;
+
+    }
+
+    /**
+     * The activation of a profile; closing it does not
+     * throw any exception
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+}
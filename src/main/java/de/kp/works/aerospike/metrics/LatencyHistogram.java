@@ -0,0 +1,146 @@
+package de.kp.works.aerospike.metrics;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * [LatencyHistogram] records durations in nanoseconds with
+ * a bounded relative error, similar to an HdrHistogram: each
+ * power of two is split into 32 linear sub-buckets, so that
+ * a recorded value is off by at most 1/32 (~3%).
+ *
+ * Recording is lock free and does not allocate; snapshots
+ * may therefore miss values that are recorded concurrently.
+ */
+public class LatencyHistogram {
+    /*
+     * The number of linear sub-buckets of each power
+     * of two, expressed as a number of bits
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+
+        long value = Math.max(0L, nanos);
+        counts.incrementAndGet(getIndex(value));
+
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value))
+            current = max.get();
+
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public LatencySnapshot snapshot() {
+
+        long[] values = new long[BUCKETS];
+        long total = 0L;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            values[i] = counts.get(i);
+            total += values[i];
+        }
+
+        long mean = (total == 0L) ? 0L : sum.get() / Math.max(1L, count.get());
+        return new LatencySnapshot(total, mean,
+                getPercentile(values, total, 0.50),
+                getPercentile(values, total, 0.90),
+                getPercentile(values, total, 0.99),
+                getPercentile(values, total, 0.999),
+                max.get());
+
+    }
+
+    public void reset() {
+
+        for (int i = 0; i < BUCKETS; i++)
+            counts.set(i, 0L);
+
+        count.set(0L);
+        sum.set(0L);
+        max.set(0L);
+
+    }
+
+    /**
+     * Values below the number of sub-buckets are counted
+     * exactly; larger values are assigned to the sub-bucket
+     * of their power of two.
+     */
+    private static int getIndex(long value) {
+
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+
+    }
+
+    /**
+     * The value of a bucket is the middle of the range
+     * of values that are assigned to it
+     */
+    private static long getValue(int index) {
+
+        if (index < SUB_BUCKETS) return index;
+
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+
+        return lower + ((1L << shift) >> 1);
+
+    }
+
+    private static long getPercentile(long[] values, long total, double percentile) {
+
+        if (total == 0L) return 0L;
+
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0L;
+
+        for (int i = 0; i < values.length; i++) {
+            seen += values[i];
+            if (seen >= rank) return getValue(i);
+        }
+
+        return getValue(values.length - 1);
+
+    }
+
+}
@@ -0,0 +1,89 @@
+package de.kp.works.aerospike.metrics;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import java.io.Serializable;
+
+/**
+ * The state of a [LatencyHistogram] at a certain point
+ * in time; all values are nanoseconds.
+ */
+public class LatencySnapshot implements Serializable {
+
+    private static final long serialVersionUID = 3466427183722413810L;
+
+    private final long count;
+    private final long mean;
+
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+
+    private final long max;
+
+    public LatencySnapshot(long count, long mean, long p50, long p90, long p99, long p999, long max) {
+
+        this.count = count;
+        this.mean = mean;
+
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+
+        this.max = max;
+
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%d, p50=%d, p90=%d, p99=%d, p999=%d, max=%d (ns)",
+                count, mean, p50, p90, p99, p999, max);
+    }
+
+}
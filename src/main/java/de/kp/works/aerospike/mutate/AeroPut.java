@@ -29,7 +29,7 @@ public class AeroPut extends AeroMutation {
         mutationType = AeroMutationType.PUT;
     }
 
-    public void addColumn(String colName, String colType, String colValue) {
+    public void addColumn(String colName, String colType, Object colValue) {
         columns.add(new AeroColumn(colName, colType, colValue));
     }
 
@@ -19,7 +19,9 @@ package de.kp.works.aerospike.query;
  */
 
 import de.kp.works.aerospike.AeroConnect;
+import de.kp.works.aerospike.AeroProjection;
 import de.kp.works.aerospike.KeyRecord;
+import de.kp.works.aerospike.gremlin.StorageLayout;
 
 import java.util.Iterator;
 
@@ -35,7 +37,15 @@ public class AeroAllQuery extends AeroQuery {
 
     @Override
     protected Iterator<KeyRecord> getKeyRecords() {
-         return connect.scan(setname);
+
+        if (limit == -1 || connect.layout().equals(StorageLayout.PACKED))
+            return connect.scan(setname, limit, projection);
+        /*
+         * A limited scan may return the records of an
+         * element partially in the entry layout
+         */
+        return reloadElements(connect.scan(setname, limit, AeroProjection.STRUCTURE));
+
     }
 
 }
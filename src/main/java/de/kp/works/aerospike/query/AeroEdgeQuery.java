@@ -68,7 +68,7 @@ public class AeroEdgeQuery extends AeroQuery {
                  * Aerospike read query with two filter
                  * conditions combined with `and`.
                  */
-                .query(setname, new AeroFilters("and", filters, -1));
+                .query(setname, new AeroFilters("and", filters, -1), projection);
 
     }
 
@@ -35,6 +35,17 @@ public class AeroEdgesInRangeQuery extends AeroQuery {
     public AeroEdgesInRangeQuery(String name, AeroConnect connect,
                                  Object vertex, Direction direction, String label,
                                  String key, Object inclusiveFromValue, Object exclusiveToValue) {
+        this(name, connect, vertex, direction, label, key, inclusiveFromValue, true, exclusiveToValue, false);
+    }
+    /**
+     * Retrieves the edges of a vertex that refer to a certain
+     * label and a range of values of a property, with inclusive
+     * or exclusive bounds; a `null` bound refers to an open
+     * range, and a `null` label to all edges.
+     */
+    public AeroEdgesInRangeQuery(String name, AeroConnect connect,
+                                 Object vertex, Direction direction, String label, String key,
+                                 Object fromValue, boolean fromInclusive, Object toValue, boolean toInclusive) {
         super(name, connect);
         /*
          * Transform the provided properties into fields
@@ -45,8 +56,7 @@ public class AeroEdgesInRangeQuery extends AeroQuery {
         fields.put(Constants.LABEL_COL_NAME, label);
         fields.put(Constants.PROPERTY_KEY_COL_NAME, key);
 
-        fields.put(Constants.INCLUSIVE_FROM_VALUE, inclusiveFromValue.toString());
-        fields.put(Constants.EXCLUSIVE_TO_VALUE, exclusiveToValue.toString());
+        rangeToFields(fromValue, fromInclusive, toValue, toInclusive, fields);
 
     }
 
@@ -70,24 +80,19 @@ public class AeroEdgesInRangeQuery extends AeroQuery {
                             fields.get(Constants.FROM_COL_NAME)));
 
         }
-        filters.add(
-                new AeroFilter(Constants.EQUAL_VALUE, Constants.LABEL_COL_NAME,
-                        fields.get(Constants.LABEL_COL_NAME)));
+        if (fields.get(Constants.LABEL_COL_NAME) != null)
+            filters.add(
+                    new AeroFilter(Constants.EQUAL_VALUE, Constants.LABEL_COL_NAME,
+                            fields.get(Constants.LABEL_COL_NAME)));
 
         filters.add(
                 new AeroFilter(Constants.EQUAL_VALUE, Constants.PROPERTY_KEY_COL_NAME,
                         fields.get(Constants.PROPERTY_KEY_COL_NAME)));
 
-        filters.add(
-                new AeroFilter(Constants.INCLUSIVE_FROM_VALUE, Constants.PROPERTY_VALUE_COL_NAME,
-                        fields.get(Constants.INCLUSIVE_FROM_VALUE)));
-
-        filters.add(
-                new AeroFilter(Constants.EXCLUSIVE_TO_VALUE, Constants.PROPERTY_VALUE_COL_NAME,
-                        fields.get(Constants.EXCLUSIVE_TO_VALUE)));
+        rangeToFilters(fields, filters);
 
         return connect
-                .query(setname, new AeroFilters("and", filters, -1));
+                .query(setname, new AeroFilters("and", filters, limit), projection);
 
     }
 }
@@ -23,12 +23,13 @@ import com.google.common.collect.Streams;
 import de.kp.works.aerospike.AeroConnect;
 import de.kp.works.aerospike.AeroFilter;
 import de.kp.works.aerospike.AeroFilters;
+import de.kp.works.aerospike.AeroProjection;
 import de.kp.works.aerospike.KeyRecord;
 import de.kp.works.aerospike.gremlin.Constants;
+import de.kp.works.aerospike.gremlin.StorageLayout;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 
 import java.util.*;
-import java.util.stream.Stream;
 
 public class AeroEdgesQuery extends AeroQuery {
     /*
@@ -69,7 +70,7 @@ public class AeroEdgesQuery extends AeroQuery {
         fields.put(Constants.LABEL_COL_NAME, label);
 
         fields.put(Constants.PROPERTY_KEY_COL_NAME, key);
-        fields.put(Constants.PROPERTY_VALUE_COL_NAME, value.toString());
+        fields.put(Constants.PROPERTY_VALUE_COL_NAME, value);
         /*
          * This use case is described as `withLabel`, while
          * the first use case is specified as `withLabels`.
@@ -106,20 +107,46 @@ public class AeroEdgesQuery extends AeroQuery {
              * whether the respective labels are contained, must be
              * performed here.
              */
-            Stream<String> labels =  Arrays.stream(fields.get(Constants.LABEL_COL_NAME).split(","));
+            String joinedLabels = fields.get(Constants.LABEL_COL_NAME).toString();
+            /*
+             * No labels refer to all edges of the vertex
+             */
+            List<String> labels = joinedLabels.isEmpty()
+                    ? Collections.emptyList() : Arrays.asList(joinedLabels.split(","));
+
+            if (limit != -1 && labels.size() <= 1) {
+                /*
+                 * A limited query must evaluate the label before
+                 * the limit is applied; a single label is assigned
+                 * as additional filter condition.
+                 */
+                if (labels.size() == 1)
+                    filters.add(
+                            new AeroFilter(Constants.EQUAL_VALUE, Constants.LABEL_COL_NAME, labels.get(0)));
+
+                if (connect.layout().equals(StorageLayout.PACKED))
+                    return connect
+                            .query(setname, new AeroFilters("and", filters, limit), projection);
+
+                return reloadElements(connect
+                        .query(setname, new AeroFilters("and", filters, limit), AeroProjection.STRUCTURE));
+
+            }
             /*
              * Retrieve query result from Aerospike backend and
              * prepare for further filter processing.
              */
             Iterator<KeyRecord> keyRecords = connect
-                    .query(setname, new AeroFilters("and", filters, -1));
+                    .query(setname, new AeroFilters("and", filters, -1), projection);
+
+            if (labels.isEmpty()) return keyRecords;
 
             return Streams.stream(keyRecords).filter(keyRecord -> {
 
                 Record record = keyRecord.record();
-                String label = record.getString(Constants.LABEL_COL_NAME);
+                String label = dictionary.decode(record.getValue(Constants.LABEL_COL_NAME));
 
-                return labels.anyMatch(l -> l.equals(label));
+                return labels.contains(label);
 
             }).iterator();
 
@@ -148,7 +175,7 @@ public class AeroEdgesQuery extends AeroQuery {
                      * Concatenate all filter conditions with
                      * an `and` statement.
                      */
-                    .query(setname, new AeroFilters("and", filters, -1));
+                    .query(setname, new AeroFilters("and", filters, -1), projection);
 
         }
         return null;
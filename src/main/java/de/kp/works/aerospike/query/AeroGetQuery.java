@@ -18,16 +18,20 @@ package de.kp.works.aerospike.query;
  *
  */
 
+import com.google.common.collect.Iterators;
 import de.kp.works.aerospike.AeroConnect;
+import de.kp.works.aerospike.AeroFilter;
+import de.kp.works.aerospike.AeroFilters;
 import de.kp.works.aerospike.KeyRecord;
 import de.kp.works.aerospike.gremlin.Constants;
+import de.kp.works.aerospike.gremlin.StorageLayout;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 public class AeroGetQuery extends AeroQuery {
+
+    private final List<String> ids;
     /**
      * Retrieve the element (edge or vertex) that refers
      * to the provided identifier
@@ -40,6 +44,8 @@ public class AeroGetQuery extends AeroQuery {
         fields = new HashMap<>();
         fields.put(Constants.ID_COL_NAME, id.toString());
 
+        ids = Collections.singletonList(id.toString());
+
     }
     /**
      * Retrieve all elements (edges or vertices) that refer
@@ -54,16 +60,42 @@ public class AeroGetQuery extends AeroQuery {
         fields.put(Constants.ID_COL_NAME, ids.stream()
                 .map(Object::toString).collect(Collectors.joining(",")));
 
+        this.ids = ids.stream()
+                .map(Object::toString).collect(Collectors.toList());
+
     }
 
     @Override
     protected Iterator<KeyRecord> getKeyRecords() {
-        String[] userKeys = fields.get(Constants.ID_COL_NAME).split(",");
+
+        if (connect.layout().equals(StorageLayout.PACKED)) {
+            /*
+             * We use the special Aerospike read operation
+             * as the ID column directly refers to the user
+             * key.
+             */
+            String[] userKeys = ids.toArray(new String[0]);
+            return connect.getByKeys(userKeys, elementType, projection);
+        }
+        /*
+         * The entry layout assigns generated cache keys to
+         * the records of an element; the records are retrieved
+         * by leveraging the secondary index of the `id` bin.
+         */
         /*
-         * We use the special Aerospike read operation
-         * as the ID column directly refers to the user
-         * key.
+         * The queries are started one after another, when
+         * the result of the previous one is exhausted
          */
-        return connect.getByKeys(userKeys, elementType);
+        Iterator<Iterator<KeyRecord>> keyRecords = Iterators.transform(ids.iterator(), id -> {
+
+            List<AeroFilter> filters = new ArrayList<>();
+            filters.add(
+                    new AeroFilter(Constants.EQUAL_VALUE, Constants.ID_COL_NAME, id));
+
+            return connect.query(setname, new AeroFilters("and", filters, -1), projection);
+
+        });
+
+        return Iterators.concat(keyRecords);
     }
 }
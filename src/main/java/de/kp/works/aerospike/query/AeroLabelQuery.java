@@ -21,8 +21,10 @@ package de.kp.works.aerospike.query;
 import de.kp.works.aerospike.AeroConnect;
 import de.kp.works.aerospike.AeroFilter;
 import de.kp.works.aerospike.AeroFilters;
+import de.kp.works.aerospike.AeroProjection;
 import de.kp.works.aerospike.KeyRecord;
 import de.kp.works.aerospike.gremlin.Constants;
+import de.kp.works.aerospike.gremlin.StorageLayout;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -55,12 +57,19 @@ public class AeroLabelQuery extends AeroQuery {
                 new AeroFilter(Constants.EQUAL_VALUE, Constants.LABEL_COL_NAME,
                         fields.get(Constants.LABEL_COL_NAME)));
 
-        return connect
-                /*
-                 * Aerospike read query with a single
-                 * filter condition
-                 */
-                .query(setname, new AeroFilters("and", filters, -1));
+        if (limit == -1 || connect.layout().equals(StorageLayout.PACKED))
+            return connect
+                    /*
+                     * Aerospike read query with a single
+                     * filter condition
+                     */
+                    .query(setname, new AeroFilters("and", filters, limit), projection);
+        /*
+         * A limited query may return the records of an
+         * element partially in the entry layout
+         */
+        return reloadElements(connect
+                .query(setname, new AeroFilters("and", filters, limit), AeroProjection.STRUCTURE));
 
     }
 
@@ -21,13 +21,12 @@ package de.kp.works.aerospike.query;
 import de.kp.works.aerospike.AeroConnect;
 import de.kp.works.aerospike.AeroFilter;
 import de.kp.works.aerospike.AeroFilters;
+import de.kp.works.aerospike.AeroProjection;
 import de.kp.works.aerospike.KeyRecord;
 import de.kp.works.aerospike.gremlin.Constants;
+import de.kp.works.aerospike.gremlin.StorageLayout;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 
 public class AeroLimitQuery extends AeroQuery {
 
@@ -72,7 +71,7 @@ public class AeroLimitQuery extends AeroQuery {
         fields.put(Constants.LABEL_COL_NAME, label);
         fields.put(Constants.PROPERTY_KEY_COL_NAME, key);
 
-        fields.put(Constants.INCLUSIVE_FROM_VALUE, inclusiveFrom.toString());
+        fields.put(Constants.INCLUSIVE_FROM_VALUE, inclusiveFrom);
         fields.put(Constants.LIMIT_VALUE, String.valueOf(limit));
 
         queryType = "withProp";
@@ -81,12 +80,28 @@ public class AeroLimitQuery extends AeroQuery {
     @Override
     protected Iterator<KeyRecord> getKeyRecords() {
 
-        int limit = Integer.parseInt(fields.get(Constants.LIMIT_VALUE));
+        int limit = Integer.parseInt(fields.get(Constants.LIMIT_VALUE).toString());
+
+        if (connect.layout().equals(StorageLayout.PACKED))
+            return getLimitedRecords(limit, projection);
+
+        return reloadElements(getLimitedRecords(limit, AeroProjection.STRUCTURE));
+
+    }
+    /**
+     * The limit is pushed down to the server; the returned
+     * records refer to at most `limit` elements.
+     */
+    private Iterator<KeyRecord> getLimitedRecords(int limit, AeroProjection projection) {
+
         List<AeroFilter> filters = new ArrayList<>();
 
         if (queryType.equals("withId")) {
-            return connect
-                    .query(setname, new AeroFilters("and", filters, limit));
+            /*
+             * Without any filter condition, the set is scanned
+             * for the first elements
+             */
+            return connect.scan(setname, limit, projection);
         }
         else if (queryType.equals("withFrom")) {
             filters.add(
@@ -94,7 +109,7 @@ public class AeroLimitQuery extends AeroQuery {
                             fields.get(Constants.FROM_COL_NAME)));
 
             return connect
-                    .query(setname, new AeroFilters("and", filters, limit));
+                    .query(setname, new AeroFilters("and", filters, limit), projection);
         }
         else {
             filters.add(
@@ -110,7 +125,7 @@ public class AeroLimitQuery extends AeroQuery {
                             fields.get(Constants.INCLUSIVE_FROM_VALUE)));
 
             return connect
-                    .query(setname, new AeroFilters("and", filters, limit));
+                    .query(setname, new AeroFilters("and", filters, limit), projection);
 
         }
 
@@ -33,7 +33,8 @@ public class AeroPropertyQuery extends AeroQuery {
     /**
      * Retrieves all elements that are referenced by
      * a certain label and share a certain property
-     * key and value
+     * key and value; a `null` label refers to all
+     * elements
      */
     public AeroPropertyQuery(String name, AeroConnect connect, String label, String key, Object value) {
         super(name, connect);
@@ -45,7 +46,7 @@ public class AeroPropertyQuery extends AeroQuery {
         fields.put(Constants.LABEL_COL_NAME, label);
         
         fields.put(Constants.PROPERTY_KEY_COL_NAME, key);
-        fields.put(Constants.PROPERTY_VALUE_COL_NAME, value.toString());
+        fields.put(Constants.PROPERTY_VALUE_COL_NAME, value);
 
     }
 
@@ -56,9 +57,10 @@ public class AeroPropertyQuery extends AeroQuery {
          * the specified label as well as the property
          */
         List<AeroFilter> filters = new ArrayList<>();
-        filters.add(
-                new AeroFilter(Constants.EQUAL_VALUE, Constants.LABEL_COL_NAME,
-                        fields.get(Constants.LABEL_COL_NAME)));
+        if (fields.get(Constants.LABEL_COL_NAME) != null)
+            filters.add(
+                    new AeroFilter(Constants.EQUAL_VALUE, Constants.LABEL_COL_NAME,
+                            fields.get(Constants.LABEL_COL_NAME)));
 
         filters.add(
                 new AeroFilter(Constants.EQUAL_VALUE, Constants.PROPERTY_KEY_COL_NAME,
@@ -70,10 +72,10 @@ public class AeroPropertyQuery extends AeroQuery {
 
         return connect
                 /*
-                 * Aerospike read query with three filter
-                 * conditions combined with `and`.
+                 * Aerospike read query with (up to) three
+                 * filter conditions combined with `and`.
                  */
-                .query(setname, new AeroFilters("and", filters, -1));
+                .query(setname, new AeroFilters("and", filters, limit), projection);
 
     }
 }
@@ -24,16 +24,23 @@ import com.google.common.collect.Streams;
 import de.kp.works.aerospike.*;
 import de.kp.works.aerospike.gremlin.Constants;
 import de.kp.works.aerospike.gremlin.ElementType;
+import de.kp.works.aerospike.gremlin.StorageLayout;
+import de.kp.works.aerospike.gremlin.ValueUtils;
+import de.kp.works.aerospike.gremlin.exception.GraphException;
+import de.kp.works.aerospike.metrics.AeroMetrics;
 import org.apache.tinkerpop.gremlin.structure.Direction;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public abstract class AeroQuery {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(AeroQuery.class);
+    private static final List<String> RANGE_CONDITIONS = Arrays.asList(
+            Constants.INCLUSIVE_FROM_VALUE, Constants.EXCLUSIVE_FROM_VALUE,
+            Constants.INCLUSIVE_TO_VALUE, Constants.EXCLUSIVE_TO_VALUE);
 
     protected AeroConnect connect;
     protected ElementType elementType;
@@ -42,13 +49,31 @@ public abstract class AeroQuery {
      * from the base setname by an additional postfix
      */
     protected String setname;
-    protected HashMap<String, String> fields;
+    protected HashMap<String, Object> fields;
+    /*
+     * Labels, property keys and type names are restored
+     * from the codes of the dictionary
+     */
+    protected AeroDictionary dictionary;
+    /*
+     * The bins of the records that are read; by default,
+     * elements are read with all bins
+     */
+    protected AeroProjection projection = AeroProjection.ALL;
+    /*
+     * The maximum number of elements of this query; it is
+     * pushed down to the server, and `-1` indicates an
+     * unlimited query
+     */
+    protected int limit = -1;
 
     public AeroQuery(String name, AeroConnect connect) {
 
         this.connect = connect;
         this.setname = name;
 
+        this.dictionary = connect.dictionary();
+
         if (name.equals(connect.setname() + "_" + Constants.EDGES)) {
             elementType = ElementType.EDGE;
         }
@@ -60,7 +85,25 @@ public abstract class AeroQuery {
 
     }
 
-    protected void vertexToFields(Object vertex, Direction direction, HashMap<String, String> fields) {
+    /**
+     * Restricts the records of this query to the bins
+     * of the provided projection
+     */
+    public AeroQuery project(AeroProjection projection) {
+        this.projection = projection;
+        return this;
+    }
+
+    /**
+     * Restricts this query to at most `limit` elements;
+     * queries that do not support a limit ignore it.
+     */
+    public AeroQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    protected void vertexToFields(Object vertex, Direction direction, HashMap<String, Object> fields) {
         /*
          * An Edge links two Vertex objects. The Direction determines
          * which Vertex is the tail Vertex (out Vertex) and which Vertex
@@ -82,21 +125,86 @@ public abstract class AeroQuery {
 
     }
 
+    /**
+     * Transforms the bounds of a range of property values
+     * into fields; a `null` bound refers to an open range.
+     */
+    protected void rangeToFields(Object fromValue, boolean fromInclusive,
+                                 Object toValue, boolean toInclusive, HashMap<String, Object> fields) {
+
+        if (fromValue != null)
+            fields.put(fromInclusive ? Constants.INCLUSIVE_FROM_VALUE : Constants.EXCLUSIVE_FROM_VALUE, fromValue);
+
+        if (toValue != null)
+            fields.put(toInclusive ? Constants.INCLUSIVE_TO_VALUE : Constants.EXCLUSIVE_TO_VALUE, toValue);
+
+    }
+
+    protected void rangeToFilters(HashMap<String, Object> fields, List<AeroFilter> filters) {
+
+        for (String condition : RANGE_CONDITIONS) {
+            if (fields.containsKey(condition))
+                filters.add(
+                        new AeroFilter(condition, Constants.PROPERTY_VALUE_COL_NAME, fields.get(condition)));
+        }
+
+    }
+
+    /**
+     * The entry layout persists an element as multiple
+     * records, and a limited result may not contain all
+     * of them; the identifiers of the limited elements are
+     * collected, and the elements are reloaded completely.
+     */
+    protected Iterator<KeyRecord> reloadElements(Iterator<KeyRecord> keyRecords) {
+
+        Set<Object> ids = new LinkedHashSet<>();
+        try {
+            while (keyRecords.hasNext()) {
+                Object id = keyRecords.next().record().getValue(Constants.ID_COL_NAME);
+                if (id != null) ids.add(id);
+            }
+
+        } finally {
+            close(keyRecords);
+        }
+
+        if (ids.isEmpty()) return Collections.emptyIterator();
+        return new AeroGetQuery(setname, connect, new ArrayList<>(ids)).project(projection).getKeyRecords();
+
+    }
+
     protected abstract Iterator<KeyRecord> getKeyRecords();
 
+    /**
+     * A failed read, e.g. a background read that is rejected
+     * by an exhausted executor, or a failure of the reader,
+     * must not be mistaken for an empty or complete result;
+     * it is counted and re-thrown to the caller.
+     */
+    private GraphException readFailed(Exception e) {
+
+        connect.metrics().recordError(AeroMetrics.QUERY);
+        return (e instanceof GraphException) ? (GraphException) e : new GraphException(e);
+
+    }
+
     public List<AeroEdgeEntry> getEdgeEntries() {
 
         List<AeroEdgeEntry> entries = new ArrayList<>();
         if (!elementType.equals(ElementType.EDGE))
             return entries;
 
+        Iterator<KeyRecord> keyRecords = null;
         try {
-            Iterator<KeyRecord> keyRecords = getKeyRecords();
+            keyRecords = getKeyRecords();
             entries = parseEdges(keyRecords);
 
         } catch (Exception e) {
-            LOGGER.error("Parsing query result failed.", e);
+            throw readFailed(e);
 
+        } finally {
+            close(keyRecords);
         }
 
         return entries;
@@ -108,18 +216,49 @@ public abstract class AeroQuery {
         if (!elementType.equals(ElementType.VERTEX))
             return entries;
 
+        Iterator<KeyRecord> keyRecords = null;
         try {
-            Iterator<KeyRecord> keyRecords = getKeyRecords();
+            keyRecords = getKeyRecords();
             entries = parseVertices(keyRecords);
 
         } catch (Exception e) {
-            LOGGER.error("Parsing query result failed.", e);
+            throw readFailed(e);
 
+        } finally {
+            close(keyRecords);
         }
 
         return entries;
     }
 
+    /**
+     * This method streams the result of the Aerospike query
+     * element by element: the records are parsed and grouped
+     * while the cursor is consumed, so that the first elements
+     * are available immediately and memory does not depend on
+     * the size of the result. Closing the returned iterator,
+     * a [CloseableIterator], closes the cursor.
+     *
+     * Note, the entry layout persists an element as multiple
+     * records, and these are not read contiguously; the result
+     * is therefore grouped, when the cursor is exhausted.
+     */
+    public Iterator<AeroResult> iterator() {
+
+        if (!connect.layout().equals(StorageLayout.PACKED))
+            return getResult().iterator();
+
+        if (!elementType.equals(ElementType.EDGE) && !elementType.equals(ElementType.VERTEX))
+            throw readFailed(new Exception("Element type '" + elementType +  "' is not supported."));
+
+        try {
+            return new ResultIterator(getKeyRecords());
+
+        } catch (Exception e) {
+            throw readFailed(e);
+        }
+
+    }
 
     /**
      * This method returns the result of the Aerospike query
@@ -128,11 +267,10 @@ public abstract class AeroQuery {
      */
     public List<AeroResult> getResult() {
 
-        List<AeroResult> result = new ArrayList<>();
-
+        Iterator<KeyRecord> keyRecords = null;
         try {
 
-            Iterator<KeyRecord> keyRecords = getKeyRecords();
+            keyRecords = getKeyRecords();
             if (elementType.equals(ElementType.EDGE)) {
                 /*
                  * Parse result and extract edge specific entries
@@ -160,13 +298,104 @@ public abstract class AeroQuery {
                 throw new Exception("Element type '" + elementType +  "' is not supported.");
 
         } catch (Exception e) {
-            LOGGER.error("Parsing query result failed.", e);
+            throw readFailed(e);
+
+        } finally {
+            close(keyRecords);
+        }
+
+    }
+    /**
+     * Query results are streamed by cursors; closing a
+     * cursor stops the reader and cancels the query on
+     * the server side, if it is not exhausted.
+     */
+    protected void close(Iterator<KeyRecord> keyRecords) {
+
+        if (!(keyRecords instanceof Closeable)) return;
+        try {
+            ((Closeable) keyRecords).close();
+
+        } catch (IOException e) {
+            /* Do nothing */
+        }
+
+    }
+
+    /**
+     * [ResultIterator] transforms each record of the packed
+     * layout into the result of a single element
+     */
+    private class ResultIterator implements CloseableIterator<AeroResult> {
+
+        private final Iterator<KeyRecord> keyRecords;
+
+        private AeroResult nextResult;
+        private boolean closed = false;
+
+        ResultIterator(Iterator<KeyRecord> keyRecords) {
+            this.keyRecords = keyRecords;
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            if (nextResult != null) return true;
+            if (closed) return false;
+
+            try {
+                while (keyRecords.hasNext()) {
+
+                    Iterator<KeyRecord> keyRecord = Collections.singletonList(keyRecords.next()).iterator();
+                    List<AeroResult> results = elementType.equals(ElementType.EDGE)
+                            ? AeroTransform.transformEdgeEntries(parseEdges(keyRecord))
+                            : AeroTransform.transformVertexEntries(parseVertices(keyRecord));
+
+                    if (!results.isEmpty()) {
+                        nextResult = results.get(0);
+                        return true;
+                    }
+
+                }
+
+            } catch (Exception e) {
+                close();
+                throw readFailed(e);
+            }
+
+            close();
+            return false;
+
+        }
+
+        @Override
+        public AeroResult next() {
+
+            if (!hasNext()) throw new NoSuchElementException();
+
+            AeroResult result = nextResult;
+            nextResult = null;
+
+            return result;
+
+        }
+
+        @Override
+        public void close() {
+
+            if (closed) return;
+
+            closed = true;
+            AeroQuery.this.close(keyRecords);
+
         }
-        return result;
 
     }
 
     private List<AeroEdgeEntry> parseEdges(Iterator<KeyRecord> keyRecords) {
+
+        if (connect.layout().equals(StorageLayout.PACKED))
+            return parsePackedEdges(keyRecords);
         /*
          * 0 : User key
          *
@@ -182,6 +411,12 @@ public abstract class AeroQuery {
          * 10: Constants.PROPERTY_KEY_COL_NAME (String)
          * 11: Constants.PROPERTY_TYPE_COL_NAME (String)
          * 12: Constants.PROPERTY_VALUE_COL_NAME (String)
+         * 13: Constants.PROPERTY_LONG_COL_NAME (Long)
+         * 14: Constants.PROPERTY_DOUBLE_COL_NAME (Double)
+         * 15: Constants.PROPERTY_BLOB_COL_NAME (byte[])
+         *
+         * The property value is restored from the bin
+         * that refers to the property type.
          */
         return Streams.stream(keyRecords).map(keyRecord -> {
 
@@ -191,21 +426,21 @@ public abstract class AeroQuery {
             String cacheKey = key.userKey.toString();
 
             String id     = record.getString(Constants.ID_COL_NAME);
-            String idType = record.getString(Constants.ID_TYPE_COL_NAME);
-            String label  = record.getString(Constants.LABEL_COL_NAME);
+            String idType = dictionary.decodeType(record.getValue(Constants.ID_TYPE_COL_NAME));
+            String label  = dictionary.decode(record.getValue(Constants.LABEL_COL_NAME));
 
             String toId     = record.getString(Constants.TO_COL_NAME);
-            String toIdType = record.getString(Constants.TO_TYPE_COL_NAME);
+            String toIdType = dictionary.decodeType(record.getValue(Constants.TO_TYPE_COL_NAME));
 
             String fromId     = record.getString(Constants.FROM_COL_NAME);
-            String fromIdType = record.getString(Constants.FROM_TYPE_COL_NAME);
+            String fromIdType = dictionary.decodeType(record.getValue(Constants.FROM_TYPE_COL_NAME));
 
             Long createdAt  = record.getLong(Constants.CREATED_AT_COL_NAME);
             Long updatedAt  = record.getLong(Constants.UPDATED_AT_COL_NAME);
 
-            String propKey   = record.getString(Constants.PROPERTY_KEY_COL_NAME);
-            String propType  = record.getString(Constants.PROPERTY_TYPE_COL_NAME);
-            String propValue = record.getString(Constants.PROPERTY_VALUE_COL_NAME);
+            String propKey   = dictionary.decode(record.getValue(Constants.PROPERTY_KEY_COL_NAME));
+            String propType  = dictionary.decodeType(record.getValue(Constants.PROPERTY_TYPE_COL_NAME));
+            Object propValue = ValueUtils.getPropertyValue(record);
 
             return new AeroEdgeEntry(
                     cacheKey,
@@ -226,6 +461,9 @@ public abstract class AeroQuery {
     }
 
     private List<AeroVertexEntry> parseVertices(Iterator<KeyRecord> keyRecords) {
+
+        if (connect.layout().equals(StorageLayout.PACKED))
+            return parsePackedVertices(keyRecords);
         /*
          * 0 : User key
          *
@@ -237,6 +475,12 @@ public abstract class AeroQuery {
          * 6 : Constants.PROPERTY_KEY_COL_NAME (String)
          * 7 : Constants.PROPERTY_TYPE_COL_NAME (String)
          * 8 : Constants.PROPERTY_VALUE_COL_NAME (String)
+         * 9 : Constants.PROPERTY_LONG_COL_NAME (Long)
+         * 10: Constants.PROPERTY_DOUBLE_COL_NAME (Double)
+         * 11: Constants.PROPERTY_BLOB_COL_NAME (byte[])
+         *
+         * The property value is restored from the bin
+         * that refers to the property type.
          */
         return Streams.stream(keyRecords).map(keyRecord -> {
 
@@ -246,15 +490,15 @@ public abstract class AeroQuery {
             String cacheKey = key.userKey.toString();
 
             String id     = record.getString(Constants.ID_COL_NAME);
-            String idType = record.getString(Constants.ID_TYPE_COL_NAME);
-            String label  = record.getString(Constants.LABEL_COL_NAME);
+            String idType = dictionary.decodeType(record.getValue(Constants.ID_TYPE_COL_NAME));
+            String label  = dictionary.decode(record.getValue(Constants.LABEL_COL_NAME));
 
             Long createdAt  = record.getLong(Constants.CREATED_AT_COL_NAME);
             Long updatedAt  = record.getLong(Constants.UPDATED_AT_COL_NAME);
 
-            String propKey   = record.getString(Constants.PROPERTY_KEY_COL_NAME);
-            String propType  = record.getString(Constants.PROPERTY_TYPE_COL_NAME);
-            String propValue = record.getString(Constants.PROPERTY_VALUE_COL_NAME);
+            String propKey   = dictionary.decode(record.getValue(Constants.PROPERTY_KEY_COL_NAME));
+            String propType  = dictionary.decodeType(record.getValue(Constants.PROPERTY_TYPE_COL_NAME));
+            Object propValue = ValueUtils.getPropertyValue(record);
 
             return new AeroVertexEntry(
                     cacheKey,
@@ -269,4 +513,142 @@ public abstract class AeroQuery {
 
         }).collect(Collectors.toList());
     }
+
+    /**
+     * The packed layout describes an edge by a single record;
+     * to share the processing with the entry layout, each
+     * record is expanded into one entry per property. Note,
+     * the element identifier is used as cache key.
+     */
+    private List<AeroEdgeEntry> parsePackedEdges(Iterator<KeyRecord> keyRecords) {
+        /*
+         * 0 : User key
+         *
+         * 1 : Constants.ID_COL_NAME (String)
+         * 2 : Constants.ID_TYPE_COL_NAME (String)
+         * 3 : Constants.LABEL_COL_NAME (String)
+         * 4 : Constants.TO_COL_NAME (String)
+         * 5 : Constants.TO_TYPE_COL_NAME (String)
+         * 6 : Constants.FROM_COL_NAME (String)
+         * 7 : Constants.FROM_TYPE_COL_NAME (String)
+         * 8 : Constants.CREATED_AT_COL_NAME (Long)
+         * 9 : Constants.UPDATED_AT_COL_NAME (Long)
+         * 10: Constants.PROPERTIES_COL_NAME (Map)
+         * 11: Constants.PROPERTY_TYPES_COL_NAME (Map)
+         * 12: Constants.PROPERTY_INDEX_COL_NAME (Map)
+         */
+        List<AeroEdgeEntry> entries = new ArrayList<>();
+        keyRecords.forEachRemaining(keyRecord -> {
+
+            Record record = keyRecord.record();
+
+            String id     = record.getString(Constants.ID_COL_NAME);
+            String idType = dictionary.decodeType(record.getValue(Constants.ID_TYPE_COL_NAME));
+            String label  = dictionary.decode(record.getValue(Constants.LABEL_COL_NAME));
+
+            String toId     = record.getString(Constants.TO_COL_NAME);
+            String toIdType = dictionary.decodeType(record.getValue(Constants.TO_TYPE_COL_NAME));
+
+            String fromId     = record.getString(Constants.FROM_COL_NAME);
+            String fromIdType = dictionary.decodeType(record.getValue(Constants.FROM_TYPE_COL_NAME));
+
+            Long createdAt  = record.getLong(Constants.CREATED_AT_COL_NAME);
+            Long updatedAt  = record.getLong(Constants.UPDATED_AT_COL_NAME);
+
+            parseProperties(record).forEach(property ->
+                    entries.add(new AeroEdgeEntry(
+                        id,
+                        id,
+                        idType,
+                        label,
+                        toId,
+                        toIdType,
+                        fromId,
+                        fromIdType,
+                        createdAt,
+                        updatedAt,
+                        (String) property[0],
+                        (String) property[1],
+                        property[2])));
+
+        });
+
+        return entries;
+    }
+
+    private List<AeroVertexEntry> parsePackedVertices(Iterator<KeyRecord> keyRecords) {
+        /*
+         * 0 : User key
+         *
+         * 1 : Constants.ID_COL_NAME (String)
+         * 2 : Constants.ID_TYPE_COL_NAME (String)
+         * 3 : Constants.LABEL_COL_NAME (String)
+         * 4 : Constants.CREATED_AT_COL_NAME (Long)
+         * 5 : Constants.UPDATED_AT_COL_NAME (Long)
+         * 6 : Constants.PROPERTIES_COL_NAME (Map)
+         * 7 : Constants.PROPERTY_TYPES_COL_NAME (Map)
+         * 8 : Constants.PROPERTY_INDEX_COL_NAME (Map)
+         */
+        List<AeroVertexEntry> entries = new ArrayList<>();
+        keyRecords.forEachRemaining(keyRecord -> {
+
+            Record record = keyRecord.record();
+
+            String id     = record.getString(Constants.ID_COL_NAME);
+            String idType = dictionary.decodeType(record.getValue(Constants.ID_TYPE_COL_NAME));
+            String label  = dictionary.decode(record.getValue(Constants.LABEL_COL_NAME));
+
+            Long createdAt  = record.getLong(Constants.CREATED_AT_COL_NAME);
+            Long updatedAt  = record.getLong(Constants.UPDATED_AT_COL_NAME);
+
+            parseProperties(record).forEach(property ->
+                    entries.add(new AeroVertexEntry(
+                        id,
+                        id,
+                        idType,
+                        label,
+                        createdAt,
+                        updatedAt,
+                        (String) property[0],
+                        (String) property[1],
+                        property[2])));
+
+        });
+
+        return entries;
+    }
+    /**
+     * Extracts the (key, type, value) triples from the map
+     * bins of a packed record; an element without properties
+     * is represented by the empty marker. The values are
+     * restored from their native representation.
+     */
+    private List<Object[]> parseProperties(Record record) {
+
+        List<Object[]> properties = new ArrayList<>();
+
+        Map<?,?> values = record.getMap(Constants.PROPERTIES_COL_NAME);
+        Map<?,?> types  = record.getMap(Constants.PROPERTY_TYPES_COL_NAME);
+
+        if (values == null || values.isEmpty()) {
+            String emptyValue = Constants.EMPTY_VALUE;
+            properties.add(new Object[] {emptyValue, emptyValue, emptyValue});
+
+            return properties;
+        }
+
+        for (Map.Entry<?,?> value : values.entrySet()) {
+
+            String propKey   = dictionary.decode(value.getKey());
+            String valueType = types == null ? null : dictionary.decodeType(types.get(value.getKey()));
+
+            properties.add(new Object[] {
+                    propKey,
+                    valueType,
+                    ValueUtils.fromBinValue(valueType, value.getValue())});
+        }
+
+        return properties;
+
+    }
 }
@@ -37,6 +37,16 @@ public class AeroRangeQuery extends AeroQuery {
      */
     public AeroRangeQuery(String name, AeroConnect connect,
                           String label, String key, Object inclusiveFromValue, Object exclusiveToValue) {
+        this(name, connect, label, key, inclusiveFromValue, true, exclusiveToValue, false);
+    }
+    /**
+     * Retrieves all elements that refer to specific label
+     * and a range of values of a property, with inclusive
+     * or exclusive bounds; a `null` bound refers to an open
+     * range, and a `null` label to all elements.
+     */
+    public AeroRangeQuery(String name, AeroConnect connect, String label, String key,
+                          Object fromValue, boolean fromInclusive, Object toValue, boolean toInclusive) {
         super(name, connect);
         /*
          * Transform the provided properties into fields
@@ -46,8 +56,7 @@ public class AeroRangeQuery extends AeroQuery {
         fields.put(Constants.LABEL_COL_NAME, label);
         fields.put(Constants.PROPERTY_KEY_COL_NAME, key);
 
-        fields.put(Constants.INCLUSIVE_FROM_VALUE, inclusiveFromValue.toString());
-        fields.put(Constants.EXCLUSIVE_TO_VALUE, exclusiveToValue.toString());
+        rangeToFields(fromValue, fromInclusive, toValue, toInclusive, fields);
 
     }
 
@@ -57,9 +66,10 @@ public class AeroRangeQuery extends AeroQuery {
         /*
          * The leading filter is the label filter
          */
-        filters.add(
-                new AeroFilter(Constants.EQUAL_VALUE, Constants.LABEL_COL_NAME,
-                        fields.get(Constants.LABEL_COL_NAME)));
+        if (fields.get(Constants.LABEL_COL_NAME) != null)
+            filters.add(
+                    new AeroFilter(Constants.EQUAL_VALUE, Constants.LABEL_COL_NAME,
+                            fields.get(Constants.LABEL_COL_NAME)));
         /*
          * The second filter is on the provided property;
          * note, it is expected that the property values
@@ -69,16 +79,10 @@ public class AeroRangeQuery extends AeroQuery {
                 new AeroFilter(Constants.EQUAL_VALUE, Constants.PROPERTY_KEY_COL_NAME,
                         fields.get(Constants.PROPERTY_KEY_COL_NAME)));
 
-        filters.add(
-                new AeroFilter(Constants.INCLUSIVE_FROM_VALUE, Constants.PROPERTY_VALUE_COL_NAME,
-                        fields.get(Constants.INCLUSIVE_FROM_VALUE)));
-
-        filters.add(
-                new AeroFilter(Constants.EXCLUSIVE_TO_VALUE, Constants.PROPERTY_VALUE_COL_NAME,
-                        fields.get(Constants.EXCLUSIVE_TO_VALUE)));
+        rangeToFilters(fields, filters);
 
         return connect
-                .query(setname, new AeroFilters("and", filters, -1));
+                .query(setname, new AeroFilters("and", filters, limit), projection);
 
     }
 }
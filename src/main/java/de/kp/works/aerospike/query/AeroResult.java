@@ -33,7 +33,7 @@ public class AeroResult {
 
     private List<AeroColumn> columns = new ArrayList<>();
 
-    public void addColumn(String colName, String colType, String colValue) {
+    public void addColumn(String colName, String colType, Object colValue) {
         columns.add(new AeroColumn(colName, colType, colValue));
     }
 
@@ -0,0 +1,260 @@
+package de.kp.works.aerospike
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.async.EventLoops
+import com.aerospike.client.listener.{DeleteListener, RecordArrayListener, RecordListener, RecordSequenceListener, WriteListener}
+import com.aerospike.client.policy.{BatchPolicy, Policy, QueryPolicy, ScanPolicy, WritePolicy}
+import com.aerospike.client.query.{Filter, Statement}
+import com.aerospike.client.{AerospikeClient, AerospikeException, Bin, Key, Operation, Record}
+
+import java.util
+import java.util.concurrent.CompletableFuture
+import java.util.function.{Consumer, Function => JFunction}
+import scala.collection.JavaConversions._
+
+/**
+ * [AeroAsync] is the non-blocking counterpart of the
+ * access methods of [AeroConnect]. The commands are
+ * sent by the event loops of the Aerospike client, and
+ * each method returns a [CompletableFuture] that is
+ * completed by the respective event loop thread.
+ *
+ * The number of commands in flight is limited by the
+ * event policy of the event loops; further commands
+ * are queued until a running command completes.
+ *
+ * Note, the futures are completed on an event loop
+ * thread; dependent actions must not block, or must
+ * be run with one of the `...Async` variants.
+ */
+class AeroAsync(
+  client:AerospikeClient,
+  eventLoops:EventLoops,
+  readPolicy:Policy,
+  batchPolicy:BatchPolicy,
+  writePolicy:WritePolicy,
+  upsertPolicy:WritePolicy,
+  timeout:Int) {
+
+  /**
+   * Retrieves a single record; the future is completed
+   * with `null` for unknown keys
+   */
+  def get(key:Key):CompletableFuture[Record] = {
+
+    val future = new CompletableFuture[Record]()
+    submit(future, () =>
+      client.get(eventLoops.next, new RecordListener {
+        override def onSuccess(key: Key, record: Record): Unit = future.complete(record)
+        override def onFailure(e: AerospikeException): Unit = future.completeExceptionally(e)
+      }, readPolicy, key))
+
+    future
+
+  }
+  /**
+   * Retrieves multiple records with a single batch
+   * request; unknown keys are returned as `null`
+   * records, in the order of the keys.
+   */
+  def getAll(keys:util.List[Key]):CompletableFuture[util.List[Record]] = {
+
+    val future = new CompletableFuture[util.List[Record]]()
+    if (keys.isEmpty) {
+      future.complete(new util.ArrayList[Record]())
+      return future
+    }
+
+    submit(future, () =>
+      client.get(eventLoops.next, new RecordArrayListener {
+        override def onSuccess(keys: Array[Key], records: Array[Record]): Unit =
+          future.complete(util.Arrays.asList(records: _*))
+
+        override def onFailure(e: AerospikeException): Unit = future.completeExceptionally(e)
+      }, batchPolicy, keys.toArray(new Array[Key](0))))
+
+    future
+
+  }
+  /**
+   * Retrieves the records of the provided keys; unknown
+   * keys are not part of the result.
+   */
+  def getByKeys(keys:util.List[Key]):CompletableFuture[util.List[KeyRecord]] =
+    getAll(keys).thenApply[util.List[KeyRecord]](new JFunction[util.List[Record], util.List[KeyRecord]] {
+      override def apply(records: util.List[Record]): util.List[KeyRecord] = {
+
+        val keyRecords = new util.ArrayList[KeyRecord]()
+        keys.zip(records)
+          .filter{case (_, record) => record != null}
+          .foreach{case (key, record) => keyRecords.add(KeyRecord(key, record))}
+
+        keyRecords
+
+      }
+    })
+
+  def put(key:Key, values:util.List[Bin]):CompletableFuture[Void] = {
+
+    val future = new CompletableFuture[Void]()
+    submit(future, () =>
+      client.put(eventLoops.next, new WriteListener {
+        override def onSuccess(key: Key): Unit = future.complete(null)
+        override def onFailure(e: AerospikeException): Unit = future.completeExceptionally(e)
+      }, writePolicy, key, values.toList: _*))
+
+    future
+
+  }
+  /**
+   * Writes multiple records; the commands are sent at
+   * once and the future is completed, when all records
+   * are written.
+   */
+  def putAll(rows:util.Map[Key, util.List[Bin]]):CompletableFuture[Void] =
+    CompletableFuture.allOf(rows.map{case (key, values) => put(key, values)}.toSeq: _*)
+
+  /**
+   * Applies the provided operations to a record of the
+   * packed layout or an auxiliary set; the record is
+   * created if it does not exist.
+   */
+  def operate(key:Key, operations:util.List[Operation]):CompletableFuture[Record] = {
+
+    val future = new CompletableFuture[Record]()
+    submit(future, () =>
+      client.operate(eventLoops.next, new RecordListener {
+        override def onSuccess(key: Key, record: Record): Unit = future.complete(record)
+        override def onFailure(e: AerospikeException): Unit = future.completeExceptionally(e)
+      }, upsertPolicy, key, operations.toList: _*))
+
+    future
+
+  }
+
+  def delete(key:Key):CompletableFuture[Void] = {
+
+    val future = new CompletableFuture[Void]()
+    submit(future, () =>
+      client.delete(eventLoops.next, new DeleteListener {
+        override def onSuccess(key: Key, existed: Boolean): Unit = future.complete(null)
+        override def onFailure(e: AerospikeException): Unit = future.completeExceptionally(e)
+      }, writePolicy, key))
+
+    future
+
+  }
+  /**
+   * Removes all records that refer to the provided keys;
+   * the deletes are sent at once.
+   */
+  def removeAll(keys:util.List[Key]):CompletableFuture[Void] =
+    CompletableFuture.allOf(keys.map(key => delete(key)).toSeq: _*)
+
+  /**
+   * Scans the provided set and passes each record to the
+   * consumer on an event loop thread; the future is
+   * completed when the scan is finished.
+   */
+  def scan(namespace:String, scanset:String, consumer:Consumer[KeyRecord]):CompletableFuture[Void] = {
+
+    val scanPolicy = new ScanPolicy()
+    scanPolicy.sendKey = true
+    scanPolicy.includeBinData = true
+
+    scanPolicy.socketTimeout = timeout
+    scanPolicy.totalTimeout = timeout
+
+    val future = new CompletableFuture[Void]()
+    submit(future, () =>
+      client.scanAll(eventLoops.next, new SequenceListener(future, consumer), scanPolicy, namespace, scanset))
+
+    future
+
+  }
+  /**
+   * Queries the provided set by a secondary index filter
+   * and passes each record to the consumer on an event
+   * loop thread; the future is completed when the query
+   * is finished.
+   */
+  def query(namespace:String, queryset:String, filter:Filter, consumer:Consumer[KeyRecord]):CompletableFuture[Void] = {
+
+    val queryPolicy = new QueryPolicy()
+    queryPolicy.sendKey = true
+    queryPolicy.includeBinData = true
+
+    queryPolicy.socketTimeout = timeout
+    queryPolicy.totalTimeout = timeout
+
+    val statement = new Statement()
+    statement.setNamespace(namespace)
+    statement.setSetName(queryset)
+    statement.setFilter(filter)
+
+    val future = new CompletableFuture[Void]()
+    submit(future, () =>
+      client.query(eventLoops.next, new SequenceListener(future, consumer), queryPolicy, statement))
+
+    future
+
+  }
+
+  def close():Unit = eventLoops.close()
+
+  /**
+   * Commands that are rejected before they are sent, e.g.
+   * as the command queue of an event loop is full (see
+   * [AerospikeException.AsyncQueueFull]), fail
+   * the future instead of the caller
+   */
+  private def submit(future:CompletableFuture[_], command:() => Unit):Unit = {
+
+    try {
+      command()
+
+    } catch {
+      case t:Throwable => future.completeExceptionally(t)
+    }
+
+  }
+
+  private class SequenceListener(future:CompletableFuture[Void], consumer:Consumer[KeyRecord])
+    extends RecordSequenceListener {
+
+    override def onRecord(key: Key, record: Record): Unit = {
+
+      try {
+        consumer.accept(KeyRecord(key, record))
+
+      } catch {
+        case t:Throwable =>
+          throw new AerospikeException.QueryTerminated(t)
+      }
+
+    }
+
+    override def onSuccess(): Unit = future.complete(null)
+
+    override def onFailure(e: AerospikeException): Unit = future.completeExceptionally(e)
+
+  }
+
+}
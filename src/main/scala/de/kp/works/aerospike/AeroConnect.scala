@@ -18,67 +18,194 @@ package de.kp.works.aerospike
  *
  */
 
-import com.aerospike.client.{AerospikeClient, Bin, Host, Key}
-import com.aerospike.client.policy.{ClientPolicy, RecordExistsAction, TlsPolicy, WritePolicy}
-import com.aerospike.client.query.Filter
-import de.kp.works.aerospike.util.NamedThreadFactory
-import de.kp.works.aerospike.gremlin.{AeroConfiguration, Constants, ElementType}
-import org.apache.commons.configuration2.PropertiesConfiguration
+import com.aerospike.client.{Bin, Key, Record, ScanCallback}
+import com.aerospike.client.query.{IndexCollectionType, IndexType}
+import de.kp.works.aerospike.gremlin.{AeroConfiguration, Constants, ElementType, StorageBackend, StorageLayout}
+import de.kp.works.aerospike.metrics.AeroMetrics
 
+import java.nio.charset.StandardCharsets
 import java.util
+import java.util.UUID
 import scala.collection.JavaConversions._
 
-object AeroConnect {
+object AeroConnectFactory {
 
   private var instance:Option[AeroConnect] = None
   private var options:Option[AeroOptions] = None
-
-  def getInstance(config: AeroConfiguration): AeroConnect = {
+  /**
+   * Provides the storage backend of the configuration;
+   * the Aerospike backend is shared by all graphs of the
+   * JVM, while each in-memory graph has its own store.
+   */
+  def getInstance(config: AeroConfiguration): AeroConnect = synchronized {
 
     options = Some(new AeroOptions(config.getConf))
 
-    if (instance.isEmpty)
-      instance = Some(new AeroConnect(options.get))
+    if (options.get.getBackend == StorageBackend.MEMORY)
+      return new AeroMemoryConnect(options.get)
+
+    if (instance.isEmpty || instance.get.isClosed)
+      instance = Some(new AerospikeConnect(options.get))
 
     instance.get
 
   }
 
 }
+/**
+ * [AeroConnect] is the storage interface of the graph: all
+ * tables, queries and registries read and write records
+ * through it. The records are Aerospike records, whether
+ * the backend is an Aerospike cluster or not.
+ */
+trait AeroConnect {
 
-class AeroConnect(options:AeroOptions) {
+  def namespace:String
+  def setname:String
 
-  private val THREAD_GROUP_NAME:String  = "aero-connect"
-  private val THREAD_SCAN_PREFIX:String = "scan"
+  def layout:StorageLayout
+  def adjacency:Boolean
+  def adjacencyChunkSize:Int
   /**
-   * Build named [ThreadFactory] for scan operations
+   * The dictionary of labels and property keys; it is
+   * shared by all tables and queries of this backend
    */
-  private val scanThreadFactory =
-    new NamedThreadFactory(THREAD_GROUP_NAME, THREAD_SCAN_PREFIX)
-
+  def dictionary:AeroDictionary
   /**
-   * This is the reference to the configured
-   * Aerospike client
+   * The registry of label sets; if enabled, each label
+   * of an edge or vertex is stored in its own set
    */
-  private var client:AerospikeClient = _
-
-  private var clientPolicy:ClientPolicy = _
-  private var writePolicy:WritePolicy = _
-
-  val namespace: String = options.getNamespace
-  val setname: String = options.getSetname
-
-  private val timeout = options.getTimeout
+  def labels:AeroLabels
+  /**
+   * The per-bin statistics of the edge and vertex sets;
+   * they drive the choice of the index filter of queries
+   */
+  def statistics:AeroStatistics
+  /**
+   * The latencies of the backend operations, the counters
+   * of client side filtering, and the cache statistics
+   */
+  def metrics:AeroMetrics
 
-  buildAerospikeClient()
+  /** ACCESS METHODS **/
 
-  def getClient:AerospikeClient = client
+  /**
+   * A helper method to retrieve a single record;
+   * `null` is returned for unknown keys
+   */
+  def get(key:Key):Record
+  /**
+   * A helper method to retrieve records by a set of user
+   * keys; the records are restricted to the provided bins,
+   * if any. The records are returned in the order of the
+   * user keys, and unknown keys are skipped.
+   */
+  def getByKeys(userKeys:Array[String], elementType:ElementType, binNames:Seq[String]):util.Iterator[KeyRecord]
+  /**
+   * A helper method to retrieve multiple records; unknown
+   * keys are returned as `null` records.
+   */
+  def getAll(keys:util.List[Key]):util.List[Record]
+  /**
+   * A helper method to write a record; note, transaction
+   * control is provided by the requester
+   */
+  def put(key:Key, values:util.List[Bin]):Unit
+  /**
+   * A helper method to write multiple records; the method
+   * returns when all records are written.
+   */
+  def putAll(rows:util.Map[Key, util.List[Bin]]):Unit
+  /**
+   * A helper method to create a record; `false` is
+   * returned, if the record already exists.
+   */
+  def create(key:Key, values:util.List[Bin]):Boolean
+  /**
+   * A helper method to atomically increment a counter
+   * bin; the record is created if it does not exist, and
+   * the incremented value is returned.
+   */
+  def increment(key:Key, binName:String):Long
+  /**
+   * A helper method to atomically add an amount to an
+   * integer bin of an existing record, and to write the
+   * provided bins with the same operation; `null` is
+   * returned, if the record or the bin does not exist,
+   * and the incremented value otherwise.
+   */
+  def add(key:Key, binName:String, amount:Long, values:util.List[Bin]):java.lang.Long
+  /**
+   * A helper method to atomically add an amount to the
+   * integer item of the provided key in each of the named
+   * map bins of an existing record, and to write the
+   * provided bins with the same operation; `null` is
+   * returned, if the record or the item of the first map
+   * does not exist, and its incremented value otherwise.
+   */
+  def addMapItem(key:Key, mapNames:util.List[String], mapKey:Object, amount:Long,
+                 values:util.List[Bin]):java.lang.Long
+  /**
+   * A helper method to write an element record of the
+   * packed layout: the provided bins are written as is,
+   * while the provided items are merged into the named
+   * map bins. The record is created if it does not exist.
+   */
+  def putMaps(key:Key, values:util.List[Bin], maps:util.Map[String, _ <: util.Map[_, _]]):Unit
+  /**
+   * A helper method to remove the provided keys from the
+   * named map bins of a packed element record; the bins
+   * are written as is.
+   */
+  def removeMapKeys(key:Key, values:util.List[Bin], mapNames:util.List[String], mapKeys:util.List[Object]):Unit
+  /**
+   * A helper method to merge the provided items into
+   * a map bin; the record is created if it does not
+   * exist. The number of added items is returned.
+   */
+  def putMapItems(key:Key, binName:String, items:util.Map[Object, Object]):Int
+  /**
+   * A helper method to remove the provided keys from
+   * a map bin; the number of removed items is returned.
+   */
+  def removeMapItems(key:Key, binName:String, mapKeys:util.List[Object]):Int
+  /**
+   * A helper method to remove all records that refer
+   * to the provided keys
+   */
+  def removeAll(keys:util.List[Key]):Unit
+  /**
+   * Queries a single set for the records that fulfill the
+   * filter conditions; the records are restricted to the
+   * provided bins, if any.
+   */
+  protected def querySet(queryset:String, filters:AeroFilters, binNames:Seq[String]):util.Iterator[KeyRecord]
+  /**
+   * Scans the provided set for at most `limit` elements;
+   * `-1` indicates an unlimited scan. The records are
+   * restricted to the bins of the projection.
+   */
+  def scan(scanset:String, limit:Int, projection:AeroProjection):util.Iterator[KeyRecord]
+  /**
+   * A helper method to read a sample of the records of a
+   * single set; the records are passed to the callback.
+   */
+  def sample(sampleset:String, maxRecords:Int, callback:ScanCallback):Unit
+  /**
+   * The number of records of a single set
+   */
+  def getRecordCount(countset:String):Long
+  /**
+   * Builds a secondary index on a bin of the provided set;
+   * the method returns when the index is available.
+   */
+  def createIndex(indexset:String, binName:String, indexType:IndexType, collectionType:IndexCollectionType):Unit
 
-  def getWritePolicy:WritePolicy = writePolicy
+  def isClosed:Boolean
 
-  /** AEROSPIKE ACCESS METHODS **/
+  def close():Unit
 
-  // TODO TRANSACTION
+  /** HELPER METHODS **/
 
   /**
    * A helper method to build an Aerospike compliant
@@ -86,130 +213,193 @@ class AeroConnect(options:AeroOptions) {
    */
   def getKey(userKey:String, elementType:ElementType):Key = {
 
-    if (elementType == ElementType.VERTEX)
-      new Key(namespace, s"${setname}_${Constants.VERTICES}", userKey)
+    val key = new Key(namespace, getSetname(elementType), userKey)
+    /*
+     * Label sets address records by the digest of the base
+     * set; without a set name, the server does not check
+     * the set a record is stored in.
+     */
+    if (labels.isEnabled)
+      new Key(namespace, key.digest, null, key.userKey)
 
-    else
-      new Key(namespace, s"${setname}_${Constants.EDGES}", userKey)
+    else key
 
   }
   /**
-   * A helper method to retrieve Aerospike records
-   * by a set of user keys
+   * A helper method to build the key of an element that
+   * is written; if label sets are enabled, the key refers
+   * to the set of the provided label.
    */
-  def getByKeys(userKeys:Array[String], elementType:ElementType):util.Iterator[KeyRecord] = {
+  def getKey(userKey:String, elementType:ElementType, label:String):Key = {
 
-    val readPolicy = clientPolicy.readPolicyDefault
-    val postfix =
-      if (elementType == ElementType.VERTEX)
-        Constants.VERTICES
+    if (!labels.isEnabled || label == null)
+      return getKey(userKey, elementType)
 
-      else
-        Constants.EDGES
+    labels.register(elementType, label)
 
-    userKeys.map(userKey => {
+    val key = new Key(namespace, getSetname(elementType), userKey)
+    new Key(namespace, key.digest, labels.getSetname(elementType, label), key.userKey)
 
-      val key = new Key(namespace, s"${setname}_${postfix}", userKey)
-      val record = client.get(readPolicy, key)
+  }
+  /**
+   * A helper method to build an Aerospike compliant key
+   * for auxiliary sets, e.g. the adjacency set
+   */
+  def getKey(userKey:String, postfix:String):Key =
+    new Key(namespace, s"${setname}_$postfix", userKey)
+  /**
+   * The sets that hold the elements of the provided type;
+   * these are the base set and the label sets, if enabled.
+   */
+  def getSetnames(elementType:ElementType):util.List[String] = {
 
-      KeyRecord(key, record)
-    }).iterator
+    val setnames = new util.ArrayList[String]()
+    setnames.add(getSetname(elementType))
+
+    if (labels.isEnabled)
+      setnames.addAll(labels.getSetnames(elementType))
+
+    setnames
 
   }
   /**
-   * A helper method to write to an Aerospike namespace
-   * and setname (_vertex or _edge); note, transaction
-   * control is provided by the requester
+   * The number of records that refer to the provided label;
+   * the count is taken from the record count of the label set
+   * and does not require a scan. Note, the entry layout
+   * counts entries and not elements.
    */
-  def put(key:Key, values:util.List[Bin]):Unit =
-    client.put(writePolicy, key, values.toList: _*)
+  def getLabelCount(elementType:ElementType, label:String):Long = {
 
+    if (!labels.isEnabled)
+      throw new Exception(s"Label counts demand for label sets.")
+
+    val labelSet = labels.lookup(elementType, label)
+    if (labelSet == null) 0L else getRecordCount(labelSet)
+
+  }
   /**
-   * A helper method to remove all Aerospike records
-   * that refer to the provided keys
+   * A helper method to derive the cache key of an entry
+   * from the element identifier and the property key; as
+   * the key is deterministic, entries can be written and
+   * removed without reading them first.
    */
-  def removeAll(keys:util.List[Key]):Unit = {
-    keys.foreach(key => client.delete(writePolicy, key))
+  def getCacheKey(id:String, propKey:String):String = {
+    /*
+     * The length prefix prevents collisions between
+     * identifiers and property keys that contain the
+     * separator
+     */
+    val name = s"${id.length}:$id#$propKey"
+    UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString
   }
+  /**
+   * A helper method to retrieve records by a set
+   * of user keys
+   */
+  def getByKeys(userKeys:Array[String], elementType:ElementType):util.Iterator[KeyRecord] =
+    getByKeys(userKeys, elementType, Seq.empty[String])
 
-  def query(queryset:String, filters:AeroFilters):util.Iterator[KeyRecord] = {
-    val aeroRead = new AeroRead(client, namespace, queryset, timeout, timeout)
-    aeroRead.run(filters, Seq.empty[String])
-  }
+  def getByKeys(userKeys:Array[String], elementType:ElementType, projection:AeroProjection):util.Iterator[KeyRecord] =
+    getByKeys(userKeys, elementType, projection.getBinNames(layout, elementType).toSeq)
+
+  def query(queryset:String, filters:AeroFilters):util.Iterator[KeyRecord] =
+    query(queryset, filters, Seq.empty[String])
+  /**
+   * Queries the provided set and restricts the records to
+   * the bins of the projection
+   */
+  def query(queryset:String, filters:AeroFilters, projection:AeroProjection):util.Iterator[KeyRecord] =
+    query(queryset, filters, projection.getBinNames(layout, getElementType(queryset)).toSeq)
 
+  /**
+   * Queries the provided set for the records that fulfill
+   * the filter conditions; the records are restricted to the
+   * provided bins, if any. A base set is expanded by its
+   * label sets, if enabled.
+   */
   def query(queryset:String, filters:AeroFilters, binNames:Seq[String]):util.Iterator[KeyRecord] = {
-    val aeroRead = new AeroRead(client, namespace, queryset, timeout, timeout)
-    aeroRead.run(filters, binNames)
-  }
 
-  def scan(scanset:String):util.Iterator[KeyRecord] = {
-    val aeroScan = new AeroScan(client, namespace, scanset, timeout, timeout)
-    aeroScan.run(scanThreadFactory)
-  }
+    val elementType = getElementType(queryset)
+    if (!labels.isEnabled || elementType == ElementType.UNDEFINED)
+      return querySet(queryset, filters, binNames)
 
-  def close(): Unit = {
-    client.close()
-  }
+    /*
+     * An equality condition on the label restricts the query
+     * to the respective label set; as all records of this set
+     * fulfill the condition, it is removed from the filters.
+     */
+    val labelFilter =
+      if (filters.condition == "and")
+        filters.filters.find(filter =>
+          filter.name == Constants.LABEL_COL_NAME && filter.condition == Constants.EQUAL_VALUE)
 
-  /** AEROSPIKE HELPER METHODS **/
+      else None
 
-  private def buildAerospikeClient():Unit = {
+    val (querysets, setFilters) = labelFilter match {
+      case Some(filter) =>
+        val labelSet = labels.lookup(elementType, filter.value.toString)
+        val remaining = new util.ArrayList[AeroFilter](seqAsJavaList(filters.filters.filterNot(_ == filter)))
 
-    /* Define Client Policy */
+        (if (labelSet == null) Seq.empty[String] else Seq(labelSet),
+          AeroFilters(filters.condition, remaining, filters.limit))
 
-    clientPolicy = new ClientPolicy()
-    clientPolicy.timeout = timeout
-    clientPolicy.failIfNotConnected = true
+      case None =>
+        (getSetnames(elementType).toSeq, filters)
+    }
 
-    /* User authentication */
+    /*
+     * A label set is queried for the elements that are
+     * still missing, when the previous sets are exhausted
+     */
+    val elementLimit = new AeroElementLimit(layout, filters.limit)
+    val cursors = querysets.iterator.map(set => () =>
+      querySet(set, setFilters.copy(limit = elementLimit.getRemaining), binNames))
 
-    val (user, pass) = options.getUserAndPass
-    clientPolicy.user = user
-    clientPolicy.password = pass
+    new AeroChainedCursor(cursors, elementLimit)
 
-    val authMode = options.getAuthMode
-    clientPolicy.authMode = authMode
+  }
 
-    val tlsMode = options.getTlsMode.toLowerCase
-    val tlsName = options.getTlsName
+  def scan(scanset:String):util.Iterator[KeyRecord] =
+    scan(scanset, -1)
 
-    if (tlsMode == "true" && tlsName == null)
-      throw new Exception(s"No Aerospike TLS name specified.")
+  def scan(scanset:String, limit:Int):util.Iterator[KeyRecord] =
+    scan(scanset, limit, AeroProjection.ALL)
 
-    if (tlsMode == "true") {
-      /*
-       * The current implementation leverages the
-       * default values
-       */
-      clientPolicy.tlsPolicy = new TlsPolicy()
-    }
+  protected def getSetname(elementType:ElementType):String = {
 
-    val host = options.getHost
-    val port = options.getPort
+    if (elementType == ElementType.VERTEX)
+      s"${setname}_${Constants.VERTICES}"
 
-    val aerospikeHost = new Host(host, options.getTlsName, port)
-    client = new AerospikeClient(clientPolicy, aerospikeHost)
+    else
+      s"${setname}_${Constants.EDGES}"
 
-    /* Define write policy */
+  }
 
-    writePolicy = new WritePolicy(client.writePolicyDefault)
-    writePolicy.expiration = options.getExpiration
+  protected def getElementType(elementSet:String):ElementType = {
 
-    val writeMode = options.getWriteMode
-    writeMode match {
-      case "ErrorIfExists" =>
-        writePolicy.recordExistsAction = RecordExistsAction.CREATE_ONLY
-      case "Ignore" =>
-        writePolicy.recordExistsAction = RecordExistsAction.CREATE_ONLY
-      case "Overwrite" =>
-        writePolicy.recordExistsAction = RecordExistsAction.REPLACE
-      case "Append" =>
-        writePolicy.recordExistsAction = RecordExistsAction.UPDATE_ONLY
-      case _ =>
-        /* Append */
-        writePolicy.recordExistsAction = RecordExistsAction.UPDATE_ONLY
+    if (elementSet == s"${setname}_${Constants.VERTICES}")
+      ElementType.VERTEX
 
-    }
+    else if (elementSet == s"${setname}_${Constants.EDGES}")
+      ElementType.EDGE
+
+    else
+      ElementType.UNDEFINED
 
   }
+  /**
+   * The sets that are scanned for the provided set; a
+   * base set is expanded by its label sets, if enabled.
+   */
+  protected def getScansets(scanset:String):Seq[String] = {
+
+    val elementType = getElementType(scanset)
+    if (!labels.isEnabled || elementType == ElementType.UNDEFINED)
+      Seq(scanset)
+
+    else
+      getSetnames(elementType).toSeq
+
+  }
+
 }
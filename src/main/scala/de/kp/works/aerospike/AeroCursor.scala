@@ -0,0 +1,428 @@
+package de.kp.works.aerospike
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.Record
+import de.kp.works.aerospike.concurrent.NamedThreadFactory
+import de.kp.works.aerospike.gremlin.{Constants, StorageLayout}
+import de.kp.works.aerospike.metrics.AeroMetrics
+
+import java.io.Closeable
+import java.lang.ref.{PhantomReference, ReferenceQueue}
+import java.util
+import java.util.NoSuchElementException
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicLong}
+import java.util.concurrent.{ConcurrentHashMap, ConcurrentLinkedQueue, Future, LinkedBlockingQueue, TimeUnit}
+
+object AeroCursor {
+  /*
+   * The maximum number of records that are buffered
+   * between the reader and the consumer of a cursor
+   */
+  val CAPACITY:Int = 100
+  /*
+   * The interval in milliseconds, a blocked reader
+   * checks whether the cursor has been closed
+   */
+  private val POLL_INTERVAL:Long = 100L
+  /*
+   * The handles that are no longer referenced by their
+   * consumer are enqueued here by the garbage collector;
+   * the registered references keep the cursors reachable
+   * until they are closed.
+   */
+  private val abandoned = new ReferenceQueue[AeroCursorHandle]()
+  private val references = ConcurrentHashMap.newKeySet[AeroCursorReference]()
+
+  private val cleaner = new NamedThreadFactory("aerospike", "cursor").newThread(new Runnable {
+    override def run(): Unit = {
+      while (true) {
+        try {
+          val reference = abandoned.remove().asInstanceOf[AeroCursorReference]
+          references.remove(reference)
+          /*
+           * The consumer has dropped the handle without closing
+           * it; closing the cursor releases a blocked reader
+           */
+          reference.cursor.close()
+
+        } catch {
+          case _:InterruptedException =>
+            /* The cleaner runs as long as the JVM */
+          case _:Exception =>
+            /* A failing cancel action must not stop the cleaner */
+        }
+      }
+    }
+  })
+
+  cleaner.setDaemon(true)
+  cleaner.start()
+
+  private[aerospike] def register(handle:AeroCursorHandle, cursor:AeroCursor):AeroCursorReference = {
+
+    val reference = new AeroCursorReference(handle, cursor, abandoned)
+    references.add(reference)
+
+    reference
+
+  }
+
+  private[aerospike] def deregister(reference:AeroCursorReference):Unit = {
+
+    reference.clear()
+    references.remove(reference)
+
+  }
+
+}
+/**
+ * [AeroCursor] is a producer / consumer cursor: a reader
+ * thread feeds (key, record) pairs into a bounded queue,
+ * while the consumer iterates them. The reader is blocked
+ * as long as the queue is full, so memory is constant for
+ * any result size.
+ *
+ * Closing the cursor discards buffered records, stops the
+ * reader and cancels the server side query or scan by the
+ * registered cancel action. Readers that run as background
+ * tasks are cancelled as well, whether running or queued.
+ *
+ * The time the reader is blocked by a full queue, and the
+ * consumer by an empty one, is recorded per cursor.
+ *
+ * A reader waits for its consumer as long as it takes; a
+ * cursor is only closed by its consumer, or, if it is read
+ * through a [[handle]], when the handle is garbage collected.
+ */
+class AeroCursor(capacity:Int = AeroCursor.CAPACITY, metrics:AeroMetrics = AeroMetrics.DISABLED)
+  extends util.Iterator[KeyRecord] with Closeable {
+
+  private val queue = new LinkedBlockingQueue[KeyRecord](capacity)
+  private val TERMINATE_VALUE = KeyRecord(null, null)
+
+  private val closed = new AtomicBoolean(false)
+  @volatile private var failure:Throwable = _
+
+  @volatile private var cancel:() => Unit = () => ()
+  /*
+   * The background tasks that feed this cursor; they
+   * are cancelled, when the cursor is closed
+   */
+  private val tasks = new ConcurrentLinkedQueue[Future[_]]()
+  /*
+   * The consumer side look-ahead; `finished` indicates
+   * that the terminate value has been taken
+   */
+  private var nextKeyRecord:KeyRecord = _
+  private var finished = false
+  /*
+   * The time in nanoseconds, the reader waits for the
+   * consumer, and the consumer waits for the reader
+   */
+  private val producerWait = new AtomicLong(0L)
+  private val consumerWait = new AtomicLong(0L)
+
+  private val recorded = new AtomicBoolean(false)
+
+  def isClosed:Boolean = closed.get
+  /**
+   * The time in nanoseconds, the reader has been blocked
+   * by a full queue so far
+   */
+  def getProducerWait:Long = producerWait.get
+
+  /**
+   * The consumer side of this cursor; the cursor is closed,
+   * when the handle is closed, or no longer referenced by
+   * the consumer. The reader must not refer to the handle.
+   */
+  def handle():util.Iterator[KeyRecord] with Closeable = new AeroCursorHandle(this)
+  /**
+   * Registers the action that cancels the server side
+   * query or scan, if the cursor is closed early
+   */
+  def onCancel(action:() => Unit):Unit = {
+    cancel = action
+  }
+  /**
+   * Registers a background task that feeds this cursor;
+   * a task that is registered after the cursor has been
+   * closed is cancelled immediately.
+   */
+  def addTask(task:Future[_]):Unit = {
+
+    tasks.add(task)
+    if (closed.get) task.cancel(true)
+
+  }
+
+  /** PRODUCER **/
+
+  /**
+   * Passes a record to the consumer; the caller is blocked
+   * while the queue is full. `false` is returned, if the
+   * cursor is closed and the reader must stop.
+   */
+  def offer(keyRecord:KeyRecord):Boolean = {
+
+    if (closed.get) return false
+    if (queue.offer(keyRecord)) return true
+
+    val start = System.nanoTime
+    try {
+
+      while (!closed.get) {
+        if (queue.offer(keyRecord, AeroCursor.POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+          producerWait.addAndGet(System.nanoTime - start)
+          return true
+        }
+      }
+
+    } catch {
+      case _:InterruptedException =>
+        /* The reader task was cancelled */
+        Thread.currentThread.interrupt()
+    }
+
+    false
+
+  }
+  /**
+   * Indicates the end of the records; a failure of the
+   * reader is re-thrown on the consumer side.
+   */
+  def complete(t:Throwable = null):Unit = {
+
+    if (t != null) failure = t
+    offer(TERMINATE_VALUE)
+
+  }
+
+  /** CONSUMER **/
+
+  override def hasNext: Boolean = {
+
+    if (nextKeyRecord != null) return true
+    if (finished || closed.get) return false
+
+    /*
+     * The consumer may be blocked while another thread
+     * closes the cursor, therefore the queue is polled
+     */
+    var keyRecord:KeyRecord = queue.poll()
+    if (keyRecord == null) {
+
+      val start = System.nanoTime
+      while (keyRecord == null) {
+
+        if (closed.get) return false
+        keyRecord =
+          try {
+            queue.poll(AeroCursor.POLL_INTERVAL, TimeUnit.MILLISECONDS)
+
+          } catch {
+            case e:InterruptedException =>
+              Thread.currentThread.interrupt()
+              close()
+              throw new RuntimeException(e)
+          }
+
+      }
+
+      consumerWait.addAndGet(System.nanoTime - start)
+
+    }
+
+    if (keyRecord eq TERMINATE_VALUE) {
+      finished = true
+      recordWaits()
+
+      if (failure != null) throw new RuntimeException(failure)
+
+      false
+    }
+    else {
+      nextKeyRecord = keyRecord
+      true
+    }
+
+  }
+
+  override def next(): KeyRecord = {
+
+    if (!hasNext) throw new NoSuchElementException()
+
+    val keyRecord = nextKeyRecord
+    nextKeyRecord = null
+
+    keyRecord
+
+  }
+
+  override def close(): Unit = {
+
+    if (closed.compareAndSet(false, true)) {
+
+      finished = true
+      nextKeyRecord = null
+
+      queue.clear()
+      cancel()
+
+      while (!tasks.isEmpty) tasks.poll().cancel(true)
+      recordWaits()
+
+    }
+
+  }
+
+  private def recordWaits():Unit = {
+
+    if (recorded.compareAndSet(false, true)) {
+      metrics.recordLatency(AeroMetrics.PRODUCER_WAIT, producerWait.get)
+      metrics.recordLatency(AeroMetrics.CONSUMER_WAIT, consumerWait.get)
+    }
+
+  }
+
+}
+/**
+ * [AeroCursorHandle] passes the records of a cursor to its
+ * consumer; it is the only object that refers to the handle,
+ * so that an abandoned handle can be detected by the garbage
+ * collector.
+ */
+private[aerospike] class AeroCursorHandle(cursor:AeroCursor)
+  extends util.Iterator[KeyRecord] with Closeable {
+
+  private val reference = AeroCursor.register(this, cursor)
+
+  override def hasNext: Boolean = cursor.hasNext
+
+  override def next(): KeyRecord = cursor.next()
+
+  override def close(): Unit = {
+
+    AeroCursor.deregister(reference)
+    cursor.close()
+
+  }
+
+}
+
+private[aerospike] class AeroCursorReference(handle:AeroCursorHandle, val cursor:AeroCursor,
+  queue:ReferenceQueue[AeroCursorHandle]) extends PhantomReference[AeroCursorHandle](handle, queue)
+/**
+ * [AeroChainedCursor] iterates the cursors of multiple sets,
+ * e.g. label sets, one after another; a cursor is opened
+ * when the previous one is exhausted. The chain is closed,
+ * when the element limit is reached; closing the chain
+ * closes the open cursor.
+ */
+class AeroChainedCursor(cursors:Iterator[() => util.Iterator[KeyRecord]], elementLimit:AeroElementLimit)
+  extends util.Iterator[KeyRecord] with Closeable {
+
+  private var current:util.Iterator[KeyRecord] = _
+  private var closed = false
+
+  override def hasNext: Boolean = {
+
+    if (closed) return false
+    if (elementLimit.isReached) {
+      close()
+      return false
+    }
+    while (current == null || !current.hasNext) {
+
+      closeCurrent()
+      if (!cursors.hasNext) return false
+
+      current = cursors.next()()
+
+    }
+
+    true
+
+  }
+
+  override def next(): KeyRecord = {
+
+    if (!hasNext) throw new NoSuchElementException()
+
+    val keyRecord = current.next()
+    elementLimit.add(keyRecord.record)
+
+    keyRecord
+
+  }
+
+  override def close(): Unit = {
+
+    closed = true
+    closeCurrent()
+
+  }
+
+  private def closeCurrent():Unit = {
+
+    current match {
+      case closeable:Closeable => closeable.close()
+      case _ =>
+    }
+
+    current = null
+
+  }
+
+}
+/**
+ * [AeroElementLimit] counts the elements that are passed
+ * to a cursor; the entry layout persists an element as
+ * multiple records, so elements are counted by their
+ * distinct identifiers, and not by records.
+ */
+class AeroElementLimit(layout:StorageLayout, limit:Int) {
+
+  private val ids = new util.HashSet[String]()
+  private var count = 0
+
+  def isLimited:Boolean = limit != -1
+
+  def isReached:Boolean = isLimited && count >= limit
+  /**
+   * The number of elements that are still missing; it
+   * restricts the number of records of the next request
+   */
+  def getRemaining:Int = if (isLimited) math.max(0, limit - count) else -1
+
+  def add(record:Record):Unit = {
+
+    if (layout == StorageLayout.ENTRY) {
+
+      val id = record.getValue(Constants.ID_COL_NAME)
+      if (id == null || !ids.add(id.toString)) return
+
+    }
+
+    count += 1
+
+  }
+
+}
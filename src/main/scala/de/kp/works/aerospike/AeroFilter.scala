@@ -33,4 +33,4 @@ case class AeroFilters(condition:String, filters:util.List[AeroFilter], limit:In
 
 }
 
-case class AeroFilter(condition:String, name:String, value:String)
+case class AeroFilter(condition:String, name:String, value:Any)
@@ -0,0 +1,833 @@
+package de.kp.works.aerospike
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.query.{IndexCollectionType, IndexType}
+import com.aerospike.client.{AerospikeException, Bin, Key, Record, ResultCode, ScanCallback, Value}
+import com.google.common.primitives.UnsignedBytes
+import de.kp.works.aerospike.gremlin.{Constants, ElementType, StorageLayout, ValueUtils}
+import de.kp.works.aerospike.metrics.{AeroMetrics, AeroProfile}
+
+import java.util
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.{ConcurrentHashMap, ConcurrentSkipListMap}
+import java.util.function.{Function => JFunction}
+import scala.collection.JavaConversions._
+
+object AeroMemoryConnect {
+  /*
+   * The number of locks that serialize the writes
+   * of records and index entries
+   */
+  private val LOCK_STRIPES:Int = 256
+
+}
+/**
+ * [AeroMemoryConnect] is the storage backend that holds
+ * edges and vertices in memory; nothing is persisted, and
+ * each instance starts with an empty store. It serves as a
+ * fast scratch graph, and runs tests and benchmarks without
+ * an Aerospike cluster.
+ *
+ * The records of a set are organized as a concurrent map
+ * sorted by digest, similar to the partitions of a cluster,
+ * and the secondary indices are emulated by sorted maps from
+ * bin values to digests. Writes to the same record, and to
+ * the same index entry, are serialized; reads are lock free.
+ */
+class AeroMemoryConnect(options:AeroOptions) extends AeroConnect {
+
+  val namespace: String = options.getNamespace
+  val setname: String = options.getSetname
+
+  val layout: StorageLayout = options.getLayout
+  val adjacency: Boolean = options.getAdjacency
+  val adjacencyChunkSize: Int = options.getAdjacencyChunkSize
+
+  private val writeMode = options.getWriteMode
+  /*
+   * The sets of this store, and the set of each record;
+   * records are addressed by their digest, independent
+   * of the set they are stored in
+   */
+  private val sets = new ConcurrentHashMap[String, AeroMemorySet]()
+  private val locations = new ConcurrentHashMap[AeroDigest, String]()
+
+  private val locks = Array.fill(AeroMemoryConnect.LOCK_STRIPES)(new Object)
+  @volatile private var closed = false
+
+  val dictionary: AeroDictionary = new AeroDictionary(this, options.getDictionary)
+
+  val labels: AeroLabels = new AeroLabels(this, options.getLabelSets)
+  /*
+   * Queries choose their index lookup by the exact number
+   * of matching index entries, therefore no statistics are
+   * sampled
+   */
+  val statistics: AeroStatistics = new AeroStatistics(this, false, 1, 1000L)
+  /*
+   * The memory operations are not timed; the metrics
+   * provide the filter and cache statistics
+   */
+  val metrics: AeroMetrics = new AeroMetrics(options.getMetrics)
+  metrics.register(s"memory.$namespace.$setname")
+
+  /** ACCESS METHODS **/
+
+  def get(key:Key):Record = {
+
+    val profile = AeroProfile.current()
+    profile.recordAccessPath(AeroProfile.ID_GET)
+
+    val record = getRecord(new AeroDigest(key.digest))
+    if (record == null) return null
+
+    val result = record.toRecord
+    profile.recordRecord(result)
+
+    result
+
+  }
+
+  def getByKeys(userKeys:Array[String], elementType:ElementType, binNames:Seq[String]):util.Iterator[KeyRecord] = {
+
+    val profile = AeroProfile.current()
+    profile.recordAccessPath(AeroProfile.ID_MULTI_GET)
+
+    val keyRecords = userKeys
+      .map(userKey => getKey(userKey, elementType))
+      .map(key => (key, getRecord(new AeroDigest(key.digest))))
+      .filter{case (_, record) => record != null}
+      .map{case (key, record) => KeyRecord(key, record.project(binNames))}
+
+    keyRecords.foreach(keyRecord => profile.recordRecord(keyRecord.record))
+
+    asJavaIterator(keyRecords.iterator)
+
+  }
+
+  def getAll(keys:util.List[Key]):util.List[Record] = {
+
+    val profile = AeroProfile.current()
+    profile.recordAccessPath(AeroProfile.ID_MULTI_GET)
+
+    val records = new util.ArrayList[Record]()
+    keys.foreach(key => {
+      val record = getRecord(new AeroDigest(key.digest))
+      if (record == null) records.add(null)
+
+      else {
+        val result = record.toRecord
+        profile.recordRecord(result)
+
+        records.add(result)
+      }
+    })
+
+    records
+
+  }
+  /**
+   * The write mode determines whether an existing record
+   * is updated, replaced or must not be overwritten
+   */
+  def put(key:Key, values:util.List[Bin]):Unit =
+    write(key, (exists, bins) => {
+
+      writeMode match {
+        case "ErrorIfExists" | "Ignore" if exists =>
+          throw new AerospikeException(ResultCode.KEY_EXISTS_ERROR)
+        case "Overwrite" =>
+          bins.clear()
+        case _ =>
+      }
+
+      putBins(bins, values)
+
+    })
+
+  def putAll(rows:util.Map[Key, util.List[Bin]]):Unit =
+    rows.foreach{case (key, values) => put(key, values)}
+
+  def create(key:Key, values:util.List[Bin]):Boolean =
+    write(key, (exists, bins) => {
+
+      if (exists) false
+      else {
+        putBins(bins, values)
+        true
+      }
+
+    })
+
+  def increment(key:Key, binName:String):Long =
+    write(key, (_, bins) => {
+
+      val value = bins.get(binName) match {
+        case counter:java.lang.Long => counter.longValue + 1L
+        case _ => 1L
+      }
+
+      bins.put(binName, java.lang.Long.valueOf(value))
+      value
+
+    })
+
+  def add(key:Key, binName:String, amount:Long, values:util.List[Bin]):java.lang.Long =
+    write(key, (exists, bins) => {
+
+      bins.get(binName) match {
+        case value:java.lang.Long if exists =>
+          putBins(bins, values)
+
+          val result = java.lang.Long.valueOf(value.longValue + amount)
+          bins.put(binName, result)
+
+          result
+        case _ => null
+      }
+
+    })
+
+  def addMapItem(key:Key, mapNames:util.List[String], mapKey:Object, amount:Long,
+                 values:util.List[Bin]):java.lang.Long =
+    write(key, (exists, bins) => {
+
+      val itemKey = normalize(mapKey)
+      getMap(bins, mapNames.head).get(itemKey) match {
+        case value:java.lang.Long if exists =>
+          putBins(bins, values)
+          mapNames.foreach(binName => {
+            val map = getMap(bins, binName)
+            val item = map.get(itemKey) match {
+              case number:java.lang.Long => number.longValue
+              case _ => 0L
+            }
+
+            map.put(itemKey, java.lang.Long.valueOf(item + amount))
+            bins.put(binName, map)
+          })
+
+          java.lang.Long.valueOf(value.longValue + amount)
+        case _ => null
+      }
+
+    })
+
+  def putMaps(key:Key, values:util.List[Bin], maps:util.Map[String, _ <: util.Map[_, _]]):Unit =
+    write(key, (_, bins) => {
+
+      putBins(bins, values)
+      maps
+        .filter{case (_, items) => !items.isEmpty}
+        .foreach{case (binName, items) =>
+          val map = getMap(bins, binName)
+          items.entrySet.foreach(item => map.put(normalize(item.getKey), normalize(item.getValue)))
+
+          bins.put(binName, map)
+        }
+
+    })
+
+  def removeMapKeys(key:Key, values:util.List[Bin], mapNames:util.List[String], mapKeys:util.List[Object]):Unit =
+    write(key, (_, bins) => {
+
+      putBins(bins, values)
+      mapNames
+        .filter(binName => bins.containsKey(binName))
+        .foreach(binName => {
+          val map = getMap(bins, binName)
+          mapKeys.foreach(k => map.remove(normalize(k)))
+
+          bins.put(binName, map)
+        })
+
+    })
+
+  def putMapItems(key:Key, binName:String, items:util.Map[Object, Object]):Int = {
+
+    if (items.isEmpty) return 0
+    write(key, (_, bins) => {
+
+      val map = getMap(bins, binName)
+      val size = map.size
+
+      items.entrySet.foreach(item => map.put(normalize(item.getKey), normalize(item.getValue)))
+      bins.put(binName, map)
+
+      map.size - size
+
+    })
+
+  }
+
+  def removeMapItems(key:Key, binName:String, mapKeys:util.List[Object]):Int = {
+
+    if (mapKeys.isEmpty) return 0
+    write(key, (_, bins) => {
+
+      if (!bins.containsKey(binName)) 0
+      else {
+        val map = getMap(bins, binName)
+        val size = map.size
+
+        mapKeys.foreach(k => map.remove(normalize(k)))
+        bins.put(binName, map)
+
+        size - map.size
+      }
+
+    })
+
+  }
+
+  def removeAll(keys:util.List[Key]):Unit =
+    keys.foreach(key => write(key, (_, bins) => bins.clear()))
+
+  protected def querySet(queryset:String, filters:AeroFilters, binNames:Seq[String]):util.Iterator[KeyRecord] = {
+
+    val memorySet = sets.get(queryset)
+    if (memorySet == null) return new util.ArrayList[KeyRecord]().iterator
+
+    val recordFilter = new AeroRecordFilter(layout, dictionary, filters)
+    /*
+     * Labels and property keys that are not registered
+     * in the dictionary are not referenced by any record
+     */
+    if (filters.condition == "and" && filters.filters.exists(filter => recordFilter.isUnknown(filter)))
+      return new util.ArrayList[KeyRecord]().iterator
+
+    /*
+     * The records are filtered lazily, therefore the
+     * profile of the calling thread is captured
+     */
+    val profile = AeroProfile.current()
+
+    val conditions = filters.filters.toSeq
+    val records = getCandidates(memorySet, filters, recordFilter, profile)
+      .filter(record => {
+        val candidate = record.toRecord
+        profile.recordRecord(candidate)
+
+        val matches = recordFilter.matches(candidate, conditions)
+        metrics.recordRecords(1L, if (matches) 1L else 0L)
+
+        if (!matches) profile.recordRejected(1L)
+        matches
+      })
+
+    limit(records, new AeroElementLimit(layout, filters.limit), binNames)
+
+  }
+
+  def scan(scanset:String, limit:Int, projection:AeroProjection):util.Iterator[KeyRecord] = {
+
+    val profile = AeroProfile.current()
+    profile.recordAccessPath(AeroProfile.FULL_SCAN)
+
+    val binNames = projection.getBinNames(layout, getElementType(scanset)).toSeq
+    val records = getScansets(scanset).iterator
+      .flatMap(set => {
+        val memorySet = sets.get(set)
+        if (memorySet == null) Iterator.empty else memorySet.snapshot()
+      })
+      .map(record => {
+        profile.recordRecord(record.toRecord)
+        record
+      })
+
+    this.limit(records, new AeroElementLimit(layout, limit), binNames)
+
+  }
+
+  def sample(sampleset:String, maxRecords:Int, callback:ScanCallback):Unit = {
+
+    val memorySet = sets.get(sampleset)
+    if (memorySet == null) return
+
+    memorySet.records.values.iterator.take(maxRecords)
+      .foreach(record => callback.scanCallback(record.key, record.toRecord))
+
+  }
+
+  def getRecordCount(countset:String):Long = {
+    val memorySet = sets.get(countset)
+    if (memorySet == null) 0L else memorySet.size.get
+  }
+  /**
+   * An index is built from the existing records of the
+   * set, and maintained by all subsequent writes
+   */
+  def createIndex(indexset:String, binName:String, indexType:IndexType, collectionType:IndexCollectionType):Unit = {
+
+    val memorySet = getSet(indexset)
+
+    val index = new AeroMemoryIndex(binName, indexType, collectionType)
+    if (memorySet.indices.putIfAbsent(binName, index) == null)
+      memorySet.records.values.foreach(record => index.update(record.digest, null, record.bins))
+
+  }
+
+  def isClosed:Boolean = closed
+
+  def close():Unit = {
+
+    closed = true
+    statistics.close()
+    metrics.close()
+
+    sets.clear()
+    locations.clear()
+
+  }
+
+  /** MEMORY HELPER METHODS **/
+
+  /**
+   * Applies a write action to a copy of the bins of a
+   * record, and stores the result; a record without
+   * bins is removed.
+   */
+  private def write[T](key:Key, action:(Boolean, util.Map[String, Object]) => T):T = {
+
+    val digest = new AeroDigest(key.digest)
+    getLock(digest).synchronized {
+
+      val current = getRecord(digest)
+      val bins =
+        if (current == null) new util.HashMap[String, Object]()
+        else new util.HashMap[String, Object](current.bins)
+
+      val result = action(current != null, bins)
+      if (current != null || !bins.isEmpty) store(key, digest, current, bins)
+
+      result
+
+    }
+
+  }
+
+  private def store(key:Key, digest:AeroDigest, current:AeroMemoryRecord, bins:util.Map[String, Object]):Unit = {
+    /*
+     * A record remains in the set it was created in,
+     * as keys of label sets may omit the set name
+     */
+    val recordset =
+      if (current != null) locations.get(digest)
+      else if (key.setName == null) "" else key.setName
+
+    val memorySet = getSet(recordset)
+    if (bins.isEmpty) {
+
+      memorySet.records.remove(digest)
+      memorySet.size.decrementAndGet()
+
+      locations.remove(digest)
+      memorySet.updateIndices(digest, current.bins, null)
+
+    }
+    else {
+
+      val recordKey =
+        if (current != null) current.key
+        else new Key(namespace, key.digest, key.setName, key.userKey)
+
+      val generation = if (current == null) 1 else current.generation + 1
+      val record = AeroMemoryRecord(digest, recordKey, bins, generation)
+
+      if (memorySet.records.put(digest, record) == null)
+        memorySet.size.incrementAndGet()
+
+      locations.put(digest, recordset)
+      memorySet.updateIndices(digest, if (current == null) null else current.bins, bins)
+
+    }
+
+  }
+
+  private def putBins(bins:util.Map[String, Object], values:util.List[Bin]):Unit = {
+
+    values.foreach(bin => {
+      val value = normalize(bin.value)
+      if (value == null) bins.remove(bin.name) else bins.put(bin.name, value)
+    })
+
+  }
+  /**
+   * A copy of a map bin; the maps of stored records
+   * are never modified
+   */
+  private def getMap(bins:util.Map[String, Object], binName:String):util.Map[Object, Object] = {
+
+    val map = new util.HashMap[Object, Object]()
+    bins.get(binName) match {
+      case items:util.Map[_, _] =>
+        items.foreach{case (k, v) => map.put(k.asInstanceOf[Object], v.asInstanceOf[Object])}
+      case _ =>
+    }
+
+    map
+
+  }
+  /**
+   * Converts a value into the representation that the
+   * server returns, e.g. integral values as [Long]
+   */
+  private def normalize(value:Any):Object = value match {
+    case null => null
+    case v:Value => normalize(v.getObject)
+    case v:java.lang.Byte => java.lang.Long.valueOf(v.longValue)
+    case v:java.lang.Short => java.lang.Long.valueOf(v.longValue)
+    case v:java.lang.Integer => java.lang.Long.valueOf(v.longValue)
+    case v:java.lang.Float => java.lang.Double.valueOf(v.doubleValue)
+    case v:java.lang.Boolean =>
+      if (Value.UseBoolBin) v else java.lang.Long.valueOf(if (v.booleanValue) 1L else 0L)
+    case v:Array[Byte] => v.clone()
+    case v:util.List[_] =>
+      val list = new util.ArrayList[Object]()
+      v.foreach(item => list.add(normalize(item)))
+      list
+    case v:util.Map[_, _] =>
+      val map = new util.HashMap[Object, Object]()
+      v.foreach{case (k, item) => map.put(normalize(k), normalize(item))}
+      map
+    case v => v.asInstanceOf[Object]
+  }
+  /**
+   * Determines the records that are evaluated by a query;
+   * equality and range conditions of an `and` combination
+   * are looked up in the indices of the set, and the lookup
+   * with the fewest entries is chosen. Without any lookup,
+   * the set is scanned.
+   */
+  private def getCandidates(memorySet:AeroMemorySet, filters:AeroFilters,
+                            recordFilter:AeroRecordFilter, profile:AeroProfile):Iterator[AeroMemoryRecord] = {
+    /*
+     * The lookups are described by their index bin,
+     * which determines the access path of the query
+     */
+    val lookups =
+      if (filters.condition == "and")
+        filters.filters.flatMap(filter =>
+          getEqualLookup(memorySet, filter, recordFilter).map(lookup => (filter.name, lookup))) ++
+          getRangeLookup(memorySet, filters).map(lookup => (Constants.PROPERTY_VALUE_COL_NAME, lookup))
+
+      else Seq.empty[(String, util.Collection[AeroDigest])]
+
+    if (lookups.isEmpty) {
+      profile.recordAccessPath(AeroProfile.FULL_SCAN)
+      return memorySet.snapshot()
+    }
+
+    val (indexBin, lookup) = lookups.minBy(_._2.size)
+    profile.recordAccessPath(AeroRead.getAccessPath(indexBin))
+
+    new util.ArrayList[AeroDigest](lookup).iterator
+      .map(digest => memorySet.records.get(digest))
+      .filter(record => record != null)
+
+  }
+
+  private def getEqualLookup(memorySet:AeroMemorySet, filter:AeroFilter,
+                             recordFilter:AeroRecordFilter):Option[util.Collection[AeroDigest]] = {
+
+    if (filter.condition != Constants.EQUAL_VALUE) return None
+    filter.name match {
+      case Constants.ID_COL_NAME | Constants.LABEL_COL_NAME | Constants.FROM_COL_NAME |
+           Constants.TO_COL_NAME | Constants.PROPERTY_KEY_COL_NAME =>
+
+        val value = recordFilter.encode(filter.name, filter.value.toString)
+        if (value == null) None else memorySet.lookup(filter.name, value.asInstanceOf[AnyRef])
+
+      case Constants.PROPERTY_VALUE_COL_NAME =>
+        /*
+         * Numeric and temporal values are looked up by their
+         * index value, string values by the string bin
+         */
+        val valueType = ValueUtils.getValueType(filter.value)
+        val indexValue = ValueUtils.toIndexValue(valueType, filter.value)
+
+        if (indexValue != null)
+          memorySet.lookup(getRangeBin, indexValue)
+
+        else if (ValueUtils.getBinName(valueType) == Constants.PROPERTY_VALUE_COL_NAME)
+          memorySet.lookup(Constants.PROPERTY_VALUE_COL_NAME, filter.value.toString)
+
+        else None
+
+      case _ => None
+    }
+
+  }
+
+  private def getRangeLookup(memorySet:AeroMemorySet, filters:AeroFilters):Option[util.Collection[AeroDigest]] = {
+
+    val bounds = filters.filters
+      .filter(filter =>
+        filter.name == Constants.PROPERTY_VALUE_COL_NAME && AeroRead.RANGE_CONDITIONS.contains(filter.condition))
+      .map(filter =>
+        (filter.condition, ValueUtils.toIndexValue(ValueUtils.getValueType(filter.value), filter.value)))
+
+    if (bounds.isEmpty || bounds.exists{case (_, indexValue) => indexValue == null})
+      return None
+
+    var begin = Long.MinValue
+    var end = Long.MaxValue
+    /*
+     * Exclusive bounds are mapped onto inclusive ones, as
+     * index values are floors of the values
+     */
+    bounds.foreach{
+      case (Constants.INCLUSIVE_FROM_VALUE | Constants.EXCLUSIVE_FROM_VALUE, indexValue) =>
+        begin = math.max(begin, indexValue.longValue)
+      case (_, indexValue) =>
+        end = math.min(end, indexValue.longValue)
+    }
+
+    val index = memorySet.indices.get(getRangeBin)
+    if (index == null) None else Some(index.range(begin, end))
+
+  }
+
+  private def getRangeBin:String =
+    if (layout == StorageLayout.PACKED) Constants.PROPERTY_INDEX_COL_NAME
+    else Constants.PROPERTY_LONG_COL_NAME
+  /**
+   * Passes the records to the consumer until the element
+   * limit is reached; the records are restricted to the
+   * provided bins, if any.
+   */
+  private def limit(records:Iterator[AeroMemoryRecord], elementLimit:AeroElementLimit,
+                    binNames:Seq[String]):util.Iterator[KeyRecord] = {
+
+    val keyRecords = records
+      .takeWhile(_ => !elementLimit.isReached)
+      .map(record => {
+        elementLimit.add(record.toRecord)
+        KeyRecord(record.key, record.project(binNames))
+      })
+
+    asJavaIterator(keyRecords)
+
+  }
+
+  private def getRecord(digest:AeroDigest):AeroMemoryRecord = {
+
+    val recordset = locations.get(digest)
+    if (recordset == null) return null
+
+    val memorySet = sets.get(recordset)
+    if (memorySet == null) null else memorySet.records.get(digest)
+
+  }
+
+  private def getSet(name:String):AeroMemorySet =
+    sets.computeIfAbsent(name, new JFunction[String, AeroMemorySet] {
+      override def apply(name:String):AeroMemorySet = new AeroMemorySet()
+    })
+
+  private def getLock(digest:AeroDigest):Object =
+    locks((digest.hashCode & Int.MaxValue) % locks.length)
+
+}
+/**
+ * The digest of a record; digests are ordered by their
+ * unsigned bytes.
+ */
+class AeroDigest(val bytes:Array[Byte]) extends Comparable[AeroDigest] {
+
+  override def compareTo(that:AeroDigest):Int =
+    UnsignedBytes.lexicographicalComparator().compare(bytes, that.bytes)
+
+  override def equals(other:Any):Boolean = other match {
+    case that:AeroDigest => util.Arrays.equals(bytes, that.bytes)
+    case _ => false
+  }
+
+  override def hashCode:Int = util.Arrays.hashCode(bytes)
+
+}
+/**
+ * A stored record; its bins are never modified, as
+ * writes replace the record.
+ */
+case class AeroMemoryRecord(digest:AeroDigest, key:Key, bins:util.Map[String, Object], generation:Int) {
+
+  def toRecord:Record =
+    new Record(util.Collections.unmodifiableMap(bins), generation, 0)
+
+  def project(binNames:Seq[String]):Record = {
+
+    if (binNames.isEmpty) return toRecord
+
+    val projection = new util.HashMap[String, Object]()
+    binNames.foreach(binName => {
+      val value = bins.get(binName)
+      if (value != null) projection.put(binName, value)
+    })
+
+    new Record(projection, generation, 0)
+
+  }
+
+}
+/**
+ * The records and the secondary indices of a set
+ */
+class AeroMemorySet {
+
+  val records = new ConcurrentSkipListMap[AeroDigest, AeroMemoryRecord]()
+  val size = new AtomicLong(0L)
+
+  val indices = new ConcurrentHashMap[String, AeroMemoryIndex]()
+  /**
+   * The records of the set at the time of the call; queries
+   * and scans read such a snapshot, i.e. they do not return
+   * the records that are written while their result is
+   * consumed.
+   */
+  def snapshot():Iterator[AeroMemoryRecord] =
+    new util.ArrayList[AeroMemoryRecord](records.values).iterator
+
+  def lookup(binName:String, value:AnyRef):Option[util.Collection[AeroDigest]] = {
+    val index = indices.get(binName)
+    if (index == null) None else Some(index.equal(value))
+  }
+
+  def updateIndices(digest:AeroDigest, current:util.Map[String, Object], bins:util.Map[String, Object]):Unit =
+    indices.values.foreach(index => index.update(digest, current, bins))
+
+}
+
+object AeroMemoryIndex {
+  /*
+   * Index values are either numeric or strings; the
+   * ordering supports range lookups of numeric values
+   */
+  private val ORDERING = new util.Comparator[AnyRef] {
+    override def compare(x:AnyRef, y:AnyRef):Int = (x, y) match {
+      case (a:java.lang.Long, b:java.lang.Long) => a.compareTo(b)
+      case (_:java.lang.Long, _) => -1
+      case (_, _:java.lang.Long) => 1
+      case _ => x.toString.compareTo(y.toString)
+    }
+  }
+
+  private val LOCK_STRIPES:Int = 64
+
+}
+/**
+ * [AeroMemoryIndex] emulates a secondary index of a bin:
+ * a sorted map from the bin values to the digests of the
+ * records. Like an Aerospike index, it refers to values of
+ * its index type only, and map bins are indexed by their
+ * values or keys.
+ */
+class AeroMemoryIndex(binName:String, indexType:IndexType, collectionType:IndexCollectionType) {
+
+  private val entries = new ConcurrentSkipListMap[AnyRef, util.Set[AeroDigest]](AeroMemoryIndex.ORDERING)
+  private val locks = Array.fill(AeroMemoryIndex.LOCK_STRIPES)(new Object)
+
+  def equal(value:AnyRef):util.Collection[AeroDigest] = {
+    val digests = entries.get(value)
+    if (digests == null) util.Collections.emptySet[AeroDigest]() else digests
+  }
+  /**
+   * The digests of the records that refer to a value
+   * within the range; both bounds are inclusive.
+   */
+  def range(begin:Long, end:Long):util.Collection[AeroDigest] = {
+
+    val digests = new util.HashSet[AeroDigest]()
+    if (begin > end) return digests
+
+    entries
+      .subMap(java.lang.Long.valueOf(begin), true, java.lang.Long.valueOf(end), true)
+      .values.foreach(values => digests.addAll(values))
+
+    digests
+
+  }
+
+  def update(digest:AeroDigest, current:util.Map[String, Object], bins:util.Map[String, Object]):Unit = {
+
+    val currentValues = getValues(current)
+    val values = getValues(bins)
+
+    if (currentValues == values) return
+
+    currentValues.filterNot(values.contains).foreach(value => remove(digest, value))
+    values.filterNot(currentValues.contains).foreach(value => add(digest, value))
+
+  }
+
+  private def add(digest:AeroDigest, value:AnyRef):Unit = getLock(value).synchronized {
+
+    var digests = entries.get(value)
+    if (digests == null) {
+      digests = ConcurrentHashMap.newKeySet[AeroDigest]()
+      entries.put(value, digests)
+    }
+
+    digests.add(digest)
+
+  }
+
+  private def remove(digest:AeroDigest, value:AnyRef):Unit = getLock(value).synchronized {
+
+    val digests = entries.get(value)
+    if (digests != null) {
+      digests.remove(digest)
+      if (digests.isEmpty) entries.remove(value)
+    }
+
+  }
+
+  private def getValues(bins:util.Map[String, Object]):Seq[AnyRef] = {
+
+    if (bins == null) return Seq.empty[AnyRef]
+
+    val value = bins.get(binName)
+    if (value == null) return Seq.empty[AnyRef]
+
+    val values:Seq[AnyRef] = (collectionType, value) match {
+      case (IndexCollectionType.MAPVALUES, map:util.Map[_, _]) =>
+        map.values.map(_.asInstanceOf[AnyRef]).toSeq
+      case (IndexCollectionType.MAPKEYS, map:util.Map[_, _]) =>
+        map.keySet.map(_.asInstanceOf[AnyRef]).toSeq
+      case (IndexCollectionType.LIST, list:util.List[_]) =>
+        list.map(_.asInstanceOf[AnyRef]).toSeq
+      case (IndexCollectionType.DEFAULT, _) =>
+        Seq(value)
+      case _ =>
+        Seq.empty[AnyRef]
+    }
+
+    values.filter(item => indexType match {
+      case IndexType.NUMERIC => item.isInstanceOf[java.lang.Long]
+      case IndexType.STRING => item.isInstanceOf[String]
+      case _ => false
+    }).distinct
+
+  }
+
+  private def getLock(value:AnyRef):Object =
+    locks((value.hashCode & Int.MaxValue) % locks.length)
+
+}
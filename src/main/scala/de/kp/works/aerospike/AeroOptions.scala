@@ -20,10 +20,50 @@ package de.kp.works.aerospike
 
 import com.aerospike.client.policy.AuthMode
 import de.kp.works.aerospike.gremlin.AeroConfiguration.Keys
+import de.kp.works.aerospike.gremlin.{StorageBackend, StorageLayout}
 import org.apache.commons.configuration2.PropertiesConfiguration
 
 class AeroOptions(config:PropertiesConfiguration) {
 
+  /**
+   * Indicates whether per-vertex adjacency records
+   * are maintained; default is false.
+   */
+  def getAdjacency:Boolean =
+    if (config.containsKey(Keys.AEROSPIKE_ADJACENCY))
+      config.getBoolean(Keys.AEROSPIKE_ADJACENCY)
+
+    else false
+  /**
+   * The maximum number of edges of an adjacency record
+   * or chunk; larger adjacencies are split into chunks
+   * by label and edge hash. Default is 1000.
+   */
+  def getAdjacencyChunkSize:Int =
+    if (config.containsKey(Keys.AEROSPIKE_ADJACENCY_CHUNK_SIZE))
+      config.getInt(Keys.AEROSPIKE_ADJACENCY_CHUNK_SIZE)
+
+    else 1000
+
+  /**
+   * The number of event loops of the asynchronous client;
+   * default is the number of available processors.
+   */
+  def getAsyncEventLoops:Int =
+    if (config.containsKey(Keys.AEROSPIKE_ASYNC_EVENT_LOOPS))
+      config.getInt(Keys.AEROSPIKE_ASYNC_EVENT_LOOPS)
+
+    else Runtime.getRuntime.availableProcessors
+  /**
+   * The maximum number of asynchronous commands that are
+   * in flight at the same time; default is 256.
+   */
+  def getAsyncMaxCommands:Int =
+    if (config.containsKey(Keys.AEROSPIKE_ASYNC_MAX_COMMANDS))
+      config.getInt(Keys.AEROSPIKE_ASYNC_MAX_COMMANDS)
+
+    else 256
+
   def getAuthMode:AuthMode = {
     val value = if (config.containsKey(Keys.AEROSPIKE_AUTH_MODE)) {
       config.getString(Keys.AEROSPIKE_AUTH_MODE)
@@ -34,6 +74,49 @@ class AeroOptions(config:PropertiesConfiguration) {
 
   }
 
+  /**
+   * The storage backend of the graph; default is
+   * AEROSPIKE.
+   */
+  def getBackend:StorageBackend = {
+    val value = if (config.containsKey(Keys.AEROSPIKE_BACKEND)) {
+      config.getString(Keys.AEROSPIKE_BACKEND)
+    }
+    else "AEROSPIKE"
+
+    StorageBackend.valueOf(value.toUpperCase)
+
+  }
+  /**
+   * The maximum number of keys of a single batch read;
+   * larger key lists are split into batches that are
+   * sent in parallel. Default is 500.
+   */
+  def getBatchSize:Int =
+    if (config.containsKey(Keys.AEROSPIKE_BATCH_SIZE))
+      config.getInt(Keys.AEROSPIKE_BATCH_SIZE)
+
+    else 500
+  /**
+   * The number of threads that send the batches of a
+   * multi-key read in parallel; default is 4.
+   */
+  def getBatchThreads:Int =
+    if (config.containsKey(Keys.AEROSPIKE_BATCH_THREADS))
+      config.getInt(Keys.AEROSPIKE_BATCH_THREADS)
+
+    else 4
+  /**
+   * Indicates whether labels, property keys and type
+   * names are persisted as integer codes; default is
+   * false.
+   */
+  def getDictionary:Boolean =
+    if (config.containsKey(Keys.AEROSPIKE_DICTIONARY))
+      config.getBoolean(Keys.AEROSPIKE_DICTIONARY)
+
+    else false
+
   def getExpiration:Int = {
     if (config.containsKey(Keys.AEROSPIKE_EXPIRATION))
       config.getInt(Keys.AEROSPIKE_EXPIRATION)
@@ -41,6 +124,16 @@ class AeroOptions(config:PropertiesConfiguration) {
     else 0
   }
 
+  /**
+   * Indicates whether filter conditions are evaluated on
+   * the server side; default is true.
+   */
+  def getFilterExpressions:Boolean =
+    if (config.containsKey(Keys.AEROSPIKE_FILTER_EXPRESSIONS))
+      config.getBoolean(Keys.AEROSPIKE_FILTER_EXPRESSIONS)
+
+    else true
+
   def getHost:String =
     if (config.containsKey(Keys.AEROSPIKE_HOST))
       config.getString(Keys.AEROSPIKE_HOST)
@@ -48,6 +141,76 @@ class AeroOptions(config:PropertiesConfiguration) {
     else
      throw new Exception("No Aerospike database host specified.")
 
+  /**
+   * The maximum number of reads that wait for a free
+   * I/O thread; default is 256.
+   */
+  def getIoQueueSize:Int =
+    if (config.containsKey(Keys.AEROSPIKE_IO_QUEUE_SIZE))
+      config.getInt(Keys.AEROSPIKE_IO_QUEUE_SIZE)
+
+    else 256
+  /**
+   * The maximum number of threads that run queries and
+   * scans in background; default is 64.
+   */
+  def getIoThreads:Int =
+    if (config.containsKey(Keys.AEROSPIKE_IO_THREADS))
+      config.getInt(Keys.AEROSPIKE_IO_THREADS)
+
+    else 64
+  /**
+   * Indicates whether the I/O threads are virtual
+   * threads; default is false.
+   */
+  def getIoVirtualThreads:Boolean =
+    if (config.containsKey(Keys.AEROSPIKE_IO_VIRTUAL_THREADS))
+      config.getBoolean(Keys.AEROSPIKE_IO_VIRTUAL_THREADS)
+
+    else false
+  /**
+   * Indicates whether each label of an edge or vertex
+   * is stored in its own set; default is false.
+   */
+  def getLabelSets:Boolean =
+    if (config.containsKey(Keys.AEROSPIKE_LABEL_SETS))
+      config.getBoolean(Keys.AEROSPIKE_LABEL_SETS)
+
+    else false
+  /**
+   * The storage layout of edges and vertices;
+   * default is ENTRY.
+   */
+  def getLayout:StorageLayout = {
+    val value = if (config.containsKey(Keys.AEROSPIKE_LAYOUT)) {
+      config.getString(Keys.AEROSPIKE_LAYOUT)
+    }
+    else "ENTRY"
+
+    StorageLayout.valueOf(value.toUpperCase)
+
+  }
+  /**
+   * Indicates whether operation latencies, filter and
+   * cache counters are recorded; default is true.
+   */
+  def getMetrics:Boolean =
+    if (config.containsKey(Keys.AEROSPIKE_METRICS))
+      config.getBoolean(Keys.AEROSPIKE_METRICS)
+
+    else true
+
+  /**
+   * The maximum number of records per second that are
+   * read by a layout migration; default is 0, i.e. no
+   * limitation.
+   */
+  def getMigrationRate:Double =
+    if (config.containsKey(Keys.AEROSPIKE_MIGRATION_RATE))
+      config.getDouble(Keys.AEROSPIKE_MIGRATION_RATE)
+
+    else 0D
+
   def getNamespace:String =
     if (config.containsKey(Keys.AEROSPIKE_NAMESPACE))
       config.getString(Keys.AEROSPIKE_NAMESPACE)
@@ -62,6 +225,17 @@ class AeroOptions(config:PropertiesConfiguration) {
     else
       throw new Exception("No Aerospike database port specified.")
 
+  /**
+   * The number of workers that scan the partitions of
+   * a set in parallel; default is the number of available
+   * processors.
+   */
+  def getScanThreads:Int =
+    if (config.containsKey(Keys.AEROSPIKE_SCAN_THREADS))
+      config.getInt(Keys.AEROSPIKE_SCAN_THREADS)
+
+    else Runtime.getRuntime.availableProcessors
+
   def getSetname:String =
     if (config.containsKey(Keys.AEROSPIKE_SET))
       config.getString(Keys.AEROSPIKE_SET)
@@ -69,6 +243,34 @@ class AeroOptions(config:PropertiesConfiguration) {
     else
       throw new Exception("No Aerospike set name specified.")
 
+  /**
+   * Indicates whether per-bin statistics are sampled from
+   * the edge and vertex sets; default is true.
+   */
+  def getStatistics:Boolean =
+    if (config.containsKey(Keys.AEROSPIKE_STATISTICS))
+      config.getBoolean(Keys.AEROSPIKE_STATISTICS)
+
+    else true
+  /**
+   * The refresh interval of the statistics of a set in
+   * seconds; default is 600.
+   */
+  def getStatisticsRefresh:Int =
+    if (config.containsKey(Keys.AEROSPIKE_STATISTICS_REFRESH))
+      config.getInt(Keys.AEROSPIKE_STATISTICS_REFRESH)
+
+    else 600
+  /**
+   * The number of records that are sampled to build the
+   * statistics of a set; default is 1000.
+   */
+  def getStatisticsSampleSize:Int =
+    if (config.containsKey(Keys.AEROSPIKE_STATISTICS_SAMPLE_SIZE))
+      config.getInt(Keys.AEROSPIKE_STATISTICS_SAMPLE_SIZE)
+
+    else 1000
+
   /**
    * The timeout of an Aerospike database connection
    * in milliseconds. Default is 1000.
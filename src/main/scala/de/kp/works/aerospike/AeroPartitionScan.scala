@@ -0,0 +1,483 @@
+package de.kp.works.aerospike
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.AerospikeException.ScanTerminated
+import com.aerospike.client.cluster.{Node, Partition}
+import com.aerospike.client.policy.ScanPolicy
+import com.aerospike.client.query.{PartitionFilter, PartitionStatus}
+import com.aerospike.client.{IAerospikeClient, Key, Record, ScanCallback}
+import de.kp.works.aerospike.metrics.{AeroMetrics, AeroProfile}
+import de.kp.works.aerospike.concurrent.BoundedExecutor
+
+import java.io.Closeable
+import java.util.Spliterator
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicInteger, AtomicIntegerArray, AtomicLong, AtomicReferenceArray}
+import java.util.concurrent.{ConcurrentHashMap, ConcurrentLinkedQueue, RejectedExecutionException}
+import java.util.function.{Consumer, Function => JFunction}
+import java.util.stream.{Stream, StreamSupport}
+import scala.collection.JavaConversions._
+
+/**
+ * The progress of a partition scan, per scanned set and
+ * partition: a partition is either done, or it is resumed
+ * after the digest of the last record that was consumed.
+ *
+ * The state is serializable, i.e. a long-running scan can
+ * checkpoint its state and restart from it later on.
+ */
+@SerialVersionUID(1L)
+class AeroScanState extends Serializable {
+
+  private val progress = new ConcurrentHashMap[String, AeroPartitionProgress]()
+
+  def getProgress(setname:String):AeroPartitionProgress =
+    progress.computeIfAbsent(setname, new JFunction[String, AeroPartitionProgress] {
+      override def apply(setname: String): AeroPartitionProgress = new AeroPartitionProgress()
+    })
+  /**
+   * Indicates whether all partitions of the provided
+   * sets have been consumed
+   */
+  def isDone(setnames:Seq[String]):Boolean =
+    setnames.forall(setname => getProgress(setname).isDone(0, Node.PARTITIONS))
+  /**
+   * A copy of the current state; a scan in progress
+   * continues to update this state, but not the copy.
+   */
+  def snapshot():AeroScanState = {
+
+    val state = new AeroScanState()
+    progress.foreach{case (setname, setProgress) => state.progress.put(setname, setProgress.copy())}
+
+    state
+
+  }
+
+}
+
+@SerialVersionUID(1L)
+class AeroPartitionProgress extends Serializable {
+
+  private val done = new AtomicIntegerArray(Node.PARTITIONS)
+  private val digests = new AtomicReferenceArray[Array[Byte]](Node.PARTITIONS)
+
+  def isDone(partition:Int):Boolean = done.get(partition) == 1
+
+  def isDone(begin:Int, count:Int):Boolean =
+    (begin until begin + count).forall(isDone)
+
+  def setDone(partition:Int):Unit = done.set(partition, 1)
+
+  def getDigest(partition:Int):Array[Byte] = digests.get(partition)
+
+  def setDigest(partition:Int, digest:Array[Byte]):Unit = digests.set(partition, digest)
+  /**
+   * The filter of a range of partitions; partitions that
+   * are done are skipped, and the others are resumed after
+   * their last consumed digest.
+   */
+  def getFilter(begin:Int, count:Int):PartitionFilter = {
+
+    val filter = PartitionFilter.range(begin, count)
+    filter.setPartitions((begin until begin + count).map(partition => {
+
+      val status = new PartitionStatus(partition)
+      status.done = isDone(partition)
+      status.digest = getDigest(partition)
+
+      status
+
+    }).toArray)
+
+    filter
+
+  }
+
+  def copy():AeroPartitionProgress = {
+
+    val progress = new AeroPartitionProgress()
+    (0 until Node.PARTITIONS).foreach(partition => {
+      if (isDone(partition)) progress.setDone(partition)
+      progress.setDigest(partition, getDigest(partition))
+    })
+
+    progress
+
+  }
+
+}
+/**
+ * The cursor of a partition scan; the scan state is updated
+ * with each record that is passed to the consumer, and a
+ * partition is done, when its scan is finished and all of
+ * its records are consumed.
+ */
+class AeroPartitionCursor(state:AeroScanState, metrics:AeroMetrics = AeroMetrics.DISABLED)
+  extends AeroCursor(metrics = metrics) {
+
+  private val counters = new ConcurrentHashMap[String, AeroPartitionCounters]()
+
+  /**
+   * A copy of the scan state that refers to the records,
+   * that have been consumed so far
+   */
+  def checkpoint():AeroScanState = state.snapshot()
+
+  /** PRODUCER **/
+
+  def offer(setname:String, key:Key, record:Record):Boolean = {
+
+    val partition = Partition.getPartitionId(key.digest)
+    getCounters(setname).offered.incrementAndGet(partition)
+    /*
+     * The consumer assigns records to their set by the
+     * set name of the key
+     */
+    val setKey = if (key.setName == null) new Key(key.namespace, key.digest, setname, key.userKey) else key
+    offer(KeyRecord(setKey, record))
+
+  }
+
+  def finish(setname:String, partition:Int):Unit = {
+
+    val setCounters = getCounters(setname)
+    setCounters.finished.set(partition, 1)
+
+    if (setCounters.consumed.get(partition) == setCounters.offered.get(partition))
+      state.getProgress(setname).setDone(partition)
+
+  }
+
+  /** CONSUMER **/
+
+  override def next(): KeyRecord = {
+
+    val keyRecord = super.next()
+
+    val key = keyRecord.key
+    val partition = Partition.getPartitionId(key.digest)
+
+    val progress = state.getProgress(key.setName)
+    progress.setDigest(partition, key.digest)
+
+    val setCounters = getCounters(key.setName)
+    setCounters.consumed.incrementAndGet(partition)
+
+    if (setCounters.finished.get(partition) == 1 &&
+      setCounters.consumed.get(partition) == setCounters.offered.get(partition))
+      progress.setDone(partition)
+
+    keyRecord
+
+  }
+
+  private def getCounters(setname:String):AeroPartitionCounters =
+    counters.computeIfAbsent(setname, new JFunction[String, AeroPartitionCounters] {
+      override def apply(setname: String): AeroPartitionCounters = new AeroPartitionCounters()
+    })
+
+}
+
+private[aerospike] class AeroPartitionCounters {
+
+  val offered = new AtomicIntegerArray(Node.PARTITIONS)
+  val consumed = new AtomicIntegerArray(Node.PARTITIONS)
+
+  val finished = new AtomicIntegerArray(Node.PARTITIONS)
+
+}
+/**
+ * [AeroPartitionScan] scans one or more sets by their 4096
+ * partitions: the partitions are divided into ranges, and
+ * each range is scanned by its own worker, a task of the
+ * shared I/O executor of the client. The result is either
+ * provided as a cursor, or as a parallel stream, where the
+ * partition ranges are split across the threads of the
+ * stream.
+ *
+ * Each scan refers to an [AeroScanState]; a scan that starts
+ * from a checkpoint skips the consumed partitions and resumes
+ * the others after their last consumed record.
+ */
+class AeroPartitionScan(
+  client:IAerospikeClient,
+  namespace:String,
+  setnames:Seq[String],
+  binNames:Seq[String],
+  workers:Int,
+  executor:BoundedExecutor,
+  readTimeout:Int,
+  socketTimeout:Int,
+  metrics:AeroMetrics = AeroMetrics.DISABLED,
+  profile:AeroProfile = AeroProfile.current()) extends Closeable {
+  /*
+   * The cursors that are opened by the spliterators of
+   * this scan; they are closed with the scan
+   */
+  private val cursors = new ConcurrentLinkedQueue[AeroPartitionCursor]()
+
+  def iterator():AeroPartitionCursor = iterator(new AeroScanState())
+  /**
+   * Scans all sets with the configured number of workers;
+   * the records are passed to the returned cursor.
+   */
+  def iterator(state:AeroScanState):AeroPartitionCursor =
+    open(state, 0, setnames.size * Node.PARTITIONS, workers)
+
+  def stream():Stream[KeyRecord] = stream(new AeroScanState())
+  /**
+   * A parallel stream of the records of all sets; the scan
+   * state is updated as the records are passed to the stream.
+   */
+  def stream(state:AeroScanState):Stream[KeyRecord] =
+    StreamSupport.stream(spliterator(state), true)
+      .onClose(new Runnable {
+        override def run(): Unit = close()
+      })
+
+  def spliterator(state:AeroScanState):Spliterator[KeyRecord] =
+    new AeroPartitionSpliterator(state, 0, setnames.size * Node.PARTITIONS)
+
+  override def close():Unit = {
+    while (!cursors.isEmpty) cursors.poll().close()
+  }
+  /**
+   * Partitions are addressed as units, where each set
+   * contributes 4096 units; this method assigns a range
+   * of units to (set, begin, count) segments.
+   */
+  private def getSegments(begin:Int, end:Int):Seq[(String, Int, Int)] = {
+
+    if (begin >= end) return Seq.empty[(String, Int, Int)]
+    (begin / Node.PARTITIONS to (end - 1) / Node.PARTITIONS).map(index => {
+
+      val offset = index * Node.PARTITIONS
+
+      val first = math.max(begin, offset) - offset
+      val last  = math.min(end, offset + Node.PARTITIONS) - offset
+
+      (setnames(index), first, last - first)
+
+    })
+
+  }
+
+  private def getScanPolicy(concurrentNodes:Boolean):ScanPolicy = {
+
+    val scanPolicy = new ScanPolicy()
+    scanPolicy.sendKey = true
+    scanPolicy.includeBinData = true
+
+    scanPolicy.socketTimeout = socketTimeout
+    scanPolicy.totalTimeout = readTimeout
+
+    scanPolicy.concurrentNodes = concurrentNodes
+    scanPolicy
+
+  }
+
+  private def open(state:AeroScanState, begin:Int, end:Int, workers:Int):AeroPartitionCursor = {
+
+    val cursor = new AeroPartitionCursor(state, metrics)
+    profile.recordAccessPath(AeroProfile.FULL_SCAN)
+    /*
+     * The range of units is divided into contiguous
+     * ranges, one for each worker
+     */
+    val size = end - begin
+    val ranges = (0 until math.max(1, math.min(workers, size)))
+      .map(worker => (begin + worker * size / workers, begin + (worker + 1) * size / workers))
+      .filter{case (first, last) => first < last}
+
+    val pending = new AtomicInteger(ranges.size)
+    val completed = new AtomicBoolean(false)
+
+    /*
+     * The workers are tasks of the shared executor; if a
+     * worker is rejected, the workers that are already
+     * submitted are cancelled with the cursor
+     */
+    try ranges.foreach{case (first, last) =>
+
+      val worker = executor.submit(new Runnable {
+        override def run(): Unit = {
+          try {
+
+            getSegments(first, last).foreach{case (setname, partition, count) =>
+              if (!cursor.isClosed) scan(cursor, state, setname, partition, count)
+            }
+
+            if (pending.decrementAndGet() == 0 && completed.compareAndSet(false, true))
+              cursor.complete()
+
+          } catch {
+            case _:Throwable if cursor.isClosed =>
+              /* The scan was terminated by the consumer */
+            case t:Throwable =>
+              if (completed.compareAndSet(false, true)) cursor.complete(t)
+          }
+        }
+      })
+
+      cursor.addTask(worker)
+
+    } catch {
+      case e:RejectedExecutionException =>
+        cursor.close()
+        throw e
+    }
+
+    if (ranges.isEmpty) cursor.complete()
+    cursor
+
+  }
+
+  private def scan(cursor:AeroPartitionCursor, state:AeroScanState,
+                   setname:String, begin:Int, count:Int):Unit = {
+
+    val progress = state.getProgress(setname)
+    if (!progress.isDone(begin, count)) {
+      /*
+       * The cursor is shared by all workers, therefore each
+       * segment measures the time, it waits for the consumer
+       */
+      val waited = new AtomicLong(0L)
+      val callback = new ScanCallback {
+        override def scanCallback(key: Key, record: Record): Unit = {
+
+          profile.recordRecord(record)
+
+          val offered = System.nanoTime
+          if (!cursor.offer(setname, key, record))
+            throw new ScanTerminated()
+
+          waited.addAndGet(System.nanoTime - offered)
+
+        }
+      }
+
+      profile.recordRoundTrips(1)
+
+      val start = System.nanoTime
+      try {
+        client.scanPartitions(getScanPolicy(concurrentNodes = true),
+          progress.getFilter(begin, count), namespace, setname, callback, binNames: _*)
+
+      } catch {
+        case t:Throwable =>
+          if (!cursor.isClosed) metrics.recordError(AeroMetrics.SCAN)
+          throw t
+      }
+
+      metrics.recordLatency(AeroMetrics.SCAN_PARTITIONS, System.nanoTime - start - waited.get)
+
+    }
+
+    (begin until begin + count).foreach(partition => cursor.finish(setname, partition))
+
+  }
+  /**
+   * A spliterator over a range of partition units; in bulk
+   * mode, the partitions are scanned by the calling thread,
+   * and records are passed to the action as they arrive.
+   * Single records are read through a cursor.
+   *
+   * The size estimate refers to the number of partitions.
+   */
+  private class AeroPartitionSpliterator(state:AeroScanState, var begin:Int, end:Int)
+    extends Spliterator[KeyRecord] {
+
+    private var cursor:AeroPartitionCursor = _
+
+    override def tryAdvance(action: Consumer[_ >: KeyRecord]): Boolean = {
+
+      if (cursor == null) {
+        cursor = open(state, begin, end, 1)
+        cursors.add(cursor)
+
+        begin = end
+      }
+
+      if (!cursor.hasNext) {
+        cursor.close()
+        return false
+      }
+
+      action.accept(cursor.next())
+      true
+
+    }
+
+    override def forEachRemaining(action: Consumer[_ >: KeyRecord]): Unit = {
+
+      if (cursor != null) {
+        while (tryAdvance(action)) {}
+        return
+      }
+
+      profile.recordAccessPath(AeroProfile.FULL_SCAN)
+      getSegments(begin, end).foreach{case (setname, first, count) =>
+
+        val progress = state.getProgress(setname)
+        if (!progress.isDone(first, count)) {
+          /*
+           * The nodes are scanned one after another, so that
+           * the action is performed by the calling thread
+           */
+          val callback = new ScanCallback {
+            override def scanCallback(key: Key, record: Record): Unit = {
+              profile.recordRecord(record)
+              action.accept(KeyRecord(key, record))
+              progress.setDigest(Partition.getPartitionId(key.digest), key.digest)
+            }
+          }
+
+          profile.recordRoundTrips(1)
+          client.scanPartitions(getScanPolicy(concurrentNodes = false),
+            progress.getFilter(first, count), namespace, setname, callback, binNames: _*)
+
+          (first until first + count).foreach(progress.setDone)
+
+        }
+      }
+
+      begin = end
+
+    }
+
+    override def trySplit(): Spliterator[KeyRecord] = {
+
+      if (cursor != null || end - begin < 2) return null
+
+      val middle = (begin + end) >>> 1
+      val prefix = new AeroPartitionSpliterator(state, begin, middle)
+
+      begin = middle
+      prefix
+
+    }
+
+    override def estimateSize(): Long = end - begin
+
+    override def characteristics(): Int = Spliterator.NONNULL
+
+  }
+
+}
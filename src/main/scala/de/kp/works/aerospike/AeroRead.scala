@@ -18,86 +18,18 @@ package de.kp.works.aerospike
  *
  */
 
-import com.aerospike.client.{AerospikeClient, Record}
+import com.aerospike.client.AerospikeClient
+import com.aerospike.client.cdt.MapReturnType
+import com.aerospike.client.exp.{Exp, Expression, MapExp}
 import com.aerospike.client.policy.QueryPolicy
-import com.aerospike.client.query.{Filter, Statement}
-import de.kp.works.aerospike.gremlin.Constants
+import com.aerospike.client.query.{Filter, IndexCollectionType, PartitionFilter, RecordSet, Statement}
+import de.kp.works.aerospike.gremlin.{Constants, StorageLayout, ValueCodec, ValueUtils}
+import de.kp.works.aerospike.metrics.{AeroMetrics, AeroProfile}
+import de.kp.works.aerospike.concurrent.BoundedExecutor
 
 import java.util
-import java.util.concurrent.LinkedBlockingQueue
-import java.util.concurrent.atomic.AtomicBoolean
 import scala.collection.JavaConversions._
 
-class AeroReadIterator extends util.Iterator[KeyRecord] {
-  /*
-   * A blocking queue to collect (key, record) pairs
-   * from Aerospike while reading (or querying).
-   */
-  private val queue = new LinkedBlockingQueue[KeyRecord](100)
-  private var nextKeyRecord:KeyRecord = _
-
-  private val closed = new AtomicBoolean(false)
-  private val TERMINATE_VALUE = KeyRecord(null, null)
-
-  def close(): Unit = {
-
-    closed.set(true)
-    try {
-     queue.put(TERMINATE_VALUE)
-
-    } catch {
-      case _: InterruptedException =>
-        throw new RuntimeException
-    }
-
-  }
-
-  def put(keyRecord:KeyRecord):Unit = {
-    queue.put(keyRecord)
-  }
-
-  override def hasNext: Boolean = {
-
-    try {
-
-      if (queue.size() == 0) false
-      else
-        if (nextKeyRecord == TERMINATE_VALUE) false else true
-
-    } catch {
-      case t: Throwable =>
-        throw new RuntimeException(t)
-    }
-
-  }
-
-  override def next(): KeyRecord = {
-
-    try {
-
-      nextKeyRecord = {
-
-        val keyRecord = queue.take()
-        if (keyRecord == TERMINATE_VALUE)
-          null
-
-        else {
-          keyRecord
-        }
-
-      }
-
-
-
-    } finally {
-      nextKeyRecord = TERMINATE_VALUE
-    }
-
-    nextKeyRecord
-
-  }
-
-}
 /**
  * AeroRead queries an Aerospike database
  * using secondary indexes.
@@ -106,8 +38,14 @@ class AeroRead(
   client:AerospikeClient,
   namespace:String,
   setname:String,
+  layout:StorageLayout,
+  dictionary:AeroDictionary,
+  statistics:AeroStatistics,
+  expressions:Boolean,
   readTimeout:Int,
-  socketTimeout:Int) {
+  socketTimeout:Int,
+  metrics:AeroMetrics = AeroMetrics.DISABLED,
+  profile:AeroProfile = AeroProfile.current()) {
 
   private val stmt = new Statement()
   stmt.setNamespace(namespace)
@@ -119,9 +57,33 @@ class AeroRead(
   queryPolicy.socketTimeout = socketTimeout
   queryPolicy.totalTimeout = readTimeout
 
-  private val readIterator = new AeroReadIterator()
+  /*
+   * The records are read by a background task and
+   * passed to the consumer by a bounded cursor
+   */
+  private val cursor = new AeroCursor(metrics = metrics)
+  /*
+   * The client side evaluation of the filter conditions;
+   * it also provides the property key, that property value
+   * filters of the packed layout refer to
+   */
+  private var recordFilter:AeroRecordFilter = _
+  private var propertyKey:Any = _
+  /*
+   * The bin of the index filter; query latencies are
+   * recorded per index bin
+   */
+  private var indexBin:String = "none"
+  /*
+   * A condition that can be evaluated by a secondary index
+   * on a certain bin, and the estimated fraction of records
+   * that match it; an exact index filter needs not be
+   * re-applied to the result.
+   */
+  private case class IndexCandidate(condition:AeroFilter, bin:String, filter:Filter, selectivity:Double, exact:Boolean)
 
-  def run(filters:AeroFilters, binNames:Seq[String] = Seq.empty[String]): util.Iterator[KeyRecord] = {
+  def run(filters:AeroFilters, executor:BoundedExecutor,
+          binNames:Seq[String] = Seq.empty[String]): util.Iterator[KeyRecord] = {
     /*
      * The query logic demands for records that have
      * both, from and to value equal to the specified
@@ -132,26 +94,41 @@ class AeroRead(
      */
     var remaining = Seq.empty[AeroFilter]
 
+    recordFilter = new AeroRecordFilter(layout, dictionary, filters)
+    propertyKey = recordFilter.propertyKey
+    /*
+     * Labels and property keys that are not registered
+     * in the dictionary are not referenced by any record
+     */
+    val unknown = filters.filters.exists(filter => isUnknown(filter))
+
+    if (unknown && filters.condition == "and") {
+      cursor.complete()
+      return cursor.handle()
+    }
+
     if (filters.nonEmpty) {
       filters.condition match {
         case "and" =>
           /*
-           * Extract the remaining filter conditions
-           * that must be applied to the query result
+           * The index filter is the condition that is estimated
+           * to be the most selective one, independent of the order
+           * of the conditions; all other conditions are applied to
+           * the query result. Without any index condition, the set
+           * is scanned.
            */
-          remaining =
-            if (filters.size < 2) Seq.empty[AeroFilter] else filters.tail
-          /*
-           * In case of an `and` condition we assign
-           * the first (head) filter to query statement
-           */
-          val filter = filters.head
-          filter.condition match {
-            case Constants.EQUAL_VALUE =>
-              val f = Filter.equal(filter.name, filter.value)
-              stmt.setFilter(f)
-             case _ =>
-              throw new Exception(s"Filter condition `${filter.condition} is not supported.")
+          val candidates = getIndexCandidates(filters)
+          if (candidates.isEmpty)
+            remaining = filters.filters
+
+          else {
+            val candidate = candidates.minBy(_.selectivity)
+            stmt.setFilter(candidate.filter)
+            indexBin = candidate.bin
+
+            remaining =
+              if (candidate.exact) filters.filters.filterNot(_ eq candidate.condition)
+              else filters.filters
           }
         case "or" =>
           /*
@@ -159,295 +136,531 @@ class AeroRead(
            * assign any filter to the statement, but
            * must apply all condition to the query result
            */
+          remaining = filters.filters
         case _ =>
           throw new Exception(s"Filters condition `${filters.condition} is not supported.")
 
       }
     }
 
-    if (binNames.nonEmpty) stmt.setBinNames(binNames: _*)
-    /*
-     * Retrieve read cursor
-     */
-    val rs = client.query(queryPolicy, stmt)
     /*
-     * Evaluate cursor and thereby mimic limitation
+     * The filter conditions are also evaluated on the server
+     * side, so that only matching records are returned; the
+     * remaining conditions are still applied to the result,
+     * as some expressions describe a superset.
      */
-    val limited = filters.limit != -1
-    val limit = filters.limit
+    val filterExpression = getFilterExpression(filters)
+    if (filterExpression != null) queryPolicy.filterExp = filterExpression
+
     /*
-     * Flag to indicate whether the specified
-     * limit has been reached
+     * A projection must still contain the bins that the
+     * remaining conditions are evaluated on
      */
-    var terminate = false
+    if (binNames.nonEmpty)
+      stmt.setBinNames((binNames ++ remaining.flatMap(filter => getFilterBins(filter.name))).distinct: _*)
+
+    profile.recordAccessPath(
+      if (stmt.getFilter == null) AeroProfile.FULL_SCAN else AeroRead.getAccessPath(indexBin))
+
+    val conditions = remaining
+    val readTask = executor.submit(
+      new Runnable() {
+        override def run(): Unit = read(filters, conditions)
+      }
+    )
+
+    cursor.addTask(readTask)
+    cursor.handle()
+
+  }
+  /**
+   * Passes the records of the query result, that fulfill
+   * the remaining filter conditions, to the cursor; reading
+   * stops, when the limit is reached or the cursor closed.
+   */
+  private def read(filters:AeroFilters, remaining:Seq[AeroFilter]):Unit = {
+
+    val operation = s"${AeroMetrics.QUERY}.$indexBin"
+    val start = System.nanoTime
+
+    val elementLimit = new AeroElementLimit(layout, filters.limit)
     try {
 
-      while (rs.next() && !terminate) {
+      if (elementLimit.isLimited && stmt.getFilter == null) {
         /*
-         * Check whether we have to terminate
-         * due to provided limitations
+         * A limited query without index filter is read page
+         * by page; the partition filter keeps track of the
+         * progress, and each page is restricted to the number
+         * of missing elements on the server side.
          */
-        if (limited && readIterator.size == limit)
-          terminate = true
+        val partitionFilter = PartitionFilter.all()
 
-        if (!terminate) {
-          val key = rs.getKey
-          val record = rs.getRecord
-          /*
-           * Check whether there are additional filters
-           * that must be applied
-           */
-          if (remaining.nonEmpty) {
-            /*
-             * The received records are fulfill the primary
-             * filter condition
-             */
-            filters.condition match {
-              case "and" =>
-                /*
-                 * Check whether all remaining conditions
-                 * are also fulfilled
-                 */
-                val matches = remaining
-                  .map(filter => applyFilter(record, filter))
-
-                if (matches.sum == 0)
-                  readIterator.put(KeyRecord(key, record))
-
-              case "or" =>
-                /*
-                 * The filter conditions have to be applied
-                 * to the query result
-                 */
-                var matches = 0
-                filters.filters.foreach(filter => {
-                  filter.condition match {
-                    case Constants.EQUAL_VALUE =>
-                      if (record.getString(filter.name) == filter.name)
-                        matches += 1
-
-                    case _ =>
-                      throw new Exception(s"Filter condition `${filter.condition} is not supported.")
-                  }
-
-                })
-
-                if (matches > 0)
-                  readIterator.put(KeyRecord(key, record))
-
-              case _ =>
-                throw new Exception(s"Filters condition `${filters.condition} is not supported.")
+        var terminate = elementLimit.isReached
+        while (!terminate && !partitionFilter.isDone) {
 
-            }
+          queryPolicy.maxRecords = math.max(1, elementLimit.getRemaining)
+          profile.recordRoundTrips(1)
+
+          terminate = read(client.queryPartitions(queryPolicy, stmt, partitionFilter),
+            filters, remaining, elementLimit)
+
+        }
+      }
+      else {
+        profile.recordRoundTrips(1)
+        read(client.query(queryPolicy, stmt), filters, remaining, elementLimit)
+      }
+      /*
+       * The latency excludes the time, the reader waits
+       * for the consumer
+       */
+      metrics.recordLatency(operation, System.nanoTime - start - cursor.getProducerWait)
+      cursor.complete()
+
+    } catch {
+      case _:Throwable if cursor.isClosed =>
+        /* The query was cancelled by the consumer */
+      case t:Throwable =>
+        metrics.recordError(operation)
+        cursor.complete(t)
+    }
+
+  }
+  /**
+   * Reads a single record set; `true` is returned, if
+   * reading must terminate.
+   */
+  private def read(rs:RecordSet, filters:AeroFilters, remaining:Seq[AeroFilter],
+                   elementLimit:AeroElementLimit):Boolean = {
+    /*
+     * Closing the cursor cancels the query on the
+     * server side
+     */
+    cursor.onCancel(() => rs.close())
+
+    var terminate = elementLimit.isReached || cursor.isClosed
+
+    var returned = 0L
+    var kept = 0L
+    try {
+
+      while (!terminate && rs.next()) {
+
+        val key = rs.getKey
+        val record = rs.getRecord
+        returned += 1
+
+        profile.recordRecord(record)
+        /*
+         * The received records fulfill the index filter
+         * condition; check whether the remaining ones are
+         * fulfilled as well
+         */
+        if (recordFilter.matches(record, remaining)) {
+          kept += 1
+          if (!cursor.offer(KeyRecord(key, record)))
+            terminate = true
+
+          else {
+            elementLimit.add(record)
+            terminate = elementLimit.isReached
           }
-          else
-            readIterator.put(KeyRecord(key, record))
         }
 
       }
+
     } finally {
       rs.close()
-      readIterator.close()
 
+      metrics.recordRecords(returned, kept)
+      profile.recordRejected(returned - kept)
     }
 
-    readIterator
+    terminate
 
   }
 
-  private def applyFilter(record:Record, filter:AeroFilter):Int = {
-    filter.condition match {
-      case Constants.EQUAL_VALUE =>
-        if (record.getString(filter.name) == filter.name)
-          0
-        else 1
-      case Constants.INCLUSIVE_FROM_VALUE =>
-        /* `filter.name` represents PROPERTY_VALUE_COL_NAME */
-        val fieldType = getFieldType(record, filter.name)
-        fieldType match {
-          case "COUNTER" =>
-            val propValue = record.getString(filter.name).toInt
-            val filterValue = filter.value.toInt
-
-            if (propValue >= filterValue) 0 else 1
-          case "DATE" =>
-            /*
-             * 32-bit integer representing the
-             * number of DAYS since Unix epoch
-             */
-            val propValue = record.getString(filter.name).toInt
-            val filterValue = filter.value.toInt
-
-            if (propValue >= filterValue) 0 else 1
-          case "DECIMAL" =>
-            val propValue = BigDecimal(record.getString(filter.name))
-            val filterValue = BigDecimal(filter.value.toDouble)
-
-            if (propValue >= filterValue) 0 else 1
-          case "DOUBLE" =>
-            val propValue = record.getString(filter.name).toDouble
-            val filterValue = filter.value.toDouble
-
-            if (propValue >= filterValue) 0 else 1
-          case "FLOAT" =>
-            val propValue = record.getString(filter.name).toFloat
-            val filterValue = filter.value.toFloat
-
-            if (propValue >= filterValue) 0 else 1
-          case "INT" =>
-            val propValue = record.getString(filter.name).toInt
-            val filterValue = filter.value.toInt
-
-            if (propValue >= filterValue) 0 else 1
-          case "INTERVAL" =>
-            /*
-             * A value representing a period of
-             * time between two instants.
-             */
-            val propValue = record.getString(filter.name).toInt
-            val filterValue = filter.value.toInt
-
-            if (propValue >= filterValue) 0 else 1
-          case "LONG" =>
-            val propValue = record.getString(filter.name).toLong
-            val filterValue = filter.value.toLong
-
-            if (propValue >= filterValue) 0 else 1
-          case "SHORT" =>
-            val propValue = record.getString(filter.name).toShort
-            val filterValue = filter.value.toShort
-
-            if (propValue >= filterValue) 0 else 1
-          case "TIME" =>
-            /*
-             * 32-bit integer representing time
-             * of the day in milliseconds.
-             */
-            val propValue = record.getString(filter.name).toInt
-            val filterValue = filter.value.toInt
-
-            if (propValue >= filterValue) 0 else 1
-          case "TIMESTAMP" =>
-            /*
-             * 64-bit integer representing the
-             * number of milliseconds since epoch
-             */
-            val propValue = record.getString(filter.name).toLong
-            val filterValue = filter.value.toLong
-
-            if (propValue >= filterValue) 0 else 1
-          case _ =>
-            throw new Exception(s"The field type is not a number.")
+  /**
+   * Determines the conditions that can be evaluated by a
+   * secondary index, and estimates their selectivity from
+   * the statistics of the set; without statistics, a fixed
+   * selectivity per field is assumed.
+   */
+  private def getIndexCandidates(filters:AeroFilters):Seq[IndexCandidate] = {
+
+    val candidates = filters.filters
+      .filter(filter => filter.condition == Constants.EQUAL_VALUE)
+      .flatMap(filter => getEqualCandidate(filter))
+
+    candidates ++ getRangeCandidate(filters)
+
+  }
+
+  private def getEqualCandidate(filter:AeroFilter):Option[IndexCandidate] = {
+
+    filter.name match {
+      /*
+       * The packed layout keys the records by the element
+       * identifier and does not index property keys
+       */
+      case Constants.ID_COL_NAME | Constants.PROPERTY_KEY_COL_NAME if layout == StorageLayout.PACKED =>
+        None
+
+      case Constants.ID_COL_NAME | Constants.LABEL_COL_NAME | Constants.FROM_COL_NAME |
+           Constants.TO_COL_NAME | Constants.PROPERTY_KEY_COL_NAME =>
+
+        val value = encode(filter.name, filter.value.toString)
+        val indexFilter = value match {
+          case code:java.lang.Long => Filter.equal(filter.name, code.longValue)
+          case _ => Filter.equal(filter.name, value.toString)
         }
-      case Constants.EXCLUSIVE_TO_VALUE =>
-        /* `filter.name` represents PROPERTY_VALUE_COL_NAME */
-        val fieldType = getFieldType(record, filter.name)
-        fieldType match {
-          case "COUNTER" =>
-            val propValue = record.getString(filter.name).toInt
-            val filterValue = filter.value.toInt
-
-            if (propValue < filterValue) 0 else 1
-          case "DATE" =>
-            /*
-             * 32-bit integer representing the
-             * number of DAYS since Unix epoch
-             */
-            val propValue = record.getString(filter.name).toInt
-            val filterValue = filter.value.toInt
-
-            if (propValue < filterValue) 0 else 1
-          case "DECIMAL" =>
-            val propValue = BigDecimal(record.getString(filter.name))
-            val filterValue = BigDecimal(filter.value.toDouble)
-
-            if (propValue < filterValue) 0 else 1
-          case "DOUBLE" =>
-            val propValue = record.getString(filter.name).toDouble
-            val filterValue = filter.value.toDouble
-
-            if (propValue < filterValue) 0 else 1
-          case "FLOAT" =>
-            val propValue = record.getString(filter.name).toFloat
-            val filterValue = filter.value.toFloat
-
-            if (propValue < filterValue) 0 else 1
-          case "INT" =>
-            val propValue = record.getString(filter.name).toInt
-            val filterValue = filter.value.toInt
-
-            if (propValue < filterValue) 0 else 1
-          case "INTERVAL" =>
-            /*
-             * A value representing a period of
-             * time between two instants.
-             */
-            val propValue = record.getString(filter.name).toInt
-            val filterValue = filter.value.toInt
-
-            if (propValue < filterValue) 0 else 1
-          case "LONG" =>
-            val propValue = record.getString(filter.name).toLong
-            val filterValue = filter.value.toLong
-
-            if (propValue < filterValue) 0 else 1
-          case "SHORT" =>
-            val propValue = record.getString(filter.name).toShort
-            val filterValue = filter.value.toShort
-
-            if (propValue < filterValue) 0 else 1
-          case "TIME" =>
-            /*
-             * 32-bit integer representing time
-             * of the day in milliseconds.
-             */
-            val propValue = record.getString(filter.name).toInt
-            val filterValue = filter.value.toInt
-
-            if (propValue < filterValue) 0 else 1
-          case "TIMESTAMP" =>
-            /*
-             * 64-bit integer representing the
-             * number of milliseconds since epoch
-             */
-            val propValue = record.getString(filter.name).toLong
-            val filterValue = filter.value.toLong
-
-            if (propValue < filterValue) 0 else 1
-          case _ =>
-            throw new Exception(s"The field type is not a number.")
+
+        val selectivity = getSelectivity(filter.name, value)
+        Some(IndexCandidate(filter, filter.name, indexFilter, selectivity, exact = true))
+
+      case Constants.PROPERTY_VALUE_COL_NAME =>
+
+        val valueType = ValueUtils.getValueType(filter.value)
+        val indexValue = ValueUtils.toIndexValue(valueType, filter.value)
+
+        val selectivity = getSelectivity(filter.name, filter.value)
+        if (indexValue != null) {
+          /*
+           * Numeric and temporal values are looked up by their
+           * index value, which describes a superset
+           */
+          val indexFilter =
+            if (layout == StorageLayout.PACKED)
+              Filter.range(Constants.PROPERTY_INDEX_COL_NAME, IndexCollectionType.MAPVALUES,
+                indexValue.longValue, indexValue.longValue)
+
+            else
+              Filter.equal(Constants.PROPERTY_LONG_COL_NAME, indexValue.longValue)
+
+          Some(IndexCandidate(filter, getRangeBin, indexFilter, selectivity, exact = false))
         }
-      case _ =>
-        throw new Exception(s"Filter condition `${filter.condition} is not supported.")
+        else if (layout == StorageLayout.ENTRY &&
+          ValueUtils.getBinName(valueType) == Constants.PROPERTY_VALUE_COL_NAME) {
+          /*
+           * String and boolean values share the string bin;
+           * only string values are matched exactly
+           */
+          val indexFilter = Filter.equal(Constants.PROPERTY_VALUE_COL_NAME, filter.value.toString)
+          Some(IndexCandidate(filter, Constants.PROPERTY_VALUE_COL_NAME, indexFilter, selectivity,
+            exact = filter.value.isInstanceOf[String]))
+        }
+        else None
+
+      case _ => None
+    }
+
+  }
+  /**
+   * Builds a range filter on the numeric index values of
+   * the property values, if the filter conditions specify
+   * a range of numeric or temporal values. Note, index
+   * values are floors of the values, so exclusive bounds
+   * are mapped onto inclusive ones; the result is restricted
+   * on the client side.
+   */
+  private def getRangeCandidate(filters:AeroFilters):Option[IndexCandidate] = {
+
+    val bounds = getRangeBounds(filters)
+      .map(filter => {
+        val indexValue = ValueUtils.toIndexValue(ValueUtils.getValueType(filter.value), filter.value)
+        (filter.condition, indexValue)
+      })
+
+    if (bounds.isEmpty || bounds.exists{case (_, indexValue) => indexValue == null})
+      return None
+
+    var begin = Long.MinValue
+    var end = Long.MaxValue
 
+    bounds.foreach{
+      case (Constants.INCLUSIVE_FROM_VALUE | Constants.EXCLUSIVE_FROM_VALUE, indexValue) =>
+        begin = math.max(begin, indexValue.longValue)
+      case (_, indexValue) =>
+        end = math.min(end, indexValue.longValue)
     }
 
+    val indexFilter =
+      if (layout == StorageLayout.PACKED)
+        Filter.range(Constants.PROPERTY_INDEX_COL_NAME, IndexCollectionType.MAPVALUES, begin, end)
+
+      else
+        Filter.range(Constants.PROPERTY_LONG_COL_NAME, begin, end)
+
+    val estimate = statistics.getRangeSelectivity(setname, propertyKey, begin, end)
+    val selectivity = if (estimate < 0) AeroRead.RANGE_SELECTIVITY else estimate
+
+    Some(IndexCandidate(getRangeBounds(filters).head, getRangeBin, indexFilter, selectivity, exact = false))
+
+  }
+
+  private def getRangeBin:String =
+    if (layout == StorageLayout.PACKED) Constants.PROPERTY_INDEX_COL_NAME
+    else Constants.PROPERTY_LONG_COL_NAME
+
+  private def getSelectivity(field:String, value:Any):Double = {
+
+    val estimate = statistics.getEqualSelectivity(setname, field, propertyKey, value)
+    if (estimate >= 0) estimate else AeroRead.SELECTIVITIES.getOrElse(field, 1D)
+
   }
 
-  private def getFieldType(record:Record, field:String):String = {
-
-    field match {
-      case Constants.ID_COL_NAME =>
-        record.getString(Constants.ID_TYPE_COL_NAME)
-      case Constants.LABEL_COL_NAME =>
-        "STRING"
-      case Constants.TO_COL_NAME =>
-        record.getString(Constants.TO_TYPE_COL_NAME)
-      case Constants.FROM_COL_NAME =>
-        record.getString(Constants.FROM_TYPE_COL_NAME)
-      case Constants.CREATED_AT_COL_NAME =>
-        "LONG"
-      case Constants.UPDATED_AT_COL_NAME =>
-        "LONG"
-      case Constants.PROPERTY_KEY_COL_NAME =>
-        record.getString(Constants.PROPERTY_TYPE_COL_NAME)
-      case Constants.PROPERTY_TYPE_COL_NAME =>
-        "STRING"
+  /**
+   * Compiles the filter conditions into a filter expression;
+   * `null` is returned, if filter expressions are disabled or
+   * the conditions cannot be expressed. Conditions of an `and`
+   * combination that cannot be expressed are skipped, as the
+   * expression then describes a superset of the result.
+   */
+  private def getFilterExpression(filters:AeroFilters):Expression = {
+
+    if (!expressions || !filters.nonEmpty) return null
+
+    val exps = filters.filters.map(filter => compileFilter(filter))
+    filters.condition match {
+      case "and" =>
+        val known = exps.flatten
+        if (known.isEmpty) null
+        else
+          Exp.build(if (known.size == 1) known.head else Exp.and(known: _*))
+
+      case "or" =>
+        /*
+         * Conditions on unknown names do not match any record
+         * and are not part of the expression
+         */
+        val matching = filters.filters.zip(exps)
+          .filterNot{case (filter, _) => isUnknown(filter)}
+          .map{case (_, exp) => exp}
+
+        if (matching.isEmpty || matching.exists(_.isEmpty)) null
+        else
+          Exp.build(if (matching.size == 1) matching.head.get else Exp.or(matching.flatten: _*))
+
+      case _ => null
+    }
+
+  }
+
+  private def compileFilter(filter:AeroFilter):Option[Exp] = {
+
+    filter.name match {
       case Constants.PROPERTY_VALUE_COL_NAME =>
-        record.getString(Constants.PROPERTY_TYPE_COL_NAME)
+        compileValueFilter(filter)
+
+      case Constants.PROPERTY_KEY_COL_NAME if layout == StorageLayout.PACKED =>
+        /*
+         * The packed layout indicates the existence of a
+         * property by the key of the properties map
+         */
+        filter.condition match {
+          case Constants.EQUAL_VALUE =>
+            val mapKey = encode(filter.value.toString)
+            if (mapKey == null) None
+            else
+              Some(Exp.gt(
+                MapExp.getByKey(MapReturnType.COUNT, Exp.Type.INT,
+                  getMapKey(mapKey), Exp.mapBin(Constants.PROPERTIES_COL_NAME)),
+                Exp.`val`(0L)))
+
+          case _ => None
+        }
+
+      case _ =>
+        filter.condition match {
+          case Constants.EQUAL_VALUE =>
+            encode(filter.name, filter.value.toString) match {
+              case null => None
+              case code:java.lang.Long =>
+                Some(Exp.eq(Exp.intBin(filter.name), Exp.`val`(code.longValue)))
+              case value =>
+                Some(Exp.eq(Exp.stringBin(filter.name), Exp.`val`(value.toString)))
+            }
+
+          case _ => None
+        }
+    }
+
+  }
+  /**
+   * Compiles a condition on the property value; the value
+   * is compared with the bin that refers to its type.
+   */
+  private def compileValueFilter(filter:AeroFilter):Option[Exp] = {
+
+    if (layout == StorageLayout.PACKED && propertyKey == null)
+      return None
+
+    val valueType = ValueUtils.getValueType(filter.value)
+    ValueUtils.getBinName(valueType) match {
+      case Constants.PROPERTY_BLOB_COL_NAME =>
+        /*
+         * The order preserving codec supports equality and
+         * range conditions on the encoded values
+         */
+        val bytes = ValueCodec.encode(filter.value)
+        val value =
+          if (layout == StorageLayout.PACKED)
+            MapExp.getByKey(MapReturnType.VALUE, Exp.Type.BLOB,
+              getMapKey(propertyKey), Exp.mapBin(Constants.PROPERTIES_COL_NAME))
+
+          else
+            Exp.blobBin(Constants.PROPERTY_BLOB_COL_NAME)
+
+        compare(filter.condition, value, Exp.`val`(bytes), inclusiveFrom = false, inclusiveTo = false)
+
+      case Constants.PROPERTY_LONG_COL_NAME | Constants.PROPERTY_DOUBLE_COL_NAME =>
+        /*
+         * Numeric and temporal values are compared by their
+         * index value, i.e. the floor of floating point values;
+         * integral lower bounds and exclusive upper bounds are
+         * exact, while all other conditions describe a superset.
+         */
+        val indexValue = ValueUtils.toIndexValue(valueType, filter.value)
+        if (indexValue == null) return None
+
+        val index =
+          if (layout == StorageLayout.PACKED)
+            MapExp.getByKey(MapReturnType.VALUE, Exp.Type.INT,
+              getMapKey(propertyKey), Exp.mapBin(Constants.PROPERTY_INDEX_COL_NAME))
+
+          else
+            Exp.intBin(Constants.PROPERTY_LONG_COL_NAME)
+
+        val integral = ValueUtils.getBinName(valueType) == Constants.PROPERTY_LONG_COL_NAME
+        compare(filter.condition, index, Exp.`val`(indexValue.longValue), inclusiveFrom = true, inclusiveTo = !integral)
+
       case _ =>
-        throw new Exception(s"The field `$field` is not supported.")
+        /*
+         * String and boolean values are persisted as strings;
+         * their ranges are evaluated on the client side only
+         */
+        filter.condition match {
+          case Constants.EQUAL_VALUE =>
+            val value =
+              if (layout == StorageLayout.PACKED)
+                MapExp.getByKey(MapReturnType.VALUE, Exp.Type.STRING,
+                  getMapKey(propertyKey), Exp.mapBin(Constants.PROPERTIES_COL_NAME))
+
+              else
+                Exp.stringBin(Constants.PROPERTY_VALUE_COL_NAME)
+
+            Some(Exp.eq(value, Exp.`val`(filter.value.toString)))
+
+          case _ => None
+        }
     }
 
   }
+
+  /**
+   * Compiles a comparison; `inclusiveFrom` and `inclusiveTo`
+   * map exclusive bounds onto inclusive ones, if the compared
+   * values are not exact.
+   */
+  private def compare(condition:String, left:Exp, right:Exp,
+                      inclusiveFrom:Boolean, inclusiveTo:Boolean):Option[Exp] = {
+
+    condition match {
+      case Constants.EQUAL_VALUE =>
+        Some(Exp.eq(left, right))
+      case Constants.INCLUSIVE_FROM_VALUE =>
+        Some(Exp.ge(left, right))
+      case Constants.EXCLUSIVE_FROM_VALUE =>
+        Some(if (inclusiveFrom) Exp.ge(left, right) else Exp.gt(left, right))
+      case Constants.INCLUSIVE_TO_VALUE =>
+        Some(Exp.le(left, right))
+      case Constants.EXCLUSIVE_TO_VALUE =>
+        Some(if (inclusiveTo) Exp.le(left, right) else Exp.lt(left, right))
+      case _ =>
+        None
+    }
+
+  }
+
+  private def getMapKey(mapKey:Any):Exp = mapKey match {
+    case code:java.lang.Long => Exp.`val`(code.longValue)
+    case name => Exp.`val`(name.toString)
+  }
+
+  private def getRangeBounds(filters:AeroFilters):Seq[AeroFilter] = {
+    filters.filters
+      .filter(filter =>
+        filter.name == Constants.PROPERTY_VALUE_COL_NAME && AeroRead.RANGE_CONDITIONS.contains(filter.condition))
+  }
+
+  /**
+   * The bins that are read to evaluate a filter condition
+   * on the client side
+   */
+  private def getFilterBins(field:String):Seq[String] = {
+
+    if (layout == StorageLayout.PACKED)
+      field match {
+        case Constants.PROPERTY_KEY_COL_NAME =>
+          Seq(Constants.PROPERTIES_COL_NAME)
+        case Constants.PROPERTY_VALUE_COL_NAME =>
+          Seq(Constants.PROPERTIES_COL_NAME, Constants.PROPERTY_TYPES_COL_NAME)
+        case _ =>
+          Seq(field)
+      }
+
+    else
+      field match {
+        case Constants.PROPERTY_VALUE_COL_NAME =>
+          Seq(Constants.PROPERTY_TYPE_COL_NAME, Constants.PROPERTY_VALUE_COL_NAME,
+            Constants.PROPERTY_LONG_COL_NAME, Constants.PROPERTY_DOUBLE_COL_NAME, Constants.PROPERTY_BLOB_COL_NAME)
+        case _ =>
+          Seq(field)
+      }
+
+  }
+
+  private def isUnknown(filter:AeroFilter):Boolean =
+    recordFilter.isUnknown(filter)
+
+  private def encode(name:String):Any =
+    recordFilter.encode(name)
+
+  private def encode(field:String, value:String):Any =
+    recordFilter.encode(field, value)
+}
+
+object AeroRead {
+  /*
+   * The assumed selectivity of the conditions on the indexed
+   * fields, if no statistics are available: identifiers are
+   * unique, while labels are shared by many elements
+   */
+  private val SELECTIVITIES = Map(
+    Constants.ID_COL_NAME             -> 0.0001,
+    Constants.FROM_COL_NAME           -> 0.001,
+    Constants.TO_COL_NAME             -> 0.001,
+    Constants.PROPERTY_VALUE_COL_NAME -> 0.01,
+    Constants.PROPERTY_KEY_COL_NAME   -> 0.2,
+    Constants.LABEL_COL_NAME          -> 0.5)
+
+  private val RANGE_SELECTIVITY = 0.1
+  /*
+   * The conditions that describe the lower and upper
+   * bounds of a range of values
+   */
+  val RANGE_CONDITIONS:Set[String] = Set(
+    Constants.INCLUSIVE_FROM_VALUE, Constants.EXCLUSIVE_FROM_VALUE,
+    Constants.INCLUSIVE_TO_VALUE, Constants.EXCLUSIVE_TO_VALUE)
+  /**
+   * The access path of a query, derived from the bin
+   * of its index filter
+   */
+  def getAccessPath(indexBin:String):String = indexBin match {
+    case Constants.ID_COL_NAME => AeroProfile.ID_INDEX
+    case Constants.LABEL_COL_NAME => AeroProfile.LABEL_INDEX
+    case Constants.FROM_COL_NAME | Constants.TO_COL_NAME => AeroProfile.VERTEX_INDEX
+    case _ => AeroProfile.PROPERTY_INDEX
+  }
+
 }
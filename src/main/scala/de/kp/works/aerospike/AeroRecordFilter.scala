@@ -0,0 +1,238 @@
+package de.kp.works.aerospike
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.Record
+import com.google.common.primitives.UnsignedBytes
+import de.kp.works.aerospike.gremlin.{Constants, StorageLayout, ValueUtils}
+
+import java.util
+import scala.collection.JavaConversions._
+
+/**
+ * [AeroRecordFilter] evaluates the filter conditions of a
+ * query on the client side, i.e. on the records that are
+ * returned by an index lookup or a scan. It is shared by
+ * all storage backends.
+ */
+class AeroRecordFilter(layout:StorageLayout, dictionary:AeroDictionary, filters:AeroFilters) {
+  /*
+   * The packed layout organizes properties as map bins;
+   * property value filters refer to the property key that
+   * is specified by the property key filter. Note, the
+   * key is kept in its persisted representation.
+   */
+  val propertyKey:Any = filters.filters
+    .find(filter => filter.name == Constants.PROPERTY_KEY_COL_NAME)
+    .map(filter => encode(filter.value.toString))
+    .orNull
+
+  /**
+   * Checks whether a record fulfills the provided subset
+   * of the filter conditions; these are combined by the
+   * condition of the filters.
+   */
+  def matches(record:Record, conditions:Seq[AeroFilter]):Boolean = {
+
+    if (conditions.isEmpty) return true
+    filters.condition match {
+      case "and" =>
+        conditions.forall(filter => applyFilter(record, filter) == 0)
+      case "or" =>
+        conditions.exists(filter => applyFilter(record, filter) == 0)
+      case _ =>
+        throw new Exception(s"Filters condition `${filters.condition} is not supported.")
+    }
+
+  }
+  /**
+   * Labels and property keys are persisted by their
+   * dictionary code, if the dictionary is enabled
+   */
+  def isEncoded(field:String):Boolean =
+    dictionary.isEnabled &&
+      (field == Constants.LABEL_COL_NAME || field == Constants.PROPERTY_KEY_COL_NAME)
+  /**
+   * Indicates an equality condition on a label or property
+   * key that is not registered in the dictionary
+   */
+  def isUnknown(filter:AeroFilter):Boolean =
+    filter.condition == Constants.EQUAL_VALUE && isEncoded(filter.name) &&
+      encode(filter.value.toString) == null
+  /**
+   * Returns the persisted representation of a label or
+   * property key; `null` indicates a name that is not
+   * referenced by any record.
+   */
+  def encode(name:String):Any =
+    if (dictionary.isEnabled) dictionary.lookup(name) else name
+
+  def encode(field:String, value:String):Any =
+    if (isEncoded(field)) encode(value) else value
+
+  private def applyFilter(record:Record, filter:AeroFilter):Int = {
+    /*
+     * The packed layout indicates the existence of
+     * a property by the key of the properties map
+     */
+    if (layout == StorageLayout.PACKED && filter.name == Constants.PROPERTY_KEY_COL_NAME) {
+      return filter.condition match {
+        case Constants.EQUAL_VALUE =>
+          val properties = record.getMap(Constants.PROPERTIES_COL_NAME)
+          val mapKey = encode(filter.value.toString)
+          if (properties != null && mapKey != null && properties.containsKey(mapKey)) 0 else 1
+        case _ =>
+          throw new Exception(s"Filter condition `${filter.condition} is not supported.")
+      }
+    }
+
+    val fieldValue = getFieldValue(record, filter.name)
+    if (fieldValue == null) return 1
+
+    filter.condition match {
+      case Constants.EQUAL_VALUE =>
+        /*
+         * Property values are compared by their native
+         * type, all other fields by their string value
+         */
+        val matches =
+          if (filter.name == Constants.PROPERTY_VALUE_COL_NAME)
+            equalValues(fieldValue, filter.value)
+
+          else
+            fieldValue.toString == filter.value.toString
+
+        if (matches) 0 else 1
+      case Constants.INCLUSIVE_FROM_VALUE =>
+        compareValues(fieldValue, filter.value) match {
+          case Some(result) if result >= 0 => 0
+          case _ => 1
+        }
+      case Constants.EXCLUSIVE_FROM_VALUE =>
+        compareValues(fieldValue, filter.value) match {
+          case Some(result) if result > 0 => 0
+          case _ => 1
+        }
+      case Constants.INCLUSIVE_TO_VALUE =>
+        compareValues(fieldValue, filter.value) match {
+          case Some(result) if result <= 0 => 0
+          case _ => 1
+        }
+      case Constants.EXCLUSIVE_TO_VALUE =>
+        compareValues(fieldValue, filter.value) match {
+          case Some(result) if result < 0 => 0
+          case _ => 1
+        }
+      case _ =>
+        throw new Exception(s"Filter condition `${filter.condition} is not supported.")
+
+    }
+
+  }
+
+  private def equalValues(fieldValue:Any, filterValue:Any):Boolean = {
+
+    (fieldValue, filterValue) match {
+      case (_:Number, _:Number) =>
+        compareValues(fieldValue, filterValue).contains(0)
+      case (x:Array[Byte], y:Array[Byte]) =>
+        util.Arrays.equals(x, y)
+      case _ =>
+        fieldValue == filterValue
+    }
+
+  }
+  /**
+   * Compares a property value with a filter value; values
+   * that are not comparable do not match any condition.
+   */
+  private def compareValues(fieldValue:Any, filterValue:Any):Option[Int] = {
+
+    (fieldValue, filterValue) match {
+      case (x:Number, y:Number) =>
+        Some(compareNumbers(x, y))
+      case (x:Array[Byte], y:Array[Byte]) =>
+        Some(UnsignedBytes.lexicographicalComparator().compare(x, y))
+      case (x:Comparable[_], y:AnyRef) if x.getClass == y.getClass =>
+        Some(x.asInstanceOf[Comparable[AnyRef]].compareTo(y))
+      case _ =>
+        None
+    }
+
+  }
+
+  private def compareNumbers(x:Number, y:Number):Int = {
+
+    if (isIntegral(x) && isIntegral(y))
+      java.lang.Long.compare(x.longValue, y.longValue)
+
+    else if (x.isInstanceOf[java.math.BigDecimal] || y.isInstanceOf[java.math.BigDecimal])
+      toBigDecimal(x).compareTo(toBigDecimal(y))
+
+    else
+      java.lang.Double.compare(x.doubleValue, y.doubleValue)
+
+  }
+
+  private def isIntegral(value:Number):Boolean = value match {
+    case _:java.lang.Byte | _:java.lang.Short | _:java.lang.Integer | _:java.lang.Long => true
+    case _ => false
+  }
+
+  private def toBigDecimal(value:Number):java.math.BigDecimal = value match {
+    case decimal:java.math.BigDecimal => decimal
+    case _ if isIntegral(value) => java.math.BigDecimal.valueOf(value.longValue)
+    case _ => java.math.BigDecimal.valueOf(value.doubleValue)
+  }
+
+  private def getFieldValue(record:Record, field:String):Any = {
+
+    if (field == Constants.PROPERTY_VALUE_COL_NAME) {
+      /*
+       * Property values are restored from their native
+       * representation
+       */
+      if (layout == StorageLayout.PACKED) {
+        val properties = record.getMap(Constants.PROPERTIES_COL_NAME)
+        if (properties == null || propertyKey == null) null
+        else {
+          val types = record.getMap(Constants.PROPERTY_TYPES_COL_NAME)
+          val propType = if (types == null) null else dictionary.decodeType(types.get(propertyKey))
+
+          ValueUtils.fromBinValue(propType, properties.get(propertyKey))
+        }
+      }
+      else
+        ValueUtils.getPropertyValue(record)
+    }
+    else if (isEncoded(field))
+      dictionary.decode(record.getValue(field))
+
+    else
+      field match {
+        case Constants.ID_TYPE_COL_NAME | Constants.TO_TYPE_COL_NAME |
+             Constants.FROM_TYPE_COL_NAME | Constants.PROPERTY_TYPE_COL_NAME =>
+          dictionary.decodeType(record.getValue(field))
+        case _ =>
+          record.getValue(field)
+      }
+
+  }
+
+}
@@ -20,97 +20,32 @@ package de.kp.works.aerospike
 
 import com.aerospike.client.AerospikeException.ScanTerminated
 import com.aerospike.client.policy.ScanPolicy
+import com.aerospike.client.query.PartitionFilter
 import com.aerospike.client.{AerospikeClient, Key, Record, ScanCallback}
-import de.kp.works.aerospike.util.NamedThreadFactory
+import de.kp.works.aerospike.gremlin.StorageLayout
+import de.kp.works.aerospike.metrics.{AeroMetrics, AeroProfile}
+import de.kp.works.aerospike.concurrent.BoundedExecutor
 
-import java.util.concurrent.LinkedBlockingQueue
-import java.util.concurrent.atomic.AtomicBoolean
 import java.util
 
 case class KeyRecord(key:Key, record:Record)
-
-class AeroScanIterator() extends ScanCallback with util.Iterator[KeyRecord] {
-
-  private var thread:Thread = _
-  /*
-   * A blocking queue to collect (key, record) pairs
-   * from Aerospike while scanning.
-   */
-  private val queue = new LinkedBlockingQueue[KeyRecord](100)
-  private var nextKeyRecord:KeyRecord = _
-
-  private val closed = new AtomicBoolean(false)
-  private val TERMINATE_VALUE = KeyRecord(null, null)
-
-  def setThread(thread:Thread):Unit = {
-    this.thread = thread
-  }
-
-  def close(): Unit = {
-
-    closed.set(true)
-    try {
-
-      queue.put(TERMINATE_VALUE)
-      thread.interrupt()
-
-    } catch {
-      case _: InterruptedException =>
-        throw new RuntimeException
-    }
-
-  }
+/**
+ * The cursor of a scan; the scan is terminated, as soon
+ * as the cursor is closed by the consumer. Records that
+ * exceed the element limit are skipped.
+ */
+class AeroScanIterator(elementLimit:AeroElementLimit, metrics:AeroMetrics = AeroMetrics.DISABLED,
+  profile:AeroProfile = AeroProfile.NONE) extends AeroCursor(metrics = metrics) with ScanCallback {
 
   override def scanCallback(key: Key, record: Record): Unit = {
 
-    try {
-      queue.put(KeyRecord(key, record))
-
-    } catch {
-      case t:Throwable =>
-        throw new ScanTerminated(t)
-    }
-
-  }
-
-  override def hasNext: Boolean = {
-
-    try {
+    if (elementLimit.isReached) return
+    profile.recordRecord(record)
 
-      if (queue.size() == 0) false
-      else
-       if (nextKeyRecord == TERMINATE_VALUE) false else true
+    if (!offer(KeyRecord(key, record)))
+      throw new ScanTerminated()
 
-    } catch {
-      case t: Throwable =>
-        throw new RuntimeException(t)
-    }
-
-  }
-
-  override def next(): KeyRecord = {
-
-    try {
-
-      nextKeyRecord = {
-
-        val keyRecord = queue.take()
-        if (keyRecord == TERMINATE_VALUE)
-          null
-
-        else {
-          keyRecord
-        }
-
-      }
-
-
-
-    } finally {
-      nextKeyRecord = TERMINATE_VALUE
-    }
-
-    nextKeyRecord
+    elementLimit.add(record)
 
   }
 
@@ -120,8 +55,11 @@ class AeroScan(
   client:AerospikeClient,
   namespace:String,
   setname:String,
+  layout:StorageLayout,
   readTimeout:Int,
-  socketTimeout:Int) {
+  socketTimeout:Int,
+  metrics:AeroMetrics = AeroMetrics.DISABLED,
+  profile:AeroProfile = AeroProfile.current()) {
   /*
    * The AeroScan implements a parallel scanning
    * approach
@@ -133,32 +71,70 @@ class AeroScan(
   scanPolicy.socketTimeout = socketTimeout
   scanPolicy.totalTimeout = readTimeout
 
-  private val scanIterator = new AeroScanIterator()
+  def run(executor:BoundedExecutor): util.Iterator[KeyRecord] =
+    run(executor, -1)
+  /**
+   * Scans the set and passes at most `limit` elements to
+   * the cursor; `-1` indicates an unlimited scan. The
+   * records are restricted to the provided bins, if any.
+   */
+  def run(executor:BoundedExecutor, limit:Int,
+          binNames:Seq[String] = Seq.empty[String]): util.Iterator[KeyRecord] = {
 
-  def run(scanThreadFactory:NamedThreadFactory): util.Iterator[KeyRecord] = {
+    val elementLimit = new AeroElementLimit(layout, limit)
+    val scanIterator = new AeroScanIterator(elementLimit, metrics, profile)
+    profile.recordAccessPath(AeroProfile.FULL_SCAN)
 
-    val scanThread = scanThreadFactory.newThread(
+    val scanTask = executor.submit(
       new Runnable() {
         override def run(): Unit = {
+
+          val start = System.nanoTime
           try {
 
-            /* Run scan operation for the provided namespace & set */
-            client.scanAll(scanPolicy, namespace, setname, scanIterator)
+            if (elementLimit.isLimited) {
+              /*
+               * A limited scan is read page by page; each page
+               * is restricted to the number of missing elements
+               * on the server side, and the partition filter
+               * resumes the scan where the previous page ended.
+               */
+              val partitionFilter = PartitionFilter.all()
+              while (!elementLimit.isReached && !partitionFilter.isDone && !scanIterator.isClosed) {
+
+                scanPolicy.maxRecords = math.max(1, elementLimit.getRemaining)
+                profile.recordRoundTrips(1)
+
+                client.scanPartitions(scanPolicy, partitionFilter, namespace, setname, scanIterator, binNames: _*)
+
+              }
+
+            }
+            else {
+              /* Run scan operation for the provided namespace & set */
+              profile.recordRoundTrips(1)
+              client.scanAll(scanPolicy, namespace, setname, scanIterator, binNames: _*)
+            }
+            /*
+             * The latency excludes the time, the scan waits
+             * for the consumer
+             */
+            metrics.recordLatency(AeroMetrics.SCAN, System.nanoTime - start - scanIterator.getProducerWait)
+            scanIterator.complete()
 
           } catch {
-            case t:Throwable => throw t
-
-          } finally {
-            scanIterator.close()
+            case _:Throwable if scanIterator.isClosed =>
+              /* The scan was terminated by the consumer */
+            case t:Throwable =>
+              metrics.recordError(AeroMetrics.SCAN)
+              scanIterator.complete(t)
           }
         }
       }
     )
 
-    scanIterator.setThread(scanThread)
-    scanThread.start()
-
-    scanIterator
+    scanIterator.addTask(scanTask)
+    scanIterator.handle()
 
   }
 
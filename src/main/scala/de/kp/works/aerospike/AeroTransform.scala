@@ -19,7 +19,7 @@ package de.kp.works.aerospike
  */
 
 import de.kp.works.aerospike.query.AeroResult
-import de.kp.works.aerospike.gremlin.{Constants, ValueType}
+import de.kp.works.aerospike.gremlin.{Constants, ValueType, ValueUtils}
 
 import scala.collection.JavaConversions._
 
@@ -46,28 +46,33 @@ object AeroTransform {
         val fromId: String = head.fromId
         val fromIdType: String = head.fromIdType
 
-        val createdAt: String = head.createdAt.toString
-        val updatedAt: String = head.updatedAt.toString
+        val createdAt: java.lang.Long = head.createdAt
+        val updatedAt: java.lang.Long = head.updatedAt
         /*
          * Add common fields
          */
         aeroResult
-          .addColumn(Constants.ID_COL_NAME, idType, id)
+          .addColumn(Constants.ID_COL_NAME, idType, ValueUtils.parseId(id, idType))
 
         aeroResult
           .addColumn(Constants.LABEL_COL_NAME, ValueType.STRING.name(), label)
 
         aeroResult
-          .addColumn(Constants.TO_COL_NAME, toIdType, toId)
+          .addColumn(Constants.TO_COL_NAME, toIdType, ValueUtils.parseId(toId, toIdType))
 
         aeroResult
-          .addColumn(Constants.FROM_COL_NAME, fromIdType, fromId)
+          .addColumn(Constants.FROM_COL_NAME, fromIdType, ValueUtils.parseId(fromId, fromIdType))
 
         aeroResult
           .addColumn(Constants.CREATED_AT_COL_NAME, ValueType.LONG.name(), createdAt)
 
         aeroResult
           .addColumn(Constants.UPDATED_AT_COL_NAME, ValueType.LONG.name(), updatedAt)
+        /*
+         * Extract & add properties
+         */
+        addProperties(aeroResult, values.map(value =>
+          (value.propKey, value.propType, value.propValue)))
 
         aeroResult
 
@@ -90,13 +95,13 @@ object AeroTransform {
         val idType: String = head.idType
         val label: String = head.label
 
-        val createdAt: String = head.createdAt.toString
-        val updatedAt: String = head.updatedAt.toString
+        val createdAt: java.lang.Long = head.createdAt
+        val updatedAt: java.lang.Long = head.updatedAt
         /*
          * Add common fields
          */
         aeroResult
-          .addColumn(Constants.ID_COL_NAME, idType, id)
+          .addColumn(Constants.ID_COL_NAME, idType, ValueUtils.parseId(id, idType))
 
         aeroResult
           .addColumn(Constants.LABEL_COL_NAME, ValueType.STRING.name(), label)
@@ -109,20 +114,28 @@ object AeroTransform {
         /*
          * Extract & add properties
          */
-        values.foreach(value => {
+        addProperties(aeroResult, values.map(value =>
+          (value.propKey, value.propType, value.propValue)))
+
+        aeroResult
 
-          val propKey: String = value.propKey
-          val propType: String = value.propType
-          val propValue: String = value.propValue
+      }.toList
 
-          aeroResult
-            .addColumn(propKey, propType, propValue)
+  }
 
-        })
+  private def addProperties(aeroResult:AeroResult, properties:Seq[(String, String, Any)]):Unit = {
 
+    properties.foreach{case (propKey, propType, propValue) =>
+      /*
+       * Elements without properties are described
+       * by a single marker entry, which must not be
+       * exposed as a property
+       */
+      if (propKey != null && propKey != Constants.EMPTY_VALUE)
         aeroResult
+          .addColumn(propKey, propType, propValue.asInstanceOf[AnyRef])
 
-      }.toList
+    }
 
   }
 
@@ -0,0 +1,763 @@
+package de.kp.works.aerospike
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.{AerospikeClient, AerospikeException, Bin, Host, Info, Key, Operation, Record, ResultCode, ScanCallback, Value}
+import com.aerospike.client.async.{EventLoops, EventPolicy, NioEventLoops}
+import com.aerospike.client.cdt.{MapOperation, MapOrder, MapPolicy, MapReturnType, MapWriteFlags}
+import com.aerospike.client.exp.{Exp, Expression, MapExp}
+import com.aerospike.client.policy.{BatchPolicy, ClientPolicy, RecordExistsAction, ScanPolicy, TlsPolicy, WritePolicy}
+import com.aerospike.client.query.{IndexCollectionType, IndexType, PartitionFilter}
+import de.kp.works.aerospike.concurrent.{BoundedExecutor, NamedThreadFactory}
+import de.kp.works.aerospike.gremlin.{ElementType, StorageLayout}
+import de.kp.works.aerospike.metrics.{AeroMetrics, AeroProfile}
+import org.apache.commons.configuration2.PropertiesConfiguration
+
+import java.util
+import java.util.concurrent.{Callable, CompletableFuture, ExecutionException, ExecutorService, Executors}
+import scala.collection.JavaConversions._
+
+/**
+ * [AerospikeConnect] is the storage backend that persists
+ * edges and vertices in an Aerospike cluster.
+ */
+class AerospikeConnect(options:AeroOptions) extends AeroConnect {
+
+  private val THREAD_GROUP_NAME:String  = "aero-connect"
+  private val THREAD_IO_PREFIX:String = "io"
+  /**
+   * The executor that runs the queries and scans of
+   * this client in background; it is shared by all
+   * reads and restricts the number of threads and of
+   * waiting reads. A read is cancelled, when its
+   * cursor is closed.
+   */
+  private val ioExecutor =
+    new BoundedExecutor(THREAD_GROUP_NAME, THREAD_IO_PREFIX,
+      options.getIoThreads, options.getIoQueueSize, options.getIoVirtualThreads)
+
+  private val THREAD_BATCH_PREFIX:String = "batch"
+  /**
+   * The executor that sends the batches of large
+   * multi-key reads in parallel
+   */
+  private val batchExecutor:ExecutorService =
+    Executors.newFixedThreadPool(options.getBatchThreads,
+      new NamedThreadFactory(THREAD_GROUP_NAME, THREAD_BATCH_PREFIX))
+
+  /**
+   * This is the reference to the configured
+   * Aerospike client
+   */
+  private var client:AerospikeClient = _
+  /*
+   * The event loops of the asynchronous commands;
+   * they are shared by all requests of this client
+   */
+  private var eventLoops:EventLoops = _
+
+  private var clientPolicy:ClientPolicy = _
+  private var batchPolicy:BatchPolicy = _
+  private var writePolicy:WritePolicy = _
+  /*
+   * The write policy of the packed layout: element
+   * records are created or merged with the provided
+   * bins and map items
+   */
+  private var upsertPolicy:WritePolicy = _
+  /*
+   * The write policy of records that must not be
+   * overwritten, e.g. dictionary entries
+   */
+  private var createPolicy:WritePolicy = _
+  /*
+   * The write policy of records that must exist,
+   * e.g. elements whose properties are incremented
+   */
+  private var updatePolicy:WritePolicy = _
+  private val mapPolicy = new MapPolicy(MapOrder.KEY_ORDERED, MapWriteFlags.DEFAULT)
+
+  @volatile private var closed = false
+
+  val namespace: String = options.getNamespace
+  val setname: String = options.getSetname
+
+  val layout: StorageLayout = options.getLayout
+  val adjacency: Boolean = options.getAdjacency
+  val adjacencyChunkSize: Int = options.getAdjacencyChunkSize
+
+  private val timeout = options.getTimeout
+  /*
+   * Indicates whether filter conditions are compiled
+   * into server side filter expressions
+   */
+  private val filterExpressions = options.getFilterExpressions
+  /*
+   * The number of workers that scan the partitions
+   * of a set in parallel
+   */
+  private val scanThreads = math.max(1, options.getScanThreads)
+  /*
+   * The maximum number of keys of a single batch
+   * request
+   */
+  private val batchSize = math.max(1, options.getBatchSize)
+
+  /**
+   * The latencies of the Aerospike calls, the counters of
+   * client side filtering, and the statistics of the caches
+   * of the graphs that share this client
+   */
+  val metrics: AeroMetrics = new AeroMetrics(options.getMetrics)
+
+  buildAerospikeClient()
+  metrics.register(s"$namespace.$setname")
+  /**
+   * The dictionary of labels and property keys; it is
+   * shared by all tables and queries of this client
+   */
+  val dictionary: AeroDictionary = new AeroDictionary(this, options.getDictionary)
+  /**
+   * The registry of label sets; if enabled, each label
+   * of an edge or vertex is stored in its own set
+   */
+  val labels: AeroLabels = new AeroLabels(this, options.getLabelSets)
+  /**
+   * The per-bin statistics of the edge and vertex sets;
+   * they drive the choice of the index filter of queries
+   */
+  val statistics: AeroStatistics = new AeroStatistics(this, options.getStatistics,
+    options.getStatisticsSampleSize, math.max(1, options.getStatisticsRefresh) * 1000L)
+  /**
+   * The non-blocking counterpart of the access methods;
+   * it shares the connections and policies of the client
+   */
+  val async: AeroAsync = new AeroAsync(client, eventLoops,
+    clientPolicy.readPolicyDefault, batchPolicy, writePolicy, upsertPolicy, timeout)
+
+  def getClient:AerospikeClient = client
+
+  def getWritePolicy:WritePolicy = writePolicy
+
+  /** AEROSPIKE ACCESS METHODS **/
+
+  // TODO TRANSACTION
+
+  /**
+   * A helper method to retrieve a single Aerospike
+   * record; `null` is returned for unknown keys
+   */
+  def get(key:Key):Record = timed(AeroMetrics.GET) {
+
+    val profile = AeroProfile.current()
+    profile.recordAccessPath(AeroProfile.ID_GET)
+    profile.recordRoundTrips(1)
+
+    val readPolicy = clientPolicy.readPolicyDefault
+    val record = client.get(readPolicy, key)
+
+    profile.recordRecord(record)
+    record
+
+  }
+  /**
+   * A helper method to retrieve Aerospike records by a set
+   * of user keys; the records are restricted to the provided
+   * bins, if any. The records are returned in the order of
+   * the user keys.
+   */
+  def getByKeys(userKeys:Array[String], elementType:ElementType, binNames:Seq[String]):util.Iterator[KeyRecord] = {
+
+    val keys = userKeys.map(userKey => getKey(userKey, elementType))
+    val records = getBatches(keys, binNames)
+
+    keys.zip(records)
+      .map{case (key, record) => KeyRecord(key, record)}
+      /*
+       * Unknown keys are returned as `null` records
+       * and are not part of the result
+       */
+      .filter(keyRecord => keyRecord.record != null)
+      .iterator
+
+  }
+  /**
+   * A helper method to write to an Aerospike namespace
+   * and setname (_vertex or _edge); note, transaction
+   * control is provided by the requester
+   */
+  def put(key:Key, values:util.List[Bin]):Unit = timed(AeroMetrics.PUT) {
+    client.put(writePolicy, key, values.toList: _*)
+  }
+
+  /**
+   * A helper method to write multiple records; the
+   * writes are sent asynchronously and overlap, and
+   * the method returns when all records are written.
+   */
+  def putAll(rows:util.Map[Key, util.List[Bin]]):Unit = {
+    if (!rows.isEmpty) timed(AeroMetrics.PUT) { join(async.putAll(rows)) }
+  }
+
+  /**
+   * A helper method to create a record; `false` is
+   * returned, if the record already exists.
+   */
+  def create(key:Key, values:util.List[Bin]):Boolean = timed(AeroMetrics.PUT) {
+    /*
+     * An existing record is an expected outcome and
+     * not counted as an error
+     */
+    try {
+      client.put(createPolicy, key, values.toList: _*)
+      true
+
+    } catch {
+      case e:AerospikeException if e.getResultCode == ResultCode.KEY_EXISTS_ERROR => false
+    }
+
+  }
+  /**
+   * A helper method to atomically increment a counter
+   * bin; the record is created if it does not exist, and
+   * the incremented value is returned.
+   */
+  def increment(key:Key, binName:String):Long = {
+
+    val record = timed(AeroMetrics.PUT) {
+      client.operate(upsertPolicy, key, Operation.add(new Bin(binName, 1L)), Operation.get(binName))
+    }
+
+    record.getLong(binName)
+
+  }
+  /**
+   * A helper method to atomically add an amount to an
+   * integer bin of an existing record, and to write the
+   * provided bins with the same operation; `null` is
+   * returned, if the record or the bin does not exist,
+   * and the incremented value otherwise.
+   */
+  def add(key:Key, binName:String, amount:Long, values:util.List[Bin]):java.lang.Long = {
+    /*
+     * The bin must exist, as adding to a missing bin
+     * would create it
+     */
+    val policy = new WritePolicy(updatePolicy)
+    policy.filterExp = Exp.build(Exp.binExists(binName))
+
+    val operations = values.map(bin => Operation.put(bin)) ++
+      Seq(Operation.add(new Bin(binName, amount)), Operation.get(binName))
+
+    val record = operate(policy, key, operations)
+    if (record == null) null else record.getLong(binName)
+
+  }
+  /**
+   * A helper method to atomically add an amount to the
+   * integer item of the provided key in each of the named
+   * map bins of an existing record, and to write the
+   * provided bins with the same operation; `null` is
+   * returned, if the record or the item of the first map
+   * does not exist, and its incremented value otherwise.
+   */
+  def addMapItem(key:Key, mapNames:util.List[String], mapKey:Object, amount:Long,
+                 values:util.List[Bin]):java.lang.Long = {
+    /*
+     * The item must exist and be an integer, as incrementing
+     * a missing item would create it; a missing item or one
+     * of another type does not satisfy the comparison
+     */
+    val expKey = mapKey match {
+      case number:java.lang.Number => Exp.`val`(number.longValue)
+      case _ => Exp.`val`(mapKey.toString)
+    }
+
+    val policy = new WritePolicy(updatePolicy)
+    policy.filterExp = Exp.build(
+      Exp.ge(
+        MapExp.getByKey(MapReturnType.VALUE, Exp.Type.INT, expKey, Exp.mapBin(mapNames.head)),
+        Exp.`val`(Long.MinValue)))
+
+    val operations = values.map(bin => Operation.put(bin)) ++
+      mapNames.map(binName => MapOperation.increment(mapPolicy, binName, Value.get(mapKey), Value.get(amount)))
+
+    val record = operate(policy, key, operations)
+    if (record == null) null else record.getLong(mapNames.head)
+
+  }
+  /**
+   * Applies the operations to an existing record; `null`
+   * is returned, if the record does not exist or does not
+   * match the filter expression of the policy.
+   */
+  private def operate(policy:WritePolicy, key:Key, operations:Seq[Operation]):Record = {
+
+    try {
+      timed(AeroMetrics.PUT) { client.operate(policy, key, operations.toList: _*) }
+
+    } catch {
+      case e:AerospikeException if e.getResultCode == ResultCode.KEY_NOT_FOUND_ERROR ||
+        e.getResultCode == ResultCode.FILTERED_OUT => null
+    }
+
+  }
+  /**
+   * A helper method to write an element record of the
+   * packed layout: the provided bins are written as is,
+   * while the provided items are merged into the named
+   * map bins. The record is created if it does not exist.
+   */
+  def putMaps(key:Key, values:util.List[Bin], maps:util.Map[String, _ <: util.Map[_, _]]):Unit = {
+
+    val operations = values.map(bin => Operation.put(bin)) ++
+      maps
+        .filter{case (_, items) => !items.isEmpty}
+        .map{case (binName, items) =>
+          val mapItems = new util.HashMap[Value, Value]()
+          items.entrySet.foreach(item =>
+            mapItems.put(Value.get(item.getKey.asInstanceOf[Object]), Value.get(item.getValue.asInstanceOf[Object])))
+
+          MapOperation.putItems(mapPolicy, binName, mapItems)
+        }
+
+    if (operations.nonEmpty)
+      timed(AeroMetrics.PUT) { client.operate(upsertPolicy, key, operations.toList: _*) }
+
+  }
+  /**
+   * A helper method to remove the provided keys from the
+   * named map bins of a packed element record; the bins
+   * are written as is.
+   */
+  def removeMapKeys(key:Key, values:util.List[Bin], mapNames:util.List[String], mapKeys:util.List[Object]):Unit = {
+
+    val removeKeys = mapKeys.map(k => Value.get(k)).toList
+    val operations = values.map(bin => Operation.put(bin)) ++
+      mapNames.map(binName => MapOperation.removeByKeyList(binName, removeKeys, MapReturnType.NONE))
+
+    timed(AeroMetrics.PUT) { client.operate(upsertPolicy, key, operations.toList: _*) }
+
+  }
+  /**
+   * A helper method to merge the provided items into
+   * a map bin; the record is created if it does not
+   * exist. The number of added items is returned.
+   */
+  def putMapItems(key:Key, binName:String, items:util.Map[Object, Object]):Int = {
+
+    if (items.isEmpty) return 0
+
+    val mapItems = new util.HashMap[Value, Value]()
+    items.foreach{case (k, v) => mapItems.put(Value.get(k), Value.get(v))}
+    /*
+     * The map size is determined before and after the
+     * items are written, within a single operation
+     */
+    val record = timed(AeroMetrics.PUT) {
+      client.operate(upsertPolicy, key,
+        MapOperation.size(binName),
+        MapOperation.putItems(mapPolicy, binName, mapItems))
+    }
+
+    val sizes = record.getList(binName)
+      .map(size => if (size == null) 0L else size.asInstanceOf[Long])
+
+    (sizes(1) - sizes(0)).toInt
+
+  }
+  /**
+   * A helper method to remove the provided keys from
+   * a map bin; the number of removed items is returned.
+   */
+  def removeMapItems(key:Key, binName:String, mapKeys:util.List[Object]):Int = {
+
+    if (mapKeys.isEmpty) return 0
+
+    val removeKeys = mapKeys.map(k => Value.get(k)).toList
+    val record = timed(AeroMetrics.PUT) {
+      client.operate(upsertPolicy, key,
+        MapOperation.removeByKeyList(binName, removeKeys, MapReturnType.COUNT))
+    }
+
+    record.getLong(binName).toInt
+
+  }
+  /**
+   * A helper method to retrieve multiple Aerospike
+   * records with a single batch request; unknown keys
+   * are returned as `null` records.
+   */
+  def getAll(keys:util.List[Key]):util.List[Record] = {
+
+    if (keys.isEmpty) return new util.ArrayList[Record]()
+
+    val records = getBatches(keys.toArray(new Array[Key](0)), Seq.empty[String])
+    util.Arrays.asList(records: _*)
+
+  }
+  /**
+   * Retrieves the records of the provided keys; large key
+   * lists are split into batches of the configured size,
+   * that are sent in parallel. Each batch is processed with
+   * a single request per cluster node.
+   */
+  private def getBatches(keys:Array[Key], binNames:Seq[String]):Array[Record] = {
+
+    if (keys.isEmpty) return Array.empty[Record]
+    /*
+     * The batches are sent by other threads, therefore
+     * the profile of the calling thread is passed on
+     */
+    val profile = AeroProfile.current()
+    profile.recordAccessPath(AeroProfile.ID_MULTI_GET)
+
+    val batches = keys.grouped(batchSize).toList
+    if (batches.size == 1) return getBatch(batches.head, binNames, profile)
+
+    val futures = batches.map(batch =>
+      batchExecutor.submit(new Callable[Array[Record]] {
+        override def call():Array[Record] = getBatch(batch, binNames, profile)
+      }))
+
+    futures.flatMap(future => future.get).toArray
+
+  }
+
+  private def getBatch(keys:Array[Key], binNames:Seq[String], profile:AeroProfile):Array[Record] = timed(AeroMetrics.BATCH_GET) {
+
+    profile.recordRoundTrips(1)
+    val records =
+      if (binNames.isEmpty)
+        client.get(batchPolicy, keys)
+
+      else
+        client.get(batchPolicy, keys, binNames: _*)
+
+    records.foreach(record => profile.recordRecord(record))
+    records
+
+  }
+  /**
+   * A helper method to remove all Aerospike records
+   * that refer to the provided keys
+   */
+  def removeAll(keys:util.List[Key]):Unit = {
+    /*
+     * The deletes are sent asynchronously and overlap,
+     * instead of one blocking round trip per key
+     */
+    if (!keys.isEmpty) timed(AeroMetrics.DELETE) { join(async.removeAll(keys)) }
+  }
+
+  protected def querySet(queryset:String, filters:AeroFilters, binNames:Seq[String]):util.Iterator[KeyRecord] = {
+
+    val aeroRead = new AeroRead(client, namespace, queryset, layout, dictionary, statistics,
+      filterExpressions, timeout, timeout, metrics)
+    aeroRead.run(filters, ioExecutor, binNames)
+
+  }
+  /**
+   * Scans the provided set for at most `limit` elements;
+   * the limit is pushed down to the server, and the scan
+   * stops as soon as enough elements are read. The records
+   * are restricted to the bins of the projection.
+   */
+  def scan(scanset:String, limit:Int, projection:AeroProjection):util.Iterator[KeyRecord] = {
+    /*
+     * Unlimited scans are partitioned across the
+     * configured number of workers
+     */
+    if (limit == -1 && scanThreads > 1)
+      return partitionScan(scanset, projection).iterator()
+
+    val binNames = projection.getBinNames(layout, getElementType(scanset)).toSeq
+
+    val elementLimit = new AeroElementLimit(layout, limit)
+    /*
+     * The scans of the sets are started lazily, when
+     * the chained cursor advances
+     */
+    val profile = AeroProfile.current()
+    val cursors = getScansets(scanset).iterator.map(set => () => {
+      val aeroScan = new AeroScan(client, namespace, set, layout, timeout, timeout, metrics, profile)
+      aeroScan.run(ioExecutor, elementLimit.getRemaining, binNames)
+    })
+
+    new AeroChainedCursor(cursors, elementLimit)
+
+  }
+
+  def partitionScan(scanset:String):AeroPartitionScan =
+    partitionScan(scanset, AeroProjection.ALL)
+  /**
+   * Provides a partition scan of the provided set; its
+   * result is available as cursor or parallel stream, and
+   * its state can be checkpointed to resume the scan later.
+   */
+  def partitionScan(scanset:String, projection:AeroProjection):AeroPartitionScan = {
+
+    val binNames = projection.getBinNames(layout, getElementType(scanset)).toSeq
+    new AeroPartitionScan(client, namespace, getScansets(scanset), binNames,
+      scanThreads, ioExecutor, timeout, timeout, metrics)
+
+  }
+
+  /**
+   * A helper method to scan a single partition of a set;
+   * the records are passed to the provided callback. The
+   * optional expression restricts the scanned records on
+   * the server side.
+   */
+  def scanPartition(scanset:String, partition:Int, filterExp:Expression, callback:ScanCallback):Unit = {
+
+    val scanPolicy = new ScanPolicy()
+    scanPolicy.sendKey = true
+    scanPolicy.includeBinData = true
+    /*
+     * The callback may throttle the scan, therefore
+     * the total duration is not limited
+     */
+    scanPolicy.socketTimeout = timeout
+    scanPolicy.totalTimeout = 0
+
+    if (filterExp != null) scanPolicy.filterExp = filterExp
+    getScansets(scanset).foreach(set =>
+      client.scanPartitions(scanPolicy, PartitionFilter.id(partition), namespace, set, callback))
+
+  }
+
+  /**
+   * A helper method to read a sample of the records of a
+   * single set; the records are passed to the callback.
+   */
+  def sample(sampleset:String, maxRecords:Int, callback:ScanCallback):Unit = {
+
+    val scanPolicy = new ScanPolicy()
+    scanPolicy.includeBinData = true
+    scanPolicy.maxRecords = maxRecords
+
+    scanPolicy.socketTimeout = timeout
+    scanPolicy.totalTimeout = timeout
+
+    client.scanAll(scanPolicy, namespace, sampleset, callback)
+
+  }
+  /**
+   * The number of records of a single set, taken from
+   * the set statistics of the cluster nodes
+   */
+  def getRecordCount(countset:String):Long = getObjectCount(countset)
+  /**
+   * The executor of the background reads; it exposes
+   * the number of running, queued and rejected reads
+   */
+  def getIoExecutor:BoundedExecutor = ioExecutor
+
+  def createIndex(indexset:String, binName:String, indexType:IndexType, collectionType:IndexCollectionType):Unit = {
+
+    val indexName = s"idx_${indexset}_$binName"
+    client.createIndex(writePolicy, namespace, indexset, indexName, binName, indexType, collectionType)
+      .waitTillComplete()
+
+  }
+
+  def isClosed:Boolean = closed
+
+  def close(): Unit = {
+    closed = true
+    statistics.close()
+    metrics.close()
+    batchExecutor.shutdown()
+    ioExecutor.shutdown()
+    client.close()
+    async.close()
+  }
+
+  /** AEROSPIKE HELPER METHODS **/
+
+  /**
+   * Records the latency of an Aerospike call; failures
+   * are counted as errors of the operation
+   */
+  private def timed[T](operation:String)(action: => T):T = {
+
+    val start = System.nanoTime
+    try {
+      action
+
+    } catch {
+      case t:Throwable =>
+        metrics.recordError(operation)
+        throw t
+
+    } finally {
+      metrics.recordLatency(operation, System.nanoTime - start)
+    }
+
+  }
+
+  /**
+   * Waits for an asynchronous command and re-throws
+   * its failure as is
+   */
+  private def join[T](future:CompletableFuture[T]):T = {
+
+    try {
+      future.get
+
+    } catch {
+      case e:ExecutionException => throw e.getCause
+    }
+
+  }
+
+  /**
+   * The number of records of a set, derived from the set
+   * statistics of the cluster nodes; these statistics also
+   * count the replicas of a record.
+   */
+  private def getObjectCount(countset:String):Long = {
+
+    val nodes = client.getNodes
+    if (nodes.isEmpty) return 0L
+
+    val objects = nodes
+      .map(node => getInfoValue(Info.request(node, s"sets/$namespace/$countset"), "objects"))
+      .sum
+
+    val info = Info.request(nodes.head, s"namespace/$namespace")
+    val replication = {
+      val effective = getInfoValue(info, "effective_replication_factor")
+      if (effective > 0) effective else getInfoValue(info, "replication-factor")
+    }
+
+    if (replication > 0) objects / replication else objects
+
+  }
+
+  private def getInfoValue(response:String, name:String):Long = {
+
+    if (response == null) return 0L
+    response.split("[:;]")
+      .map(_.split("="))
+      .find(pair => pair.length == 2 && pair(0) == name)
+      .map(pair => pair(1).trim.toLong)
+      .getOrElse(0L)
+
+  }
+
+  private def buildAerospikeClient():Unit = {
+
+    /* Define Client Policy */
+
+    clientPolicy = new ClientPolicy()
+    clientPolicy.timeout = timeout
+    clientPolicy.failIfNotConnected = true
+
+    /* User authentication */
+
+    val (user, pass) = options.getUserAndPass
+    clientPolicy.user = user
+    clientPolicy.password = pass
+
+    val authMode = options.getAuthMode
+    clientPolicy.authMode = authMode
+
+    val tlsMode = options.getTlsMode.toLowerCase
+    val tlsName = options.getTlsName
+
+    if (tlsMode == "true" && tlsName == null)
+      throw new Exception(s"No Aerospike TLS name specified.")
+
+    if (tlsMode == "true") {
+      /*
+       * The current implementation leverages the
+       * default values
+       */
+      clientPolicy.tlsPolicy = new TlsPolicy()
+    }
+
+    val host = options.getHost
+    val port = options.getPort
+
+    /*
+     * The event loops of the asynchronous client; the
+     * number of commands in flight is limited per loop
+     */
+    val loops = math.max(1, options.getAsyncEventLoops)
+
+    val eventPolicy = new EventPolicy()
+    eventPolicy.maxCommandsInProcess = math.max(1, options.getAsyncMaxCommands / loops)
+
+    eventLoops = new NioEventLoops(eventPolicy, loops, true, THREAD_GROUP_NAME)
+    clientPolicy.eventLoops = eventLoops
+
+    val aerospikeHost = new Host(host, options.getTlsName, port)
+    client = new AerospikeClient(clientPolicy, aerospikeHost)
+
+    /* Define batch policy */
+
+    batchPolicy = new BatchPolicy(client.batchPolicyDefault)
+    batchPolicy.socketTimeout = timeout
+    batchPolicy.totalTimeout = timeout
+    /*
+     * The requests of a batch are sent to all
+     * cluster nodes in parallel
+     */
+    batchPolicy.maxConcurrentThreads = 0
+
+    /* Define write policy */
+
+    writePolicy = new WritePolicy(client.writePolicyDefault)
+    writePolicy.expiration = options.getExpiration
+    /*
+     * The user key is stored with each record, as
+     * queries and scans derive the cache key from it
+     */
+    writePolicy.sendKey = true
+
+    val writeMode = options.getWriteMode
+    writeMode match {
+      case "ErrorIfExists" =>
+        writePolicy.recordExistsAction = RecordExistsAction.CREATE_ONLY
+      case "Ignore" =>
+        writePolicy.recordExistsAction = RecordExistsAction.CREATE_ONLY
+      case "Overwrite" =>
+        writePolicy.recordExistsAction = RecordExistsAction.REPLACE
+      case "Append" =>
+        writePolicy.recordExistsAction = RecordExistsAction.UPDATE
+      case _ =>
+        /* Append */
+        writePolicy.recordExistsAction = RecordExistsAction.UPDATE
+
+    }
+
+    upsertPolicy = new WritePolicy(writePolicy)
+    upsertPolicy.recordExistsAction = RecordExistsAction.UPDATE
+
+    createPolicy = new WritePolicy(writePolicy)
+    createPolicy.recordExistsAction = RecordExistsAction.CREATE_ONLY
+
+    updatePolicy = new WritePolicy(writePolicy)
+    updatePolicy.recordExistsAction = RecordExistsAction.UPDATE_ONLY
+    updatePolicy.failOnFilteredOut = true
+
+  }
+}
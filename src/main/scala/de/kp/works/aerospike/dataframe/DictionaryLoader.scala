@@ -0,0 +1,65 @@
+package de.kp.works.aerospike.dataframe
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import de.kp.works.aerospike.gremlin.Constants
+import de.kp.works.aerospike.hadoop.{AeroConfig, AeroInputFormat, AeroKey, AeroRecord}
+import org.apache.hadoop.conf.Configuration
+import org.apache.spark.SparkContext
+
+/**
+ * Labels and property keys are persisted by their
+ * dictionary code, if the dictionary is enabled; the
+ * dataframes restore them from the dictionary records
+ * of the metadata set.
+ */
+object DictionaryLoader {
+
+  /**
+   * Loads the (code, name) pairs of the metadata set
+   * that belongs to the configured edge or vertex set
+   */
+  def load(sc:SparkContext, conf:Configuration, postfix:String):Map[Long, String] = {
+
+    val setname = conf.get(AeroConfig.AEROSPIKE_SETNAME)
+    if (setname == null || !setname.endsWith("_" + postfix))
+      return Map.empty[Long, String]
+
+    val metaConf = new Configuration(conf)
+    metaConf.set(AeroConfig.AEROSPIKE_SETNAME, setname.stripSuffix("_" + postfix) + "_" + Constants.META)
+
+    sc.newAPIHadoopRDD(metaConf, classOf[AeroInputFormat], classOf[AeroKey], classOf[AeroRecord])
+      .map{case (_, aeroRecord) => aeroRecord.toRecord}
+      .filter(record => record.getValue(Constants.DICTIONARY_NAME_COL_NAME) != null)
+      .map(record => {
+        val code = record.getValue(Constants.DICTIONARY_CODE_COL_NAME).asInstanceOf[Number].longValue
+        (code, record.getString(Constants.DICTIONARY_NAME_COL_NAME))
+      })
+      .collect
+      .toMap
+
+  }
+
+  def decode(dictionary:Map[Long, String], value:Any):String = value match {
+    case null => null
+    case code:Number => dictionary.getOrElse(code.longValue, code.toString)
+    case _ => value.toString
+  }
+
+}
@@ -19,7 +19,7 @@ package de.kp.works.aerospike.dataframe
  */
 
 import de.kp.works.aerospike.hadoop.{AeroInputFormat, AeroKey, AeroRecord}
-import de.kp.works.aerospike.gremlin.{Constants, ValueType}
+import de.kp.works.aerospike.gremlin.{Constants, ValueType, ValueUtils}
 import org.apache.hadoop.conf.Configuration
 import org.apache.spark.rdd.RDD
 import org.apache.spark.sql.functions._
@@ -91,6 +91,8 @@ class VertexDataFrame(session:SparkSession, conf:Configuration) {
 
     try {
 
+      val dictionary = DictionaryLoader.load(sc, conf, Constants.VERTICES)
+
       val source = sc.newAPIHadoopRDD(conf, classOf[AeroInputFormat], classOf[AeroKey], classOf[AeroRecord])
       source.map{case(aeroKey,aeroRecord) =>
 
@@ -110,15 +112,22 @@ class VertexDataFrame(session:SparkSession, conf:Configuration) {
         val record = aeroRecord.toRecord
         val id = record.getString(Constants.ID_COL_NAME)
 
-        val idType = record.getString(Constants.ID_TYPE_COL_NAME)
-        val label  = record.getString(Constants.LABEL_COL_NAME)
+        val idType = ValueUtils.getTypeName(record.getValue(Constants.ID_TYPE_COL_NAME))
+        val label  = DictionaryLoader.decode(dictionary, record.getValue(Constants.LABEL_COL_NAME))
 
         val createdAt  = record.getLong(Constants.CREATED_AT_COL_NAME)
         val updatedAt  = record.getLong(Constants.UPDATED_AT_COL_NAME)
 
-        val propKey   = record.getString(Constants.PROPERTY_KEY_COL_NAME)
-        val propType  = record.getString(Constants.PROPERTY_TYPE_COL_NAME)
-        val propValue = record.getString(Constants.PROPERTY_VALUE_COL_NAME)
+        val propKey   = DictionaryLoader.decode(dictionary, record.getValue(Constants.PROPERTY_KEY_COL_NAME))
+        val propType  = ValueUtils.getTypeName(record.getValue(Constants.PROPERTY_TYPE_COL_NAME))
+        /*
+         * Property values are restored from their typed
+         * bins and exposed as [String]
+         */
+        val propValue = {
+          val value = ValueUtils.getPropertyValue(record)
+          if (value == null) null else value.toString
+        }
 
         val values = Seq(
           userKey,
@@ -0,0 +1,135 @@
+package de.kp.works.aerospike;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import de.kp.works.aerospike.gremlin.AeroConfiguration;
+import de.kp.works.aerospike.gremlin.StorageBackend;
+import de.kp.works.aerospike.gremlin.ValueUtils;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class AeroAdjacencyTest {
+
+    private AeroConnect connect;
+    private AeroAdjacency adjacency;
+
+    @Before
+    public void setUp() {
+        /*
+         * A small chunk size turns the adjacency records
+         * of the test vertices into chunked records
+         */
+        AeroConfiguration config = new AeroConfiguration()
+                .set(AeroConfiguration.Keys.AEROSPIKE_BACKEND, StorageBackend.MEMORY.name())
+                .set(AeroConfiguration.Keys.AEROSPIKE_NAMESPACE, "test")
+                .set(AeroConfiguration.Keys.AEROSPIKE_SET, "adjacency")
+                .set(AeroConfiguration.Keys.AEROSPIKE_ADJACENCY, true)
+                .set(AeroConfiguration.Keys.AEROSPIKE_ADJACENCY_CHUNK_SIZE, 2);
+
+        connect = AeroConnectFactory.getInstance(config);
+        adjacency = new AeroAdjacency(connect);
+
+    }
+
+    @After
+    public void tearDown() {
+        connect.close();
+    }
+
+    @Test
+    public void testIdsOfDifferentTypesDoNotCollide() {
+
+        for (long i = 0; i < 5; i++) adjacency.addEdge(newEdge("long-" + i, 1L, 100L + i));
+        adjacency.addEdge(newEdge("string", "1", "other"));
+
+        assertEquals(edgeIds("long-0", "long-1", "long-2", "long-3", "long-4"), getEdgeIds(1L, Direction.OUT));
+        assertEquals(edgeIds("string"), getEdgeIds("1", Direction.OUT));
+        /*
+         * Integral identifiers are normalized, as they are
+         * by the graph
+         */
+        assertEquals(getEdgeIds(1L, Direction.OUT), getEdgeIds(1, Direction.OUT));
+        assertEquals(edgeIds("long-3"), getEdgeIds(103L, Direction.IN));
+
+    }
+
+    @Test
+    public void testRemovalIsRestrictedToIdType() {
+
+        adjacency.addEdge(newEdge("long", 1L, 2L));
+        adjacency.addEdge(newEdge("string", "1", "2"));
+
+        adjacency.removeEdge(newEdge("string", "1", "2"));
+
+        assertFalse(adjacency.hasEdges("1"));
+        assertFalse(adjacency.hasEdges("2"));
+
+        assertTrue(adjacency.hasEdges(1L));
+        assertEquals(edgeIds("long"), getEdgeIds(2L, Direction.IN));
+
+        adjacency.removeVertex(1L);
+        assertFalse(adjacency.hasEdges(1L));
+
+    }
+
+    private Set<Object> getEdgeIds(Object vertexId, Direction direction) {
+
+        Set<Object> edgeIds = new HashSet<>();
+        adjacency.getEdges(vertexId, direction).forEach(entry -> edgeIds.add(entry.edgeId));
+        /*
+         * The chunks that are read on demand refer to the
+         * same edges as the batch request
+         */
+        Set<Object> iterated = new HashSet<>();
+        Iterator<AeroAdjacencyEntry> entries = adjacency.iterateEdges(vertexId, direction);
+        entries.forEachRemaining(entry -> iterated.add(entry.edgeId));
+
+        assertEquals(edgeIds, iterated);
+        return edgeIds;
+
+    }
+
+    private static Set<Object> edgeIds(Object... edgeIds) {
+
+        Set<Object> result = new HashSet<>();
+        for (Object edgeId : edgeIds) result.add(edgeId);
+
+        return result;
+
+    }
+
+    private static AeroEdgeEntry newEdge(String id, Object fromId, Object toId) {
+
+        long now = System.currentTimeMillis();
+        return new AeroEdgeEntry(null, id, ValueUtils.getValueType(id).name(), "knows",
+                toId.toString(), ValueUtils.getValueType(toId).name(),
+                fromId.toString(), ValueUtils.getValueType(fromId).name(),
+                now, now, null, null, null);
+
+    }
+
+}
@@ -0,0 +1,165 @@
+package de.kp.works.aerospike;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import de.kp.works.aerospike.gremlin.AeroConfiguration;
+import de.kp.works.aerospike.gremlin.AeroEdge;
+import de.kp.works.aerospike.gremlin.AeroGraph;
+import de.kp.works.aerospike.gremlin.AeroVertex;
+import de.kp.works.aerospike.gremlin.StorageBackend;
+import de.kp.works.aerospike.gremlin.StorageLayout;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class AeroBaseTableTest {
+
+    private static final int NUM_THREADS = 8;
+    private static final int NUM_INCREMENTS = 100;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> layouts() {
+        return Arrays.asList(new Object[][] {{StorageLayout.ENTRY}, {StorageLayout.PACKED}});
+    }
+
+    private final StorageLayout layout;
+
+    private AeroGraph graph;
+    private GraphTraversalSource g;
+
+    public AeroBaseTableTest(StorageLayout layout) {
+        this.layout = layout;
+    }
+
+    @Before
+    public void setUp() {
+
+        AeroConfiguration config = new AeroConfiguration()
+                .set(AeroConfiguration.Keys.AEROSPIKE_BACKEND, StorageBackend.MEMORY.name())
+                .set(AeroConfiguration.Keys.AEROSPIKE_NAMESPACE, "test")
+                .set(AeroConfiguration.Keys.AEROSPIKE_SET, "increment")
+                .set(AeroConfiguration.Keys.AEROSPIKE_LAYOUT, layout.name());
+
+        graph = new AeroGraph(config);
+        g = graph.traversal();
+
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        graph.close();
+    }
+
+    @Test
+    public void testIncrementVertex() {
+
+        AeroVertex vertex = (AeroVertex) graph.addVertex(T.id, 1L, T.label, "person", "visits", 10L);
+
+        vertex.incrementProperty("visits", 5L);
+        assertEquals(15L, (long) vertex.value("visits"));
+        /*
+         * The stored value and its index are incremented
+         */
+        assertEquals(Collections.singletonList(1L), g.V().has("visits", 15L).id().toList());
+        assertTrue(g.V().has("visits", 10L).toList().isEmpty());
+
+    }
+
+    @Test
+    public void testIncrementEdge() {
+
+        AeroVertex marko = (AeroVertex) graph.addVertex(T.id, 1L, T.label, "person");
+        AeroVertex josh = (AeroVertex) graph.addVertex(T.id, 2L, T.label, "person");
+
+        AeroEdge edge = (AeroEdge) marko.addEdge("knows", josh, T.id, 10L, "meetings", 1L);
+
+        edge.incrementProperty("meetings", 2L);
+        assertEquals(3L, (long) edge.value("meetings"));
+
+        assertEquals(Collections.singletonList(10L), g.E().has("meetings", 3L).id().toList());
+
+    }
+
+    @Test
+    public void testIncrementOfMissingPropertyFails() {
+
+        AeroVertex vertex = (AeroVertex) graph.addVertex(T.id, 1L, T.label, "person", "name", "marko");
+        /*
+         * A missing property, or one that is not integral,
+         * is not created by an increment
+         */
+        assertThrows(RuntimeException.class, () -> vertex.incrementProperty("visits", 1L));
+        assertThrows(RuntimeException.class, () -> vertex.incrementProperty("name", 1L));
+
+        assertTrue(g.V().has("visits").toList().isEmpty());
+        assertEquals(Collections.singletonList("marko"), g.V().values("name").toList());
+
+    }
+
+    @Test
+    public void testConcurrentIncrementsAreNotLost() throws Exception {
+
+        graph.addVertex(T.id, 1L, T.label, "person", "visits", 0L);
+        /*
+         * Each thread increments its own instance of the
+         * vertex; every increment returns a distinct value
+         */
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < NUM_THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    AeroVertex vertex = new AeroVertex(graph, 1L);
+                    for (int j = 0; j < NUM_INCREMENTS; j++) {
+                        vertex.incrementProperty("visits", 1L);
+                        values.add(vertex.value("visits"));
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) future.get();
+
+        } finally {
+            executor.shutdown();
+        }
+
+        long total = NUM_THREADS * NUM_INCREMENTS;
+
+        assertEquals(total, values.size());
+        assertEquals(Collections.singletonList(1L), g.V().has("visits", total).id().toList());
+
+    }
+
+}
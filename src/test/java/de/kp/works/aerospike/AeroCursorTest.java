@@ -0,0 +1,119 @@
+package de.kp.works.aerospike;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.Key;
+import de.kp.works.aerospike.metrics.AeroMetrics;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AeroCursorTest {
+
+    @Test
+    public void testClosingHandleClosesCursor() throws Exception {
+
+        AeroCursor cursor = new AeroCursor(1, AeroMetrics.DISABLED);
+        CompletableFuture<Boolean> reader = read(cursor, 100);
+
+        Iterator<KeyRecord> handle = cursor.handle();
+        assertTrue(handle.hasNext());
+
+        ((Closeable) handle).close();
+
+        assertTrue(cursor.isClosed());
+        assertFalse(reader.get(10, TimeUnit.SECONDS));
+
+    }
+
+    @Test
+    public void testAbandonedHandleReleasesReader() throws Exception {
+
+        AeroCursor cursor = new AeroCursor(1, AeroMetrics.DISABLED);
+        CompletableFuture<Boolean> reader = read(cursor, 100);
+        /*
+         * The consumer drops the handle without closing it;
+         * the reader is blocked until the handle is collected
+         */
+        consumeFirst(cursor);
+
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (!cursor.isClosed() && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(50L);
+        }
+
+        assertTrue(cursor.isClosed());
+        assertFalse(reader.get(10, TimeUnit.SECONDS));
+
+    }
+
+    @Test
+    public void testSlowConsumerReceivesAllRecords() throws Exception {
+        /*
+         * A reader waits for its consumer; the cursor is not
+         * closed as long as the handle is referenced
+         */
+        AeroCursor cursor = new AeroCursor(1, AeroMetrics.DISABLED);
+        CompletableFuture<Boolean> reader = read(cursor, 3);
+
+        Iterator<KeyRecord> handle = cursor.handle();
+
+        int count = 0;
+        while (handle.hasNext()) {
+            handle.next();
+            count++;
+
+            System.gc();
+            Thread.sleep(50L);
+        }
+
+        assertEquals(3, count);
+        assertTrue(reader.get(10, TimeUnit.SECONDS));
+
+    }
+
+    private static void consumeFirst(AeroCursor cursor) {
+
+        Iterator<KeyRecord> handle = cursor.handle();
+        assertNotNull(handle.next());
+
+    }
+
+    /* A reader that passes `count` records to the cursor */
+    private static CompletableFuture<Boolean> read(AeroCursor cursor, int count) {
+        return CompletableFuture.supplyAsync(() -> {
+
+            for (int i = 0; i < count; i++) {
+                if (!cursor.offer(new KeyRecord(new Key("test", "cursor", i), null)))
+                    return false;
+            }
+
+            cursor.complete(null);
+            return true;
+
+        });
+    }
+
+}
@@ -0,0 +1,264 @@
+package de.kp.works.aerospike;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.query.PartitionFilter;
+import com.aerospike.client.query.PartitionStatus;
+import de.kp.works.aerospike.metrics.AeroMetrics;
+import de.kp.works.aerospike.metrics.AeroProfile;
+import org.junit.Test;
+import scala.collection.JavaConversions;
+import scala.collection.Seq;
+
+import java.io.*;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+public class AeroPartitionScanTest {
+
+    private static final List<String> SETNAMES = Arrays.asList("graph_edges", "graph_vertices");
+    /*
+     * The set of each scanned partition filter
+     */
+    private final Map<PartitionFilter, String> setnames = new IdentityHashMap<>();
+
+    @Test
+    public void testStateSurvivesSerialization() throws Exception {
+
+        AeroScanState state = new AeroScanState();
+        AeroPartitionProgress progress = state.getProgress("graph_edges");
+
+        for (int partition = 0; partition < 100; partition++) progress.setDone(partition);
+        byte[] digest = new Key("test", "graph_edges", "edge").digest;
+        progress.setDigest(100, digest);
+
+        AeroPartitionProgress restored = deserialize(serialize(state)).getProgress("graph_edges");
+
+        assertTrue(restored.isDone(0, 100));
+        assertFalse(restored.isDone(100));
+
+        assertArrayEquals(digest, restored.getDigest(100));
+        assertNull(restored.getDigest(101));
+        /*
+         * A restored scan skips the partitions that are done,
+         * and resumes the others after their last digest
+         */
+        PartitionStatus[] partitions = restored.getFilter(99, 3).getPartitions();
+
+        assertTrue(partitions[0].done);
+        assertFalse(partitions[1].done);
+        assertArrayEquals(digest, partitions[1].digest);
+        assertNull(partitions[2].digest);
+
+    }
+
+    @Test
+    public void testSnapshotIsDetached() {
+
+        AeroScanState state = new AeroScanState();
+        state.getProgress("graph_edges").setDone(0);
+
+        AeroScanState snapshot = state.snapshot();
+        state.getProgress("graph_edges").setDone(1);
+
+        assertTrue(snapshot.getProgress("graph_edges").isDone(0));
+        assertFalse(snapshot.getProgress("graph_edges").isDone(1));
+
+    }
+
+    @Test
+    public void testCheckpointRefersToConsumedRecords() throws Exception {
+
+        AeroScanState state = new AeroScanState();
+        AeroPartitionCursor cursor = new AeroPartitionCursor(state, AeroMetrics.DISABLED);
+
+        Key first = new Key("test", "graph_edges", "first");
+        int partition = Partition.getPartitionId(first.digest);
+
+        Key second = secondKey(partition);
+
+        cursor.offer("graph_edges", first, new Record(new HashMap<>(), 0, 0));
+        cursor.offer("graph_edges", second, new Record(new HashMap<>(), 0, 0));
+        cursor.finish("graph_edges", partition);
+        /*
+         * The scan of the partition is finished, but only one
+         * of its records is consumed
+         */
+        cursor.next();
+
+        AeroScanState checkpoint = deserialize(serialize(cursor.checkpoint()));
+        assertFalse(checkpoint.getProgress("graph_edges").isDone(partition));
+        assertArrayEquals(first.digest, checkpoint.getProgress("graph_edges").getDigest(partition));
+
+        cursor.next();
+
+        checkpoint = deserialize(serialize(cursor.checkpoint()));
+        assertTrue(checkpoint.getProgress("graph_edges").isDone(partition));
+        assertArrayEquals(second.digest, checkpoint.getProgress("graph_edges").getDigest(partition));
+
+        cursor.close();
+
+    }
+
+    @Test
+    public void testSplitsCoverAllPartitions() {
+
+        List<PartitionFilter> scanned = new ArrayList<>();
+        AeroScanState state = new AeroScanState();
+
+        AeroPartitionScan scan = newScan(scanned);
+        Spliterator<KeyRecord> spliterator = scan.spliterator(state);
+
+        assertEquals(SETNAMES.size() * Node.PARTITIONS, spliterator.estimateSize());
+        /*
+         * Split the partitions down to ranges of a single
+         * partition; each range is scanned by its own call
+         */
+        List<Spliterator<KeyRecord>> splits = split(spliterator);
+        assertEquals(SETNAMES.size() * Node.PARTITIONS, splits.size());
+
+        Consumer<KeyRecord> ignore = keyRecord -> { };
+        splits.forEach(split -> split.forEachRemaining(ignore));
+
+        Map<String, int[]> counts = new HashMap<>();
+        for (PartitionFilter filter : scanned) {
+            int[] setCounts = counts.computeIfAbsent(setname(filter), setname -> new int[Node.PARTITIONS]);
+            for (int partition = filter.getBegin(); partition < filter.getBegin() + filter.getCount(); partition++)
+                setCounts[partition]++;
+        }
+
+        assertEquals(new HashSet<>(SETNAMES), counts.keySet());
+        for (int[] setCounts : counts.values()) {
+            for (int count : setCounts) assertEquals(1, count);
+        }
+
+        assertTrue(state.isDone(JavaConversions.asScalaBuffer(SETNAMES)));
+
+    }
+
+    @Test
+    public void testResumedScanSkipsDonePartitions() {
+
+        AeroScanState state = new AeroScanState();
+        for (int partition = 0; partition < Node.PARTITIONS; partition++)
+            state.getProgress("graph_edges").setDone(partition);
+
+        state.getProgress("graph_vertices").setDone(0);
+
+        List<PartitionFilter> scanned = new ArrayList<>();
+        newScan(scanned).spliterator(state).forEachRemaining(keyRecord -> { });
+        /*
+         * The edge set is done and not scanned at all; the scan
+         * of the vertex set skips its first partition
+         */
+        assertEquals(1, scanned.size());
+        assertEquals("graph_vertices", setname(scanned.get(0)));
+
+        PartitionStatus[] partitions = scanned.get(0).getPartitions();
+
+        assertTrue(partitions[0].done);
+        assertFalse(partitions[1].done);
+
+    }
+
+    private String setname(PartitionFilter filter) {
+        return setnames.get(filter);
+    }
+    /**
+     * A scan that records its partition filters instead
+     * of reading them from a cluster
+     */
+    private AeroPartitionScan newScan(List<PartitionFilter> scanned) {
+
+        IAerospikeClient client = (IAerospikeClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{IAerospikeClient.class}, (proxy, method, args) -> {
+
+                    if (!method.getName().equals("scanPartitions") || args.length != 6)
+                        throw new UnsupportedOperationException(method.getName());
+
+                    PartitionFilter filter = (PartitionFilter) args[1];
+                    synchronized (scanned) {
+                        scanned.add(filter);
+                        setnames.put(filter, (String) args[3]);
+                    }
+
+                    return null;
+
+                });
+
+        Seq<String> binNames = JavaConversions.asScalaBuffer(new ArrayList<String>());
+        return new AeroPartitionScan(client, "test", JavaConversions.asScalaBuffer(SETNAMES), binNames,
+                1, null, 0, 0, AeroMetrics.DISABLED, AeroProfile.current());
+
+    }
+
+    private static List<Spliterator<KeyRecord>> split(Spliterator<KeyRecord> spliterator) {
+
+        List<Spliterator<KeyRecord>> splits = new ArrayList<>();
+
+        Spliterator<KeyRecord> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            splits.add(spliterator);
+            return splits;
+        }
+
+        splits.addAll(split(prefix));
+        splits.addAll(split(spliterator));
+
+        return splits;
+
+    }
+
+    private static Key secondKey(int partition) {
+
+        for (int i = 0; ; i++) {
+            Key key = new Key("test", "graph_edges", "second-" + i);
+            if (Partition.getPartitionId(key.digest) == partition) return key;
+        }
+
+    }
+
+    private static byte[] serialize(AeroScanState state) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(state);
+        }
+
+        return bytes.toByteArray();
+
+    }
+
+    private static AeroScanState deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (AeroScanState) input.readObject();
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package de.kp.works.aerospike.gremlin;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.gremlin.AbstractGraphProvider;
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+/**
+ * [AeroGraphProvider] runs the TinkerPop test suites against
+ * the in-memory storage backend; each test graph is backed by
+ * its own store, and is cleared by closing the graph.
+ */
+public class AeroGraphProvider extends AbstractGraphProvider {
+
+    private static final Set<Class> IMPLEMENTATIONS = new HashSet<Class>() {{
+        add(AeroEdge.class);
+        add(AeroGraph.class);
+        add(AeroVertex.class);
+        add(AeroVertexProperty.class);
+        add(GraphElement.class);
+        add(GraphProperty.class);
+    }};
+
+    @Override
+    public Map<String, Object> getBaseConfiguration(String graphName, Class<?> test, String testMethodName,
+                                                    LoadGraphWith.GraphData loadGraphWith) {
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(Graph.GRAPH, AeroGraph.class.getName());
+
+        config.put(AeroConfiguration.Keys.AEROSPIKE_BACKEND, StorageBackend.MEMORY.name());
+        config.put(AeroConfiguration.Keys.AEROSPIKE_NAMESPACE, "test");
+        config.put(AeroConfiguration.Keys.AEROSPIKE_SET, graphName);
+        config.put(AeroConfiguration.Keys.AEROSPIKE_LAYOUT, StorageLayout.PACKED.name());
+
+        config.put(AeroConfiguration.Keys.AEROSPIKE_METRICS, false);
+        return config;
+
+    }
+
+    @Override
+    public void clear(Graph graph, Configuration configuration) throws Exception {
+        if (graph != null) graph.close();
+    }
+
+    @Override
+    public Set<Class> getImplementations() {
+        return IMPLEMENTATIONS;
+    }
+
+}
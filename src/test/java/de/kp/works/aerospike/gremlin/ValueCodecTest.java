@@ -0,0 +1,175 @@
+package de.kp.works.aerospike.gremlin;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import com.google.common.primitives.UnsignedBytes;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ValueCodecTest {
+
+    private static final Comparator<byte[]> UNSIGNED = UnsignedBytes.lexicographicalComparator();
+
+    @Test
+    public void testIntegralOrder() {
+
+        assertOrder(Arrays.asList((byte) -128, (byte) -1, (byte) 0, (byte) 1, (byte) 127));
+        assertOrder(Arrays.asList(Short.MIN_VALUE, (short) -1, (short) 0, (short) 1, Short.MAX_VALUE));
+
+        assertOrder(Arrays.asList(Integer.MIN_VALUE, -65536, -1, 0, 1, 255, 256, Integer.MAX_VALUE));
+        assertOrder(Arrays.asList(Long.MIN_VALUE, (long) Integer.MIN_VALUE - 1, -1L, 0L, 1L,
+                (long) Integer.MAX_VALUE + 1, Long.MAX_VALUE));
+
+    }
+
+    @Test
+    public void testFloatingPointOrder() {
+        /*
+         * The order is the one of Double.compareTo, i.e. -0.0
+         * is less than 0.0, and NaN is greater than all other
+         * values, including positive infinity
+         */
+        assertOrder(Arrays.asList(Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -Double.MIN_VALUE,
+                -0.0, 0.0, Double.MIN_VALUE, 1.0, 1.5, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN));
+
+        assertOrder(Arrays.asList(Float.NEGATIVE_INFINITY, -Float.MAX_VALUE, -1.5f, -Float.MIN_VALUE,
+                -0.0f, 0.0f, Float.MIN_VALUE, 1.0f, 1.5f, Float.MAX_VALUE, Float.POSITIVE_INFINITY, Float.NaN));
+
+    }
+
+    @Test
+    public void testDecimalOrder() {
+        /*
+         * Negative decimals of different scale and exponent,
+         * e.g. -1.55 < -1.5 although the digits of -1.5 are
+         * a prefix of those of -1.55
+         */
+        assertOrder(Arrays.asList(
+                new BigDecimal("-1000"), new BigDecimal("-100.5"), new BigDecimal("-10"),
+                new BigDecimal("-1.55"), new BigDecimal("-1.5"), new BigDecimal("-1"),
+                new BigDecimal("-0.1"), new BigDecimal("-0.01"), new BigDecimal("-0.0015"),
+                BigDecimal.ZERO,
+                new BigDecimal("0.0015"), new BigDecimal("0.01"), new BigDecimal("0.1"),
+                BigDecimal.ONE, new BigDecimal("1.5"), new BigDecimal("1.55"),
+                BigDecimal.TEN, new BigDecimal("100.5"), new BigDecimal("1E+3")));
+
+    }
+
+    @Test
+    public void testDecimalScale() {
+        /*
+         * Decimals that are equal by compareTo have the same
+         * encoding, independent of their scale
+         */
+        assertArrayEquals(ValueCodec.encode(new BigDecimal("1.5")), ValueCodec.encode(new BigDecimal("1.500")));
+        assertArrayEquals(ValueCodec.encode(new BigDecimal("-120")), ValueCodec.encode(new BigDecimal("-1.2E+2")));
+        assertArrayEquals(ValueCodec.encode(BigDecimal.ZERO), ValueCodec.encode(new BigDecimal("0.000")));
+
+        assertDecimal("-1.2E+2");
+        assertDecimal("-0.0015");
+        assertDecimal("123456789012345678901234567890.5");
+
+    }
+
+    @Test
+    public void testTemporalOrder() {
+
+        assertOrder(Arrays.asList(LocalDate.MIN, LocalDate.of(1969, 12, 31), LocalDate.of(1970, 1, 1),
+                LocalDate.of(2021, 6, 1), LocalDate.MAX));
+
+        assertOrder(Arrays.asList(LocalTime.MIN, LocalTime.NOON, LocalTime.MAX));
+
+        assertOrder(Arrays.asList(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999999999),
+                LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.of(1970, 1, 1, 0, 0, 0, 1)));
+
+        assertOrder(Arrays.asList(Duration.ofSeconds(-1, 0), Duration.ofSeconds(-1, 1), Duration.ZERO,
+                Duration.ofNanos(1), Duration.ofSeconds(1)));
+
+    }
+
+    @Test
+    public void testStringOrder() {
+        assertOrder(Arrays.asList("", "A", "AB", "B", "a", "ab", "\u00e4", "\u4e2d"));
+    }
+
+    @Test
+    public void testIdNormalization() {
+        /*
+         * Integral identifiers refer to the same element,
+         * independent of their boxed type
+         */
+        byte[] id = ValueCodec.encodeId(1L);
+
+        assertArrayEquals(id, ValueCodec.encodeId(1));
+        assertArrayEquals(id, ValueCodec.encodeId((short) 1));
+        assertArrayEquals(id, ValueCodec.encodeId((byte) 1));
+
+        assertFalse(Arrays.equals(id, ValueCodec.encodeId("1")));
+        assertFalse(Arrays.equals(id, ValueCodec.encodeId(1.0)));
+
+        assertEquals(1L, ValueCodec.decode(ValueCodec.encodeId(1)));
+
+        assertIdOrder(Integer.MIN_VALUE, -1L);
+        assertIdOrder(-1, 0L);
+        assertIdOrder(Integer.MAX_VALUE, (long) Integer.MAX_VALUE + 1);
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> void assertOrder(List<T> values) {
+
+        for (T left : values) {
+            byte[] encodedLeft = ValueCodec.encode(left);
+            assertEquals(left.toString(), 0, left.compareTo((T) ValueCodec.decode(encodedLeft)));
+
+            for (T right : values) {
+                byte[] encodedRight = ValueCodec.encode(right);
+
+                int expected = Integer.signum(left.compareTo(right));
+                String message = left + " <> " + right;
+
+                assertEquals(message, expected, Integer.signum(UNSIGNED.compare(encodedLeft, encodedRight)));
+                assertEquals(message, expected, Integer.signum(ValueCodec.compare(encodedLeft, encodedRight)));
+            }
+        }
+
+    }
+
+    private static void assertIdOrder(Integer left, Long right) {
+        assertTrue(UNSIGNED.compare(ValueCodec.encodeId(left), ValueCodec.encodeId(right)) < 0);
+    }
+
+    private static void assertDecimal(String value) {
+
+        BigDecimal decimal = new BigDecimal(value);
+        assertEquals(0, decimal.compareTo((BigDecimal) ValueCodec.decode(ValueCodec.encode(decimal))));
+
+    }
+
+}
@@ -0,0 +1,154 @@
+package de.kp.works.aerospike.gremlin.models;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+
+import de.kp.works.aerospike.AeroProjection;
+import de.kp.works.aerospike.gremlin.AeroConfiguration;
+import de.kp.works.aerospike.gremlin.AeroGraph;
+import de.kp.works.aerospike.gremlin.AeroVertex;
+import de.kp.works.aerospike.gremlin.StorageBackend;
+import de.kp.works.aerospike.gremlin.StorageLayout;
+import de.kp.works.aerospike.metrics.AeroProfile;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class EdgeModelTest {
+    /*
+     * More adjacent vertices than are loaded with
+     * a single query
+     */
+    private static final int NUM_VERTICES = 250;
+
+    private AeroGraph graph;
+
+    @Before
+    public void setUp() {
+
+        AeroConfiguration config = new AeroConfiguration()
+                .set(AeroConfiguration.Keys.AEROSPIKE_BACKEND, StorageBackend.MEMORY.name())
+                .set(AeroConfiguration.Keys.AEROSPIKE_NAMESPACE, "test")
+                .set(AeroConfiguration.Keys.AEROSPIKE_SET, "models")
+                .set(AeroConfiguration.Keys.AEROSPIKE_LAYOUT, StorageLayout.PACKED.name());
+
+        graph = new AeroGraph(config);
+
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        graph.close();
+    }
+
+    @Test
+    public void testAdjacentVerticesAreLoadedInBatches() {
+
+        Vertex vertex = graph.addVertex(T.id, 0L, T.label, "person");
+        for (long i = 1; i <= NUM_VERTICES; i++) {
+            Vertex other = graph.addVertex(T.id, i, T.label, "person", "rank", i);
+            vertex.addEdge("knows", other);
+        }
+
+        Set<Object> ids = new HashSet<>();
+        Iterator<Vertex> vertices = graph.vertices(0L).next().vertices(Direction.OUT, "knows");
+
+        while (vertices.hasNext()) {
+            Vertex other = vertices.next();
+            assertEquals(other.id(), other.value("rank"));
+
+            assertTrue(ids.add(other.id()));
+        }
+
+        assertEquals(NUM_VERTICES, ids.size());
+
+    }
+
+    @Test
+    public void testClosingAdjacentVerticesStopsReading() {
+
+        Vertex vertex = graph.addVertex(T.id, 0L, T.label, "person");
+        for (long i = 1; i <= NUM_VERTICES; i++) {
+            vertex.addEdge("knows", graph.addVertex(T.id, i, T.label, "person"));
+        }
+
+        Iterator<Vertex> vertices = graph.vertices(0L).next().vertices(Direction.OUT, "knows");
+        assertTrue(vertices.hasNext());
+        vertices.next();
+        /*
+         * The remaining edges are not consumed, and closing
+         * the iterator releases the underlying cursor
+         */
+        assertTrue(vertices instanceof CloseableIterator);
+        CloseableIterator.closeIterator(vertices);
+
+    }
+
+    @Test
+    public void testLimitedAdjacentVerticesReadLeadingChunks() throws Exception {
+        /*
+         * A small chunk size turns the adjacency of the
+         * vertex into a supernode with many chunks
+         */
+        AeroConfiguration config = new AeroConfiguration()
+                .set(AeroConfiguration.Keys.AEROSPIKE_BACKEND, StorageBackend.MEMORY.name())
+                .set(AeroConfiguration.Keys.AEROSPIKE_NAMESPACE, "test")
+                .set(AeroConfiguration.Keys.AEROSPIKE_SET, "chunks")
+                .set(AeroConfiguration.Keys.AEROSPIKE_LAYOUT, StorageLayout.PACKED.name())
+                .set(AeroConfiguration.Keys.AEROSPIKE_ADJACENCY, true)
+                .set(AeroConfiguration.Keys.AEROSPIKE_ADJACENCY_CHUNK_SIZE, 2);
+
+        try (AeroGraph adjacencyGraph = new AeroGraph(config)) {
+
+            Vertex vertex = adjacencyGraph.addVertex(T.id, 0L, T.label, "person");
+            for (long i = 1; i <= NUM_VERTICES; i++) {
+                vertex.addEdge("knows", adjacencyGraph.addVertex(T.id, i, T.label, "person"));
+            }
+
+            AeroProfile profile = new AeroProfile();
+            Set<Object> ids = new HashSet<>();
+
+            try (AeroProfile.Scope ignored = profile.activate()) {
+                adjacencyGraph.getEdgeModel()
+                        .vertices((AeroVertex) vertex, Direction.OUT, AeroProjection.ALL, 2, "knows")
+                        .forEachRemaining(other -> ids.add(other.id()));
+            }
+
+            assertEquals(2, ids.size());
+            /*
+             * The header, the chunks of the first two edges and
+             * the two vertices are read, and not all chunks
+             */
+            assertTrue(profile.getRecords() < 10);
+
+        }
+
+    }
+
+}
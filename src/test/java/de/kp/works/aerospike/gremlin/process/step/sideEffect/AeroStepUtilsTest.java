@@ -0,0 +1,158 @@
+package de.kp.works.aerospike.gremlin.process.step.sideEffect;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AeroStepUtilsTest {
+
+    @Test
+    public void testRangeOfLowerAndUpperBound() {
+
+        HasContainer lower = new HasContainer("age", P.gte(28));
+        HasContainer upper = new HasContainer("age", P.lt(33));
+
+        List<HasContainer> hasContainers = Arrays.asList(
+                new HasContainer(T.label.getAccessor(), P.eq("person")), lower, upper);
+
+        AeroStepUtils.Range range = AeroStepUtils.getRange(hasContainers);
+        assertNotNull(range);
+
+        assertEquals("age", range.key);
+
+        assertEquals(28, range.from);
+        assertTrue(range.fromInclusive);
+
+        assertEquals(33, range.to);
+        assertFalse(range.toInclusive);
+
+        assertEquals(Arrays.asList(lower, upper), range.hasContainers);
+        assertEquals(Collections.singletonList(hasContainers.get(0)), range.getRemaining(hasContainers));
+
+    }
+
+    @Test
+    public void testRangeOfSingleBound() {
+
+        AeroStepUtils.Range range = AeroStepUtils.getRange(
+                Collections.singletonList(new HasContainer("age", P.lte(29))));
+
+        assertNotNull(range);
+        assertNull(range.from);
+
+        assertEquals(29, range.to);
+        assertTrue(range.toInclusive);
+
+        range = AeroStepUtils.getRange(
+                Collections.singletonList(new HasContainer("age", P.gt(29))));
+
+        assertNotNull(range);
+        assertNull(range.to);
+
+        assertEquals(29, range.from);
+        assertFalse(range.fromInclusive);
+
+    }
+
+    @Test
+    public void testRangeIsRestrictedToOneKeyAndBoundPair() {
+        /*
+         * The range refers to the first key with a bound;
+         * further bounds of this key, and the bounds of
+         * other keys remain filters
+         */
+        List<HasContainer> hasContainers = Arrays.asList(
+                new HasContainer("age", P.gt(27)),
+                new HasContainer("weight", P.lt(1.0)),
+                new HasContainer("age", P.gt(29)),
+                new HasContainer("age", P.lt(35)));
+
+        AeroStepUtils.Range range = AeroStepUtils.getRange(hasContainers);
+        assertNotNull(range);
+
+        assertEquals("age", range.key);
+        assertEquals(27, range.from);
+        assertEquals(35, range.to);
+
+        assertEquals(Arrays.asList(hasContainers.get(1), hasContainers.get(2)), range.getRemaining(hasContainers));
+
+    }
+
+    @Test
+    public void testNoRange() {
+
+        assertNull(AeroStepUtils.getRange(Collections.emptyList()));
+        assertNull(AeroStepUtils.getRange(Arrays.asList(
+                new HasContainer("name", P.eq("marko")),
+                new HasContainer("age", P.neq(29)),
+                new HasContainer("age", P.outside(28, 33)))));
+        /*
+         * Hidden keys and `null` bounds are not evaluated
+         * by range queries
+         */
+        assertNull(AeroStepUtils.getRange(Arrays.asList(
+                new HasContainer(T.id.getAccessor(), P.gt(1L)),
+                new HasContainer("age", P.gt(null)))));
+
+    }
+
+    @Test
+    public void testLimitWithoutFilters() {
+        assertEquals(10, AeroStepUtils.getLimit(10, Collections.emptyList(), null));
+        assertEquals(10, AeroStepUtils.getLimit(10, Collections.emptyList(), "person"));
+    }
+
+    @Test
+    public void testLimitWithLabelOfQuery() {
+        /*
+         * The label condition is evaluated by the label
+         * query and does not reject any element
+         */
+        List<HasContainer> filters = Collections.singletonList(
+                new HasContainer(T.label.getAccessor(), P.eq("person")));
+
+        assertEquals(10, AeroStepUtils.getLimit(10, filters, "person"));
+        assertEquals(-1, AeroStepUtils.getLimit(10, filters, "software"));
+        assertEquals(-1, AeroStepUtils.getLimit(10, filters, null));
+
+    }
+
+    @Test
+    public void testLimitIsDroppedForFilters() {
+
+        List<HasContainer> filters = Arrays.asList(
+                new HasContainer(T.label.getAccessor(), P.eq("person")),
+                new HasContainer("name", P.neq("josh")));
+
+        assertEquals(-1, AeroStepUtils.getLimit(10, filters, "person"));
+        assertEquals(-1, AeroStepUtils.getLimit(10, Collections.singletonList(
+                new HasContainer(T.label.getAccessor(), P.within("person", "software"))), "person"));
+
+    }
+
+}
@@ -0,0 +1,327 @@
+package de.kp.works.aerospike.gremlin.process.strategy.optimization;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import de.kp.works.aerospike.gremlin.AeroConfiguration;
+import de.kp.works.aerospike.gremlin.AeroGraph;
+import de.kp.works.aerospike.gremlin.StorageBackend;
+import de.kp.works.aerospike.gremlin.StorageLayout;
+import de.kp.works.aerospike.gremlin.process.step.sideEffect.AeroGraphStep;
+import de.kp.works.aerospike.gremlin.process.step.sideEffect.AeroVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+/**
+ * The traversals are rewritten and evaluated against the
+ * in-memory storage backend, in both storage layouts.
+ */
+@RunWith(Parameterized.class)
+public class AeroStepStrategyTest {
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> layouts() {
+        return Arrays.asList(new Object[][] {{StorageLayout.ENTRY}, {StorageLayout.PACKED}});
+    }
+
+    @Parameterized.Parameter
+    public StorageLayout layout;
+
+    private AeroGraph graph;
+    private GraphTraversalSource g;
+
+    @Before
+    public void setUp() {
+
+        AeroConfiguration config = new AeroConfiguration()
+                .set(AeroConfiguration.Keys.AEROSPIKE_BACKEND, StorageBackend.MEMORY.name())
+                .set(AeroConfiguration.Keys.AEROSPIKE_NAMESPACE, "test")
+                .set(AeroConfiguration.Keys.AEROSPIKE_SET, "strategy")
+                .set(AeroConfiguration.Keys.AEROSPIKE_LAYOUT, layout.name());
+
+        graph = new AeroGraph(config);
+        g = graph.traversal();
+
+        Vertex marko = graph.addVertex(T.id, 1L, T.label, "person", "name", "marko", "age", 29);
+        Vertex vadas = graph.addVertex(T.id, 2L, T.label, "person", "name", "vadas", "age", 27);
+        Vertex lop = graph.addVertex(T.id, 3L, T.label, "software", "name", "lop", "lang", "java");
+        Vertex josh = graph.addVertex(T.id, 4L, T.label, "person", "name", "josh", "age", 32);
+        Vertex ripple = graph.addVertex(T.id, 5L, T.label, "software", "name", "ripple", "lang", "java");
+        Vertex peter = graph.addVertex(T.id, 6L, T.label, "person", "name", "peter", "age", 35);
+
+        marko.addEdge("knows", vadas, "weight", 0.5);
+        marko.addEdge("knows", josh, "weight", 1.0);
+        marko.addEdge("created", lop, "weight", 0.4);
+        josh.addEdge("created", ripple, "weight", 1.0);
+        josh.addEdge("created", lop, "weight", 0.4);
+        peter.addEdge("created", lop, "weight", 0.2);
+
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        graph.close();
+    }
+
+    @Test
+    public void testHasIsFoldedIntoGraphStep() {
+
+        Traversal.Admin<?, ?> traversal = g.V().hasLabel("person").has("name", "marko").asAdmin();
+        traversal.applyStrategies();
+
+        assertEquals(Collections.singletonList(AeroGraphStep.class), getStepClasses(traversal));
+
+        AeroGraphStep<?, ?> step = (AeroGraphStep<?, ?>) traversal.getStartStep();
+        assertEquals(Arrays.asList(T.label.getAccessor(), "name"), getKeys(step.getHasContainers()));
+
+        for (HasContainer hasContainer : step.getHasContainers())
+            assertEquals(Compare.eq, hasContainer.getBiPredicate());
+
+    }
+
+    @Test
+    public void testPropertyLookup() {
+
+        assertEquals(ids(1L), ids(g.V().has("name", "marko").id().toList()));
+        assertEquals(ids(4L), ids(g.V().hasLabel("person").has("name", "josh").id().toList()));
+
+        assertEquals(ids(3L, 5L), ids(g.V().hasLabel("software").has("lang", "java").id().toList()));
+        assertEquals(ids(), ids(g.V().has("name", "unknown").id().toList()));
+
+    }
+
+    @Test
+    public void testRemainingContainersAreFilters() {
+        /*
+         * The query evaluates a single property; the label
+         * and all other properties are filtered by the step
+         */
+        assertEquals(ids(), ids(g.V().hasLabel("person").has("name", "lop").id().toList()));
+        assertEquals(ids(3L), ids(g.V().hasLabel("software").has("name", "lop").id().toList()));
+
+        assertEquals(ids(), ids(g.V().has("name", "marko").has("age", 30).id().toList()));
+        assertEquals(ids(1L), ids(g.V().has("name", "marko").has("age", 29).id().toList()));
+
+    }
+
+    @Test
+    public void testBetweenIsSplitIntoBounds() {
+
+        Traversal.Admin<?, ?> traversal = g.V().hasLabel("person").has("age", P.between(28, 33)).asAdmin();
+        traversal.applyStrategies();
+
+        assertEquals(Collections.singletonList(AeroGraphStep.class), getStepClasses(traversal));
+
+        List<HasContainer> hasContainers = ((AeroGraphStep<?, ?>) traversal.getStartStep()).getHasContainers();
+        assertEquals(Arrays.asList(T.label.getAccessor(), "age", "age"), getKeys(hasContainers));
+
+        assertEquals(Compare.gte, hasContainers.get(1).getBiPredicate());
+        assertEquals(28, hasContainers.get(1).getValue());
+
+        assertEquals(Compare.lt, hasContainers.get(2).getBiPredicate());
+        assertEquals(33, hasContainers.get(2).getValue());
+
+    }
+
+    @Test
+    public void testInsideIsSplitIntoBounds() {
+
+        Traversal.Admin<?, ?> traversal = g.V(1L).outE("knows").has("weight", P.inside(0.1, 0.9)).asAdmin();
+        traversal.applyStrategies();
+
+        assertEquals(Arrays.asList(AeroGraphStep.class, AeroVertexStep.class), getStepClasses(traversal));
+
+        List<HasContainer> hasContainers = ((AeroVertexStep<?>) traversal.getEndStep()).getHasContainers();
+        assertEquals(Arrays.asList("weight", "weight"), getKeys(hasContainers));
+
+        assertEquals(Compare.gt, hasContainers.get(0).getBiPredicate());
+        assertEquals(Compare.lt, hasContainers.get(1).getBiPredicate());
+
+    }
+
+    @Test
+    public void testVertexRange() {
+
+        assertEquals(ids(1L, 4L), ids(g.V().hasLabel("person").has("age", P.between(29, 33)).id().toList()));
+        assertEquals(ids(1L), ids(g.V().hasLabel("person").has("age", P.between(29, 32)).id().toList()));
+        assertEquals(ids(1L), ids(g.V().hasLabel("person").has("age", P.inside(27, 32)).id().toList()));
+
+        assertEquals(ids(6L), ids(g.V().has("age", P.gt(32)).id().toList()));
+        assertEquals(ids(4L, 6L), ids(g.V().has("age", P.gte(32)).id().toList()));
+
+        assertEquals(ids(2L), ids(g.V().has("age", P.lt(29)).id().toList()));
+        assertEquals(ids(1L, 2L), ids(g.V().has("age", P.lte(29)).id().toList()));
+        /*
+         * `outside` is no `and` combination of bounds and
+         * is evaluated as a filter
+         */
+        assertEquals(ids(2L, 6L), ids(g.V().hasLabel("person").has("age", P.outside(28, 33)).id().toList()));
+
+    }
+
+    @Test
+    public void testRemainingBoundsAreFilters() {
+        /*
+         * The range query evaluates a single lower and upper
+         * bound; the others are filtered by the step
+         */
+        assertEquals(ids(4L), ids(g.V().has("age", P.gt(27)).has("age", P.gt(29)).has("age", P.lt(35)).id().toList()));
+        assertEquals(ids(4L), ids(g.V().has("age", P.between(29, 35)).has("name", "josh").id().toList()));
+
+    }
+
+    @Test
+    public void testEdgeRange() {
+
+        assertEquals(ids(2L, 4L), ids(g.V(1L).outE("knows").has("weight", P.between(0.5, 1.5)).inV().id().toList()));
+        assertEquals(ids(2L), ids(g.V(1L).outE("knows").has("weight", P.between(0.5, 1.0)).inV().id().toList()));
+        assertEquals(ids(2L), ids(g.V(1L).outE("knows").has("weight", P.inside(0.1, 0.9)).inV().id().toList()));
+
+        assertEquals(ids(4L), ids(g.V(3L).inE("created").has("weight", P.gt(0.2)).has("weight", P.lte(0.4)).outV()
+                .has("name", "josh").id().toList()));
+        assertEquals(ids(1L, 4L, 6L), ids(g.V(3L).inE().has("weight", P.lt(1.0)).outV().id().toList()));
+
+    }
+
+    @Test
+    public void testLimitIsPushedDown() {
+        /*
+         * The step reads at most `limit` elements; the limit
+         * step remains to restrict the traversers
+         */
+        Traversal.Admin<?, ?> traversal = g.V().hasLabel("person").limit(2).asAdmin();
+        traversal.applyStrategies();
+
+        assertEquals(Arrays.asList(AeroGraphStep.class, RangeGlobalStep.class), getStepClasses(traversal));
+        assertEquals(2, ((AeroGraphStep<?, ?>) traversal.getStartStep()).getLimit());
+
+        traversal = g.V().range(1, 3).asAdmin();
+        traversal.applyStrategies();
+
+        assertEquals(3, ((AeroGraphStep<?, ?>) traversal.getStartStep()).getLimit());
+
+        traversal = g.V(1L).out("knows").limit(1).asAdmin();
+        traversal.applyStrategies();
+
+        assertEquals(Arrays.asList(AeroGraphStep.class, AeroVertexStep.class, RangeGlobalStep.class),
+                getStepClasses(traversal));
+
+        assertEquals(-1, ((AeroGraphStep<?, ?>) traversal.getStartStep()).getLimit());
+        assertEquals(1, ((AeroVertexStep<?>) traversal.getSteps().get(1)).getLimit());
+
+    }
+
+    @Test
+    public void testOrderBlocksPushdown() {
+        /*
+         * The queries do not return ordered results, i.e.
+         * the limit must not restrict the elements that
+         * are ordered
+         */
+        Traversal.Admin<?, ?> traversal = g.V().hasLabel("person").order().by("age").limit(2).asAdmin();
+        traversal.applyStrategies();
+
+        assertEquals(Arrays.asList(AeroGraphStep.class, OrderGlobalStep.class, RangeGlobalStep.class),
+                getStepClasses(traversal));
+
+        assertEquals(-1, ((AeroGraphStep<?, ?>) traversal.getStartStep()).getLimit());
+
+        traversal = g.V(1L).outE().order().by("weight").limit(1).asAdmin();
+        traversal.applyStrategies();
+
+        assertEquals(-1, ((AeroVertexStep<?>) traversal.getSteps().get(1)).getLimit());
+
+    }
+
+    @Test
+    public void testLimitedResults() {
+
+        List<Vertex> persons = g.V().hasLabel("person").limit(2).toList();
+        assertEquals(2, persons.size());
+
+        for (Vertex person : persons)
+            assertEquals("person", person.label());
+
+        assertEquals(2L, (long) g.V().range(1, 3).count().next());
+        assertEquals(1L, (long) g.V(1L).out("knows").limit(1).count().next());
+        /*
+         * Edges without labels refer to all edges of the
+         * vertex, with and without a limit
+         */
+        assertEquals(3L, (long) g.V(1L).outE().count().next());
+        assertEquals(2L, (long) g.V(1L).outE().limit(2).count().next());
+
+        assertEquals(Arrays.asList(27, 29), g.V().hasLabel("person").order().by("age").limit(2).values("age").toList());
+        assertEquals(Arrays.asList(35, 32), g.V().hasLabel("person").order().by("age", Order.desc).limit(2).values("age").toList());
+
+        assertEquals(Collections.singletonList(3L), g.V(1L).outE().order().by("weight").limit(1).inV().id().toList());
+
+    }
+
+    @Test
+    public void testLimitWithRemainingFilters() {
+        /*
+         * The filters are evaluated after the query, i.e.
+         * the limit is not passed to the query, as it could
+         * read the rejected elements only
+         */
+        assertEquals(ids(1L, 6L), ids(g.V().hasLabel("person").has("age", P.gt(28)).has("name", P.neq("josh"))
+                .limit(2).id().toList()));
+
+        assertEquals(ids(1L, 6L), ids(g.V().has("age", P.gt(28)).has("name", P.without("josh", "vadas"))
+                .limit(2).id().toList()));
+
+        assertEquals(ids(4L), ids(g.V(1L).out("knows").has("age", P.gt(30)).limit(1).id().toList()));
+
+    }
+
+    private static List<Class<?>> getStepClasses(Traversal.Admin<?, ?> traversal) {
+        return traversal.getSteps().stream().map(Step::getClass).collect(Collectors.toList());
+    }
+
+    private static List<String> getKeys(List<HasContainer> hasContainers) {
+        return hasContainers.stream().map(HasContainer::getKey).collect(Collectors.toList());
+    }
+
+    private static Set<Object> ids(Object... ids) {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+
+    private static Set<Object> ids(List<Object> ids) {
+        return new HashSet<>(ids);
+    }
+
+}
@@ -0,0 +1,205 @@
+package de.kp.works.aerospike.query;
+/*
+ * Copyright (c) 2019 - 2021 Dr. Krusche & Partner PartG. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @author Stefan Krusche, Dr. Krusche & Partner PartG
+ *
+ */
+
+import de.kp.works.aerospike.AeroConnect;
+import de.kp.works.aerospike.AeroConnectFactory;
+import de.kp.works.aerospike.KeyRecord;
+import de.kp.works.aerospike.gremlin.AeroConfiguration;
+import de.kp.works.aerospike.gremlin.Constants;
+import de.kp.works.aerospike.gremlin.StorageBackend;
+import de.kp.works.aerospike.gremlin.StorageLayout;
+import de.kp.works.aerospike.gremlin.exception.GraphException;
+import de.kp.works.aerospike.concurrent.BoundedExecutor;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class AeroQueryTest {
+
+    private AeroConnect connect;
+
+    private BoundedExecutor executor;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() {
+
+        AeroConfiguration config = new AeroConfiguration()
+                .set(AeroConfiguration.Keys.AEROSPIKE_BACKEND, StorageBackend.MEMORY.name())
+                .set(AeroConfiguration.Keys.AEROSPIKE_NAMESPACE, "test")
+                .set(AeroConfiguration.Keys.AEROSPIKE_SET, "query")
+                .set(AeroConfiguration.Keys.AEROSPIKE_LAYOUT, StorageLayout.PACKED.name());
+
+        connect = AeroConnectFactory.getInstance(config);
+        /*
+         * An executor with a single thread and a single queue
+         * slot; both are occupied by reads that block until
+         * the test releases them
+         */
+        executor = new BoundedExecutor("test", "read", 1, 1, false);
+        release = new CountDownLatch(1);
+
+        executor.submit(this::block);
+        executor.submit(this::block);
+
+    }
+
+    @After
+    public void tearDown() {
+
+        release.countDown();
+        executor.shutdown();
+
+        connect.close();
+
+    }
+
+    @Test
+    public void testRejectedReadFailsResult() {
+
+        AeroQuery query = newQuery(Constants.VERTICES, () -> {
+            executor.submit(() -> { });
+            return Collections.emptyIterator();
+        });
+
+        GraphException e = assertThrows(GraphException.class, query::getResult);
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+
+        assertEquals(1, executor.getRejectedCount());
+
+    }
+
+    @Test
+    public void testRejectedReadFailsEntries() {
+
+        Supplier<Iterator<KeyRecord>> reader = () -> {
+            executor.submit(() -> { });
+            return Collections.emptyIterator();
+        };
+
+        assertThrows(GraphException.class, newQuery(Constants.VERTICES, reader)::getVertexEntries);
+        assertThrows(GraphException.class, newQuery(Constants.EDGES, reader)::getEdgeEntries);
+
+    }
+
+    @Test
+    public void testReaderFailureFailsResult() {
+        /*
+         * A cursor re-throws the failure of its reader,
+         * when the consumer reaches the end of the records
+         */
+        AeroQuery query = newQuery(Constants.EDGES, () -> new Iterator<KeyRecord>() {
+            @Override
+            public boolean hasNext() {
+                throw new RuntimeException("Reader failed.");
+            }
+
+            @Override
+            public KeyRecord next() {
+                throw new IllegalStateException();
+            }
+        });
+
+        assertThrows(GraphException.class, query::getResult);
+
+    }
+
+    @Test
+    public void testClosingIteratorClosesCursor() {
+
+        AtomicBoolean closed = new AtomicBoolean(false);
+        Iterator<AeroResult> results = newQuery(Constants.VERTICES, () -> new Cursor(closed)).iterator();
+        /*
+         * The records are read on demand, i.e. an abandoned
+         * iterator must release the cursor when it is closed
+         */
+        assertFalse(closed.get());
+        CloseableIterator.closeIterator(results);
+
+        assertTrue(closed.get());
+
+    }
+
+    @Test
+    public void testExhaustedIteratorClosesCursor() {
+
+        AtomicBoolean closed = new AtomicBoolean(false);
+        Iterator<AeroResult> results = newQuery(Constants.EDGES, () -> new Cursor(closed)).iterator();
+
+        assertFalse(results.hasNext());
+        assertTrue(closed.get());
+
+    }
+
+    private AeroQuery newQuery(String elements, Supplier<Iterator<KeyRecord>> reader) {
+        return new AeroQuery(connect.setname() + "_" + elements, connect) {
+            @Override
+            protected Iterator<KeyRecord> getKeyRecords() {
+                return reader.get();
+            }
+        };
+    }
+
+    private void block() {
+        try {
+            release.await();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* An empty cursor that records whether it is closed */
+    private static class Cursor implements Iterator<KeyRecord>, Closeable {
+
+        private final AtomicBoolean closed;
+
+        Cursor(AtomicBoolean closed) {
+            this.closed = closed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return false;
+        }
+
+        @Override
+        public KeyRecord next() {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
+
+}